@@ -0,0 +1,119 @@
+package bench;
+
+import dao.AvailabilityIndex;
+import dao.BookingDAO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking overlap checks answered by {@link AvailabilityIndex} against the indexed
+ * SQL query in {@link BookingDAO#hasConflictingBooking}.
+ *
+ * The single-room benchmarks are what createBooking pays per request; the sweep
+ * benchmarks check every room for one date range, which is what an availability
+ * search would cost if it asked once per room.
+ *
+ * Run with: java -jar target/benchmarks.jar AvailabilityIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class AvailabilityIndexBenchmark {
+
+    @Param({"2000"})
+    public int rooms;
+
+    @Param({"1000"})
+    public int bookingsPerRoom;
+
+    private AvailabilityIndex index;
+    private BookingDAO bookingDAO;
+    private SplittableRandom random;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start("availability_bench", 4);
+        BenchmarkDatabase.seedRooms(rooms);
+        BenchmarkDatabase.seedGuests(1000);
+        BenchmarkDatabase.seedHistory(rooms, bookingsPerRoom, 42);
+
+        index = AvailabilityIndex.getInstance();
+        index.load();
+        bookingDAO = new BookingDAO();
+        random = new SplittableRandom(7);
+        today = LocalDate.now();
+        System.out.println("Active stays indexed: " + index.size());
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public boolean singleRoomSql() throws SQLException {
+        LocalDate checkIn = nextCheckIn();
+        return bookingDAO.hasConflictingBooking(1 + random.nextInt(rooms),
+                Date.valueOf(checkIn), Date.valueOf(checkIn.plusDays(3)), 0);
+    }
+
+    @Benchmark
+    public boolean singleRoomIndex() {
+        LocalDate checkIn = nextCheckIn();
+        return index.hasConflict(1 + random.nextInt(rooms), checkIn, checkIn.plusDays(3), 0);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int allRoomsSql() throws SQLException {
+        LocalDate checkIn = nextCheckIn();
+        Date in = Date.valueOf(checkIn);
+        Date out = Date.valueOf(checkIn.plusDays(3));
+        int free = 0;
+        for (int room = 1; room <= rooms; room++) {
+            if (!bookingDAO.hasConflictingBooking(room, in, out, 0)) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int allRoomsIndex() {
+        LocalDate checkIn = nextCheckIn();
+        LocalDate checkOut = checkIn.plusDays(3);
+        int free = 0;
+        for (int room = 1; room <= rooms; room++) {
+            if (!index.hasConflict(room, checkIn, checkOut, 0)) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    // Dates near today, where the seeded active stays are
+    private LocalDate nextCheckIn() {
+        return today.plusDays(random.nextInt(-5, 60));
+    }
+}
@@ -0,0 +1,102 @@
+package bench;
+
+import dao.BookingDAO;
+import dao.RoomDAO;
+import model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import service.BookingService;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link BookingService#findAvailableRooms} over thousands of rooms
+ * with a long booking history, with and without the type and price filters.
+ *
+ * {@code anyRoomPerRoomCheck} answers the unfiltered search the way the booking form
+ * could before the search existed: list every room, then ask
+ * {@link BookingDAO#hasConflictingBooking} once per room.
+ *
+ * Run with: java -jar target/benchmarks.jar AvailabilitySearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class AvailabilitySearchBenchmark {
+
+    @Param({"5000"})
+    public int rooms;
+
+    @Param({"200"})
+    public int bookingsPerRoom;
+
+    private BookingService bookingService;
+    private RoomDAO roomDAO;
+    private BookingDAO bookingDAO;
+    private SplittableRandom random;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start("search_bench", 4);
+        BenchmarkDatabase.seedRooms(rooms);
+        BenchmarkDatabase.seedGuests(1000);
+        BenchmarkDatabase.seedHistory(rooms, bookingsPerRoom, 42);
+
+        bookingService = new BookingService();
+        roomDAO = new RoomDAO();
+        bookingDAO = new BookingDAO();
+        random = new SplittableRandom(7);
+        today = LocalDate.now();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public List<Room> anyRoom() {
+        LocalDate checkIn = today.plusDays(random.nextInt(0, 60));
+        return bookingService.findAvailableRooms(null, Date.valueOf(checkIn), Date.valueOf(checkIn.plusDays(3)), null);
+    }
+
+    @Benchmark
+    public List<Room> deluxeUnder200() {
+        LocalDate checkIn = today.plusDays(random.nextInt(0, 60));
+        return bookingService.findAvailableRooms("Deluxe", Date.valueOf(checkIn), Date.valueOf(checkIn.plusDays(3)), 200.0);
+    }
+
+    @Benchmark
+    public List<Room> anyRoomPerRoomCheck() throws SQLException {
+        LocalDate checkIn = today.plusDays(random.nextInt(0, 60));
+        Date in = Date.valueOf(checkIn);
+        Date out = Date.valueOf(checkIn.plusDays(3));
+        List<Room> free = new ArrayList<>();
+        for (Room room : roomDAO.getAllRooms()) {
+            if (!"Maintenance".equals(room.getStatus()) && !bookingDAO.hasConflictingBooking(room.getId(), in, out, 0)) {
+                free.add(room);
+            }
+        }
+        return free;
+    }
+}
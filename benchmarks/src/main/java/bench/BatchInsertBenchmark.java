@@ -0,0 +1,111 @@
+package bench;
+
+import dao.PaymentDAO;
+import dao.RoomDAO;
+import model.Payment;
+import model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a group of rows one auto-committed INSERT at a time against the batched
+ * {@code saveAll} methods, which send one JDBC batch and one commit per chunk.
+ *
+ * The room benchmarks insert {@code rows} new rooms per call; the payment benchmarks
+ * insert {@code rows} payments for existing bookings, which also maintain the daily
+ * revenue rollup.
+ *
+ * Run with: java -jar target/benchmarks.jar BatchInsertBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class BatchInsertBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    private RoomDAO roomDAO;
+    private PaymentDAO paymentDAO;
+    private int nextRoom;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start("batch_bench", 4);
+        BenchmarkDatabase.seedRooms(100);
+        BenchmarkDatabase.seedGuests(100);
+        BenchmarkDatabase.seedHistory(100, 10, 42);
+        roomDAO = new RoomDAO();
+        paymentDAO = new PaymentDAO();
+        nextRoom = 1_000_000;
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public int roomsOneByOne() throws SQLException {
+        int last = 0;
+        for (Room room : newRooms()) {
+            last = roomDAO.saveRoom(room);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public int[] roomsBatched() throws SQLException {
+        return roomDAO.saveAll(newRooms());
+    }
+
+    @Benchmark
+    public int paymentsOneByOne() throws SQLException {
+        int last = 0;
+        for (Payment payment : newPayments()) {
+            last = paymentDAO.savePayment(payment);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public int[] paymentsBatched() throws SQLException {
+        return paymentDAO.saveAll(newPayments());
+    }
+
+    private List<Room> newRooms() {
+        List<Room> rooms = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int index = nextRoom++;
+            rooms.add(new Room(BenchmarkDatabase.roomNumber(index),
+                    BenchmarkDatabase.ROOM_TYPES[index % 3], BenchmarkDatabase.ROOM_PRICES[index % 3], "Available"));
+        }
+        return rooms;
+    }
+
+    private List<Payment> newPayments() {
+        List<Payment> payments = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            payments.add(new Payment(1 + i % 1000, 10.0, "Cash"));
+        }
+        return payments;
+    }
+}
@@ -0,0 +1,186 @@
+package bench;
+
+import dao.AvailabilityIndex;
+import dao.DatabaseManager;
+import dao.RevenueRollupDAO;
+import tools.DatasetGenerator;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Starts the application's persistence layer on an in-memory H2 database and
+ * seeds it with rooms and guests for the benchmarks.
+ *
+ * Each JMH fork is a fresh JVM, so every benchmark gets its own database.
+ */
+final class BenchmarkDatabase {
+
+    static final String[] ROOM_TYPES = {"Standard", "Deluxe", "Suite"};
+    static final double[] ROOM_PRICES = {100.0, 150.0, 250.0};
+    // H2 would otherwise hand back the previous result of a repeated query when no table
+    // changed in between, and a benchmark calling with the same parameters would time that
+    static final String NO_RESULT_REUSE = ";OPTIMIZE_REUSE_RESULTS=FALSE";
+
+    private BenchmarkDatabase() {
+    }
+
+    static void start(String name, int maxPoolSize) throws SQLException {
+        System.setProperty("hotel.db.profile", "h2");
+        System.setProperty("hotel.db.url", "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1" + NO_RESULT_REUSE);
+        System.setProperty("hotel.db.pool.maxSize", String.valueOf(maxPoolSize));
+        System.setProperty("hotel.db.pool.minSize", String.valueOf(Math.min(4, maxPoolSize)));
+        System.setProperty("hotel.db.sampleData", "false");
+        DatabaseManager.initializeDatabase();
+    }
+
+    static void stop() {
+        DatabaseManager.closeConnection();
+    }
+
+    // Rooms are numbered R000001.. and cycle through the room types
+    static void seedRooms(int count) throws SQLException {
+        String sql = "INSERT INTO rooms (room_number, type, price, status) VALUES (?, ?, ?, 'Available')";
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                pstmt.setString(1, roomNumber(i));
+                pstmt.setString(2, ROOM_TYPES[i % ROOM_TYPES.length]);
+                pstmt.setDouble(3, ROOM_PRICES[i % ROOM_PRICES.length]);
+                pstmt.addBatch();
+                if (i % 1000 == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    // Guests are named guest000001..
+    static void seedGuests(int count) throws SQLException {
+        String sql = "INSERT INTO users (username, password, role, fullname) VALUES (?, 'guest123', 'guest', ?)";
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                pstmt.setString(1, guestName(i));
+                pstmt.setString(2, "Guest " + i);
+                pstmt.addBatch();
+                if (i % 1000 == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    // Rooms 1..rooms each get a back-to-back history of stays ending a few months from now.
+    // Past stays are checked out (one in ten cancelled), the current one is checked in
+    // and future ones are booked. Every booking has one payment on its check-in day, and
+    // active ones hold their room nights.
+    static void seedHistory(int rooms, int bookingsPerRoom, long randomSeed) throws SQLException {
+        SplittableRandom seed = new SplittableRandom(randomSeed);
+        LocalDate now = LocalDate.now();
+        String bookingSql = "INSERT INTO bookings (guest_id, room_id, check_in_date, check_out_date, total_price, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+        String paymentSql = "INSERT INTO payments (booking_id, amount, payment_date, method) VALUES (?, ?, ?, ?)";
+        String nightSql = "INSERT INTO room_nights (room_id, night, booking_id) VALUES (?, ?, ?)";
+        String[] methods = {"Cash", "Credit Card", "Debit Card"};
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement bookings = conn.prepareStatement(bookingSql);
+             PreparedStatement payments = conn.prepareStatement(paymentSql);
+             PreparedStatement roomNights = conn.prepareStatement(nightSql)) {
+            conn.setAutoCommit(false);
+
+            int bookingId = 0;
+            for (int room = 1; room <= rooms; room++) {
+                double price = ROOM_PRICES[room % ROOM_PRICES.length];
+                // Stays average three days including gaps, so the history ends about 90 days out
+                LocalDate checkIn = now.minusDays(bookingsPerRoom * 3L - 90).plusDays(seed.nextInt(3));
+
+                for (int i = 0; i < bookingsPerRoom; i++) {
+                    int nights = 1 + seed.nextInt(4);
+                    LocalDate checkOut = checkIn.plusDays(nights);
+                    String status;
+                    if (checkOut.isBefore(now)) {
+                        status = seed.nextInt(10) == 0 ? "Cancelled" : "Checked Out";
+                    } else if (checkIn.isAfter(now)) {
+                        status = "Booked";
+                    } else {
+                        status = "Checked In";
+                    }
+
+                    bookings.setInt(1, 1 + seed.nextInt(1000));
+                    bookings.setInt(2, room);
+                    bookings.setDate(3, Date.valueOf(checkIn));
+                    bookings.setDate(4, Date.valueOf(checkOut));
+                    bookings.setDouble(5, price * nights);
+                    bookings.setString(6, status);
+                    bookings.addBatch();
+
+                    // Fresh database, so generated ids follow insert order
+                    payments.setInt(1, ++bookingId);
+                    payments.setDouble(2, price * nights);
+                    payments.setTimestamp(3, Timestamp.valueOf(checkIn.atTime(8 + seed.nextInt(12), seed.nextInt(60))));
+                    payments.setString(4, methods[seed.nextInt(methods.length)]);
+                    payments.addBatch();
+
+                    if (AvailabilityIndex.isActiveStatus(status)) {
+                        for (int night = 0; night < nights; night++) {
+                            roomNights.setInt(1, room);
+                            roomNights.setDate(2, Date.valueOf(checkIn.plusDays(night)));
+                            roomNights.setInt(3, bookingId);
+                            roomNights.addBatch();
+                        }
+                    }
+
+                    checkIn = checkOut.plusDays(seed.nextInt(2));
+                }
+
+                bookings.executeBatch();
+                payments.executeBatch();
+                roomNights.executeBatch();
+                conn.commit();
+            }
+            conn.setAutoCommit(true);
+        }
+        new RevenueRollupDAO().rebuild();
+        AvailabilityIndex.getInstance().load();
+    }
+
+    // Seed a realistic hotel with tools.DatasetGenerator; rooms and guests use the same
+    // numbering as seedRooms and seedGuests
+    static DatasetGenerator.Summary seedDataset(DatasetGenerator.Spec spec) throws SQLException {
+        DatasetGenerator.Summary summary = new DatasetGenerator(spec).generate();
+        System.out.println("Seeded " + summary);
+        return summary;
+    }
+
+    // Remove all bookings, payments and room nights, mark every room available again
+    static void resetBookings() throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM payments");
+            stmt.executeUpdate("DELETE FROM revenue_delta");
+            stmt.executeUpdate("DELETE FROM revenue_daily");
+            stmt.executeUpdate("DELETE FROM room_nights");
+            stmt.executeUpdate("DELETE FROM bookings");
+            stmt.executeUpdate("UPDATE rooms SET status = 'Available'");
+        }
+        AvailabilityIndex.getInstance().load();
+    }
+
+    static String roomNumber(int index) {
+        return DatasetGenerator.roomNumber(index);
+    }
+
+    static String guestName(int index) {
+        return DatasetGenerator.guestName(index);
+    }
+}
@@ -0,0 +1,53 @@
+package bench;
+
+import org.openjdk.jmh.Main;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar: the JMH command line, but every run also writes
+ * its results as JSON so two runs can be compared (e.g. with jmh.morethan.io or a
+ * diff of the "primaryMetric" scores).
+ *
+ * Results go to results/jmh-yyyyMMdd-HHmmss.json unless the command line already
+ * chooses a result format or file with -rf / -rff. All other JMH options work as usual:
+ *
+ *     java -jar target/benchmarks.jar DaoMappingBenchmark -p rooms=5000
+ *     java -jar target/benchmarks.jar -rf csv -rff before.csv
+ */
+public final class BenchmarkRunner {
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf") && !options.contains("-rff") && !isInfoOnly(options)) {
+            Path results = resultFile();
+            options.addAll(List.of("-rf", "json", "-rff", results.toString()));
+            System.out.println("Writing results to " + results.toAbsolutePath());
+        }
+        Main.main(options.toArray(new String[0]));
+    }
+
+    // Listing and help runs produce no results
+    private static boolean isInfoOnly(List<String> options) {
+        return options.contains("-h") || options.contains("-l") || options.contains("-lp")
+                || options.contains("-lprof") || options.contains("-lrf");
+    }
+
+    private static Path resultFile() throws IOException {
+        Path dir = Path.of("results");
+        Files.createDirectories(dir);
+        return dir.resolve("jmh-" + LocalDateTime.now().format(STAMP) + ".json");
+    }
+}
@@ -0,0 +1,129 @@
+package bench;
+
+import dao.DatabaseManager;
+import service.BookingService;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires thousands of overlapping bookings at a handful of rooms from many threads
+ * at once, then checks that no two active bookings of a room share a night.
+ *
+ * Each attempt picks one of a few rooms and a short stay within the next month,
+ * so most attempts collide. Accepted bookings must be exactly those whose room
+ * nights went in first; everything else must be rejected by the room_nights key.
+ *
+ * Run with:
+ *   java -cp target/benchmarks.jar bench.BookingContention [threads] [attempts] [rooms]
+ */
+public final class BookingContention {
+
+    private BookingContention() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int attempts = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int rooms = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int guests = 1_000;
+
+        BenchmarkDatabase.start("contention", Math.min(threads, 32));
+        BenchmarkDatabase.seedRooms(rooms);
+        BenchmarkDatabase.seedGuests(guests);
+        BookingService bookingService = new BookingService();
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                LocalDate checkIn = tomorrow.plusDays(random.nextInt(30));
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+                start.await();
+
+                BookingService.BookingResult result = bookingService.createBooking(
+                        BenchmarkDatabase.guestName(1 + random.nextInt(guests)),
+                        BenchmarkDatabase.roomNumber(1 + random.nextInt(rooms)),
+                        toDate(checkIn), toDate(checkOut), "Credit Card");
+
+                if (result.isSuccess()) {
+                    created.incrementAndGet();
+                } else if (result.getMessage().startsWith("Room is already booked")) {
+                    rejected.incrementAndGet();
+                } else {
+                    failed.incrementAndGet();
+                    System.err.println("Unexpected failure: " + result.getMessage());
+                }
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+        executor.shutdown();
+
+        long overlaps = countOverlaps();
+        long nightsHeld = queryLong("SELECT COUNT(*) FROM room_nights");
+        long nightsBooked = queryLong("SELECT COALESCE(SUM(" +
+                DatabaseManager.getDialect().daysBetween("check_in_date", "check_out_date") +
+                "), 0) FROM bookings WHERE status IN ('Booked', 'Checked In')");
+
+        System.out.printf("threads=%d attempts=%d rooms=%d%n", threads, attempts, rooms);
+        System.out.printf("created=%d rejected=%d failed=%d in %.2f s%n",
+                created.get(), rejected.get(), failed.get(), seconds);
+        System.out.printf("throughput=%.0f attempts/s, %.0f bookings/s%n",
+                attempts / seconds, created.get() / seconds);
+        System.out.printf("overlapping booking pairs=%d, room nights held=%d, nights in active bookings=%d%n",
+                overlaps, nightsHeld, nightsBooked);
+
+        BenchmarkDatabase.stop();
+        if (overlaps != 0 || nightsHeld != nightsBooked || failed.get() != 0) {
+            System.err.println("FAILED: inventory is inconsistent");
+            System.exit(1);
+        }
+    }
+
+    // Pairs of active bookings of the same room sharing at least one night
+    private static long countOverlaps() throws SQLException {
+        return queryLong("SELECT COUNT(*) FROM bookings a JOIN bookings b " +
+                "ON a.room_id = b.room_id AND a.id < b.id " +
+                "WHERE a.status IN ('Booked', 'Checked In') AND b.status IN ('Booked', 'Checked In') " +
+                "AND a.check_in_date < b.check_out_date AND b.check_in_date < a.check_out_date");
+    }
+
+    private static long queryLong(String sql) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,94 @@
+package bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import service.BookingService;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of concurrent {@link BookingService#createBooking} calls.
+ *
+ * Every call walks the rooms round-robin, so most calls take the full path
+ * (room-night reservation, three writes, commit). The aux counters split the
+ * throughput into bookings created and bookings rejected. Iterations are short so that
+ * one iteration books fewer stays than there are rooms and stays on the full path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+@Threads(8)
+public class BookingCreationBenchmark {
+
+    private static final int ROOMS = 50_000;
+    private static final int GUESTS = 1_000;
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private BookingService bookingService;
+    private final AtomicInteger nextRoom = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start("booking_bench", 16);
+        BenchmarkDatabase.seedRooms(ROOMS);
+        BenchmarkDatabase.seedGuests(GUESTS);
+        bookingService = new BookingService();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBookings() throws SQLException {
+        BenchmarkDatabase.resetBookings();
+        nextRoom.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Outcome {
+        public long created;
+        public long rejected;
+    }
+
+    @Benchmark
+    public BookingService.BookingResult createBooking(Outcome outcome) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int room = nextRoom.getAndIncrement() % ROOMS + 1;
+        int guest = random.nextInt(GUESTS) + 1;
+        long checkIn = System.currentTimeMillis() + (1 + random.nextInt(365)) * DAY;
+        long checkOut = checkIn + (1 + random.nextInt(5)) * DAY;
+
+        BookingService.BookingResult result = bookingService.createBooking(
+                BenchmarkDatabase.guestName(guest), BenchmarkDatabase.roomNumber(room),
+                new Date(checkIn), new Date(checkOut), "Credit Card");
+
+        if (result.isSuccess()) {
+            outcome.created++;
+        } else {
+            outcome.rejected++;
+        }
+        return result;
+    }
+}
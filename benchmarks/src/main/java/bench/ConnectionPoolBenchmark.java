@@ -0,0 +1,97 @@
+package bench;
+
+import dao.DatabaseManager;
+import dao.RoomDAO;
+import model.Room;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call latency of a single-row DAO lookup with and without connection pooling.
+ *
+ * {@code reconnectPerCall} reproduces the old DatabaseManager behaviour: the shared
+ * connection was closed by every DAO call, so each query paid for a fresh connect.
+ * {@code pooled} goes through {@link RoomDAO}, which now borrows from the pool.
+ *
+ * The {@code tcp} mode runs H2 behind its TCP server so the connect cost includes a
+ * real socket handshake, which is closer to a MySQL deployment than the in-process mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    private static final int TCP_PORT = 9193;
+
+    @Param({"embedded", "tcp"})
+    public String mode;
+
+    private Server server;
+    private String url;
+    private RoomDAO roomDAO;
+
+    @Setup
+    public void setUp() throws SQLException {
+        if ("tcp".equals(mode)) {
+            server = Server.createTcpServer("-tcpPort", String.valueOf(TCP_PORT), "-ifNotExists").start();
+            url = "jdbc:h2:tcp://localhost:" + TCP_PORT + "/mem:pool_bench;DB_CLOSE_DELAY=-1" + BenchmarkDatabase.NO_RESULT_REUSE;
+        } else {
+            url = "jdbc:h2:mem:pool_bench;DB_CLOSE_DELAY=-1" + BenchmarkDatabase.NO_RESULT_REUSE;
+        }
+
+        System.setProperty("hotel.db.profile", "h2");
+        System.setProperty("hotel.db.url", url);
+
+        DatabaseManager.initializeDatabase();
+        roomDAO = new RoomDAO();
+    }
+
+    @TearDown
+    public void tearDown() {
+        DatabaseManager.closeConnection();
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Benchmark
+    public Room reconnectPerCall() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url, "sa", "");
+             PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM rooms WHERE id = ?")) {
+            pstmt.setInt(1, 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new Room(rs.getInt("id"), rs.getString("room_number"), rs.getString("type"),
+                            rs.getDouble("price"), rs.getString("status"));
+                }
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Room pooled() throws SQLException {
+        return roomDAO.getRoomById(1);
+    }
+}
@@ -0,0 +1,133 @@
+package bench;
+
+import dao.BookingDAO;
+import dao.BookingListQuery;
+import dao.PaymentDAO;
+import dao.RoomDAO;
+import dao.UserDAO;
+import model.Booking;
+import model.Payment;
+import model.Room;
+import model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading and mapping rows through each DAO's ResultSet mapper.
+ *
+ * The single-row benchmarks are dominated by the round trip; the list benchmarks
+ * read a fixed number of rows per call, so a change to a mapper shows up as a change
+ * in their per-call time. Rows per call: rooms and users read the whole table
+ * ({@code rooms} and {@code guests} rows), bookings read one listing page of 100,
+ * payments read one week of history (about {@code rooms * 7 / 3} rows).
+ *
+ * Run with: java -jar target/benchmarks.jar DaoMappingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class DaoMappingBenchmark {
+
+    private static final int PAGE = 100;
+
+    @Param({"1000"})
+    public int rooms;
+
+    @Param({"1000"})
+    public int guests;
+
+    @Param({"100"})
+    public int bookingsPerRoom;
+
+    private BookingDAO bookingDAO;
+    private RoomDAO roomDAO;
+    private UserDAO userDAO;
+    private PaymentDAO paymentDAO;
+    private BookingListQuery byCheckIn;
+    private SplittableRandom random;
+    private LocalDate today;
+    private int bookings;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start("mapping_bench", 4);
+        BenchmarkDatabase.seedRooms(rooms);
+        BenchmarkDatabase.seedGuests(guests);
+        BenchmarkDatabase.seedHistory(rooms, bookingsPerRoom, 42);
+
+        bookingDAO = new BookingDAO();
+        roomDAO = new RoomDAO();
+        userDAO = new UserDAO();
+        paymentDAO = new PaymentDAO();
+        byCheckIn = BookingListQuery.all().sortedBy(BookingListQuery.SortColumn.CHECK_IN, true);
+        random = new SplittableRandom(7);
+        today = LocalDate.now();
+        bookings = rooms * bookingsPerRoom;
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public Booking bookingById() throws SQLException {
+        return bookingDAO.getBookingById(1 + random.nextInt(bookings));
+    }
+
+    @Benchmark
+    public List<Booking> bookingsPage() throws SQLException {
+        return bookingDAO.getBookingsPage(byCheckIn, null, PAGE);
+    }
+
+    @Benchmark
+    public Room roomByNumber() throws SQLException {
+        return roomDAO.getRoomByNumber(BenchmarkDatabase.roomNumber(1 + random.nextInt(rooms)));
+    }
+
+    @Benchmark
+    public List<Room> allRooms() throws SQLException {
+        return roomDAO.getAllRooms();
+    }
+
+    @Benchmark
+    public User userByUsername() throws SQLException {
+        return userDAO.getUserByUsername(BenchmarkDatabase.guestName(1 + random.nextInt(guests)));
+    }
+
+    @Benchmark
+    public List<User> allUsers() throws SQLException {
+        return userDAO.getAllUsers();
+    }
+
+    @Benchmark
+    public List<Payment> paymentsOfBooking() throws SQLException {
+        return paymentDAO.getPaymentsByBookingId(1 + random.nextInt(bookings));
+    }
+
+    @Benchmark
+    public List<Payment> paymentsInWeek() throws SQLException {
+        LocalDate start = today.minusDays(7 + random.nextInt(bookingsPerRoom * 2));
+        return paymentDAO.getPaymentsByDateRange(Date.valueOf(start), Date.valueOf(start.plusDays(6)));
+    }
+}
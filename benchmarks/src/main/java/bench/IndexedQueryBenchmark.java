@@ -0,0 +1,284 @@
+package bench;
+
+import dao.BookingDAO;
+import dao.BusinessClock;
+import dao.DatabaseManager;
+import dao.PaymentDAO;
+import dao.TimeRange;
+import model.Booking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency on a multi-million row dataset before and after the V1 index migration.
+ *
+ * {@code baseline} drops the V1 indexes and runs the original SQL (OR-ed date overlap
+ * test, DATE() around indexed columns); {@code indexed} keeps the indexes but still runs
+ * the original SQL; {@code migrated} keeps the indexes and runs the shipped DAO methods,
+ * which filter on half-open {@link TimeRange}s of the bare column.
+ * The dataset is generated from a fixed seed and the {@link BusinessClock} is pinned to
+ * a fixed instant, so every run sees the same rows and the same "today". Query plans for
+ * every variant are printed during setup, and the migrated run fails unless every plan
+ * reads through the expected index.
+ *
+ * Run with: java -jar target/benchmarks.jar IndexedQueryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class IndexedQueryBenchmark {
+
+    private static final String[] V1_INDEXES = {
+            "idx_bookings_room_status_dates",
+            "idx_bookings_status_check_in",
+            "idx_bookings_status_check_out",
+            "idx_bookings_guest_check_in",
+            "idx_payments_date_amount"
+    };
+
+    private static final String LEGACY_CONFLICT_SQL =
+            "SELECT COUNT(*) FROM bookings WHERE room_id = ? AND status IN ('Booked', 'Checked In') " +
+            "AND ((check_in_date <= ? AND check_out_date > ?) OR " +
+            "(check_in_date < ? AND check_out_date >= ?) OR " +
+            "(check_in_date >= ? AND check_out_date <= ?))";
+
+    private static final String LEGACY_TODAY_CHECK_INS_SQL =
+            "SELECT b.*, r.room_number, u.fullname as guest_name FROM bookings b " +
+            "JOIN rooms r ON b.room_id = r.id JOIN users u ON b.guest_id = u.id " +
+            "WHERE CAST(b.check_in_date AS DATE) = CURRENT_DATE AND b.status = 'Booked' " +
+            "ORDER BY b.check_in_date";
+
+    private static final String LEGACY_TODAY_CHECK_OUTS_SQL =
+            "SELECT b.*, r.room_number, u.fullname as guest_name FROM bookings b " +
+            "JOIN rooms r ON b.room_id = r.id JOIN users u ON b.guest_id = u.id " +
+            "WHERE CAST(b.check_out_date AS DATE) = CURRENT_DATE AND b.status = 'Checked In' " +
+            "ORDER BY b.check_out_date";
+
+    private static final String LEGACY_TODAY_REVENUE_SQL =
+            "SELECT SUM(amount) FROM payments WHERE CAST(payment_date AS DATE) = CURRENT_DATE";
+
+    private static final String LEGACY_DATE_RANGE_SQL =
+            "SELECT * FROM payments WHERE CAST(payment_date AS DATE) BETWEEN ? AND ? ORDER BY payment_date DESC";
+
+    @Param({"baseline", "indexed", "migrated"})
+    public String schema;
+
+    @Param({"2000"})
+    public int rooms;
+
+    // Bookings per room; 1000 x 2000 rooms = 2 million bookings and 2 million payments
+    @Param({"1000"})
+    public int bookingsPerRoom;
+
+    private BookingDAO bookingDAO;
+    private PaymentDAO paymentDAO;
+    private SplittableRandom random;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start("index_bench", 4);
+        BenchmarkDatabase.seedRooms(rooms);
+        BenchmarkDatabase.seedGuests(1000);
+        BenchmarkDatabase.seedHistory(rooms, bookingsPerRoom, 42);
+
+        if ("baseline".equals(schema)) {
+            try (Connection conn = DatabaseManager.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                for (String index : V1_INDEXES) {
+                    stmt.execute("DROP INDEX IF EXISTS " + index);
+                }
+                stmt.execute("ANALYZE");
+            }
+        }
+
+        bookingDAO = new BookingDAO();
+        paymentDAO = new PaymentDAO();
+        random = new SplittableRandom(7);
+        ZoneId zone = ZoneId.systemDefault();
+        BusinessClock.set(Clock.fixed(LocalDate.now().atTime(12, 0).atZone(zone).toInstant(), zone));
+        today = BusinessClock.today();
+
+        printPlans();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BusinessClock.set(null);
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public boolean conflictCheck() throws SQLException {
+        int roomId = 1 + random.nextInt(rooms);
+        LocalDate checkIn = today.plusDays(random.nextInt(-3000, 300));
+        Date in = Date.valueOf(checkIn);
+        Date out = Date.valueOf(checkIn.plusDays(1 + random.nextInt(7)));
+
+        if ("migrated".equals(schema)) {
+            return bookingDAO.hasConflictingBooking(roomId, in, out, 0);
+        }
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(LEGACY_CONFLICT_SQL)) {
+            pstmt.setInt(1, roomId);
+            pstmt.setDate(2, out);
+            pstmt.setDate(3, in);
+            pstmt.setDate(4, out);
+            pstmt.setDate(5, in);
+            pstmt.setDate(6, in);
+            pstmt.setDate(7, out);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    @Benchmark
+    public int todayCheckIns() throws SQLException {
+        if ("migrated".equals(schema)) {
+            return bookingDAO.getTodayCheckIns().size();
+        }
+        return countRows(LEGACY_TODAY_CHECK_INS_SQL);
+    }
+
+    @Benchmark
+    public int todayCheckOuts() throws SQLException {
+        if ("migrated".equals(schema)) {
+            return bookingDAO.getTodayCheckOuts().size();
+        }
+        return countRows(LEGACY_TODAY_CHECK_OUTS_SQL);
+    }
+
+    @Benchmark
+    public double todayRevenue() throws SQLException {
+        if ("migrated".equals(schema)) {
+            return paymentDAO.getTodayRevenue();
+        }
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(LEGACY_TODAY_REVENUE_SQL)) {
+            return rs.next() ? rs.getDouble(1) : 0.0;
+        }
+    }
+
+    @Benchmark
+    public int paymentsInWeek() throws SQLException {
+        LocalDate start = today.minusDays(random.nextInt(3000));
+        LocalDate end = start.plusDays(6);
+
+        if ("migrated".equals(schema)) {
+            return paymentDAO.getPaymentsByDateRange(Date.valueOf(start), Date.valueOf(end)).size();
+        }
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(LEGACY_DATE_RANGE_SQL)) {
+            pstmt.setDate(1, Date.valueOf(start));
+            pstmt.setDate(2, Date.valueOf(end));
+            int count = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    @Benchmark
+    public int bookingsByStatus() throws SQLException {
+        List<Booking> bookings = bookingDAO.getBookingsByStatus("Checked In");
+        return bookings.size();
+    }
+
+    private int countRows(String sql) throws SQLException {
+        int count = 0;
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void printPlans() throws SQLException {
+        String today = "DATE '" + this.today + "'";
+        String tomorrow = "DATE '" + this.today.plusDays(1) + "'";
+        TimeRange day = BusinessClock.todayRange();
+        String dayStart = "TIMESTAMP '" + Timestamp.from(day.getStart()) + "'";
+        String dayEnd = "TIMESTAMP '" + Timestamp.from(day.getEnd()) + "'";
+
+        // Query and the index its migrated plan must use
+        String[][] queries = !"migrated".equals(schema)
+                ? new String[][]{
+                        {LEGACY_CONFLICT_SQL.replaceFirst("\\?", "1").replace("?", today), null},
+                        {LEGACY_TODAY_CHECK_INS_SQL, null},
+                        {LEGACY_TODAY_CHECK_OUTS_SQL, null},
+                        {LEGACY_TODAY_REVENUE_SQL, null},
+                        {LEGACY_DATE_RANGE_SQL.replace("?", today), null}}
+                : new String[][]{
+                        {"SELECT COUNT(*) FROM bookings WHERE room_id = 1 AND status IN ('Booked', 'Checked In') " +
+                                "AND check_in_date < " + today + " AND (check_out_date > " + today +
+                                " OR check_in_date = " + today + ")", "IDX_BOOKINGS_ROOM_STATUS_DATES"},
+                        {"SELECT * FROM bookings b WHERE b.status = 'Booked' AND " +
+                                bound(TimeRange.condition("b.check_in_date"), today, tomorrow),
+                                "IDX_BOOKINGS_STATUS_CHECK_IN"},
+                        {"SELECT * FROM bookings b WHERE b.status = 'Checked In' AND " +
+                                bound(TimeRange.condition("b.check_out_date"), today, tomorrow),
+                                "IDX_BOOKINGS_STATUS_CHECK_OUT"},
+                        {"SELECT SUM(amount) FROM payments WHERE " +
+                                bound(TimeRange.condition("payment_date"), dayStart, dayEnd),
+                                "IDX_PAYMENTS_DATE_AMOUNT"},
+                        {"SELECT * FROM payments WHERE " +
+                                bound(TimeRange.condition("payment_date"), dayStart, dayEnd) +
+                                " ORDER BY payment_date DESC", "IDX_PAYMENTS_DATE_AMOUNT"}};
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String[] query : queries) {
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = stmt.executeQuery("EXPLAIN " + query[0])) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                System.out.println("[" + schema + "] " + plan);
+                if (query[1] != null && !plan.toString().toUpperCase().contains(query[1])) {
+                    throw new IllegalStateException("Plan does not use " + query[1] + ": " + plan);
+                }
+            }
+        }
+    }
+
+    // Fill the two placeholders of a range condition with literals
+    private static String bound(String condition, String start, String end) {
+        return condition.replaceFirst("\\?", start).replaceFirst("\\?", end);
+    }
+}
@@ -0,0 +1,147 @@
+package bench;
+
+import dao.BookingDAO;
+import dao.DatabaseManager;
+import dao.RevenueRollupDAO;
+import dao.SqlDialect;
+import model.MonthlyReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The monthly revenue report on a multi-million row history, built the way the
+ * Reports tab does it against the alternatives.
+ *
+ * {@code report} is {@link BookingDAO#getMonthlyReport} over the last twelve months:
+ * revenue from the daily rollup, then one grouped query over the bookings checking in
+ * during those months. {@code perMonth} takes the same revenue and asks for every
+ * month's bookings separately, one more round trip per month. {@code wholeHistory} is
+ * the earlier report: one grouped query over every booking ever made, with the
+ * bookings' price as the revenue. The number of round trips of each variant is
+ * printed during setup.
+ *
+ * {@code report} and {@code perMonth} read the same range of the check-in index, so
+ * on the in-process database they take about the same time; what separates them is the
+ * extra round trips, which only cost something against a database across the network.
+ *
+ * Run with: java -jar target/benchmarks.jar MonthlyReportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class MonthlyReportBenchmark {
+
+    private static final int REPORT_MONTHS = 12;
+
+    @Param({"2000"})
+    public int rooms;
+
+    // 1000 x 2000 rooms = 2 million bookings over about eight years
+    @Param({"1000"})
+    public int bookingsPerRoom;
+
+    private BookingDAO bookingDAO;
+    private RevenueRollupDAO revenueRollupDAO;
+    private LocalDate start;
+    private LocalDate endExclusive;
+    private String monthSql;
+    private String wholeHistorySql;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start("report_bench", 4);
+        BenchmarkDatabase.seedRooms(rooms);
+        BenchmarkDatabase.seedGuests(1000);
+        BenchmarkDatabase.seedHistory(rooms, bookingsPerRoom, 42);
+
+        SqlDialect dialect = DatabaseManager.getDialect();
+        String nights = "SUM(GREATEST(1, " + dialect.daysBetween("check_in_date", "check_out_date") + "))";
+        monthSql = "SELECT COUNT(*), " + nights + ", SUM(total_price) FROM bookings " +
+                "WHERE check_in_date >= ? AND check_in_date < ? AND status <> 'Cancelled'";
+        String month = dialect.yearMonth("check_in_date");
+        wholeHistorySql = "SELECT " + month + " AS report_month, SUM(total_price) AS revenue, COUNT(*) AS booking_count, " +
+                nights + " AS nights_sold FROM bookings WHERE status <> 'Cancelled' " +
+                "GROUP BY " + month + " ORDER BY report_month";
+        bookingDAO = new BookingDAO();
+        revenueRollupDAO = new RevenueRollupDAO();
+
+        LocalDate firstOfMonth = LocalDate.now().withDayOfMonth(1);
+        start = firstOfMonth.minusMonths(REPORT_MONTHS - 1);
+        endExclusive = firstOfMonth.plusMonths(1);
+        int months = bookingDAO.getMonthlyReport(start, endExclusive).size();
+        System.out.println("Months reported: " + months + "; round trips: report=2, perMonth=" + (1 + months) +
+                ", wholeHistory=1");
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public List<MonthlyReport> report() throws SQLException {
+        return bookingDAO.getMonthlyReport(start, endExclusive);
+    }
+
+    @Benchmark
+    public List<MonthlyReport> perMonth() throws SQLException {
+        Map<String, Double> revenue = revenueRollupDAO.getRevenueByMonth(start, endExclusive);
+        List<MonthlyReport> report = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(monthSql)) {
+
+            for (LocalDate first = start; first.isBefore(endExclusive); first = first.plusMonths(1)) {
+                pstmt.setDate(1, Date.valueOf(first));
+                pstmt.setDate(2, Date.valueOf(first.plusMonths(1)));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    String month = YearMonth.from(first).toString();
+                    report.add(new MonthlyReport(month, revenue.getOrDefault(month, 0.0),
+                            rs.getInt(1), rs.getInt(2), rs.getDouble(3)));
+                }
+            }
+        }
+        return report;
+    }
+
+    @Benchmark
+    public List<MonthlyReport> wholeHistory() throws SQLException {
+        List<MonthlyReport> report = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(wholeHistorySql)) {
+
+            while (rs.next()) {
+                report.add(new MonthlyReport(rs.getString("report_month"), rs.getDouble("revenue"),
+                        rs.getInt("booking_count"), rs.getInt("nights_sold"), rs.getDouble("revenue")));
+            }
+        }
+        return report;
+    }
+}
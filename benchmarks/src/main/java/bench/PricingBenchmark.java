@@ -0,0 +1,67 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.BookingService;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link BookingService#calculateTotalPrice}, which the booking form and
+ * createBooking call for every quote. No database is involved.
+ *
+ * The stays are drawn up front from a fixed seed so the benchmark measures the
+ * calculation and not the random number generator or date construction.
+ *
+ * Run with: java -jar target/benchmarks.jar PricingBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    private static final int STAYS = 1024;
+
+    private BookingService bookingService;
+    private final double[] prices = new double[STAYS];
+    private final Date[] checkIns = new Date[STAYS];
+    private final Date[] checkOuts = new Date[STAYS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // Plain constructor: the DAOs it creates do not touch the database until used
+        bookingService = new BookingService();
+
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate today = LocalDate.of(2025, 1, 1);
+        ZoneId zone = ZoneId.systemDefault();
+        for (int i = 0; i < STAYS; i++) {
+            LocalDate checkIn = today.plusDays(random.nextInt(365));
+            prices[i] = BenchmarkDatabase.ROOM_PRICES[random.nextInt(BenchmarkDatabase.ROOM_PRICES.length)];
+            checkIns[i] = Date.from(checkIn.atStartOfDay(zone).toInstant());
+            checkOuts[i] = Date.from(checkIn.plusDays(1 + random.nextInt(14)).atStartOfDay(zone).toInstant());
+        }
+    }
+
+    @Benchmark
+    public double totalPrice() {
+        int i = next++ & (STAYS - 1);
+        return bookingService.calculateTotalPrice(prices[i], checkIns[i], checkOuts[i]);
+    }
+}
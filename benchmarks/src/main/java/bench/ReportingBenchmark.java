@@ -0,0 +1,108 @@
+package bench;
+
+import dao.BookingDAO;
+import dao.PaymentDAO;
+import dao.RoomDAO;
+import model.Booking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.DatasetGenerator;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The queries behind the Dashboard and Reports tabs on a multi-million row history
+ * generated by {@link DatasetGenerator}, so stay lengths, cancellations and payment
+ * dates are spread the way a real hotel's are.
+ *
+ * Revenue figures come from the daily rollup; booking counts, today's arrivals and
+ * room statistics read the bookings and rooms tables. The monthly report itself is
+ * covered by {@link MonthlyReportBenchmark}.
+ *
+ * Run with: java -jar target/benchmarks.jar ReportingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ReportingBenchmark {
+
+    @Param({"2000"})
+    public int rooms;
+
+    @Param({"100000"})
+    public int guests;
+
+    @Param({"1000000"})
+    public long bookings;
+
+    private PaymentDAO paymentDAO;
+    private BookingDAO bookingDAO;
+    private RoomDAO roomDAO;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start("reporting_bench", 4);
+        BenchmarkDatabase.seedDataset(DatasetGenerator.Spec.defaults()
+                .withRooms(rooms).withGuests(guests).withBookings(bookings).withSeed(42));
+
+        paymentDAO = new PaymentDAO();
+        bookingDAO = new BookingDAO();
+        roomDAO = new RoomDAO();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public double totalRevenue() throws SQLException {
+        return paymentDAO.getTotalRevenue();
+    }
+
+    @Benchmark
+    public double thisMonthRevenue() throws SQLException {
+        return paymentDAO.getThisMonthRevenue();
+    }
+
+    @Benchmark
+    public Map<String, Double> revenueByMethod() throws SQLException {
+        return paymentDAO.getRevenueByMethod();
+    }
+
+    @Benchmark
+    public Map<String, Double> revenueByMonth() throws SQLException {
+        return paymentDAO.getRevenueByMonth();
+    }
+
+    @Benchmark
+    public int totalBookingCount() throws SQLException {
+        return bookingDAO.getTotalBookingCount();
+    }
+
+    @Benchmark
+    public List<Booking> todayCheckIns() throws SQLException {
+        return bookingDAO.getTodayCheckIns();
+    }
+
+    @Benchmark
+    public Map<String, Integer> roomStatistics() throws SQLException {
+        return roomDAO.getRoomStatistics();
+    }
+}
@@ -1,11 +1,23 @@
 package main;
 
 import dao.DatabaseManager;
+import dao.RoomCache;
+import dao.SqlMetrics;
 import ui.LoginPanel;
 import ui.DashboardPanel;
+import ui.EdtWatchdog;
 import model.User;
+import service.AuthenticationService;
+import service.BookingService;
+import utill.AppConfig;
+import utill.AsyncLogHandler;
+import utill.FlightRecording;
+import utill.Jmx;
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 
 public class HotelManagementSystem extends JFrame {
     private LoginPanel loginPanel;
@@ -34,6 +46,15 @@ public class HotelManagementSystem extends JFrame {
         // Initialize database
         initializeDatabase();
 
+        // Keep a flight recording of the last hours for diagnosing incidents
+        startFlightRecording();
+
+        // Report freezes of the user interface
+        startEdtWatchdog();
+
+        // Publish pool, cache and service metrics over JMX
+        registerMXBeans();
+
         // Setup main window
         setupMainWindow();
 
@@ -57,6 +78,47 @@ public class HotelManagementSystem extends JFrame {
         }
     }
 
+    private void startFlightRecording() {
+        AppConfig config = AppConfig.get();
+        if (config.getBoolean("jfr.enabled", true)) {
+            FlightRecording.start(Duration.ofMinutes(config.getLong("jfr.maxAgeMinutes", 360)),
+                    config.getLong("jfr.maxSizeMb", 250) * 1024 * 1024);
+        }
+    }
+
+    private void startEdtWatchdog() {
+        long threshold = AppConfig.get().getLong("ui.stallThresholdMillis", 500);
+        if (threshold > 0) {
+            EdtWatchdog.start(threshold);
+        }
+    }
+
+    private void registerMXBeans() {
+        if (AppConfig.get().getBoolean("jmx.enabled", true)) {
+            Jmx.register("ConnectionPool", DatabaseManager.getPoolMXBean());
+            Jmx.register("SqlStatements", SqlMetrics.getMXBean());
+            Jmx.register("RoomCache", RoomCache.getInstance());
+            Jmx.register("Authentication", AuthenticationService.getMXBean());
+            Jmx.register("BookingService", BookingService.getMXBean());
+        }
+    }
+
+    private static void installLogging() {
+        AppConfig config = AppConfig.get();
+        if (!config.getBoolean("log.async", true)) {
+            return;
+        }
+        String file = config.get("log.file", "logs/hotel.log").trim();
+        try {
+            AsyncLogHandler.install(file.isEmpty() ? null : Path.of(file),
+                    config.getLong("log.maxSizeMb", 10) * 1024 * 1024,
+                    config.getInt("log.maxFiles", 5),
+                    config.getInt("log.bufferSize", 8192));
+        } catch (IOException e) {
+            System.err.println("Could not open log file " + file + ": " + e.getMessage());
+        }
+    }
+
     private void setupMainWindow() {
         // Window properties
         setSize(1000, 700);
@@ -147,6 +209,9 @@ public class HotelManagementSystem extends JFrame {
             // Log the logout
             System.out.println("User logged out: " + currentUser.getUsername());
 
+            // End the login session so it no longer counts as active
+            loginPanel.getAuthService().logout();
+
             // Clear current user
             currentUser = null;
 
@@ -163,6 +228,7 @@ public class HotelManagementSystem extends JFrame {
         try {
             // Close database connection
             DatabaseManager.closeConnection();
+            FlightRecording.stop();
             System.out.println("Database connection closed");
         } catch (Exception e) {
             System.err.println("Error closing database connection: " + e.getMessage());
@@ -211,6 +277,9 @@ public class HotelManagementSystem extends JFrame {
         // Enable anti-aliasing for better text rendering
         System.setProperty("sun.java2d.uiScale", "1.0");
 
+        // Write logs from a background thread, to the console and a JSON-lines file
+        installLogging();
+
         // Run application on Event Dispatch Thread
         SwingUtilities.invokeLater(() -> {
             try {
@@ -0,0 +1,245 @@
+package dao;
+
+import utill.Log;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of active stays ('Booked' and 'Checked In') per room, used to
+ * answer booking overlap checks without a database round trip.
+ *
+ * Stays are half-open like room nights: a stay holds its check-in day up to the
+ * day before check-out, at least one night. Each room keeps its stays in a set
+ * sorted by check-in day. An overlap check looks up the stays that start before
+ * the requested stay's last night ends and walks
+ * back only as far as the longest stay currently in that room can reach, so it
+ * costs O(log n) plus the handful of stays near the requested dates.
+ *
+ * The index is loaded by {@link DatabaseManager#initializeDatabase()} and kept
+ * up to date by {@link BookingDAO}, which applies its changes once the enclosing
+ * transaction commits. Updates are serialized with {@link #load()}; queries only
+ * lock the room they look at. It only sees writes made by this process, so the SQL
+ * room_nights primary key inside the booking transaction stays the authoritative check.
+ */
+public final class AvailabilityIndex {
+
+    private static final Log LOGGER = Log.get(AvailabilityIndex.class);
+
+    private static final AvailabilityIndex INSTANCE = new AvailabilityIndex();
+
+    private final Map<Integer, RoomStays> rooms = new ConcurrentHashMap<>();
+    private final Map<Integer, Stay> staysByBooking = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    private AvailabilityIndex() {
+    }
+
+    public static AvailabilityIndex getInstance() {
+        return INSTANCE;
+    }
+
+    // Whether a status occupies the room
+    public static boolean isActiveStatus(String status) {
+        return "Booked".equals(status) || "Checked In".equals(status);
+    }
+
+    /**
+     * Replaces the index contents with the active bookings in the database
+     *
+     * @throws SQLException if the bookings cannot be read
+     */
+    public void load() throws SQLException {
+        long start = System.currentTimeMillis();
+        String sql = "SELECT id, room_id, check_in_date, check_out_date FROM bookings " +
+                "WHERE status IN ('Booked', 'Checked In')";
+
+        synchronized (this) {
+            rooms.clear();
+            staysByBooking.clear();
+            loaded = false;
+
+            try (Connection conn = DatabaseManager.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    put(rs.getInt("id"), rs.getInt("room_id"),
+                            rs.getDate("check_in_date").toLocalDate(), rs.getDate("check_out_date").toLocalDate());
+                }
+            }
+            loaded = true;
+        }
+
+        LOGGER.info("Availability index loaded {} active stays in {} ms",
+                staysByBooking.size(), System.currentTimeMillis() - start);
+    }
+
+    // Whether the index has been loaded and can answer queries
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Number of active stays held
+    public int size() {
+        return staysByBooking.size();
+    }
+
+    /**
+     * Checks whether an active stay in the room shares a night with the given dates.
+     * Uses the same rule as {@link BookingDAO#hasConflictingBooking}.
+     *
+     * @param roomId Room to check
+     * @param checkIn Requested check-in date
+     * @param checkOut Requested check-out date
+     * @param excludeBookingId Booking to ignore, or 0
+     * @return true if an overlapping stay exists
+     */
+    public boolean hasConflict(int roomId, Date checkIn, Date checkOut, int excludeBookingId) {
+        return hasConflict(roomId, RoomNightDAO.toLocalDate(checkIn), RoomNightDAO.toLocalDate(checkOut), excludeBookingId);
+    }
+
+    public boolean hasConflict(int roomId, LocalDate checkIn, LocalDate checkOut, int excludeBookingId) {
+        RoomStays stays = rooms.get(roomId);
+        return stays != null && stays.overlaps(checkIn.toEpochDay(),
+                RoomNightDAO.endExclusive(checkIn, checkOut).toEpochDay(), excludeBookingId);
+    }
+
+    // Add or move a stay
+    synchronized void put(int bookingId, int roomId, LocalDate checkIn, LocalDate checkOut) {
+        Stay stay = new Stay(bookingId, roomId, checkIn.toEpochDay(),
+                RoomNightDAO.endExclusive(checkIn, checkOut).toEpochDay());
+        Stay previous = staysByBooking.put(bookingId, stay);
+        if (previous != null) {
+            roomStays(previous.roomId).remove(previous);
+        }
+        roomStays(roomId).add(stay);
+    }
+
+    void put(int bookingId, int roomId, Date checkIn, Date checkOut) {
+        put(bookingId, roomId, RoomNightDAO.toLocalDate(checkIn), RoomNightDAO.toLocalDate(checkOut));
+    }
+
+    // Drop a stay that no longer occupies its room
+    synchronized void remove(int bookingId) {
+        Stay previous = staysByBooking.remove(bookingId);
+        if (previous != null) {
+            roomStays(previous.roomId).remove(previous);
+        }
+    }
+
+    // Whether a booking is currently held as an active stay
+    boolean contains(int bookingId) {
+        return staysByBooking.containsKey(bookingId);
+    }
+
+    // Nights of the longest active stay in a room, which bounds the overlap walk-back
+    long longestStay(int roomId) {
+        RoomStays stays = rooms.get(roomId);
+        return stays != null ? stays.maxLength() : 0;
+    }
+
+    // Re-read one booking after a change that did not carry its dates
+    void refresh(int bookingId) throws SQLException {
+        String sql = "SELECT room_id, check_in_date, check_out_date, status FROM bookings WHERE id = ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, bookingId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next() && isActiveStatus(rs.getString("status"))) {
+                    int roomId = rs.getInt("room_id");
+                    LocalDate checkIn = rs.getDate("check_in_date").toLocalDate();
+                    LocalDate checkOut = rs.getDate("check_out_date").toLocalDate();
+                    UnitOfWork.afterCommit(() -> put(bookingId, roomId, checkIn, checkOut));
+                } else {
+                    UnitOfWork.afterCommit(() -> remove(bookingId));
+                }
+            }
+        }
+    }
+
+    private RoomStays roomStays(int roomId) {
+        return rooms.computeIfAbsent(roomId, id -> new RoomStays());
+    }
+
+    /**
+     * Active stays of one room, ordered by check-in day
+     */
+    private static final class RoomStays {
+        private final NavigableSet<Stay> stays = new TreeSet<>(Stay.ORDER);
+        // Number of stays of each length in days; the largest key bounds how far back an
+        // overlap can start, and drops again once the longest stay is gone
+        private final NavigableMap<Long, Integer> lengths = new TreeMap<>();
+        private long maxLength;
+
+        synchronized void add(Stay stay) {
+            if (stays.add(stay)) {
+                lengths.merge(stay.length(), 1, Integer::sum);
+                maxLength = lengths.lastKey();
+            }
+        }
+
+        synchronized void remove(Stay stay) {
+            if (stays.remove(stay)) {
+                lengths.computeIfPresent(stay.length(), (length, count) -> count > 1 ? count - 1 : null);
+                maxLength = lengths.isEmpty() ? 0 : lengths.lastKey();
+            }
+        }
+
+        synchronized long maxLength() {
+            return maxLength;
+        }
+
+        // Both ranges half-open: [checkIn, endExclusive)
+        synchronized boolean overlaps(long checkIn, long endExclusive, int excludeBookingId) {
+            // Stays starting on or after endExclusive cannot overlap; stays starting at or
+            // before checkIn - maxLength end on or before checkIn
+            Stay upper = new Stay(Integer.MIN_VALUE, 0, endExclusive, 0);
+            for (Stay stay : stays.headSet(upper, false).descendingSet()) {
+                if (stay.checkIn <= checkIn - maxLength) {
+                    break;
+                }
+                if (stay.endExclusive > checkIn && stay.bookingId != excludeBookingId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * One active stay, dates as epoch days, the end being the day after the last night
+     */
+    private static final class Stay {
+        private static final Comparator<Stay> ORDER =
+                Comparator.comparingLong((Stay s) -> s.checkIn).thenComparingInt(s -> s.bookingId);
+
+        private final int bookingId;
+        private final int roomId;
+        private final long checkIn;
+        private final long endExclusive;
+
+        private Stay(int bookingId, int roomId, long checkIn, long endExclusive) {
+            this.bookingId = bookingId;
+            this.roomId = roomId;
+            this.checkIn = checkIn;
+            this.endExclusive = endExclusive;
+        }
+
+        long length() {
+            return endExclusive - checkIn;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Chunked JDBC batches for the DAOs' multi-row writes.
+ *
+ * Rows are written in chunks of db.batch.size (default 500), one JDBC batch and one
+ * transaction per chunk, so a large write neither holds one huge transaction nor pays a
+ * round trip and a commit per row. With MySQL, rewriteBatchedStatements=true on the URL
+ * lets the driver send each chunk as multi-row INSERTs. When the caller is already in a
+ * {@link UnitOfWork}, every chunk joins it and nothing commits until it ends.
+ *
+ * If a chunk fails, the chunks before it stay committed and the exception is rethrown.
+ */
+final class Batches {
+
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private Batches() {
+    }
+
+    /**
+     * Sets the parameters of one row
+     */
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement pstmt, T item) throws SQLException;
+    }
+
+    /**
+     * Runs in a chunk's transaction once its rows are written
+     */
+    @FunctionalInterface
+    interface ChunkWritten<T> {
+        void written(List<T> chunk, int[] ids) throws SQLException;
+    }
+
+    // Rows per chunk from db.batch.size
+    static int chunkSize() {
+        return Math.max(1, DatabaseManager.getConfig().getInt("db.batch.size", DEFAULT_CHUNK_SIZE));
+    }
+
+    /**
+     * Inserts every item with one generated key each, chunk by chunk
+     *
+     * @param sql INSERT statement with one row of placeholders
+     * @param onWritten Called in each chunk's transaction with the chunk and its keys
+     * @return Generated keys in the order of the items
+     */
+    static <T> int[] insertAll(String sql, List<T> items, Binder<T> binder, ChunkWritten<T> onWritten) throws SQLException {
+        int[] ids = new int[items.size()];
+        int size = chunkSize();
+
+        for (int from = 0; from < items.size(); from += size) {
+            List<T> chunk = items.subList(from, Math.min(items.size(), from + size));
+            int offset = from;
+            UnitOfWork.execute(conn -> {
+                int[] chunkIds = insert(conn, sql, chunk, binder);
+                System.arraycopy(chunkIds, 0, ids, offset, chunkIds.length);
+                onWritten.written(chunk, chunkIds);
+                return null;
+            });
+        }
+        return ids;
+    }
+
+    // One batch of inserts, returning the generated keys in order
+    private static <T> int[] insert(Connection conn, String sql, List<T> items, Binder<T> binder) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (T item : items) {
+                binder.bind(pstmt, item);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+
+            int[] ids = new int[items.size()];
+            int count = 0;
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                while (count < ids.length && generatedKeys.next()) {
+                    ids[count++] = generatedKeys.getInt(1);
+                }
+            }
+            if (count != ids.length) {
+                throw new SQLException("Expected " + ids.length + " generated keys, got " + count);
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Runs a statement over the ids chunk by chunk, each chunk in its own transaction
+     *
+     * @param work Receives the chunk's ids and an "IN (?, ...)" list matching them
+     * @return Sum of what the work returned for every chunk
+     */
+    static int forEachChunk(List<Integer> ids, ChunkWork work) throws SQLException {
+        int total = 0;
+        int size = chunkSize();
+        for (int from = 0; from < ids.size(); from += size) {
+            List<Integer> chunk = List.copyOf(ids.subList(from, Math.min(ids.size(), from + size)));
+            total += UnitOfWork.execute(conn -> work.run(conn, chunk, inList(chunk.size())));
+        }
+        return total;
+    }
+
+    /**
+     * Work on one chunk of ids
+     */
+    @FunctionalInterface
+    interface ChunkWork {
+        int run(Connection conn, List<Integer> ids, String inList) throws SQLException;
+    }
+
+    // "IN (?, ?, ?)" with one placeholder per value
+    static String inList(int count) {
+        StringBuilder sql = new StringBuilder(" IN (");
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(')').toString();
+    }
+
+    // Bind ids from index on, returning the next free index
+    static int bindIds(PreparedStatement pstmt, int index, List<Integer> ids) throws SQLException {
+        for (int id : ids) {
+            pstmt.setInt(index++, id);
+        }
+        return index;
+    }
+}
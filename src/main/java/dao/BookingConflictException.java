@@ -0,0 +1,16 @@
+package dao;
+
+import java.sql.SQLException;
+
+/**
+ * Thrown when a booking would take a room night that another booking already holds.
+ * The enclosing transaction is rolled back, so nothing from the attempt is kept.
+ */
+public class BookingConflictException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BookingConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,41 +1,90 @@
 package dao;
 
 import model.Booking;
+import model.MonthlyReport;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.Date;
+import java.util.function.Consumer;
 
 public class BookingDAO {
 
-    // Save new booking to database
+    private final AvailabilityIndex availabilityIndex = AvailabilityIndex.getInstance();
+    private final RoomNightDAO roomNightDAO = new RoomNightDAO();
+    private final RevenueRollupDAO revenueRollupDAO = new RevenueRollupDAO();
 
+    // Save new booking to database.
+    // An active booking takes its room nights in the same transaction, so a booking that
+    // overlaps another fails with BookingConflictException and nothing is written.
     public int saveBooking(Booking booking) throws SQLException {
         String sql = "INSERT INTO bookings (guest_id, room_id, check_in_date, check_out_date, total_price, status) VALUES (?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        return UnitOfWork.execute(transaction -> {
+            try (Connection conn = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+                pstmt.setInt(1, booking.getGuestId());
+                pstmt.setInt(2, booking.getRoomId());
+                pstmt.setDate(3, new java.sql.Date(booking.getCheckInDate().getTime()));
+                pstmt.setDate(4, new java.sql.Date(booking.getCheckOutDate().getTime()));
+                pstmt.setDouble(5, booking.getTotalPrice());
+                String status = booking.getStatus() != null ? booking.getStatus() : "Booked";
+                pstmt.setString(6, status);
+
+                int affectedRows = pstmt.executeUpdate();
+
+                if (affectedRows > 0) {
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            int bookingId = generatedKeys.getInt(1);
+                            booking.setId(bookingId);
+                            if (AvailabilityIndex.isActiveStatus(status)) {
+                                int roomId = booking.getRoomId();
+                                Date checkIn = booking.getCheckInDate();
+                                Date checkOut = booking.getCheckOutDate();
+                                roomNightDAO.reserveNights(bookingId, roomId, checkIn, checkOut);
+                                UnitOfWork.afterCommit(() -> availabilityIndex.put(bookingId, roomId, checkIn, checkOut));
+                            }
+                            return bookingId;
+                        }
+                    }
+                }
+            }
+            throw new SQLException("Failed to save booking");
+        });
+    }
+
+    // Save several bookings with JDBC batches, committing every db.batch.size rows.
+    // Active bookings take their room nights in the same chunk; if any of them overlaps
+    // a held night the chunk fails with BookingConflictException and none of its rows
+    // are written. Returns the generated ids in the order of the bookings.
+    public int[] saveAll(List<Booking> bookings) throws SQLException {
+        String sql = "INSERT INTO bookings (guest_id, room_id, check_in_date, check_out_date, total_price, status) VALUES (?, ?, ?, ?, ?, ?)";
 
+        return Batches.insertAll(sql, bookings, (pstmt, booking) -> {
             pstmt.setInt(1, booking.getGuestId());
             pstmt.setInt(2, booking.getRoomId());
             pstmt.setDate(3, new java.sql.Date(booking.getCheckInDate().getTime()));
             pstmt.setDate(4, new java.sql.Date(booking.getCheckOutDate().getTime()));
             pstmt.setDouble(5, booking.getTotalPrice());
             pstmt.setString(6, booking.getStatus() != null ? booking.getStatus() : "Booked");
-
-            int affectedRows = pstmt.executeUpdate();
-
-            if (affectedRows > 0) {
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        int bookingId = generatedKeys.getInt(1);
-                        booking.setId(bookingId);
-                        return bookingId;
-                    }
+        }, (chunk, ids) -> {
+            List<Booking> active = new ArrayList<>();
+            for (int i = 0; i < ids.length; i++) {
+                Booking booking = chunk.get(i);
+                booking.setId(ids[i]);
+                if (booking.getStatus() == null || AvailabilityIndex.isActiveStatus(booking.getStatus())) {
+                    active.add(booking);
                 }
             }
-        }
-        throw new SQLException("Failed to save booking");
+            roomNightDAO.reserveAll(active);
+            UnitOfWork.afterCommit(() -> active.forEach(booking -> availabilityIndex.put(booking.getId(),
+                    booking.getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate())));
+        });
     }
 
     // Get booking by ID
@@ -80,6 +129,83 @@ public class BookingDAO {
         return bookings;
     }
 
+    // Pass every booking with room and guest information to an action, oldest first, reading
+    // row by row instead of building a list, so exports hold one booking at a time.
+    // Returns the number of bookings read
+    public long forEachBooking(Consumer<? super Booking> action) throws SQLException {
+        String sql = "SELECT b.*, r.room_number, u.fullname as guest_name " +
+                "FROM bookings b " +
+                "JOIN rooms r ON b.room_id = r.id " +
+                "JOIN users u ON b.guest_id = u.id " +
+                "ORDER BY b.id";
+
+        return Cursors.forEach(sql, this::mapResultSetToBooking, action);
+    }
+
+    // Count the bookings matching a listing's filters
+    public int countBookings(BookingListQuery query) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM bookings b " +
+                "JOIN users u ON b.guest_id = u.id" +
+                query.whereClause(null);
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            query.bind(pstmt, 1, null);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    // Get one page of a bookings listing, starting after the given key (null for the first page)
+    public List<Booking> getBookingsPage(BookingListQuery query, BookingListQuery.Key after, int limit) throws SQLException {
+        List<Booking> bookings = new ArrayList<>(limit);
+        String sql = "SELECT b.*, r.room_number, u.fullname as guest_name " +
+                "FROM bookings b " +
+                "JOIN rooms r ON b.room_id = r.id " +
+                "JOIN users u ON b.guest_id = u.id" +
+                query.whereClause(after) +
+                query.orderByClause() +
+                " LIMIT ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = query.bind(pstmt, 1, after);
+            pstmt.setInt(index, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    bookings.add(mapResultSetToBooking(rs));
+                }
+            }
+        }
+        return bookings;
+    }
+
+    // Key of the row that lies skip rows past the given key, reading only the sort columns; null past the end
+    public BookingListQuery.Key findBookingKey(BookingListQuery query, BookingListQuery.Key after, int skip) throws SQLException {
+        String sql = "SELECT " + query.getSortColumn().getExpression() + ", b.id " +
+                "FROM bookings b " +
+                "JOIN rooms r ON b.room_id = r.id " +
+                "JOIN users u ON b.guest_id = u.id" +
+                query.whereClause(after) +
+                query.orderByClause() +
+                " LIMIT 1 OFFSET ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = query.bind(pstmt, 1, after);
+            pstmt.setInt(index, skip);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? new BookingListQuery.Key(rs.getObject(1), rs.getInt(2)) : null;
+            }
+        }
+    }
+
     // Get bookings by guest ID
     public List<Booking> getBookingsByGuestId(int guestId) throws SQLException {
         List<Booking> bookings = new ArrayList<>();
@@ -152,58 +278,126 @@ public class BookingDAO {
         return bookings;
     }
 
-    // Update booking information
+    // Update booking information, moving its room nights to the new room and dates
     public boolean updateBooking(Booking booking) throws SQLException {
         String sql = "UPDATE bookings SET guest_id = ?, room_id = ?, check_in_date = ?, " +
                 "check_out_date = ?, total_price = ?, status = ? WHERE id = ?";
 
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, booking.getGuestId());
-            pstmt.setInt(2, booking.getRoomId());
-            pstmt.setDate(3, new java.sql.Date(booking.getCheckInDate().getTime()));
-            pstmt.setDate(4, new java.sql.Date(booking.getCheckOutDate().getTime()));
-            pstmt.setDouble(5, booking.getTotalPrice());
-            pstmt.setString(6, booking.getStatus());
-            pstmt.setInt(7, booking.getId());
-
-            return pstmt.executeUpdate() > 0;
-        }
+        return UnitOfWork.execute(transaction -> {
+            try (Connection conn = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+                pstmt.setInt(1, booking.getGuestId());
+                pstmt.setInt(2, booking.getRoomId());
+                pstmt.setDate(3, new java.sql.Date(booking.getCheckInDate().getTime()));
+                pstmt.setDate(4, new java.sql.Date(booking.getCheckOutDate().getTime()));
+                pstmt.setDouble(5, booking.getTotalPrice());
+                pstmt.setString(6, booking.getStatus());
+                pstmt.setInt(7, booking.getId());
+
+                boolean updated = pstmt.executeUpdate() > 0;
+                if (updated) {
+                    int bookingId = booking.getId();
+                    roomNightDAO.releaseNights(bookingId);
+                    if (AvailabilityIndex.isActiveStatus(booking.getStatus())) {
+                        int roomId = booking.getRoomId();
+                        Date checkIn = booking.getCheckInDate();
+                        Date checkOut = booking.getCheckOutDate();
+                        roomNightDAO.reserveNights(bookingId, roomId, checkIn, checkOut);
+                        UnitOfWork.afterCommit(() -> availabilityIndex.put(bookingId, roomId, checkIn, checkOut));
+                    } else {
+                        UnitOfWork.afterCommit(() -> availabilityIndex.remove(bookingId));
+                    }
+                }
+                return updated;
+            }
+        });
     }
 
-    // Update booking status
+    // Update booking status.
+    // Cancelling or checking out releases the booking's room nights; re-activating takes them again.
     public boolean updateBookingStatus(int bookingId, String status) throws SQLException {
         String sql = "UPDATE bookings SET status = ? WHERE id = ?";
 
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        return UnitOfWork.execute(transaction -> {
+            try (Connection conn = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+                pstmt.setString(1, status);
+                pstmt.setInt(2, bookingId);
+
+                boolean updated = pstmt.executeUpdate() > 0;
+                if (updated) {
+                    if (!AvailabilityIndex.isActiveStatus(status)) {
+                        roomNightDAO.releaseNights(bookingId);
+                        UnitOfWork.afterCommit(() -> availabilityIndex.remove(bookingId));
+                    } else if (!roomNightDAO.holdsNights(bookingId)) {
+                        // Re-activated booking; the dates are not known here
+                        roomNightDAO.reserveNights(bookingId);
+                        availabilityIndex.refresh(bookingId);
+                    }
+                }
+                return updated;
+            }
+        });
+    }
 
-            pstmt.setString(1, status);
-            pstmt.setInt(2, bookingId);
+    // Set the status of several bookings, one UPDATE per db.batch.size ids, releasing or
+    // taking room nights like updateBookingStatus. Returns the number of bookings found.
+    public int updateStatusAll(List<Integer> bookingIds, String status) throws SQLException {
+        boolean active = AvailabilityIndex.isActiveStatus(status);
+
+        return Batches.forEachChunk(bookingIds, (conn, ids, inList) -> {
+            int updated;
+            try (PreparedStatement pstmt = conn.prepareStatement("UPDATE bookings SET status = ? WHERE id" + inList)) {
+                pstmt.setString(1, status);
+                Batches.bindIds(pstmt, 2, ids);
+                updated = pstmt.executeUpdate();
+            }
 
-            return pstmt.executeUpdate() > 0;
-        }
+            if (!active) {
+                roomNightDAO.releaseAll(ids);
+                UnitOfWork.afterCommit(() -> ids.forEach(availabilityIndex::remove));
+            } else {
+                // Re-activated bookings; the dates are not known here
+                for (int bookingId : roomNightDAO.withoutNights(ids)) {
+                    roomNightDAO.reserveNights(bookingId);
+                    availabilityIndex.refresh(bookingId);
+                }
+            }
+            return updated;
+        });
     }
 
     // Delete booking by ID
     public boolean deleteBooking(int id) throws SQLException {
         String sql = "DELETE FROM bookings WHERE id = ?";
 
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        return UnitOfWork.execute(transaction -> {
+            roomNightDAO.releaseNights(id);
 
-            pstmt.setInt(1, id);
-            return pstmt.executeUpdate() > 0;
-        }
+            try (Connection conn = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+                pstmt.setInt(1, id);
+                boolean deleted = pstmt.executeUpdate() > 0;
+                if (deleted) {
+                    UnitOfWork.afterCommit(() -> availabilityIndex.remove(id));
+                }
+                return deleted;
+            }
+        });
     }
 
-    // Check for conflicting bookings
+    // Check for conflicting bookings.
+    // Stays are half-open, like room nights: an active booking conflicts when it starts before the
+    // new stay's last night ends and ends after the new check-in (a same-day stay counts as one night).
+    // The leading range on check_in_date lets the (room_id, status, check_in_date, check_out_date)
+    // index answer it without reading rows. Booking creation relies on room_nights instead; this
+    // is kept for callers that want an answer without writing.
     public boolean hasConflictingBooking(int roomId, Date checkIn, Date checkOut, int excludeBookingId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM bookings WHERE room_id = ? AND status IN ('Booked', 'Checked In') " +
-                "AND ((check_in_date <= ? AND check_out_date > ?) OR " +
-                "(check_in_date < ? AND check_out_date >= ?) OR " +
-                "(check_in_date >= ? AND check_out_date <= ?))";
+                "AND check_in_date < ? AND (check_out_date > ? OR check_in_date = ?)";
 
         if (excludeBookingId > 0) {
             sql += " AND id != ?";
@@ -212,19 +406,16 @@ public class BookingDAO {
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            java.sql.Date sqlCheckIn = new java.sql.Date(checkIn.getTime());
-            java.sql.Date sqlCheckOut = new java.sql.Date(checkOut.getTime());
+            LocalDate start = RoomNightDAO.toLocalDate(checkIn);
+            LocalDate end = RoomNightDAO.endExclusive(start, RoomNightDAO.toLocalDate(checkOut));
 
             pstmt.setInt(1, roomId);
-            pstmt.setDate(2, sqlCheckOut);
-            pstmt.setDate(3, sqlCheckIn);
-            pstmt.setDate(4, sqlCheckOut);
-            pstmt.setDate(5, sqlCheckIn);
-            pstmt.setDate(6, sqlCheckIn);
-            pstmt.setDate(7, sqlCheckOut);
+            pstmt.setDate(2, java.sql.Date.valueOf(end));
+            pstmt.setDate(3, java.sql.Date.valueOf(start));
+            pstmt.setDate(4, java.sql.Date.valueOf(start));
 
             if (excludeBookingId > 0) {
-                pstmt.setInt(8, excludeBookingId);
+                pstmt.setInt(5, excludeBookingId);
             }
 
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -251,50 +442,89 @@ public class BookingDAO {
         return 0;
     }
 
+    // Get revenue, bookings, nights sold and average daily rate of the months in
+    // [start, endExclusive), oldest first; both are first days of months.
+    // Revenue is the payments received in the month, read from the daily revenue rollup.
+    // The other figures count the bookings checking in during the month in one grouped
+    // query over just these months, through the check-in date index.
+    public List<MonthlyReport> getMonthlyReport(LocalDate start, LocalDate endExclusive) throws SQLException {
+        Map<String, Double> revenue = revenueRollupDAO.getRevenueByMonth(start, endExclusive);
+
+        SqlDialect dialect = DatabaseManager.getDialect();
+        String month = dialect.yearMonth("check_in_date");
+        String sql = "SELECT " + month + " AS report_month, COUNT(*) AS booking_count, " +
+                "SUM(GREATEST(1, " + dialect.daysBetween("check_in_date", "check_out_date") + ")) AS nights_sold, " +
+                "SUM(total_price) AS booked_value FROM bookings " +
+                "WHERE check_in_date >= ? AND check_in_date < ? AND status <> 'Cancelled' " +
+                "GROUP BY " + month + " ORDER BY report_month";
+
+        Map<String, MonthlyReport> report = new TreeMap<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setDate(1, java.sql.Date.valueOf(start));
+            pstmt.setDate(2, java.sql.Date.valueOf(endExclusive));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String reportMonth = rs.getString("report_month");
+                    report.put(reportMonth, new MonthlyReport(reportMonth, revenue.getOrDefault(reportMonth, 0.0),
+                            rs.getInt("booking_count"), rs.getInt("nights_sold"), rs.getDouble("booked_value")));
+                }
+            }
+        }
+
+        // Months with payments but no check-ins
+        revenue.forEach((reportMonth, amount) ->
+                report.putIfAbsent(reportMonth, new MonthlyReport(reportMonth, amount, 0, 0, 0.0)));
+        return new ArrayList<>(report.values());
+    }
+
     // Get current active bookings
     public List<Booking> getActiveBookings() throws SQLException {
         return getBookingsByStatus("Checked In");
     }
 
-    // Get today's check-ins
+    // Get today's check-ins; today is the hotel's business day (BusinessClock), not the database server's
     public List<Booking> getTodayCheckIns() throws SQLException {
         List<Booking> bookings = new ArrayList<>();
         String sql = "SELECT b.*, r.room_number, u.fullname as guest_name " +
                 "FROM bookings b " +
                 "JOIN rooms r ON b.room_id = r.id " +
                 "JOIN users u ON b.guest_id = u.id " +
-                "WHERE DATE(b.check_in_date) = CURDATE() " +
-                "AND b.status = 'Booked' " +
+                "WHERE b.status = 'Booked' AND " + TimeRange.condition("b.check_in_date") + " " +
                 "ORDER BY b.check_in_date";
 
         try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                bookings.add(mapResultSetToBooking(rs));
+            BusinessClock.todayRange().bindDates(pstmt, 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    bookings.add(mapResultSetToBooking(rs));
+                }
             }
         }
         return bookings;
     }
 
-    // Get today's check-outs
+    // Get today's check-outs; today is the hotel's business day (BusinessClock), not the database server's
     public List<Booking> getTodayCheckOuts() throws SQLException {
         List<Booking> bookings = new ArrayList<>();
         String sql = "SELECT b.*, r.room_number, u.fullname as guest_name " +
                 "FROM bookings b " +
                 "JOIN rooms r ON b.room_id = r.id " +
                 "JOIN users u ON b.guest_id = u.id " +
-                "WHERE DATE(b.check_out_date) = CURDATE() " +
-                "AND b.status = 'Checked In' " +
+                "WHERE b.status = 'Checked In' AND " + TimeRange.condition("b.check_out_date") + " " +
                 "ORDER BY b.check_out_date";
 
         try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                bookings.add(mapResultSetToBooking(rs));
+            BusinessClock.todayRange().bindDates(pstmt, 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    bookings.add(mapResultSetToBooking(rs));
+                }
             }
         }
         return bookings;
@@ -0,0 +1,185 @@
+package dao;
+
+import model.Booking;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Filter and sort order of a paged bookings listing.
+ *
+ * Rows are ordered by the sort column and then by id in the same direction, so
+ * every row has a unique {@link Key} and a page can start right after the last
+ * row of the previous one without an OFFSET.
+ *
+ * Example:
+ * <pre>
+ *     BookingListQuery query = BookingListQuery.all()
+ *             .withStatus("Booked")
+ *             .sortedBy(BookingListQuery.SortColumn.CHECK_IN, false);
+ *     List&lt;Booking&gt; first = bookingDAO.getBookingsPage(query, null, 100);
+ *     List&lt;Booking&gt; next = bookingDAO.getBookingsPage(query, query.keyOf(first.get(99)), 100);
+ * </pre>
+ */
+public final class BookingListQuery {
+
+    /**
+     * Columns the listing can be sorted by
+     */
+    public enum SortColumn {
+        ID("b.id"),
+        // Guests without a name sort as an empty name, so the keyset comparison never meets a NULL
+        GUEST_NAME("COALESCE(u.fullname, '')"),
+        ROOM_NUMBER("r.room_number"),
+        CHECK_IN("b.check_in_date"),
+        CHECK_OUT("b.check_out_date"),
+        TOTAL_PRICE("b.total_price"),
+        STATUS("b.status");
+
+        private final String expression;
+
+        SortColumn(String expression) {
+            this.expression = expression;
+        }
+
+        String getExpression() {
+            return expression;
+        }
+
+        // Value of this column for a booking read by the listing
+        Object valueOf(Booking booking) {
+            switch (this) {
+                case GUEST_NAME:
+                    return booking.getGuestName() != null ? booking.getGuestName() : "";
+                case ROOM_NUMBER:
+                    return booking.getRoomNumber();
+                case CHECK_IN:
+                    return booking.getCheckInDate();
+                case CHECK_OUT:
+                    return booking.getCheckOutDate();
+                case TOTAL_PRICE:
+                    return booking.getTotalPrice();
+                case STATUS:
+                    return booking.getStatus();
+                default:
+                    return booking.getId();
+            }
+        }
+    }
+
+    /**
+     * Position of a row in the listing: its sort column value and id
+     */
+    public static final class Key {
+        private final Object sortValue;
+        private final int id;
+
+        Key(Object sortValue, int id) {
+            this.sortValue = sortValue;
+            this.id = id;
+        }
+
+        Object getSortValue() { return sortValue; }
+        int getId() { return id; }
+
+        @Override
+        public String toString() {
+            return "Key{" + sortValue + ", id=" + id + "}";
+        }
+    }
+
+    private final String status;
+    private final String guestUsername;
+    private final SortColumn sortColumn;
+    private final boolean descending;
+
+    private BookingListQuery(String status, String guestUsername, SortColumn sortColumn, boolean descending) {
+        this.status = status;
+        this.guestUsername = guestUsername;
+        this.sortColumn = sortColumn;
+        this.descending = descending;
+    }
+
+    // Every booking, newest first
+    public static BookingListQuery all() {
+        return new BookingListQuery(null, null, SortColumn.ID, true);
+    }
+
+    // Only bookings with this status; null or "All" removes the filter
+    public BookingListQuery withStatus(String status) {
+        return new BookingListQuery("All".equals(status) ? null : status, guestUsername, sortColumn, descending);
+    }
+
+    // Only bookings of this guest; null removes the filter
+    public BookingListQuery forGuest(String username) {
+        return new BookingListQuery(status, username, sortColumn, descending);
+    }
+
+    public BookingListQuery sortedBy(SortColumn column, boolean descending) {
+        return new BookingListQuery(status, guestUsername, column, descending);
+    }
+
+    // Key of a booking returned by a page of this query
+    public Key keyOf(Booking booking) {
+        return new Key(sortColumn.valueOf(booking), booking.getId());
+    }
+
+    public String getStatus() { return status; }
+    public String getGuestUsername() { return guestUsername; }
+    public SortColumn getSortColumn() { return sortColumn; }
+    public boolean isDescending() { return descending; }
+
+    // WHERE clause of the filters, with the keyset condition when a start key is given
+    String whereClause(Key after) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (status != null) {
+            where.append(" AND b.status = ?");
+        }
+        if (guestUsername != null) {
+            where.append(" AND u.username = ?");
+        }
+        if (after != null) {
+            String column = sortColumn.getExpression();
+            String op = descending ? "<" : ">";
+            if (sortColumn == SortColumn.ID) {
+                where.append(" AND b.id ").append(op).append(" ?");
+            } else {
+                where.append(" AND (").append(column).append(' ').append(op).append(" ? OR (")
+                        .append(column).append(" = ? AND b.id ").append(op).append(" ?))");
+            }
+        }
+        return where.toString();
+    }
+
+    String orderByClause() {
+        String direction = descending ? " DESC" : " ASC";
+        if (sortColumn == SortColumn.ID) {
+            return " ORDER BY b.id" + direction;
+        }
+        return " ORDER BY " + sortColumn.getExpression() + direction + ", b.id" + direction;
+    }
+
+    // Bind the parameters of whereClause starting at index, returning the next free index
+    int bind(PreparedStatement pstmt, int index, Key after) throws SQLException {
+        if (status != null) {
+            pstmt.setString(index++, status);
+        }
+        if (guestUsername != null) {
+            pstmt.setString(index++, guestUsername);
+        }
+        if (after != null) {
+            if (sortColumn != SortColumn.ID) {
+                pstmt.setObject(index++, after.getSortValue());
+                pstmt.setObject(index++, after.getSortValue());
+            }
+            pstmt.setInt(index++, after.getId());
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingListQuery{status=" + status + ", guest=" + guestUsername +
+                ", sort=" + sortColumn + (descending ? " DESC" : " ASC") + "}";
+    }
+}
@@ -0,0 +1,74 @@
+package dao;
+
+import utill.AppConfig;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * The hotel's idea of "now" and "today".
+ *
+ * Days start at midnight in the hotel's time zone, app.timezone in the application
+ * settings (default: the JVM's zone), so "today's arrivals" are right even when
+ * the server runs in UTC. Queries compute their day boundaries here instead of calling
+ * the database's CURRENT_DATE, which follows the database server's clock and zone.
+ * Tests, benchmarks and replays can substitute a fixed or offset clock with {@link #set}.
+ */
+public final class BusinessClock {
+
+    private static volatile Clock clock;
+
+    private BusinessClock() {
+    }
+
+    // Current clock, created from the configuration on first use
+    public static Clock get() {
+        Clock current = clock;
+        if (current == null) {
+            synchronized (BusinessClock.class) {
+                if (clock == null) {
+                    clock = Clock.system(configuredZone());
+                }
+                current = clock;
+            }
+        }
+        return current;
+    }
+
+    // Replace the clock; null goes back to the system clock in the configured zone
+    public static void set(Clock replacement) {
+        clock = replacement;
+    }
+
+    public static ZoneId zone() {
+        return get().getZone();
+    }
+
+    public static Instant now() {
+        return get().instant();
+    }
+
+    public static LocalDate today() {
+        return LocalDate.now(get());
+    }
+
+    // Today from midnight to midnight in the hotel's zone
+    public static TimeRange todayRange() {
+        return TimeRange.day(today(), zone());
+    }
+
+    private static ZoneId configuredZone() {
+        String zone = AppConfig.get().get("app.timezone", "");
+        if (zone.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(zone.trim());
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid app.timezone: " + zone, e);
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package dao;
+
+import utill.LatencyHistogram;
+import utill.Log;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool used by {@link DatabaseManager}.
+ *
+ * Connections handed out by {@link #getConnection()} are proxies: calling
+ * {@code close()} returns the physical connection to the pool instead of
+ * tearing it down, so the DAOs can keep using try-with-resources unchanged.
+ *
+ * The pool provides:
+ * - A hard upper bound on open connections with a borrow timeout
+ * - A minimum number of warm idle connections
+ * - Validation of idle connections on borrow
+ * - Eviction of connections that have been idle too long
+ * - Leak detection for connections held longer than a threshold
+ * - Wait time and timeout counters for monitoring ({@link ConnectionPoolMXBean})
+ */
+public class ConnectionPool {
+
+    private static final Log LOGGER = Log.get(ConnectionPool.class);
+
+    // Connections returned this recently are trusted without a validation round trip
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int validationTimeoutSeconds;
+
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+
+    // Time borrowers waited for a permit, and borrows that gave up
+    private final LatencyHistogram borrowWait = new LatencyHistogram();
+    private final LongAdder borrowTimeouts = new LongAdder();
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool and opens the minimum number of connections
+     *
+     * @param config Connection and sizing settings
+     * @throws SQLException if the initial connections cannot be opened
+     */
+    public ConnectionPool(Config config) throws SQLException {
+        if (config.minSize < 0 || config.maxSize < 1 || config.minSize > config.maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + config.minSize + ", max=" + config.maxSize);
+        }
+
+        this.url = config.url;
+        this.username = config.username;
+        this.password = config.password;
+        this.minSize = config.minSize;
+        this.maxSize = config.maxSize;
+        this.borrowTimeoutMillis = config.borrowTimeoutMillis;
+        this.idleTimeoutMillis = config.idleTimeoutMillis;
+        this.leakThresholdMillis = config.leakThresholdMillis;
+        this.validationTimeoutSeconds = config.validationTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+
+        fillToMinimum();
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, config.housekeepingIntervalMillis);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+
+        LOGGER.info("Connection pool started (min={}, max={})", minSize, maxSize);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout for one to become free
+     *
+     * @return A pooled connection; closing it returns it to the pool
+     * @throws SQLException if the pool is closed, exhausted past the timeout, or the database is unreachable
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+            borrowWait.recordSince(waitStart);
+            if (!acquired) {
+                borrowTimeouts.increment();
+                throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis +
+                        " ms waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idleConnections.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    break;
+                }
+                discard(pooled);
+            }
+
+            if (pooled == null) {
+                pooled = openConnection();
+            }
+
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowTrace = leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            borrowedConnections.add(pooled);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes every connection and stops housekeeping.
+     * Borrowed connections are closed when their borrowers release them.
+     */
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            discard(pooled);
+        }
+
+        LOGGER.info("Connection pool shut down");
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public int getIdleConnections() {
+        return idleConnections.size();
+    }
+
+    public int getActiveConnections() {
+        return borrowedConnections.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    // Time each borrow waited for a free connection, in nanoseconds
+    public LatencyHistogram getBorrowWait() {
+        return borrowWait;
+    }
+
+    // Borrows that failed after waiting the whole borrow timeout
+    public long getBorrowTimeoutCount() {
+        return borrowTimeouts.sum();
+    }
+
+    // Return a borrowed connection, resetting any state the borrower changed
+    private void release(PooledConnection pooled) {
+        borrowedConnections.remove(pooled);
+
+        try {
+            if (closed) {
+                discard(pooled);
+                return;
+            }
+
+            try {
+                Connection physical = pooled.physical;
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                if (physical.isReadOnly()) {
+                    physical.setReadOnly(false);
+                }
+                physical.clearWarnings();
+            } catch (SQLException e) {
+                LOGGER.fine("Discarding connection that failed to reset", e);
+                discard(pooled);
+                return;
+            }
+
+            pooled.lastReturnedAt = System.currentTimeMillis();
+            pooled.borrowTrace = null;
+            idleConnections.offerFirst(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastReturnedAt < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, username, password);
+        totalConnections.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            LOGGER.fine("Error closing pooled connection", e);
+        }
+    }
+
+    private void fillToMinimum() throws SQLException {
+        while (!closed && totalConnections.get() < minSize) {
+            PooledConnection pooled = openConnection();
+            pooled.lastReturnedAt = System.currentTimeMillis();
+            idleConnections.offerLast(pooled);
+        }
+    }
+
+    // Periodic task: evict stale idle connections, top up to the minimum and report leaks
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            if (idleTimeoutMillis > 0) {
+                for (PooledConnection pooled : idleConnections) {
+                    if (totalConnections.get() <= minSize) {
+                        break;
+                    }
+                    if (now - pooled.lastReturnedAt > idleTimeoutMillis && idleConnections.remove(pooled)) {
+                        discard(pooled);
+                    }
+                }
+            }
+
+            fillToMinimum();
+
+            if (leakThresholdMillis > 0) {
+                for (PooledConnection pooled : borrowedConnections) {
+                    long heldFor = now - pooled.borrowedAt;
+                    if (!pooled.leakReported && heldFor > leakThresholdMillis) {
+                        pooled.leakReported = true;
+                        LOGGER.warning("Possible connection leak: connection held for {} ms", heldFor, pooled.borrowTrace);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.warning("Connection pool housekeeping failed", e);
+        }
+    }
+
+    /**
+     * Physical connection plus the bookkeeping the pool needs for it
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long lastReturnedAt;
+        private volatile long borrowedAt;
+        private volatile Throwable borrowTrace;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        // Each borrow gets its own handle so a stale reference cannot touch the next borrower's connection
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    /**
+     * Proxy handler that turns close() into a return to the pool
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean closed;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+
+            // Unwrapping must not hand out the physical connection, which would outlive this handle
+            switch (method.getName()) {
+                case "unwrap":
+                    Class<?> iface = (Class<?>) args[0];
+                    if (iface.isInstance(proxy)) {
+                        return proxy;
+                    }
+                    throw new SQLException("Pooled connection does not expose " + iface.getName());
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy);
+                default:
+                    break;
+            }
+
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Pool settings
+     */
+    public static class Config {
+        private final String url;
+        private final String username;
+        private final String password;
+        private int minSize = 2;
+        private int maxSize = 10;
+        private long borrowTimeoutMillis = 30_000;
+        private long idleTimeoutMillis = 10 * 60 * 1000;
+        private long leakThresholdMillis = 60_000;
+        private long housekeepingIntervalMillis = 30_000;
+        private int validationTimeoutSeconds = 5;
+
+        public Config(String url, String username, String password) {
+            this.url = url;
+            this.username = username;
+            this.password = password;
+        }
+
+        public Config minSize(int minSize) { this.minSize = minSize; return this; }
+        public Config maxSize(int maxSize) { this.maxSize = maxSize; return this; }
+        public Config borrowTimeoutMillis(long millis) { this.borrowTimeoutMillis = millis; return this; }
+        public Config idleTimeoutMillis(long millis) { this.idleTimeoutMillis = millis; return this; }
+        public Config leakThresholdMillis(long millis) { this.leakThresholdMillis = millis; return this; }
+        public Config housekeepingIntervalMillis(long millis) { this.housekeepingIntervalMillis = millis; return this; }
+        public Config validationTimeoutSeconds(int seconds) { this.validationTimeoutSeconds = seconds; return this; }
+    }
+}
@@ -0,0 +1,32 @@
+package dao;
+
+/**
+ * JMX view of the connection pool, registered as hotel:type=ConnectionPool.
+ *
+ * Reads the pool {@link DatabaseManager} currently uses, so it stays valid when the
+ * pool is restarted; before the pool has started every value is zero. Wait times are
+ * measured from the start of a borrow until a connection was free.
+ */
+public interface ConnectionPoolMXBean {
+
+    int getMaxSize();
+
+    int getTotalConnections();
+
+    int getIdleConnections();
+
+    int getActiveConnections();
+
+    // Borrowed connections as a fraction of the maximum pool size, 0 to 1
+    double getUtilization();
+
+    long getBorrowCount();
+
+    long getBorrowTimeoutCount();
+
+    double getBorrowWaitMeanMillis();
+
+    double getBorrowWaitP99Millis();
+
+    double getBorrowWaitMaxMillis();
+}
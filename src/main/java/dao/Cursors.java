@@ -0,0 +1,115 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Row-by-row reads for the DAOs' streaming methods.
+ *
+ * Results are read forward-only and read-only with the dialect's streaming fetch size,
+ * so the driver holds a window of rows instead of the whole result and memory use does
+ * not depend on the size of the table. The read keeps one connection for its duration;
+ * outside a {@link UnitOfWork} that is a pooled connection of its own, so other users
+ * are not held up. With MySQL, nothing else may run on that connection until the rows
+ * are read, so callers inside a transaction must not use the DAOs from the consumer.
+ */
+final class Cursors {
+
+    private Cursors() {
+    }
+
+    /**
+     * Maps the current row of a result set
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Passes every row of a query to an action, one at a time
+     *
+     * @return Number of rows read
+     */
+    static <T> long forEach(String sql, RowMapper<T> mapper, Consumer<? super T> action) throws SQLException {
+        long count = 0;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = openStatement(conn);
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                action.accept(mapper.map(rs));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lazy stream of the rows of a query. The stream holds a connection until it is
+     * closed, so it must be used in a try-with-resources block. Errors while reading
+     * are thrown as {@link UncheckedSQLException}.
+     */
+    static <T> Stream<T> stream(String sql, RowMapper<T> mapper) throws SQLException {
+        Connection conn = DatabaseManager.getConnection();
+        Statement stmt = null;
+        try {
+            stmt = openStatement(conn);
+            ResultSet rs = stmt.executeQuery(sql);
+            Statement statement = stmt;
+
+            Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                    Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept(mapper.map(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new UncheckedSQLException(e);
+                    }
+                }
+            };
+            return StreamSupport.stream(rows, false).onClose(() -> {
+                try (conn; statement; rs) {
+                    // Closed in reverse order: result set, statement, connection
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException(e);
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            closeAfterFailure(stmt, e);
+            closeAfterFailure(conn, e);
+            throw e;
+        }
+    }
+
+    // Close what a failed stream had opened, keeping any close error with the failure
+    private static void closeAfterFailure(AutoCloseable resource, Exception failure) {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (Exception e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private static Statement openStatement(Connection conn) throws SQLException {
+        Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(DatabaseManager.getDialect().streamingFetchSize());
+        return stmt;
+    }
+}
@@ -0,0 +1,126 @@
+package dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Database settings loaded from external properties.
+ *
+ * Settings are layered, later sources overriding earlier ones:
+ * 1. database.properties on the classpath (MySQL defaults)
+ * 2. database-{profile}.properties on the classpath, when a profile is selected
+ *    with db.profile or -Dhotel.db.profile (e.g. "h2" for the embedded engine)
+ * 3. An external file given by -Dhotel.db.config=/path/to/file.properties
+ * 4. Individual system properties, e.g. -Dhotel.db.url overrides db.url
+ */
+public final class DatabaseConfig {
+
+    private static final String SYSTEM_PREFIX = "hotel.";
+
+    private final Properties properties;
+
+    private DatabaseConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Loads the configuration from all sources
+     *
+     * @return The merged configuration
+     */
+    public static DatabaseConfig load() {
+        Properties properties = new Properties();
+        loadResource(properties, "/database.properties");
+
+        String profile = System.getProperty(SYSTEM_PREFIX + "db.profile", properties.getProperty("db.profile"));
+        if (profile != null && !profile.isBlank()) {
+            if (!loadResource(properties, "/database-" + profile.trim() + ".properties")) {
+                throw new IllegalStateException("Unknown database profile: " + profile);
+            }
+        }
+
+        String externalFile = System.getProperty(SYSTEM_PREFIX + "db.config");
+        if (externalFile != null && !externalFile.isBlank()) {
+            Path path = Paths.get(externalFile);
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read database config " + path, e);
+            }
+        }
+
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(SYSTEM_PREFIX + "db.")) {
+                properties.setProperty(name.substring(SYSTEM_PREFIX.length()), System.getProperty(name));
+            }
+        }
+
+        return new DatabaseConfig(properties);
+    }
+
+    private static boolean loadResource(Properties properties, String resource) {
+        try (InputStream in = DatabaseConfig.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                return false;
+            }
+            properties.load(in);
+            return true;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + resource, e);
+        }
+    }
+
+    public String getUrl() {
+        return properties.getProperty("db.url", "jdbc:mysql://localhost:3306/hotel_db");
+    }
+
+    public String getUsername() {
+        return properties.getProperty("db.username", "root");
+    }
+
+    public String getPassword() {
+        return properties.getProperty("db.password", "root");
+    }
+
+    // JDBC driver class to load explicitly, if any
+    public String getDriverClass() {
+        return properties.getProperty("db.driver");
+    }
+
+    public SqlDialect getDialect() {
+        return SqlDialect.resolve(properties.getProperty("db.dialect"), getUrl());
+    }
+
+    // Whether the sample users and rooms are inserted at startup
+    public boolean isSampleDataEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("db.sampleData", "true"));
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    public String get(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
+    // Pool settings built from db.pool.* keys
+    public ConnectionPool.Config toPoolConfig() {
+        return new ConnectionPool.Config(getUrl(), getUsername(), getPassword())
+                .minSize(getInt("db.pool.minSize", 2))
+                .maxSize(getInt("db.pool.maxSize", 10))
+                .borrowTimeoutMillis(getLong("db.pool.borrowTimeoutMillis", 30_000L))
+                .idleTimeoutMillis(getLong("db.pool.idleTimeoutMillis", 600_000L))
+                .leakThresholdMillis(getLong("db.pool.leakThresholdMillis", 60_000L));
+    }
+}
@@ -1,52 +1,117 @@
 package dao;
 
+import utill.AppConfig;
+
 import java.sql.*;
+import java.time.Duration;
 
 public class DatabaseManager {
-    private static final String URL = "jdbc:mysql://localhost:3306/hotel_db";
-    private static final String USERNAME = "root";
-    private static final String PASSWORD = "root";
+    private static volatile DatabaseConfig config;
+    private static volatile ConnectionPool pool;
+    private static final ConnectionPoolMXBean POOL_BEAN = new PoolBean();
 
-    private static Connection connection;
+    // Get the active configuration, loading it on first use
+    public static DatabaseConfig getConfig() {
+        DatabaseConfig current = config;
+        if (current == null) {
+            synchronized (DatabaseManager.class) {
+                if (config == null) {
+                    config = DatabaseConfig.load();
+                }
+                current = config;
+            }
+        }
+        return current;
+    }
 
-    // Get database connection
+    // Get the SQL dialect of the configured database
+    public static SqlDialect getDialect() {
+        return getConfig().getDialect();
+    }
+
+    // Get a pooled database connection; closing it returns it to the pool.
+    // Inside a UnitOfWork this is the transaction's connection.
+    // Its statements are timed per SQL template by SqlMetrics unless db.metrics.enabled=false.
     public static Connection getConnection() throws SQLException {
-        try {
-            if (connection == null || connection.isClosed()) {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+        Connection transactional = UnitOfWork.currentConnection();
+        if (transactional != null) {
+            return transactional;
+        }
+
+        ConnectionPool current = pool;
+        if (current == null || current.isClosed()) {
+            current = startPool();
+        }
+        Connection connection = current.getConnection();
+        return SqlMetrics.isEnabled() ? StatementInstrumentation.wrap(connection) : connection;
+    }
+
+    // Lazily start the pool on first use
+    private static synchronized ConnectionPool startPool() throws SQLException {
+        if (pool == null || pool.isClosed()) {
+            DatabaseConfig current = getConfig();
+
+            String driverClass = current.getDriverClass();
+            if (driverClass != null && !driverClass.isBlank()) {
+                try {
+                    Class.forName(driverClass.trim());
+                } catch (ClassNotFoundException e) {
+                    throw new SQLException("JDBC driver not found: " + driverClass, e);
+                }
             }
-            return connection;
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL Driver not found", e);
+
+            pool = new ConnectionPool(current.toPoolConfig());
         }
+        return pool;
     }
 
-    // Close database connection
+    // Get the connection pool, or null if it has not been started
+    public static ConnectionPool getPool() {
+        return pool;
+    }
+
+    // JMX view of whichever pool is current
+    public static ConnectionPoolMXBean getPoolMXBean() {
+        return POOL_BEAN;
+    }
+
+    // Close all pooled database connections
     public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+        ConnectionPool current = pool;
+        if (current != null) {
+            current.shutdown();
         }
     }
 
     // Initialize database tables
     public static void initializeDatabase() throws SQLException {
         createTables();
-        insertSampleData();
+        new SchemaMigrator(getDialect()).migrate();
+        if (getConfig().isSampleDataEnabled()) {
+            insertSampleData();
+        }
+        AvailabilityIndex.getInstance().load();
+
+        long foldSeconds = getConfig().getLong("db.rollup.foldSeconds", 5);
+        if (foldSeconds > 0) {
+            RevenueRollupDAO.startFolding(foldSeconds * 1000);
+        }
+
+        RoomCache roomCache = RoomCache.getInstance();
+        roomCache.setTimeToLive(Duration.ofSeconds(AppConfig.get().getLong("cache.rooms.ttlSeconds", 0)));
+        roomCache.invalidateAll();
     }
 
     // Create all necessary tables
     private static void createTables() throws SQLException {
+        SqlDialect dialect = getDialect();
+
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
 
             // Create Users table
             stmt.execute("CREATE TABLE IF NOT EXISTS users (" +
-                    "id INT PRIMARY KEY AUTO_INCREMENT," +
+                    "id " + dialect.autoIncrementPrimaryKey() + "," +
                     "username VARCHAR(50) UNIQUE NOT NULL," +
                     "password VARCHAR(50) NOT NULL," +
                     "role VARCHAR(20) NOT NULL," +
@@ -54,7 +119,7 @@ public class DatabaseManager {
 
             // Create Rooms table
             stmt.execute("CREATE TABLE IF NOT EXISTS rooms (" +
-                    "id INT PRIMARY KEY AUTO_INCREMENT," +
+                    "id " + dialect.autoIncrementPrimaryKey() + "," +
                     "room_number VARCHAR(10) UNIQUE NOT NULL," +
                     "type VARCHAR(20) NOT NULL," +
                     "price DOUBLE NOT NULL," +
@@ -62,7 +127,7 @@ public class DatabaseManager {
 
             // Create Bookings table
             stmt.execute("CREATE TABLE IF NOT EXISTS bookings (" +
-                    "id INT PRIMARY KEY AUTO_INCREMENT," +
+                    "id " + dialect.autoIncrementPrimaryKey() + "," +
                     "guest_id INT NOT NULL," +
                     "room_id INT NOT NULL," +
                     "check_in_date DATE NOT NULL," +
@@ -74,33 +139,64 @@ public class DatabaseManager {
 
             // Create Payments table
             stmt.execute("CREATE TABLE IF NOT EXISTS payments (" +
-                    "id INT PRIMARY KEY AUTO_INCREMENT," +
+                    "id " + dialect.autoIncrementPrimaryKey() + "," +
                     "booking_id INT NOT NULL," +
                     "amount DOUBLE NOT NULL," +
-                    "payment_date DATETIME NOT NULL," +
+                    "payment_date " + dialect.timestampType() + " NOT NULL," +
                     "method VARCHAR(20) NOT NULL," +
                     "FOREIGN KEY (booking_id) REFERENCES bookings(id))");
         }
     }
 
-    // Insert sample data for testing
+    // Insert sample data for testing; rows that already exist are left untouched
     private static void insertSampleData() throws SQLException {
+        String[][] users = {
+                {"admin", "admin123", "admin", "Admin User"},
+                {"staff", "staff123", "staff", "Staff Member"},
+                {"guest", "guest123", "guest", "John Doe"}
+        };
+        Object[][] rooms = {
+                {"101", "Standard", 100.00},
+                {"102", "Deluxe", 150.00},
+                {"201", "Suite", 250.00},
+                {"103", "Standard", 100.00},
+                {"202", "Deluxe", 150.00}
+        };
+
         try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
+             PreparedStatement userExists = conn.prepareStatement("SELECT 1 FROM users WHERE username = ?");
+             PreparedStatement insertUser = conn.prepareStatement(
+                     "INSERT INTO users (username, password, role, fullname) VALUES (?, ?, ?, ?)");
+             PreparedStatement roomExists = conn.prepareStatement("SELECT 1 FROM rooms WHERE room_number = ?");
+             PreparedStatement insertRoom = conn.prepareStatement(
+                     "INSERT INTO rooms (room_number, type, price) VALUES (?, ?, ?)")) {
 
             // Insert sample users
-            stmt.execute("INSERT IGNORE INTO users (username, password, role, fullname) VALUES " +
-                    "('admin', 'admin123', 'admin', 'Admin User')," +
-                    "('staff', 'staff123', 'staff', 'Staff Member')," +
-                    "('guest', 'guest123', 'guest', 'John Doe')");
+            for (String[] user : users) {
+                if (!exists(userExists, user[0])) {
+                    for (int i = 0; i < user.length; i++) {
+                        insertUser.setString(i + 1, user[i]);
+                    }
+                    insertUser.executeUpdate();
+                }
+            }
 
             // Insert sample rooms
-            stmt.execute("INSERT IGNORE INTO rooms (room_number, type, price) VALUES " +
-                    "('101', 'Standard', 100.00)," +
-                    "('102', 'Deluxe', 150.00)," +
-                    "('201', 'Suite', 250.00)," +
-                    "('103', 'Standard', 100.00)," +
-                    "('202', 'Deluxe', 150.00)");
+            for (Object[] room : rooms) {
+                if (!exists(roomExists, (String) room[0])) {
+                    insertRoom.setString(1, (String) room[0]);
+                    insertRoom.setString(2, (String) room[1]);
+                    insertRoom.setDouble(3, (Double) room[2]);
+                    insertRoom.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private static boolean exists(PreparedStatement query, String key) throws SQLException {
+        query.setString(1, key);
+        try (ResultSet rs = query.executeQuery()) {
+            return rs.next();
         }
     }
 
@@ -115,12 +211,80 @@ public class DatabaseManager {
 
     // Get the last inserted ID
     public static int getLastInsertId(Connection conn) throws SQLException {
+        String sql = getDialect().lastInsertIdQuery();
+        if (sql == null) {
+            throw new SQLException("Last insert ID is not supported by the " + getDialect() +
+                    " dialect; use generated keys instead");
+        }
+
         try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT LAST_INSERT_ID()")) {
+             ResultSet rs = stmt.executeQuery(sql)) {
             if (rs.next()) {
                 return rs.getInt(1);
             }
         }
         throw new SQLException("Failed to get last insert ID");
     }
-}
\ No newline at end of file
+
+    private static final class PoolBean implements ConnectionPoolMXBean {
+        @Override
+        public int getMaxSize() {
+            ConnectionPool current = pool;
+            return current == null ? 0 : current.getMaxSize();
+        }
+
+        @Override
+        public int getTotalConnections() {
+            ConnectionPool current = pool;
+            return current == null ? 0 : current.getTotalConnections();
+        }
+
+        @Override
+        public int getIdleConnections() {
+            ConnectionPool current = pool;
+            return current == null ? 0 : current.getIdleConnections();
+        }
+
+        @Override
+        public int getActiveConnections() {
+            ConnectionPool current = pool;
+            return current == null ? 0 : current.getActiveConnections();
+        }
+
+        @Override
+        public double getUtilization() {
+            ConnectionPool current = pool;
+            return current == null ? 0 : (double) current.getActiveConnections() / current.getMaxSize();
+        }
+
+        @Override
+        public long getBorrowCount() {
+            ConnectionPool current = pool;
+            return current == null ? 0 : current.getBorrowWait().getCount();
+        }
+
+        @Override
+        public long getBorrowTimeoutCount() {
+            ConnectionPool current = pool;
+            return current == null ? 0 : current.getBorrowTimeoutCount();
+        }
+
+        @Override
+        public double getBorrowWaitMeanMillis() {
+            ConnectionPool current = pool;
+            return current == null ? 0 : current.getBorrowWait().getMeanNanos() / 1e6;
+        }
+
+        @Override
+        public double getBorrowWaitP99Millis() {
+            ConnectionPool current = pool;
+            return current == null ? 0 : current.getBorrowWait().getValueAtPercentile(99) / 1e6;
+        }
+
+        @Override
+        public double getBorrowWaitMaxMillis() {
+            ConnectionPool current = pool;
+            return current == null ? 0 : current.getBorrowWait().getMaxNanos() / 1e6;
+        }
+    }
+}
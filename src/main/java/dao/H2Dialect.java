@@ -0,0 +1,75 @@
+package dao;
+
+import java.sql.SQLException;
+
+/**
+ * Dialect for the embedded H2 engine running in its native (non-MySQL) mode
+ */
+public class H2Dialect extends SqlDialect {
+
+    @Override
+    public String getName() {
+        return "h2";
+    }
+
+    @Override
+    public String autoIncrementPrimaryKey() {
+        return "INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY";
+    }
+
+    @Override
+    public String timestampType() {
+        return "TIMESTAMP";
+    }
+
+    @Override
+    public String currentDate() {
+        return "CURRENT_DATE";
+    }
+
+    @Override
+    public String currentTimestamp() {
+        return "CURRENT_TIMESTAMP";
+    }
+
+    @Override
+    public String dateOf(String expression) {
+        return "CAST(" + expression + " AS DATE)";
+    }
+
+    @Override
+    public String plusDays(String expression, int days) {
+        return "DATEADD(DAY, " + days + ", " + expression + ")";
+    }
+
+    @Override
+    public String daysBetween(String start, String end) {
+        return "DATEDIFF(DAY, " + start + ", " + end + ")";
+    }
+
+    @Override
+    public String yearMonth(String expression) {
+        return "FORMATDATETIME(" + expression + ", 'yyyy-MM')";
+    }
+
+    @Override
+    public String lastInsertIdQuery() {
+        // H2 only exposes generated keys through Statement.getGeneratedKeys()
+        return null;
+    }
+
+    @Override
+    public boolean isDuplicateKey(SQLException e) {
+        return "23505".equals(e.getSQLState());
+    }
+
+    @Override
+    public String restartIdentity(String table, long nextId) {
+        return "ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId;
+    }
+
+    @Override
+    public int streamingFetchSize() {
+        return 1000;
+    }
+}
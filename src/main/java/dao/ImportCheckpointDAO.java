@@ -0,0 +1,91 @@
+package dao;
+
+import java.sql.*;
+
+/**
+ * Progress of bulk imports, one row per source file.
+ *
+ * {@link #advance} must run in the same transaction as the rows it counts, so the
+ * checkpoint and the imported data are committed or rolled back together.
+ */
+public class ImportCheckpointDAO {
+
+    /**
+     * Records processed from one source and what became of them
+     */
+    public static final class Checkpoint {
+        private final long recordsDone;
+        private final long rowsImported;
+        private final long rowsRejected;
+
+        public Checkpoint(long recordsDone, long rowsImported, long rowsRejected) {
+            this.recordsDone = recordsDone;
+            this.rowsImported = rowsImported;
+            this.rowsRejected = rowsRejected;
+        }
+
+        public long getRecordsDone() { return recordsDone; }
+        public long getRowsImported() { return rowsImported; }
+        public long getRowsRejected() { return rowsRejected; }
+    }
+
+    // Get the checkpoint of a source, or null if it was never imported
+    public Checkpoint getCheckpoint(String source) throws SQLException {
+        String sql = "SELECT records_done, rows_imported, rows_rejected FROM import_checkpoints WHERE source = ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, source);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new Checkpoint(rs.getLong("records_done"), rs.getLong("rows_imported"),
+                            rs.getLong("rows_rejected"));
+                }
+            }
+        }
+        return null;
+    }
+
+    // Add a committed chunk to a source's checkpoint, creating it on the first chunk
+    public void advance(String source, long records, long imported, long rejected) throws SQLException {
+        String update = "UPDATE import_checkpoints SET records_done = records_done + ?, " +
+                "rows_imported = rows_imported + ?, rows_rejected = rows_rejected + ?, updated_at = ? WHERE source = ?";
+        String insert = "INSERT INTO import_checkpoints (source, records_done, rows_imported, rows_rejected, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?)";
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(update)) {
+                pstmt.setLong(1, records);
+                pstmt.setLong(2, imported);
+                pstmt.setLong(3, rejected);
+                pstmt.setTimestamp(4, now);
+                pstmt.setString(5, source);
+                if (pstmt.executeUpdate() > 0) {
+                    return;
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(insert)) {
+                pstmt.setString(1, source);
+                pstmt.setLong(2, records);
+                pstmt.setLong(3, imported);
+                pstmt.setLong(4, rejected);
+                pstmt.setTimestamp(5, now);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    // Forget a source's progress so the next import starts from the first record
+    public boolean deleteCheckpoint(String source) throws SQLException {
+        String sql = "DELETE FROM import_checkpoints WHERE source = ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, source);
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+}
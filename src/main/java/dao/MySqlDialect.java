@@ -0,0 +1,75 @@
+package dao;
+
+import java.sql.SQLException;
+
+public class MySqlDialect extends SqlDialect {
+
+    @Override
+    public String getName() {
+        return "mysql";
+    }
+
+    @Override
+    public String autoIncrementPrimaryKey() {
+        return "INT PRIMARY KEY AUTO_INCREMENT";
+    }
+
+    @Override
+    public String timestampType() {
+        return "DATETIME";
+    }
+
+    @Override
+    public String currentDate() {
+        return "CURDATE()";
+    }
+
+    @Override
+    public String currentTimestamp() {
+        return "NOW()";
+    }
+
+    @Override
+    public String dateOf(String expression) {
+        return "DATE(" + expression + ")";
+    }
+
+    @Override
+    public String plusDays(String expression, int days) {
+        return "DATE_ADD(" + expression + ", INTERVAL " + days + " DAY)";
+    }
+
+    @Override
+    public String daysBetween(String start, String end) {
+        return "DATEDIFF(" + end + ", " + start + ")";
+    }
+
+    @Override
+    public String yearMonth(String expression) {
+        return "DATE_FORMAT(" + expression + ", '%Y-%m')";
+    }
+
+    @Override
+    public String lastInsertIdQuery() {
+        return "SELECT LAST_INSERT_ID()";
+    }
+
+    @Override
+    public boolean isDuplicateKey(SQLException e) {
+        // ER_DUP_ENTRY; MySQL reports other constraint failures with the same SQL state
+        return e.getErrorCode() == 1062;
+    }
+
+    @Override
+    public String restartIdentity(String table, long nextId) {
+        // MySQL never lowers the counter below the largest id, so this only ever moves it up
+        return "ALTER TABLE " + table + " AUTO_INCREMENT = " + nextId;
+    }
+
+    @Override
+    public int streamingFetchSize() {
+        // Connector/J streams rows one at a time only for this value; any other fetch size
+        // reads the whole result into memory unless useCursorFetch is set
+        return Integer.MIN_VALUE;
+    }
+}
@@ -2,68 +2,94 @@ package dao;
 
 import model.Payment;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Date;
+import java.util.stream.Stream;
 
 public class PaymentDAO {
 
-    // Save new payment to database
+    private final RevenueRollupDAO revenueRollupDAO = new RevenueRollupDAO();
+
+    // Save new payment to database, adding it to the daily revenue rollup
     public int savePayment(Payment payment) throws SQLException {
         String sql = "INSERT INTO payments (booking_id, amount, payment_date, method) VALUES (?, ?, ?, ?)";
 
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        // If payment date is null, use current timestamp
+        Timestamp paymentDate = payment.getPaymentDate() != null
+                ? new Timestamp(payment.getPaymentDate().getTime())
+                : new Timestamp(System.currentTimeMillis());
+
+        return UnitOfWork.execute(transaction -> {
+            try (Connection conn = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+                pstmt.setInt(1, payment.getBookingId());
+                pstmt.setDouble(2, payment.getAmount());
+                pstmt.setTimestamp(3, paymentDate);
+                pstmt.setString(4, payment.getMethod());
+
+                int affectedRows = pstmt.executeUpdate();
+
+                if (affectedRows > 0) {
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            int paymentId = generatedKeys.getInt(1);
+                            payment.setId(paymentId);
+                            revenueRollupDAO.apply(dayOf(paymentDate), payment.getMethod(), payment.getAmount(), 1);
+                            return paymentId;
+                        }
+                    }
+                }
+            }
+            throw new SQLException("Failed to save payment");
+        });
+    }
 
-            pstmt.setInt(1, payment.getBookingId());
-            pstmt.setDouble(2, payment.getAmount());
+    // Save several payments with JDBC batches, committing every db.batch.size rows.
+    // Payments without a date are stamped with the current time. Each chunk adds to the
+    // revenue rollup once per day and method. Returns the generated ids in order.
+    public int[] saveAll(List<Payment> payments) throws SQLException {
+        String sql = "INSERT INTO payments (booking_id, amount, payment_date, method) VALUES (?, ?, ?, ?)";
 
-            // If payment date is null, use current timestamp
-            if (payment.getPaymentDate() != null) {
-                pstmt.setTimestamp(3, new Timestamp(payment.getPaymentDate().getTime()));
-            } else {
-                pstmt.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+        return Batches.insertAll(sql, payments, (pstmt, payment) -> {
+            if (payment.getPaymentDate() == null) {
+                payment.setPaymentDate(new Timestamp(System.currentTimeMillis()));
             }
-
+            pstmt.setInt(1, payment.getBookingId());
+            pstmt.setDouble(2, payment.getAmount());
+            pstmt.setTimestamp(3, new Timestamp(payment.getPaymentDate().getTime()));
             pstmt.setString(4, payment.getMethod());
-
-            int affectedRows = pstmt.executeUpdate();
-
-            if (affectedRows > 0) {
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        int paymentId = generatedKeys.getInt(1);
-                        payment.setId(paymentId);
-                        return paymentId;
-                    }
-                }
+        }, (chunk, ids) -> {
+            Map<RollupKey, double[]> totals = new LinkedHashMap<>();
+            for (int i = 0; i < ids.length; i++) {
+                Payment payment = chunk.get(i);
+                payment.setId(ids[i]);
+                double[] total = totals.computeIfAbsent(
+                        new RollupKey(dayOf(payment.getPaymentDate()), payment.getMethod()), key -> new double[2]);
+                total[0] += payment.getAmount();
+                total[1]++;
             }
-        }
-        throw new SQLException("Failed to save payment");
+            for (Map.Entry<RollupKey, double[]> entry : totals.entrySet()) {
+                RollupKey key = entry.getKey();
+                revenueRollupDAO.apply(key.day(), key.method(), entry.getValue()[0], (int) entry.getValue()[1]);
+            }
+        });
+    }
+
+    private record RollupKey(LocalDate day, String method) {
     }
 
     // Create payment with current timestamp
     public int createPayment(int bookingId, double amount, String method) throws SQLException {
-        String sql = "INSERT INTO payments (booking_id, amount, payment_date, method) VALUES (?, ?, NOW(), ?)";
-
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            pstmt.setInt(1, bookingId);
-            pstmt.setDouble(2, amount);
-            pstmt.setString(3, method);
-
-            pstmt.executeUpdate();
-
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    return generatedKeys.getInt(1);
-                }
-            }
-        }
-        throw new SQLException("Failed to create payment");
+        Payment payment = new Payment();
+        payment.setBookingId(bookingId);
+        payment.setAmount(amount);
+        payment.setMethod(method);
+        return savePayment(payment);
     }
 
     // Get payment by ID
@@ -100,6 +126,13 @@ public class PaymentDAO {
         return payments;
     }
 
+    // Stream all payments in id order, read row by row from the database. The stream holds
+    // a connection until closed, so use it in try-with-resources; read errors surface as
+    // UncheckedSQLException. Ordered by the primary key so the database needs no sort
+    public Stream<Payment> streamPayments() throws SQLException {
+        return Cursors.stream("SELECT * FROM payments ORDER BY id", this::mapResultSetToPayment);
+    }
+
     // Get payments by booking ID
     public List<Payment> getPaymentsByBookingId(int bookingId) throws SQLException {
         List<Payment> payments = new ArrayList<>();
@@ -138,16 +171,18 @@ public class PaymentDAO {
         return payments;
     }
 
-    // Get payments within date range
+    // Get payments within date range (both dates inclusive).
+    // The column is compared against [start, day after end) so the payment_date index can be used.
     public List<Payment> getPaymentsByDateRange(Date startDate, Date endDate) throws SQLException {
         List<Payment> payments = new ArrayList<>();
-        String sql = "SELECT * FROM payments WHERE DATE(payment_date) BETWEEN ? AND ? ORDER BY payment_date DESC";
+        String sql = "SELECT * FROM payments WHERE " + TimeRange.condition("payment_date") + " ORDER BY payment_date DESC";
 
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setDate(1, new java.sql.Date(startDate.getTime()));
-            pstmt.setDate(2, new java.sql.Date(endDate.getTime()));
+            LocalDate start = new java.sql.Date(startDate.getTime()).toLocalDate();
+            LocalDate end = new java.sql.Date(endDate.getTime()).toLocalDate();
+            TimeRange.days(start, end.plusDays(1), BusinessClock.zone()).bindTimestamps(pstmt, 1);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
@@ -158,144 +193,119 @@ public class PaymentDAO {
         return payments;
     }
 
-    // Update payment information
+    // Update payment information, moving its amount in the daily revenue rollup
     public boolean updatePayment(Payment payment) throws SQLException {
         String sql = "UPDATE payments SET booking_id = ?, amount = ?, payment_date = ?, method = ? WHERE id = ?";
+        Timestamp paymentDate = new Timestamp(payment.getPaymentDate().getTime());
 
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        return UnitOfWork.execute(transaction -> {
+            Payment previous = getPaymentForUpdate(payment.getId());
+            if (previous == null) {
+                return false;
+            }
 
-            pstmt.setInt(1, payment.getBookingId());
-            pstmt.setDouble(2, payment.getAmount());
-            pstmt.setTimestamp(3, new Timestamp(payment.getPaymentDate().getTime()));
-            pstmt.setString(4, payment.getMethod());
-            pstmt.setInt(5, payment.getId());
+            try (Connection conn = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            return pstmt.executeUpdate() > 0;
-        }
+                pstmt.setInt(1, payment.getBookingId());
+                pstmt.setDouble(2, payment.getAmount());
+                pstmt.setTimestamp(3, paymentDate);
+                pstmt.setString(4, payment.getMethod());
+                pstmt.setInt(5, payment.getId());
+
+                if (pstmt.executeUpdate() == 0) {
+                    return false;
+                }
+            }
+            revenueRollupDAO.apply(dayOf(previous.getPaymentDate()), previous.getMethod(), -previous.getAmount(), -1);
+            revenueRollupDAO.apply(dayOf(paymentDate), payment.getMethod(), payment.getAmount(), 1);
+            return true;
+        });
     }
 
-    // Delete payment by ID
+    // Delete payment by ID, taking it out of the daily revenue rollup
     public boolean deletePayment(int id) throws SQLException {
         String sql = "DELETE FROM payments WHERE id = ?";
 
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        return UnitOfWork.execute(transaction -> {
+            Payment previous = getPaymentForUpdate(id);
+            if (previous == null) {
+                return false;
+            }
 
-            pstmt.setInt(1, id);
-            return pstmt.executeUpdate() > 0;
-        }
+            try (Connection conn = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+                pstmt.setInt(1, id);
+                if (pstmt.executeUpdate() == 0) {
+                    return false;
+                }
+            }
+            revenueRollupDAO.apply(dayOf(previous.getPaymentDate()), previous.getMethod(), -previous.getAmount(), -1);
+            return true;
+        });
     }
 
-    // Get total revenue
-    public double getTotalRevenue() throws SQLException {
-        String sql = "SELECT SUM(amount) FROM payments";
+    // Read a payment and lock it until the transaction ends, so its rollup entry is moved only once
+    private Payment getPaymentForUpdate(int id) throws SQLException {
+        String sql = "SELECT * FROM payments WHERE id = ? FOR UPDATE";
 
         try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, id);
 
-            if (rs.next()) {
-                return rs.getDouble(1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToPayment(rs);
+                }
             }
         }
-        return 0.0;
+        return null;
     }
 
-    // Get revenue by month
-    public Map<String, Double> getRevenueByMonth() throws SQLException {
-        Map<String, Double> revenue = new HashMap<>();
-        String sql = "SELECT DATE_FORMAT(payment_date, '%Y-%m') AS month, SUM(amount) AS total " +
-                "FROM payments GROUP BY month ORDER BY month";
+    // Revenue reports below read the daily rollup rather than every payment
 
-        try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    // Get total revenue
+    public double getTotalRevenue() throws SQLException {
+        return revenueRollupDAO.getTotalRevenue();
+    }
 
-            while (rs.next()) {
-                revenue.put(rs.getString("month"), rs.getDouble("total"));
-            }
-        }
-        return revenue;
+    // Get revenue by month (yyyy-MM), oldest first
+    public Map<String, Double> getRevenueByMonth() throws SQLException {
+        return revenueRollupDAO.getRevenueByMonth();
     }
 
     // Get revenue by payment method
     public Map<String, Double> getRevenueByMethod() throws SQLException {
-        Map<String, Double> revenue = new HashMap<>();
-        String sql = "SELECT method, SUM(amount) AS total FROM payments GROUP BY method";
-
-        try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                revenue.put(rs.getString("method"), rs.getDouble("total"));
-            }
-        }
-        return revenue;
+        return revenueRollupDAO.getRevenueByMethod();
     }
 
     // Get today's revenue
     public double getTodayRevenue() throws SQLException {
-        String sql = "SELECT SUM(amount) FROM payments WHERE DATE(payment_date) = CURDATE()";
-
-        try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getDouble(1);
-            }
-        }
-        return 0.0;
+        LocalDate today = BusinessClock.today();
+        return revenueRollupDAO.getRevenueBetween(today, today.plusDays(1));
     }
 
     // Get this month's revenue
     public double getThisMonthRevenue() throws SQLException {
-        String sql = "SELECT SUM(amount) FROM payments " +
-                "WHERE YEAR(payment_date) = YEAR(CURDATE()) " +
-                "AND MONTH(payment_date) = MONTH(CURDATE())";
-
-        try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getDouble(1);
-            }
-        }
-        return 0.0;
+        LocalDate firstOfMonth = BusinessClock.today().withDayOfMonth(1);
+        return revenueRollupDAO.getRevenueBetween(firstOfMonth, firstOfMonth.plusMonths(1));
     }
 
     // Get total payment count
     public int getTotalPaymentCount() throws SQLException {
-        String sql = "SELECT COUNT(*) FROM payments";
-
-        try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-        }
-        return 0;
+        return revenueRollupDAO.getPaymentCount();
     }
 
     // Get payment count by method
     public Map<String, Integer> getPaymentCountByMethod() throws SQLException {
-        Map<String, Integer> counts = new HashMap<>();
-        String sql = "SELECT method, COUNT(*) AS count FROM payments GROUP BY method";
-
-        try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        return revenueRollupDAO.getPaymentCountByMethod();
+    }
 
-            while (rs.next()) {
-                counts.put(rs.getString("method"), rs.getInt("count"));
-            }
-        }
-        return counts;
+    // Day of the rollup a payment counts in
+    private static LocalDate dayOf(Date paymentDate) {
+        return RevenueRollupDAO.dayOf(paymentDate);
     }
 
     // Helper method to map ResultSet to Payment object
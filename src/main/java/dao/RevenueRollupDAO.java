@@ -0,0 +1,351 @@
+package dao;
+
+import utill.Log;
+
+import java.sql.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily revenue rollup: total amount and payment count per day and payment method.
+ *
+ * Payment writes do not update revenue_daily themselves. {@link PaymentDAO} appends every
+ * payment insert, update and delete to revenue_delta in the same transaction; an insert
+ * takes no lock that another booking has to wait for, whereas updating the day's rollup
+ * row made every booking of the day queue behind the one before it. {@link #fold()} adds
+ * the appended rows to revenue_daily and removes them in one short transaction, every
+ * db.rollup.foldSeconds on a background thread ({@link #startFolding}). Reports read
+ * revenue_daily together with the rows not folded yet, so they always match the payments
+ * table and read a few hundred rows per year instead of every payment.
+ * {@link #rebuild()} recomputes it from scratch for backfills and repairs.
+ */
+public class RevenueRollupDAO {
+
+    private static final Log LOGGER = Log.get(RevenueRollupDAO.class);
+
+    // revenue_daily plus the deltas not folded into it yet
+    private static final String ROLLUP = "(SELECT revenue_date, method, total, payment_count FROM revenue_daily " +
+            "UNION ALL SELECT revenue_date, method, amount, payment_count FROM revenue_delta) rollup";
+
+    private static ScheduledExecutorService folder;
+
+    /**
+     * Adds a payment's amount to its day and method, or takes it away with count -1.
+     * Must run in the same transaction as the payment write.
+     */
+    public void apply(LocalDate day, String method, double amount, int count) throws SQLException {
+        String sql = "INSERT INTO revenue_delta (revenue_date, method, amount, payment_count) VALUES (?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDate(1, java.sql.Date.valueOf(day));
+            pstmt.setString(2, method);
+            pstmt.setDouble(3, amount);
+            pstmt.setInt(4, count);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Moves the deltas recorded so far into revenue_daily, in one transaction
+     *
+     * @return Number of deltas folded
+     * @throws SQLException if the rollup cannot be written, or another process folded
+     *         or added deltas in between; the deltas are then left for the next fold
+     */
+    public int fold() throws SQLException {
+        String totals = "SELECT revenue_date, method, SUM(amount) AS amount, SUM(payment_count) AS payment_count, " +
+                "COUNT(*) AS deltas FROM revenue_delta WHERE id <= ? GROUP BY revenue_date, method";
+        String delete = "DELETE FROM revenue_delta WHERE id <= ?";
+
+        return UnitOfWork.execute(conn -> {
+            long last;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT MAX(id) FROM revenue_delta")) {
+                rs.next();
+                last = rs.getLong(1);
+                if (rs.wasNull()) {
+                    return 0;
+                }
+            }
+
+            List<Delta> deltas = new ArrayList<>();
+            int folded = 0;
+            try (PreparedStatement pstmt = conn.prepareStatement(totals)) {
+                pstmt.setLong(1, last);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        deltas.add(new Delta(rs.getDate("revenue_date").toLocalDate(), rs.getString("method"),
+                                rs.getDouble("amount"), rs.getInt("payment_count")));
+                        folded += rs.getInt("deltas");
+                    }
+                }
+            }
+            for (Delta delta : deltas) {
+                addToDaily(conn, delta.day(), delta.method(), delta.amount(), delta.count());
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement(delete)) {
+                pstmt.setLong(1, last);
+                // A different count means rows this fold did not add up: folded by another
+                // process, or committed late below the last id. Leave them all for the next fold.
+                if (pstmt.executeUpdate() != folded) {
+                    throw new SQLException("Revenue deltas changed while folding; retrying on the next fold");
+                }
+            }
+            return folded;
+        });
+    }
+
+    private record Delta(LocalDate day, String method, double amount, int count) {
+
+        // The day and method alone, for grouping
+        Delta key() {
+            return new Delta(day, method, 0, 0);
+        }
+
+        Delta plus(Delta other) {
+            return new Delta(day, method, amount + other.amount, count + other.count);
+        }
+    }
+
+    private static void addToDaily(Connection conn, LocalDate day, String method,
+                                   double amount, int count) throws SQLException {
+        String update = "UPDATE revenue_daily SET total = total + ?, payment_count = payment_count + ? " +
+                "WHERE revenue_date = ? AND method = ?";
+        String insert = "INSERT INTO revenue_daily (revenue_date, method, total, payment_count) VALUES (?, ?, ?, ?)";
+
+        if (addTo(conn, update, day, method, amount, count)) {
+            removeIfEmpty(conn, day, method);
+            return;
+        }
+        if (count <= 0) {
+            if (count < 0) {
+                // Taking away from a day that is not in the rollup; a rebuild repairs it
+                LOGGER.warning("Revenue delta for {} {} has no rollup row to take from", day, method);
+            }
+            return;
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(insert)) {
+            pstmt.setDate(1, java.sql.Date.valueOf(day));
+            pstmt.setString(2, method);
+            pstmt.setDouble(3, amount);
+            pstmt.setInt(4, count);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static boolean addTo(Connection conn, String sql, LocalDate day, String method,
+                                 double amount, int count) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDouble(1, amount);
+            pstmt.setInt(2, count);
+            pstmt.setDate(3, java.sql.Date.valueOf(day));
+            pstmt.setString(4, method);
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
+    // Drop a day and method left without payments, so totals never show empty rows
+    private static void removeIfEmpty(Connection conn, LocalDate day, String method) throws SQLException {
+        String sql = "DELETE FROM revenue_daily WHERE revenue_date = ? AND method = ? AND payment_count <= 0";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDate(1, java.sql.Date.valueOf(day));
+            pstmt.setString(2, method);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Folds the deltas every period on a daemon thread, once per application
+     *
+     * @param periodMillis Time between folds
+     */
+    public static synchronized void startFolding(long periodMillis) {
+        if (folder != null) {
+            return;
+        }
+        folder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "revenue-rollup-fold");
+            thread.setDaemon(true);
+            return thread;
+        });
+        RevenueRollupDAO dao = new RevenueRollupDAO();
+        folder.scheduleWithFixedDelay(() -> {
+            try {
+                int folded = dao.fold();
+                if (folded > 0) {
+                    LOGGER.fine("Folded {} revenue deltas", folded);
+                }
+            } catch (SQLException | RuntimeException e) {
+                LOGGER.warning("Revenue rollup fold failed", e);
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Recomputes the whole rollup from the payments table in one transaction,
+     * discarding the deltas not folded yet
+     *
+     * @return Number of day and method rows written
+     */
+    public int rebuild() throws SQLException {
+        String select = "SELECT payment_date, method, amount FROM payments";
+        String insert = "INSERT INTO revenue_daily (revenue_date, method, total, payment_count) VALUES (?, ?, ?, ?)";
+
+        int rows = UnitOfWork.execute(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM revenue_delta");
+                stmt.executeUpdate("DELETE FROM revenue_daily");
+            }
+
+            // Grouped here rather than by the database's DATE(), which knows nothing of the hotel's zone
+            Map<Delta, Delta> totals = new HashMap<>();
+            Cursors.forEach(select, rs -> new Delta(dayOf(rs.getTimestamp("payment_date")), rs.getString("method"),
+                    rs.getDouble("amount"), 1), payment -> totals.merge(payment.key(), payment, Delta::plus));
+
+            try (PreparedStatement pstmt = conn.prepareStatement(insert)) {
+                for (Delta total : totals.values()) {
+                    pstmt.setDate(1, java.sql.Date.valueOf(total.day()));
+                    pstmt.setString(2, total.method());
+                    pstmt.setDouble(3, total.amount());
+                    pstmt.setInt(4, total.count());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return totals.size();
+        });
+        LOGGER.info("Rebuilt revenue rollup: {} day and method rows", rows);
+        return rows;
+    }
+
+    /**
+     * Day of the rollup a payment time counts in: its date in the hotel's zone
+     * ({@link BusinessClock}), the same days that today's and this month's revenue read
+     */
+    public static LocalDate dayOf(java.util.Date paymentTime) {
+        return Instant.ofEpochMilli(paymentTime.getTime()).atZone(BusinessClock.zone()).toLocalDate();
+    }
+
+    // Total revenue over all days
+    public double getTotalRevenue() throws SQLException {
+        return queryDouble("SELECT SUM(total) FROM " + ROLLUP);
+    }
+
+    // Revenue of the days in [start, endExclusive)
+    public double getRevenueBetween(LocalDate start, LocalDate endExclusive) throws SQLException {
+        return queryDouble("SELECT SUM(total) FROM (" +
+                "SELECT total FROM revenue_daily WHERE revenue_date >= ? AND revenue_date < ? UNION ALL " +
+                "SELECT amount FROM revenue_delta WHERE revenue_date >= ? AND revenue_date < ?) rollup",
+                start, endExclusive, start, endExclusive);
+    }
+
+    // Total number of payments over all days
+    public int getPaymentCount() throws SQLException {
+        return (int) queryDouble("SELECT SUM(payment_count) FROM " + ROLLUP);
+    }
+
+    // Revenue per month (yyyy-MM), oldest first
+    public Map<String, Double> getRevenueByMonth() throws SQLException {
+        Map<String, Double> revenue = new LinkedHashMap<>();
+        String month = DatabaseManager.getDialect().yearMonth("revenue_date");
+        String sql = "SELECT " + month + " AS revenue_month, SUM(total) AS total " +
+                "FROM " + ROLLUP + " GROUP BY " + month + " HAVING SUM(payment_count) > 0 ORDER BY revenue_month";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                revenue.put(rs.getString("revenue_month"), rs.getDouble("total"));
+            }
+        }
+        return revenue;
+    }
+
+    // Revenue per month (yyyy-MM) of the days in [start, endExclusive), oldest first
+    public Map<String, Double> getRevenueByMonth(LocalDate start, LocalDate endExclusive) throws SQLException {
+        Map<String, Double> revenue = new LinkedHashMap<>();
+        String month = DatabaseManager.getDialect().yearMonth("revenue_date");
+        String sql = "SELECT " + month + " AS revenue_month, SUM(total) AS total FROM (" +
+                "SELECT revenue_date, total, payment_count FROM revenue_daily " +
+                "WHERE revenue_date >= ? AND revenue_date < ? UNION ALL " +
+                "SELECT revenue_date, amount, payment_count FROM revenue_delta " +
+                "WHERE revenue_date >= ? AND revenue_date < ?) rollup " +
+                "GROUP BY " + month + " HAVING SUM(payment_count) > 0 ORDER BY revenue_month";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (int i = 1; i <= 4; i += 2) {
+                pstmt.setDate(i, java.sql.Date.valueOf(start));
+                pstmt.setDate(i + 1, java.sql.Date.valueOf(endExclusive));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    revenue.put(rs.getString("revenue_month"), rs.getDouble("total"));
+                }
+            }
+        }
+        return revenue;
+    }
+
+    // Revenue per payment method
+    public Map<String, Double> getRevenueByMethod() throws SQLException {
+        Map<String, Double> revenue = new LinkedHashMap<>();
+        String sql = "SELECT method, SUM(total) AS total FROM " + ROLLUP +
+                " GROUP BY method HAVING SUM(payment_count) > 0 ORDER BY method";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                revenue.put(rs.getString("method"), rs.getDouble("total"));
+            }
+        }
+        return revenue;
+    }
+
+    // Payment count per payment method
+    public Map<String, Integer> getPaymentCountByMethod() throws SQLException {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        String sql = "SELECT method, SUM(payment_count) AS payment_count FROM " + ROLLUP +
+                " GROUP BY method HAVING SUM(payment_count) > 0 ORDER BY method";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                counts.put(rs.getString("method"), rs.getInt("payment_count"));
+            }
+        }
+        return counts;
+    }
+
+    // Run a single-value query, binding the given dates to its placeholders in order
+    private static double queryDouble(String sql, LocalDate... dates) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < dates.length; i++) {
+                pstmt.setDate(i + 1, java.sql.Date.valueOf(dates[i]));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getDouble(1) : 0.0;
+            }
+        }
+    }
+}
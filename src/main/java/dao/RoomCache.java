@@ -0,0 +1,266 @@
+package dao;
+
+import model.Room;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Read-through cache of the rooms table, looked up by id and by room number.
+ *
+ * Rooms change rarely but are read on almost every screen and booking, so reads
+ * are answered from memory once the room has been loaded; listing all rooms loads
+ * the whole table once. {@link RoomDAO} keeps the cache coherent: its writes are
+ * applied here after the enclosing transaction commits, and bump a version so a
+ * load that read the table before the write cannot install stale rows afterwards.
+ *
+ * Writes made by other processes are only seen after the time-to-live expires,
+ * which drops everything and reloads on the next read. The TTL is set by
+ * cache.rooms.ttlSeconds in app.properties; 0 (the default) keeps entries until this
+ * process changes them.
+ *
+ * Callers always receive copies, so changing a returned room does not change the cache.
+ * Hit and miss counts are published over JMX ({@link RoomCacheMXBean}).
+ */
+public final class RoomCache implements RoomCacheMXBean {
+
+    private static final RoomCache INSTANCE = new RoomCache(new RoomDAO());
+
+    private static final Comparator<Room> BY_ROOM_NUMBER = Comparator.comparing(Room::getRoomNumber);
+
+    private final RoomDAO roomDAO;
+    private final Map<Integer, Room> roomsById = new ConcurrentHashMap<>();
+    private final Map<String, Integer> idsByNumber = new ConcurrentHashMap<>();
+
+    // Bumped by every write and invalidation; loads only install rows read under the current version
+    private final AtomicLong version = new AtomicLong();
+
+    // Whether every room is cached, so a missing id or number means the room does not exist
+    private volatile boolean complete;
+    private volatile long loadedAtNanos = System.nanoTime();
+    private volatile long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    RoomCache(RoomDAO roomDAO) {
+        this.roomDAO = roomDAO;
+    }
+
+    public static RoomCache getInstance() {
+        return INSTANCE;
+    }
+
+    // Drop cached rooms this long after they were loaded; zero or negative never expires them
+    public void setTimeToLive(Duration ttl) {
+        this.ttlNanos = Math.max(0, ttl.toNanos());
+    }
+
+    /**
+     * Get room by ID
+     *
+     * @return Copy of the room, or null if it does not exist
+     */
+    public Room getRoomById(int id) throws SQLException {
+        expireIfStale();
+        Room room = roomsById.get(id);
+        if (room != null || complete) {
+            hits.increment();
+            return copyOf(room);
+        }
+
+        misses.increment();
+        long loadVersion = version.get();
+        room = roomDAO.getRoomById(id);
+        install(room, loadVersion);
+        return copyOf(room);
+    }
+
+    /**
+     * Get room by room number
+     *
+     * @return Copy of the room, or null if it does not exist
+     */
+    public Room getRoomByNumber(String roomNumber) throws SQLException {
+        expireIfStale();
+        Integer id = idsByNumber.get(roomNumber);
+        Room room = id != null ? roomsById.get(id) : null;
+        if (room != null || complete) {
+            hits.increment();
+            return copyOf(room);
+        }
+
+        misses.increment();
+        long loadVersion = version.get();
+        room = roomDAO.getRoomByNumber(roomNumber);
+        install(room, loadVersion);
+        return copyOf(room);
+    }
+
+    // Get all rooms ordered by room number
+    public List<Room> getAllRooms() throws SQLException {
+        return findRooms(room -> true);
+    }
+
+    // Get rooms by type
+    public List<Room> getRoomsByType(String type) throws SQLException {
+        return findRooms(room -> type.equals(room.getType()));
+    }
+
+    // Get rooms by status
+    public List<Room> getRoomsByStatus(String status) throws SQLException {
+        return findRooms(room -> status.equals(room.getStatus()));
+    }
+
+    // Get room price by room number
+    public double getRoomPrice(String roomNumber) throws SQLException {
+        Room room = getRoomByNumber(roomNumber);
+        if (room == null) {
+            throw new SQLException("Room not found: " + roomNumber);
+        }
+        return room.getPrice();
+    }
+
+    // Reads answered from memory
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    // Reads that went to the database
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long reads = hitCount + misses.sum();
+        return reads == 0 ? 0 : (double) hitCount / reads;
+    }
+
+    // Number of rooms currently cached
+    @Override
+    public int getSize() {
+        return roomsById.size();
+    }
+
+    // Drop every cached room, e.g. after the rooms table was changed outside RoomDAO
+    @Override
+    public synchronized void invalidateAll() {
+        version.incrementAndGet();
+        complete = false;
+        roomsById.clear();
+        idsByNumber.clear();
+    }
+
+    // Cached rooms matching a filter, loading the whole table first if needed
+    private List<Room> findRooms(Predicate<Room> filter) throws SQLException {
+        expireIfStale();
+        if (complete) {
+            hits.increment();
+        } else {
+            misses.increment();
+            long loadVersion = version.get();
+            List<Room> rooms = roomDAO.getAllRooms();
+            installAll(rooms, loadVersion);
+            if (!complete) {
+                // A write raced the load; answer from what was read rather than loading again
+                return select(rooms, filter);
+            }
+        }
+        return select(roomsById.values(), filter);
+    }
+
+    private static List<Room> select(Iterable<Room> rooms, Predicate<Room> filter) {
+        List<Room> result = new ArrayList<>();
+        for (Room room : rooms) {
+            if (filter.test(room)) {
+                result.add(copyOf(room));
+            }
+        }
+        result.sort(BY_ROOM_NUMBER);
+        return result;
+    }
+
+    private void expireIfStale() {
+        long ttl = ttlNanos;
+        if (ttl > 0 && System.nanoTime() - loadedAtNanos > ttl) {
+            synchronized (this) {
+                if (System.nanoTime() - loadedAtNanos > ttl) {
+                    invalidateAll();
+                    loadedAtNanos = System.nanoTime();
+                }
+            }
+        }
+    }
+
+    private synchronized void install(Room room, long loadVersion) {
+        if (room != null && version.get() == loadVersion) {
+            put(copyOf(room));
+        }
+    }
+
+    private synchronized void installAll(List<Room> rooms, long loadVersion) {
+        if (version.get() != loadVersion) {
+            return;
+        }
+        roomsById.clear();
+        idsByNumber.clear();
+        for (Room room : rooms) {
+            put(copyOf(room));
+        }
+        complete = true;
+        loadedAtNanos = System.nanoTime();
+    }
+
+    // Called by RoomDAO once a new or edited room is committed
+    synchronized void roomSaved(Room room) {
+        version.incrementAndGet();
+        remove(room.getId());
+        put(copyOf(room));
+    }
+
+    // Called by RoomDAO once a status change is committed
+    synchronized void roomStatusChanged(int roomId, String status) {
+        version.incrementAndGet();
+        Room cached = roomsById.get(roomId);
+        if (cached != null) {
+            Room updated = copyOf(cached);
+            updated.setStatus(status);
+            put(updated);
+        }
+    }
+
+    // Called by RoomDAO once a deletion is committed
+    synchronized void roomDeleted(int roomId) {
+        version.incrementAndGet();
+        remove(roomId);
+    }
+
+    private void put(Room room) {
+        roomsById.put(room.getId(), room);
+        idsByNumber.put(room.getRoomNumber(), room.getId());
+    }
+
+    private void remove(int roomId) {
+        Room removed = roomsById.remove(roomId);
+        if (removed != null) {
+            idsByNumber.remove(removed.getRoomNumber(), roomId);
+        }
+    }
+
+    private static Room copyOf(Room room) {
+        return room == null ? null
+                : new Room(room.getId(), room.getRoomNumber(), room.getType(), room.getPrice(), room.getStatus());
+    }
+}
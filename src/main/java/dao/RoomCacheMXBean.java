@@ -0,0 +1,18 @@
+package dao;
+
+/**
+ * JMX view of the {@link RoomCache}, registered as hotel:type=RoomCache
+ */
+public interface RoomCacheMXBean {
+
+    long getHitCount();
+
+    long getMissCount();
+
+    // Hits as a fraction of all reads, 0 before the first read
+    double getHitRatio();
+
+    int getSize();
+
+    void invalidateAll();
+}
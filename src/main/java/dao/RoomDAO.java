@@ -2,11 +2,14 @@ package dao;
 
 import model.Room;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 
+// Writes are applied to RoomCache after they commit; read hot paths through RoomCache
 public class RoomDAO {
 
     // Save new room to database
@@ -28,6 +31,7 @@ public class RoomDAO {
                     if (generatedKeys.next()) {
                         int roomId = generatedKeys.getInt(1);
                         room.setId(roomId);
+                        UnitOfWork.afterCommit(() -> RoomCache.getInstance().roomSaved(room));
                         return roomId;
                     }
                 }
@@ -36,6 +40,25 @@ public class RoomDAO {
         throw new SQLException("Failed to save room");
     }
 
+    // Save several rooms with JDBC batches, committing every db.batch.size rows.
+    // Returns the generated ids in the order of the rooms.
+    public int[] saveAll(List<Room> rooms) throws SQLException {
+        String sql = "INSERT INTO rooms (room_number, type, price, status) VALUES (?, ?, ?, ?)";
+
+        return Batches.insertAll(sql, rooms, (pstmt, room) -> {
+            pstmt.setString(1, room.getRoomNumber());
+            pstmt.setString(2, room.getType());
+            pstmt.setDouble(3, room.getPrice());
+            pstmt.setString(4, room.getStatus());
+        }, (chunk, ids) -> {
+            for (int i = 0; i < ids.length; i++) {
+                Room room = chunk.get(i);
+                room.setId(ids[i]);
+                UnitOfWork.afterCommit(() -> RoomCache.getInstance().roomSaved(room));
+            }
+        });
+    }
+
     // Get room by ID
     public Room getRoomById(int id) throws SQLException {
         String sql = "SELECT * FROM rooms WHERE id = ?";
@@ -104,6 +127,46 @@ public class RoomDAO {
         return rooms;
     }
 
+    // Find rooms free for the whole date range, optionally limited to a type and a maximum price.
+    // One anti-join against room_nights: a room qualifies when none of the requested nights is
+    // held, which the (room_id, night) primary key answers with a short range probe per room.
+    // Rooms under maintenance are never offered.
+    public List<Room> findAvailableRooms(String type, Date checkIn, Date checkOut, Double maxPrice) throws SQLException {
+        List<Room> rooms = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT r.* FROM rooms r WHERE r.status <> 'Maintenance'");
+        if (type != null) {
+            sql.append(" AND r.type = ?");
+        }
+        if (maxPrice != null) {
+            sql.append(" AND r.price <= ?");
+        }
+        sql.append(" AND NOT EXISTS (SELECT 1 FROM room_nights n WHERE n.room_id = r.id " +
+                "AND n.night >= ? AND n.night < ?)");
+        sql.append(" ORDER BY r.price, r.room_number");
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+
+            LocalDate start = RoomNightDAO.toLocalDate(checkIn);
+            int index = 1;
+            if (type != null) {
+                pstmt.setString(index++, type);
+            }
+            if (maxPrice != null) {
+                pstmt.setDouble(index++, maxPrice);
+            }
+            pstmt.setDate(index++, java.sql.Date.valueOf(start));
+            pstmt.setDate(index, java.sql.Date.valueOf(RoomNightDAO.endExclusive(start, RoomNightDAO.toLocalDate(checkOut))));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rooms.add(mapResultSetToRoom(rs));
+                }
+            }
+        }
+        return rooms;
+    }
+
     // Get rooms by type
     public List<Room> getRoomsByType(String type) throws SQLException {
         List<Room> rooms = new ArrayList<>();
@@ -155,7 +218,11 @@ public class RoomDAO {
             pstmt.setString(4, room.getStatus());
             pstmt.setInt(5, room.getId());
 
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            if (updated) {
+                UnitOfWork.afterCommit(() -> RoomCache.getInstance().roomSaved(room));
+            }
+            return updated;
         }
     }
 
@@ -169,10 +236,28 @@ public class RoomDAO {
             pstmt.setString(1, status);
             pstmt.setInt(2, roomId);
 
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            if (updated) {
+                UnitOfWork.afterCommit(() -> RoomCache.getInstance().roomStatusChanged(roomId, status));
+            }
+            return updated;
         }
     }
 
+    // Set the status of several rooms, one UPDATE per db.batch.size ids.
+    // Returns the number of rooms found.
+    public int updateStatusAll(List<Integer> roomIds, String status) throws SQLException {
+        return Batches.forEachChunk(roomIds, (conn, ids, inList) -> {
+            try (PreparedStatement pstmt = conn.prepareStatement("UPDATE rooms SET status = ? WHERE id" + inList)) {
+                pstmt.setString(1, status);
+                Batches.bindIds(pstmt, 2, ids);
+                int updated = pstmt.executeUpdate();
+                UnitOfWork.afterCommit(() -> ids.forEach(id -> RoomCache.getInstance().roomStatusChanged(id, status)));
+                return updated;
+            }
+        });
+    }
+
     // Delete room by ID
     public boolean deleteRoom(int id) throws SQLException {
         String sql = "DELETE FROM rooms WHERE id = ?";
@@ -181,7 +266,11 @@ public class RoomDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, id);
-            return pstmt.executeUpdate() > 0;
+            boolean deleted = pstmt.executeUpdate() > 0;
+            if (deleted) {
+                UnitOfWork.afterCommit(() -> RoomCache.getInstance().roomDeleted(id));
+            }
+            return deleted;
         }
     }
 
@@ -0,0 +1,289 @@
+package dao;
+
+import model.Booking;
+import utill.Log;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Room-night inventory. Every active booking holds one row per night of its stay,
+ * keyed by (room_id, night), so two bookings of the same night cannot both commit.
+ *
+ * A stay occupies its check-in day up to the day before check-out, with a minimum
+ * of one night, so a guest checking out on the 15th does not block a guest checking
+ * in on the 15th.
+ */
+public class RoomNightDAO {
+
+    private static final Log LOGGER = Log.get(RoomNightDAO.class);
+
+    // Number of nights a stay occupies, at least one
+    public static int nightCount(LocalDate checkIn, LocalDate checkOut) {
+        return (int) Math.max(1, ChronoUnit.DAYS.between(checkIn, checkOut));
+    }
+
+    // Day after the last occupied night
+    public static LocalDate endExclusive(LocalDate checkIn, LocalDate checkOut) {
+        return checkIn.plusDays(nightCount(checkIn, checkOut));
+    }
+
+    static LocalDate toLocalDate(java.util.Date date) {
+        return date instanceof java.sql.Date
+                ? ((java.sql.Date) date).toLocalDate()
+                : new java.sql.Date(date.getTime()).toLocalDate();
+    }
+
+    /**
+     * Takes every night of a stay for a booking in one batch.
+     * Must run in the same transaction as the booking write.
+     *
+     * @throws BookingConflictException if any of the nights is already held
+     */
+    public void reserveNights(int bookingId, int roomId, java.util.Date checkIn, java.util.Date checkOut) throws SQLException {
+        String sql = "INSERT INTO room_nights (room_id, night, booking_id) VALUES (?, ?, ?)";
+        LocalDate start = toLocalDate(checkIn);
+        int nights = nightCount(start, toLocalDate(checkOut));
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < nights; i++) {
+                pstmt.setInt(1, roomId);
+                pstmt.setDate(2, java.sql.Date.valueOf(start.plusDays(i)));
+                pstmt.setInt(3, bookingId);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        } catch (SQLException e) {
+            if (isDuplicateKey(e)) {
+                throw new BookingConflictException("Room " + roomId + " is already booked between " +
+                        start + " and " + start.plusDays(nights), e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the nights of several new bookings in one batch.
+     * Must run in the same transaction as the booking writes.
+     *
+     * @throws BookingConflictException if any of the nights is already held, including
+     *         by another booking in the list
+     */
+    public void reserveAll(List<Booking> bookings) throws SQLException {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO room_nights (room_id, night, booking_id) VALUES (?, ?, ?)";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (Booking booking : bookings) {
+                LocalDate start = toLocalDate(booking.getCheckInDate());
+                int nights = nightCount(start, toLocalDate(booking.getCheckOutDate()));
+                for (int i = 0; i < nights; i++) {
+                    pstmt.setInt(1, booking.getRoomId());
+                    pstmt.setDate(2, java.sql.Date.valueOf(start.plusDays(i)));
+                    pstmt.setInt(3, booking.getId());
+                    pstmt.addBatch();
+                }
+            }
+            pstmt.executeBatch();
+        } catch (SQLException e) {
+            if (isDuplicateKey(e)) {
+                throw new BookingConflictException("One of " + bookings.size() +
+                        " bookings overlaps a night that is already booked", e);
+            }
+            throw e;
+        }
+    }
+
+    // Take the nights of an existing booking, reading its room and dates
+    public void reserveNights(int bookingId) throws SQLException {
+        String sql = "SELECT room_id, check_in_date, check_out_date FROM bookings WHERE id = ?";
+        int roomId;
+        java.sql.Date checkIn;
+        java.sql.Date checkOut;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, bookingId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return;
+                }
+                roomId = rs.getInt("room_id");
+                checkIn = rs.getDate("check_in_date");
+                checkOut = rs.getDate("check_out_date");
+            }
+        }
+        reserveNights(bookingId, roomId, checkIn, checkOut);
+    }
+
+    // Give back every night held by a booking
+    public int releaseNights(int bookingId) throws SQLException {
+        String sql = "DELETE FROM room_nights WHERE booking_id = ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, bookingId);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    // Give back every night held by several bookings
+    public int releaseAll(List<Integer> bookingIds) throws SQLException {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        String sql = "DELETE FROM room_nights WHERE booking_id" + Batches.inList(bookingIds.size());
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            Batches.bindIds(pstmt, 1, bookingIds);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    // Those of the bookings that hold no nights
+    List<Integer> withoutNights(List<Integer> bookingIds) throws SQLException {
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = "SELECT DISTINCT booking_id FROM room_nights WHERE booking_id" + Batches.inList(bookingIds.size());
+        Set<Integer> holding = new HashSet<>();
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            Batches.bindIds(pstmt, 1, bookingIds);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    holding.add(rs.getInt(1));
+                }
+            }
+        }
+
+        List<Integer> without = new ArrayList<>();
+        for (int bookingId : bookingIds) {
+            if (!holding.contains(bookingId)) {
+                without.add(bookingId);
+            }
+        }
+        return without;
+    }
+
+    // Whether a booking currently holds any nights
+    public boolean holdsNights(int bookingId) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM room_nights WHERE booking_id = ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, bookingId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    // Whether any night in the range is held, optionally ignoring one booking
+    public boolean isRangeTaken(int roomId, java.util.Date checkIn, java.util.Date checkOut, int excludeBookingId) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM room_nights WHERE room_id = ? AND night >= ? AND night < ?";
+        if (excludeBookingId > 0) {
+            sql += " AND booking_id != ?";
+        }
+        LocalDate start = toLocalDate(checkIn);
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, roomId);
+            pstmt.setDate(2, java.sql.Date.valueOf(start));
+            pstmt.setDate(3, java.sql.Date.valueOf(endExclusive(start, toLocalDate(checkOut))));
+            if (excludeBookingId > 0) {
+                pstmt.setInt(4, excludeBookingId);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    /**
+     * Fills room_nights from the active bookings of an existing database.
+     * Bookings are taken in id order; a night already claimed by an earlier booking
+     * is skipped and reported, since the old range check let such overlaps through.
+     *
+     * @return Number of nights written
+     */
+    int backfill() throws SQLException {
+        String select = "SELECT id, room_id, check_in_date, check_out_date FROM bookings " +
+                "WHERE status IN ('Booked', 'Checked In') ORDER BY id";
+        String insert = "INSERT INTO room_nights (room_id, night, booking_id) VALUES (?, ?, ?)";
+        Set<Long> taken = new HashSet<>();
+        int written = 0;
+        int skipped = 0;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(select);
+             PreparedStatement pstmt = conn.prepareStatement(insert)) {
+
+            while (rs.next()) {
+                int bookingId = rs.getInt("id");
+                int roomId = rs.getInt("room_id");
+                LocalDate start = rs.getDate("check_in_date").toLocalDate();
+                int nights = nightCount(start, rs.getDate("check_out_date").toLocalDate());
+
+                for (int i = 0; i < nights; i++) {
+                    LocalDate night = start.plusDays(i);
+                    if (!taken.add(((long) roomId << 32) | (night.toEpochDay() & 0xFFFFFFFFL))) {
+                        LOGGER.warning("Booking {} overlaps an earlier booking of room {} on {}; night not reserved",
+                                bookingId, roomId, night);
+                        skipped++;
+                        continue;
+                    }
+                    pstmt.setInt(1, roomId);
+                    pstmt.setDate(2, java.sql.Date.valueOf(night));
+                    pstmt.setInt(3, bookingId);
+                    pstmt.addBatch();
+                    if (++written % 1000 == 0) {
+                        pstmt.executeBatch();
+                    }
+                }
+            }
+            pstmt.executeBatch();
+        }
+
+        LOGGER.info("Backfilled {} room nights, skipped {} overlapping", written, skipped);
+        return written;
+    }
+
+    // Duplicate key, reported by the driver directly or as the cause of a batch failure
+    private static boolean isDuplicateKey(SQLException e) {
+        SqlDialect dialect = DatabaseManager.getDialect();
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException && dialect.isDuplicateKey((SQLException) t)) {
+                return true;
+            }
+        }
+        for (SQLException next = e.getNextException(); next != null; next = next.getNextException()) {
+            if (dialect.isDuplicateKey(next)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,236 @@
+package dao;
+
+import utill.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Applies versioned schema migrations on top of the baseline tables created by
+ * {@link DatabaseManager}.
+ *
+ * Migrations are SQL scripts under db/migration on the classpath, named
+ * V{version}__{description}.sql. A dialect-specific copy in
+ * db/migration/{dialect}/ takes precedence over the shared script. Every applied
+ * migration is recorded in the schema_version table with a checksum of its
+ * statements; startup fails if an applied script's statements have since been
+ * edited. Its -- comments may be corrected freely.
+ *
+ * A migration may also carry a Java step that runs after its script in the same
+ * transaction, for data changes that are awkward to express in portable SQL.
+ *
+ * To add a migration, add the script and register it in {@link #MIGRATIONS}.
+ * Never change a script once it has been released; add a new version instead.
+ */
+public class SchemaMigrator {
+
+    private static final Log LOGGER = Log.get(SchemaMigrator.class);
+
+    private static final String MIGRATION_PATH = "/db/migration/";
+
+    // Ordered list of all migrations
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "booking_payment_indexes"),
+            new Migration(2, "room_search_index"),
+            new Migration(3, "room_nights", conn -> new RoomNightDAO().backfill()),
+            new Migration(4, "booking_list_indexes"),
+            // The rollup is filled once its delta table exists too, by V7
+            new Migration(5, "revenue_daily"),
+            new Migration(6, "import_checkpoints"),
+            new Migration(7, "revenue_delta", conn -> new RevenueRollupDAO().rebuild())
+    );
+
+    private final SqlDialect dialect;
+
+    public SchemaMigrator(SqlDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    /**
+     * Applies all pending migrations in version order
+     *
+     * @return Number of migrations applied
+     * @throws SQLException if a migration fails or an applied migration was modified
+     */
+    public int migrate() throws SQLException {
+        createVersionTable();
+        Map<Integer, Long> applied = getAppliedChecksums();
+
+        int count = 0;
+        for (Migration migration : MIGRATIONS) {
+            String script = loadScript(migration);
+            long checksum = checksum(script);
+
+            Long appliedChecksum = applied.get(migration.version);
+            if (appliedChecksum != null) {
+                if (appliedChecksum != checksum) {
+                    throw new SQLException("Migration " + migration + " has been modified after it was applied " +
+                            "(checksum " + appliedChecksum + " != " + checksum + ")");
+                }
+                continue;
+            }
+
+            apply(migration, script, checksum);
+            count++;
+        }
+        return count;
+    }
+
+    // Highest applied version, 0 for a baseline schema
+    public int getCurrentVersion() throws SQLException {
+        createVersionTable();
+        int version = 0;
+        for (int applied : getAppliedChecksums().keySet()) {
+            version = Math.max(version, applied);
+        }
+        return version;
+    }
+
+    private void apply(Migration migration, String script, long checksum) throws SQLException {
+        long start = System.currentTimeMillis();
+
+        // DDL is not transactional on MySQL, but the version row is only written if every statement succeeded
+        UnitOfWork.execute(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : splitStatements(script)) {
+                    stmt.execute(sql);
+                }
+            }
+            if (migration.afterScript != null) {
+                migration.afterScript.execute(conn);
+            }
+
+            String insert = "INSERT INTO schema_version (version, description, checksum, installed_on, execution_ms) " +
+                    "VALUES (?, ?, ?, ?, ?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(insert)) {
+                pstmt.setInt(1, migration.version);
+                pstmt.setString(2, migration.description);
+                pstmt.setLong(3, checksum);
+                pstmt.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+                pstmt.setLong(5, System.currentTimeMillis() - start);
+                pstmt.executeUpdate();
+            }
+            return null;
+        });
+
+        LOGGER.info("Applied schema migration {} in {} ms", migration, System.currentTimeMillis() - start);
+    }
+
+    private void createVersionTable() throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT PRIMARY KEY," +
+                    "description VARCHAR(200) NOT NULL," +
+                    "checksum BIGINT NOT NULL," +
+                    "installed_on " + dialect.timestampType() + " NOT NULL," +
+                    "execution_ms BIGINT NOT NULL)");
+        }
+    }
+
+    private Map<Integer, Long> getAppliedChecksums() throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private String loadScript(Migration migration) throws SQLException {
+        String fileName = migration.fileName();
+        String[] candidates = {
+                MIGRATION_PATH + dialect.getName() + "/" + fileName,
+                MIGRATION_PATH + fileName
+        };
+
+        for (String resource : candidates) {
+            try (InputStream in = SchemaMigrator.class.getResourceAsStream(resource)) {
+                if (in != null) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    in.transferTo(out);
+                    return out.toString(StandardCharsets.UTF_8);
+                }
+            } catch (IOException e) {
+                throw new SQLException("Cannot read migration script " + resource, e);
+            }
+        }
+        throw new SQLException("Migration script not found: " + fileName);
+    }
+
+    // Checksum over the statements only, so correcting a comment or a checkout on Windows does not trip it
+    static long checksum(String script) {
+        CRC32 crc = new CRC32();
+        crc.update(String.join(";\n", splitStatements(script)).getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    // Split a script into statements on semicolons at the end of a line, dropping -- comments
+    static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+
+        for (String line : script.split("\r?\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String sql = current.toString().trim();
+                statements.add(sql.substring(0, sql.length() - 1).trim());
+                current.setLength(0);
+            }
+        }
+
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    /**
+     * A registered migration
+     */
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final UnitOfWork.Work<?> afterScript;
+
+        private Migration(int version, String description) {
+            this(version, description, null);
+        }
+
+        private Migration(int version, String description, UnitOfWork.Work<?> afterScript) {
+            this.version = version;
+            this.description = description;
+            this.afterScript = afterScript;
+        }
+
+        private String fileName() {
+            return "V" + version + "__" + description + ".sql";
+        }
+
+        @Override
+        public String toString() {
+            return "V" + version + " (" + description + ")";
+        }
+    }
+}
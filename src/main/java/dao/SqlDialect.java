@@ -0,0 +1,86 @@
+package dao;
+
+import java.sql.SQLException;
+
+/**
+ * SQL fragments that differ between the supported database engines.
+ *
+ * DAOs build their statements from these pieces instead of hard-coding
+ * MySQL functions, so the same persistence layer runs against MySQL in
+ * production and an embedded H2 database for local runs and benchmarks.
+ */
+public abstract class SqlDialect {
+
+    // Short name used in configuration files (db.dialect)
+    public abstract String getName();
+
+    // Column definition for an auto-generated integer primary key
+    public abstract String autoIncrementPrimaryKey();
+
+    // Column type for a date and time value
+    public abstract String timestampType();
+
+    // Expression for today's date
+    public abstract String currentDate();
+
+    // Expression for the current date and time
+    public abstract String currentTimestamp();
+
+    // Expression truncating a date/time expression to its date
+    public abstract String dateOf(String expression);
+
+    // Expression adding a number of days to a date expression
+    public abstract String plusDays(String expression, int days);
+
+    // Expression for the number of days from start to end (negative if end is earlier)
+    public abstract String daysBetween(String start, String end);
+
+    // Expression formatting a date/time expression as 'yyyy-MM'
+    public abstract String yearMonth(String expression);
+
+    // Query returning the last generated key on the current connection, or null if unsupported
+    public abstract String lastInsertIdQuery();
+
+    // Whether an error is a unique or primary key violation
+    public abstract boolean isDuplicateKey(SQLException e);
+
+    // Statement making the next generated id of a table's auto-increment key at least nextId,
+    // needed after rows were inserted with explicit ids
+    public abstract String restartIdentity(String table, long nextId);
+
+    // Fetch size for a forward-only result read row by row, such as an export, so the
+    // driver holds only a window of rows rather than the whole result
+    public abstract int streamingFetchSize();
+
+    /**
+     * Resolves a dialect by name, falling back to the JDBC URL when no name is given
+     *
+     * @param name Dialect name ("mysql" or "h2"), may be null
+     * @param url JDBC URL used to infer the dialect
+     * @return The matching dialect
+     */
+    public static SqlDialect resolve(String name, String url) {
+        String key = name;
+        if (key == null || key.isBlank()) {
+            if (url != null && url.startsWith("jdbc:h2:")) {
+                key = "h2";
+            } else {
+                key = "mysql";
+            }
+        }
+
+        switch (key.trim().toLowerCase()) {
+            case "mysql":
+                return new MySqlDialect();
+            case "h2":
+                return new H2Dialect();
+            default:
+                throw new IllegalArgumentException("Unsupported database dialect: " + name);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
@@ -0,0 +1,387 @@
+package dao;
+
+import utill.LatencyHistogram;
+import utill.Log;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement timing of every SQL statement run through {@link DatabaseManager}.
+ *
+ * Connections from {@link DatabaseManager#getConnection()} wrap their statements, so
+ * each execution is counted under its statement template: the SQL with literals
+ * replaced by ? and IN lists of any length folded to {@code IN (?...)}, so that
+ * "WHERE id = 5" and "WHERE id = 6", or IN lists of 3 and 500 ids, share one entry.
+ * Each template keeps its call, error and row counts and a latency histogram of the
+ * execute calls; recording only increments counters.
+ *
+ * An execution slower than db.slowQueryMillis (default 500, 0 disables) is logged at
+ * WARNING with its bind parameters; parameters of statements touching a password
+ * column are masked. db.metrics.enabled=false turns the instrumentation off.
+ *
+ * Each template also remembers the DAO class that first ran it, read from the stack
+ * once when the template is created, so statistics can be totalled per DAO; they are
+ * published over JMX by {@link #getMXBean()}.
+ */
+public final class SqlMetrics {
+
+    private static final Log LOGGER = Log.get(SqlMetrics.class);
+
+    // Bounds the memory held by statements built with varying literals
+    private static final int MAX_TEMPLATES = 500;
+    private static final int MAX_CACHED_SQL = 10_000;
+    private static final String OVERFLOW_TEMPLATE = "(other statements)";
+
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern PASSWORD = Pattern.compile("(?i)password");
+
+    private static final Map<String, StatementStats> BY_TEMPLATE = new ConcurrentHashMap<>();
+    private static final Map<String, StatementStats> BY_SQL = new ConcurrentHashMap<>();
+
+    private static final StackWalker STACK = StackWalker.getInstance();
+    private static final String OTHER_DAO = "other";
+    private static final SqlStatisticsMXBean MX_BEAN = new StatisticsBean();
+
+    private static volatile Boolean enabled;
+    private static volatile long slowQueryNanos = -1;
+
+    private SqlMetrics() {
+    }
+
+    /**
+     * Counters of one statement template
+     */
+    public static final class StatementStats {
+        private final String template;
+        private final String dao;
+        private final boolean sensitive;
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private StatementStats(String template, String dao) {
+            this.template = template;
+            this.dao = dao;
+            this.sensitive = PASSWORD.matcher(template).find();
+        }
+
+        // Record one successful execution
+        void record(long nanos, long rowCount) {
+            latency.record(nanos);
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+        }
+
+        void recordError(long nanos) {
+            errors.increment();
+            latency.record(nanos);
+        }
+
+        void addRows(long rowCount) {
+            rows.add(rowCount);
+        }
+
+        boolean isSensitive() {
+            return sensitive;
+        }
+
+        public String getTemplate() {
+            return template;
+        }
+
+        // Simple name of the DAO class that first ran the statement, or "other"
+        public String getDao() {
+            return dao;
+        }
+
+        // Executions, including failed ones
+        public long getCalls() {
+            return latency.getCount();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        // Rows read from result sets plus rows reported by updates
+        public long getRows() {
+            return rows.sum();
+        }
+
+        // Time spent in the execute calls, in nanoseconds
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getTotalNanos() {
+            return (long) (latency.getMeanNanos() * latency.getCount());
+        }
+
+        @Override
+        public String toString() {
+            return template + " rows=" + getRows() + " errors=" + getErrors() + " " + latency.summary();
+        }
+    }
+
+    // Whether statements are instrumented, from db.metrics.enabled
+    public static boolean isEnabled() {
+        Boolean current = enabled;
+        if (current == null) {
+            current = Boolean.parseBoolean(DatabaseManager.getConfig().get("db.metrics.enabled", "true").trim());
+            enabled = current;
+        }
+        return current;
+    }
+
+    // Executions slower than this are logged; 0 when slow query logging is off
+    public static long getSlowQueryThresholdNanos() {
+        long current = slowQueryNanos;
+        if (current < 0) {
+            current = TimeUnit.MILLISECONDS.toNanos(
+                    Math.max(0, DatabaseManager.getConfig().getLong("db.slowQueryMillis", 500)));
+            slowQueryNanos = current;
+        }
+        return current;
+    }
+
+    // Change the slow query threshold at runtime; 0 turns slow query logging off
+    public static void setSlowQueryThresholdMillis(long millis) {
+        slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+    }
+
+    /**
+     * Statistics of every template seen so far, the most total time first
+     */
+    public static List<StatementStats> getStatementStats() {
+        List<StatementStats> stats = new ArrayList<>(BY_TEMPLATE.values());
+        stats.sort(Comparator.comparingLong(StatementStats::getTotalNanos).reversed());
+        return stats;
+    }
+
+    // JMX view of the statistics
+    public static SqlStatisticsMXBean getMXBean() {
+        return MX_BEAN;
+    }
+
+    // Forget all statistics
+    public static void reset() {
+        BY_SQL.clear();
+        BY_TEMPLATE.clear();
+    }
+
+    /**
+     * Text table of the statistics, one template per line, for logs and diagnostics
+     *
+     * @param limit Maximum number of templates, the most expensive first
+     */
+    public static String report(int limit) {
+        StringBuilder out = new StringBuilder(String.format("%8s %6s %10s %9s %9s %9s %9s  %s%n",
+                "calls", "errors", "rows", "mean", "p99", "max", "total", "statement"));
+        int shown = 0;
+        for (StatementStats stats : getStatementStats()) {
+            if (shown++ == limit) {
+                break;
+            }
+            LatencyHistogram latency = stats.getLatency();
+            out.append(String.format("%8d %6d %10d %9s %9s %9s %9s  %s%n", stats.getCalls(), stats.getErrors(),
+                    stats.getRows(), LatencyHistogram.format((long) latency.getMeanNanos()),
+                    LatencyHistogram.format(latency.getValueAtPercentile(99)),
+                    LatencyHistogram.format(latency.getMaxNanos()),
+                    LatencyHistogram.format(stats.getTotalNanos()), stats.getTemplate()));
+        }
+        return out.toString();
+    }
+
+    // Statistics for a statement's SQL, creating its template entry on first use
+    static StatementStats statsFor(String sql) {
+        if (sql == null) {
+            sql = "(batch)";
+        }
+        StatementStats stats = BY_SQL.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+
+        String template = normalize(sql);
+        stats = BY_TEMPLATE.get(template);
+        if (stats == null) {
+            String dao = OTHER_DAO;
+            if (BY_TEMPLATE.size() >= MAX_TEMPLATES) {
+                template = OVERFLOW_TEMPLATE;
+            } else {
+                dao = callingDao();
+            }
+            String owner = dao;
+            stats = BY_TEMPLATE.computeIfAbsent(template, t -> new StatementStats(t, owner));
+        }
+        if (BY_SQL.size() < MAX_CACHED_SQL) {
+            BY_SQL.put(sql, stats);
+        }
+        return stats;
+    }
+
+    // Innermost dao.*DAO class on the caller's stack
+    private static String callingDao() {
+        return STACK.walk(frames -> frames
+                .map(StackWalker.StackFrame::getClassName)
+                .filter(name -> name.startsWith("dao.") && name.endsWith("DAO"))
+                .findFirst()
+                .map(name -> name.substring("dao.".length()))
+                .orElse(OTHER_DAO));
+    }
+
+    // Log an execution over the slow query threshold
+    static void logSlow(StatementStats stats, String sql, long nanos, long rows, Object[] params, int paramCount) {
+        String rowCount = rows < 0 ? "" : ", " + rows + (rows == 1 ? " row" : " rows");
+        StringBuilder bound = new StringBuilder();
+        if (paramCount > 0) {
+            bound.append(" [");
+            for (int i = 0; i < paramCount; i++) {
+                if (i > 0) {
+                    bound.append(", ");
+                }
+                bound.append(i + 1).append('=');
+                Object value = params[i];
+                if (stats.isSensitive() && value != null) {
+                    bound.append("***");
+                } else if (value instanceof CharSequence) {
+                    bound.append('\'').append(value).append('\'');
+                } else {
+                    bound.append(value);
+                }
+            }
+            bound.append(']');
+        }
+        LOGGER.warning("Slow SQL ({}{}): {}{}", LatencyHistogram.format(nanos), rowCount,
+                sql.replaceAll("\\s+", " ").trim(), bound);
+    }
+
+    /**
+     * Statement template of a SQL string: literals replaced by ?, IN lists folded and
+     * whitespace collapsed
+     */
+    static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        boolean space = false;
+
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = out.length() > 0;
+                continue;
+            }
+            if (space) {
+                out.append(' ');
+                space = false;
+            }
+
+            if (c == '\'') {
+                // String literal; '' is an escaped quote
+                i++;
+                while (i < length && (sql.charAt(i) != '\'' || (i + 1 < length && sql.charAt(i + 1) == '\''))) {
+                    i += sql.charAt(i) == '\'' ? 2 : 1;
+                }
+                out.append('?');
+            } else if (Character.isDigit(c) && !isIdentifierEnd(out)) {
+                while (i + 1 < length && (Character.isDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(c);
+            }
+        }
+        return IN_LIST.matcher(out).replaceAll("IN (?...)");
+    }
+
+    // Whether the text so far ends inside a name, so a digit continues it (t1, idx_2)
+    private static boolean isIdentifierEnd(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char last = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$' || last == '"' || last == '`';
+    }
+
+    private static final class StatisticsBean implements SqlStatisticsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return SqlMetrics.isEnabled();
+        }
+
+        @Override
+        public long getCalls() {
+            long calls = 0;
+            for (StatementStats stats : BY_TEMPLATE.values()) {
+                calls += stats.getCalls();
+            }
+            return calls;
+        }
+
+        @Override
+        public long getErrors() {
+            long errors = 0;
+            for (StatementStats stats : BY_TEMPLATE.values()) {
+                errors += stats.getErrors();
+            }
+            return errors;
+        }
+
+        @Override
+        public Map<String, DaoOperationStats> getDaoOperations() {
+            Map<String, List<StatementStats>> byDao = new HashMap<>();
+            for (StatementStats stats : BY_TEMPLATE.values()) {
+                byDao.computeIfAbsent(stats.getDao(), dao -> new ArrayList<>()).add(stats);
+            }
+
+            Map<String, DaoOperationStats> operations = new TreeMap<>();
+            byDao.forEach((dao, templates) -> {
+                LatencyHistogram latency = new LatencyHistogram();
+                long errors = 0;
+                long rows = 0;
+                long totalNanos = 0;
+                for (StatementStats stats : templates) {
+                    latency.add(stats.getLatency());
+                    errors += stats.getErrors();
+                    rows += stats.getRows();
+                    totalNanos += stats.getTotalNanos();
+                }
+                operations.put(dao, new DaoOperationStats(templates.size(), latency.getCount(), errors, rows,
+                        latency.getMeanNanos() / 1e6, latency.getValueAtPercentile(99) / 1e6,
+                        latency.getMaxNanos() / 1e6, totalNanos / 1e6));
+            });
+            return operations;
+        }
+
+        @Override
+        public String[] getTopStatements() {
+            return report(20).split("\\R");
+        }
+
+        @Override
+        public long getSlowQueryThresholdMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(getSlowQueryThresholdNanos());
+        }
+
+        @Override
+        public void setSlowQueryThresholdMillis(long millis) {
+            SqlMetrics.setSlowQueryThresholdMillis(millis);
+        }
+
+        @Override
+        public void reset() {
+            SqlMetrics.reset();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package dao;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for one SQL statement execution, emitted by
+ * {@link StatementInstrumentation}. For queries the event lasts until the result set
+ * is closed, so it includes fetching the rows.
+ */
+@Name("hotel.SqlStatement")
+@Label("SQL Statement")
+@Category({"Hotel", "Database"})
+@Description("Execution of a SQL statement through DatabaseManager")
+class SqlStatementEvent extends jdk.jfr.Event {
+
+    @Label("Statement")
+    @Description("SQL template with literals replaced by ?")
+    String statement;
+
+    @Label("Rows")
+    @Description("Rows read from the result, or rows changed by an update")
+    long rows;
+
+    @Label("Succeeded")
+    boolean success;
+}
@@ -0,0 +1,68 @@
+package dao;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link SqlMetrics}, registered as hotel:type=SqlStatements.
+ *
+ * Statement statistics are grouped by the DAO that first ran each statement template,
+ * giving per-DAO operation counts and latencies; the slowest templates are listed as
+ * text. Latencies cover the execute calls, in milliseconds.
+ */
+public interface SqlStatisticsMXBean {
+
+    /**
+     * Totals of the statements of one DAO
+     */
+    final class DaoOperationStats {
+        private final int statements;
+        private final long calls;
+        private final long errors;
+        private final long rows;
+        private final double meanMillis;
+        private final double p99Millis;
+        private final double maxMillis;
+        private final double totalMillis;
+
+        public DaoOperationStats(int statements, long calls, long errors, long rows,
+                                 double meanMillis, double p99Millis, double maxMillis, double totalMillis) {
+            this.statements = statements;
+            this.calls = calls;
+            this.errors = errors;
+            this.rows = rows;
+            this.meanMillis = meanMillis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+            this.totalMillis = totalMillis;
+        }
+
+        // Distinct statement templates
+        public int getStatements() { return statements; }
+        public long getCalls() { return calls; }
+        public long getErrors() { return errors; }
+        public long getRows() { return rows; }
+        public double getMeanMillis() { return meanMillis; }
+        public double getP99Millis() { return p99Millis; }
+        public double getMaxMillis() { return maxMillis; }
+        public double getTotalMillis() { return totalMillis; }
+    }
+
+    boolean isEnabled();
+
+    long getCalls();
+
+    long getErrors();
+
+    // Statistics per DAO class, e.g. "BookingDAO"; statements run outside a DAO are under "other"
+    Map<String, DaoOperationStats> getDaoOperations();
+
+    // The most expensive statement templates, one line each as in SqlMetrics.report
+    String[] getTopStatements();
+
+    long getSlowQueryThresholdMillis();
+
+    void setSlowQueryThresholdMillis(long millis);
+
+    // Forget all statistics
+    void reset();
+}
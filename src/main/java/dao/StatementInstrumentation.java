@@ -0,0 +1,293 @@
+package dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Proxies that time statements for {@link SqlMetrics}.
+ *
+ * The connection proxy wraps every statement it creates; the statement proxy times the
+ * execute calls and remembers bind parameters for the slow query log; result sets count
+ * the rows read. Each execution is also a {@link SqlStatementEvent} for the flight
+ * recorder. Everything else passes straight through to the driver's objects.
+ */
+final class StatementInstrumentation {
+
+    private StatementInstrumentation() {
+    }
+
+    static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Instrumented[" + target + "]";
+                default:
+                    break;
+            }
+
+            Object result = StatementInstrumentation.invoke(target, method, args);
+            switch (method.getName()) {
+                case "createStatement":
+                    return wrapStatement((Statement) result, Statement.class, null);
+                case "prepareStatement":
+                    return wrapStatement((Statement) result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall":
+                    return wrapStatement((Statement) result, CallableStatement.class, (String) args[0]);
+                default:
+                    return result;
+            }
+        }
+
+        private Statement wrapStatement(Statement statement, Class<? extends Statement> type, String sql) {
+            return (Statement) Proxy.newProxyInstance(
+                    Statement.class.getClassLoader(),
+                    new Class<?>[]{type},
+                    new StatementHandler(statement, sql));
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private static final Object[] NO_PARAMS = new Object[0];
+
+        private final Statement target;
+        private final String preparedSql;
+        private final SqlMetrics.StatementStats prepared;
+        private Object[] params = NO_PARAMS;
+        private int paramCount;
+        private String batchSql;
+        private SqlMetrics.StatementStats last;
+        private ResultSetHandler openResult;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.prepared = preparedSql != null ? SqlMetrics.statsFor(preparedSql) : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Instrumented[" + target + "]";
+                case "getResultSet":
+                    return wrapResult((ResultSet) StatementInstrumentation.invoke(target, method, args), last, null);
+                case "close":
+                    // Closing a statement closes its result set
+                    closeResult();
+                    break;
+                case "clearParameters":
+                    Arrays.fill(params, null);
+                    paramCount = 0;
+                    break;
+                case "addBatch":
+                    if (args != null && batchSql == null) {
+                        batchSql = (String) args[0];
+                    }
+                    break;
+                case "clearBatch":
+                    batchSql = null;
+                    break;
+                default:
+                    if (prepared != null && name.startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer) {
+                        remember((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                    }
+            }
+            return StatementInstrumentation.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String sql;
+            if (prepared != null) {
+                sql = preparedSql;
+            } else if (args != null && args.length > 0 && args[0] instanceof String) {
+                sql = (String) args[0];
+            } else {
+                sql = batchSql;
+            }
+            SqlMetrics.StatementStats stats = prepared != null ? prepared : SqlMetrics.statsFor(sql);
+            last = stats;
+            // Executing again closes the previous result set
+            closeResult();
+
+            SqlStatementEvent event = new SqlStatementEvent();
+            event.begin();
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                stats.recordError(System.nanoTime() - start);
+                commit(event, stats, 0, false);
+                throw e.getCause();
+            }
+            long nanos = System.nanoTime() - start;
+
+            long rows = rowCount(result);
+            stats.record(nanos, rows);
+            long threshold = SqlMetrics.getSlowQueryThresholdNanos();
+            if (threshold > 0 && nanos >= threshold) {
+                SqlMetrics.logSlow(stats, sql != null ? sql : "(batch)", nanos, rows, params, paramCount);
+            }
+            if (method.getName().endsWith("Batch")) {
+                batchSql = null;
+            }
+            if (result instanceof ResultSet) {
+                return wrapResult((ResultSet) result, stats, event);
+            }
+            commit(event, stats, Math.max(rows, 0), true);
+            return result;
+        }
+
+        private ResultSet wrapResult(ResultSet resultSet, SqlMetrics.StatementStats stats, SqlStatementEvent event) {
+            if (resultSet == null || stats == null) {
+                return resultSet;
+            }
+            ResultSetHandler handler = new ResultSetHandler(resultSet, stats, event != null && event.isEnabled() ? event : null);
+            openResult = handler;
+            return (ResultSet) Proxy.newProxyInstance(
+                    ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    handler);
+        }
+
+        private void closeResult() {
+            if (openResult != null) {
+                openResult.finish();
+                openResult = null;
+            }
+        }
+
+        // Rows reported by an update or a batch; -1 for queries, whose rows are counted as read
+        private static long rowCount(Object result) {
+            if (result instanceof Integer || result instanceof Long) {
+                return ((Number) result).longValue();
+            }
+            if (result instanceof int[]) {
+                long rows = 0;
+                for (int count : (int[]) result) {
+                    rows += Math.max(0, count);
+                }
+                return rows;
+            }
+            if (result instanceof long[]) {
+                long rows = 0;
+                for (long count : (long[]) result) {
+                    rows += Math.max(0, count);
+                }
+                return rows;
+            }
+            return -1;
+        }
+
+        private void remember(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (index > params.length) {
+                params = Arrays.copyOf(params, Math.max(index, params.length * 2));
+            }
+            params[index - 1] = value;
+            paramCount = Math.max(paramCount, index);
+        }
+    }
+
+    // Commit a statement's flight recorder event if it is enabled and over its threshold
+    private static void commit(SqlStatementEvent event, SqlMetrics.StatementStats stats, long rows, boolean success) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.statement = stats.getTemplate();
+            event.rows = rows;
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    /**
+     * Counts the rows read and ends the statement's event when the result set is closed
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final SqlMetrics.StatementStats stats;
+        private final SqlStatementEvent event;
+        private long rows;
+        private boolean finished;
+
+        private ResultSetHandler(ResultSet target, SqlMetrics.StatementStats stats, SqlStatementEvent event) {
+            this.target = target;
+            this.stats = stats;
+            this.event = event;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatementInstrumentation.invoke(target, method, args);
+            switch (method.getName()) {
+                case "next":
+                    if (result == Boolean.TRUE) {
+                        stats.addRows(1);
+                        rows++;
+                    }
+                    break;
+                case "close":
+                    finish();
+                    break;
+                default:
+                    break;
+            }
+            return result;
+        }
+
+        private void finish() {
+            if (!finished) {
+                finished = true;
+                if (event != null) {
+                    commit(event, stats, rows, true);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package dao;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * A half-open range of time, from start (included) to end (excluded), for filtering
+ * date and timestamp columns.
+ *
+ * Queries compare the bare column with {@code column >= ? AND column < ?} (see
+ * {@link #condition}) and bind the bounds computed here, instead of wrapping the column
+ * in DATE() or comparing with CURRENT_DATE, so an index on the column can serve the
+ * range. Half-open bounds need no "23:59:59.999" end and adjacent ranges never overlap.
+ * Day boundaries are midnights in the range's zone, so a day is 23 or 25 hours long
+ * across a daylight saving change.
+ */
+public final class TimeRange {
+
+    private final Instant start;
+    private final Instant end;
+    private final ZoneId zone;
+
+    private TimeRange(Instant start, Instant end, ZoneId zone) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Range ends before it starts: " + start + " - " + end);
+        }
+        this.start = start;
+        this.end = end;
+        this.zone = zone;
+    }
+
+    // Range between two instants, with days counted in the given zone
+    public static TimeRange of(Instant start, Instant endExclusive, ZoneId zone) {
+        return new TimeRange(Objects.requireNonNull(start), Objects.requireNonNull(endExclusive),
+                Objects.requireNonNull(zone));
+    }
+
+    // Whole days from first up to, not including, endExclusive
+    public static TimeRange days(LocalDate first, LocalDate endExclusive, ZoneId zone) {
+        return of(first.atStartOfDay(zone).toInstant(), endExclusive.atStartOfDay(zone).toInstant(), zone);
+    }
+
+    // One whole day
+    public static TimeRange day(LocalDate day, ZoneId zone) {
+        return days(day, day.plusDays(1), zone);
+    }
+
+    // One whole calendar month
+    public static TimeRange month(YearMonth month, ZoneId zone) {
+        return days(month.atDay(1), month.plusMonths(1).atDay(1), zone);
+    }
+
+    // SQL condition selecting the range on a column; bind it with bindTimestamps or bindDates
+    public static String condition(String column) {
+        return column + " >= ? AND " + column + " < ?";
+    }
+
+    public Instant getStart() {
+        return start;
+    }
+
+    public Instant getEnd() {
+        return end;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    // First day of the range in its zone
+    public LocalDate getStartDay() {
+        return start.atZone(zone).toLocalDate();
+    }
+
+    // First day after the range, rounded up when the range ends during a day
+    public LocalDate getEndDay() {
+        LocalDate day = end.atZone(zone).toLocalDate();
+        return day.atStartOfDay(zone).toInstant().equals(end) ? day : day.plusDays(1);
+    }
+
+    public boolean contains(Instant instant) {
+        return !instant.isBefore(start) && instant.isBefore(end);
+    }
+
+    /**
+     * Binds the bounds for a timestamp column. JDBC renders timestamps in the JVM's
+     * zone, the same way payment times are written, so the bounds match stored values
+     * whatever zone the range's days were counted in.
+     *
+     * @return Index of the next parameter
+     */
+    public int bindTimestamps(PreparedStatement pstmt, int index) throws SQLException {
+        pstmt.setTimestamp(index, Timestamp.from(start));
+        pstmt.setTimestamp(index + 1, Timestamp.from(end));
+        return index + 2;
+    }
+
+    /**
+     * Binds the bounds for a date column, as the days covered by the range
+     *
+     * @return Index of the next parameter
+     */
+    public int bindDates(PreparedStatement pstmt, int index) throws SQLException {
+        pstmt.setDate(index, Date.valueOf(getStartDay()));
+        pstmt.setDate(index + 1, Date.valueOf(getEndDay()));
+        return index + 2;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TimeRange)) {
+            return false;
+        }
+        TimeRange other = (TimeRange) o;
+        return start.equals(other.start) && end.equals(other.end) && zone.equals(other.zone);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, end, zone);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + start.atZone(zone) + ", " + end.atZone(zone) + ")";
+    }
+}
@@ -0,0 +1,193 @@
+package dao;
+
+import utill.Log;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a group of DAO calls in one database transaction on one pooled connection.
+ *
+ * While a unit of work is active, {@link DatabaseManager#getConnection()} returns the
+ * transaction's connection on the same thread, so existing DAO methods take part in
+ * the transaction without any changes. Closing that connection inside the unit of
+ * work is a no-op; the connection goes back to the pool when the unit of work ends.
+ *
+ * Example:
+ * <pre>
+ *     Booking booking = UnitOfWork.execute(conn -> {
+ *         Room room = roomDAO.getRoomByNumber("101");
+ *         ...
+ *         return booking;
+ *     });
+ * </pre>
+ */
+public final class UnitOfWork {
+
+    private static final Log LOGGER = Log.get(UnitOfWork.class);
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final Connection sharedConnection;
+    private final List<Runnable> afterCommitActions = new ArrayList<>();
+
+    private UnitOfWork(Connection connection) {
+        this.sharedConnection = nonClosing(connection);
+    }
+
+    /**
+     * Work executed inside a transaction
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T execute(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Executes work in a transaction. Commits when the work returns normally and
+     * rolls back when it throws. Nested calls join the outer transaction.
+     *
+     * @param work The work to execute
+     * @return The value returned by the work
+     * @throws SQLException if the work or the commit fails
+     */
+    public static <T> T execute(Work<T> work) throws SQLException {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            return work.execute(current.sharedConnection);
+        }
+
+        try (Connection connection = DatabaseManager.getConnection()) {
+            connection.setAutoCommit(false);
+            UnitOfWork unitOfWork = new UnitOfWork(connection);
+            CURRENT.set(unitOfWork);
+
+            T result;
+            try {
+                result = work.execute(unitOfWork.sharedConnection);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                rollbackQuietly(connection, e);
+                throw e;
+            } finally {
+                CURRENT.remove();
+                connection.setAutoCommit(true);
+            }
+
+            unitOfWork.runAfterCommitActions();
+            return result;
+        }
+    }
+
+    /**
+     * Runs work under a savepoint of the current transaction. If the work throws, only
+     * its own changes and after-commit actions are discarded and the transaction can go
+     * on. Outside a unit of work this is the same as {@link #execute}.
+     *
+     * @param work The work to execute
+     * @return The value returned by the work
+     * @throws SQLException if the work fails, after its changes were rolled back
+     */
+    public static <T> T savepoint(Work<T> work) throws SQLException {
+        UnitOfWork current = CURRENT.get();
+        if (current == null) {
+            return execute(work);
+        }
+
+        Connection connection = current.sharedConnection;
+        Savepoint savepoint = connection.setSavepoint();
+        int actionCount = current.afterCommitActions.size();
+        try {
+            T result = work.execute(connection);
+            connection.releaseSavepoint(savepoint);
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            try {
+                connection.rollback(savepoint);
+            } catch (SQLException rollbackFailure) {
+                e.addSuppressed(rollbackFailure);
+            }
+            current.afterCommitActions.subList(actionCount, current.afterCommitActions.size()).clear();
+            throw e;
+        }
+    }
+
+    /**
+     * Registers an action to run once the current transaction commits.
+     * Outside a unit of work the action runs immediately.
+     * Used to keep in-memory state in step with committed data only.
+     *
+     * @param action The action to run
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            current.afterCommitActions.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    // Whether the calling thread is inside a unit of work
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    // The transaction's connection for the calling thread, or null outside a unit of work
+    static Connection currentConnection() {
+        UnitOfWork current = CURRENT.get();
+        return current != null ? current.sharedConnection : null;
+    }
+
+    private void runAfterCommitActions() {
+        for (Runnable action : afterCommitActions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LOGGER.warning("After-commit action failed", e);
+            }
+        }
+    }
+
+    private static void rollbackQuietly(Connection connection, Exception cause) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    // Wrap the connection so DAOs closing it do not end the transaction
+    private static Connection nonClosing(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "commit":
+                        case "setAutoCommit":
+                            throw new SQLException("Transaction is managed by UnitOfWork");
+                        case "rollback":
+                            // Rolling back to a savepoint is fine; a full rollback is not
+                            if (args == null) {
+                                throw new SQLException("Transaction is managed by UnitOfWork");
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
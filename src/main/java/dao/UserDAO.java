@@ -3,7 +3,9 @@ package dao;
 import model.User;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class UserDAO {
 
@@ -53,6 +55,23 @@ public class UserDAO {
         throw new SQLException("Failed to save user");
     }
 
+    // Save several users with JDBC batches, committing every db.batch.size rows.
+    // Returns the generated ids in the order of the users.
+    public int[] saveAll(List<User> users) throws SQLException {
+        String sql = "INSERT INTO users (username, password, role, fullname) VALUES (?, ?, ?, ?)";
+
+        return Batches.insertAll(sql, users, (pstmt, user) -> {
+            pstmt.setString(1, user.getUsername());
+            pstmt.setString(2, user.getPassword());
+            pstmt.setString(3, user.getRole());
+            pstmt.setString(4, user.getFullname());
+        }, (chunk, ids) -> {
+            for (int i = 0; i < ids.length; i++) {
+                chunk.get(i).setId(ids[i]);
+            }
+        });
+    }
+
     // Get user by ID
     public User getUserById(int id) throws SQLException {
         String sql = "SELECT * FROM users WHERE id = ?";
@@ -89,6 +108,24 @@ public class UserDAO {
         return null;
     }
 
+    // Map of every username to its user id, for resolving usernames in bulk
+    public Map<String, Integer> getUserIdsByUsername() throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        String sql = "SELECT id, username FROM users";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            stmt.setFetchSize(10_000);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    ids.put(rs.getString("username"), rs.getInt("id"));
+                }
+            }
+        }
+        return ids;
+    }
+
     // Get all users
     public List<User> getAllUsers() throws SQLException {
         List<User> users = new ArrayList<>();
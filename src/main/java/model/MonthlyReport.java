@@ -0,0 +1,64 @@
+package model;
+
+/**
+ * Revenue and occupancy figures of one calendar month, on two bases.
+ * Revenue is the payments received during the month, the same basis as the revenue
+ * totals. Bookings, nights sold and booked value count the bookings that check in
+ * during the month, cancelled ones excluded; booked value is their total price, paid
+ * or not, and the average daily rate is booked value per night sold.
+ */
+public class MonthlyReport {
+    private final String month;
+    private final double revenue;
+    private final int bookingCount;
+    private final int nightsSold;
+    private final double bookedValue;
+
+    // Constructor with all fields
+    public MonthlyReport(String month, double revenue, int bookingCount, int nightsSold, double bookedValue) {
+        this.month = month;
+        this.revenue = revenue;
+        this.bookingCount = bookingCount;
+        this.nightsSold = nightsSold;
+        this.bookedValue = bookedValue;
+    }
+
+    // Month as yyyy-MM
+    public String getMonth() {
+        return month;
+    }
+
+    // Payments received during the month
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public int getBookingCount() {
+        return bookingCount;
+    }
+
+    public int getNightsSold() {
+        return nightsSold;
+    }
+
+    // Total price of the bookings checking in during the month
+    public double getBookedValue() {
+        return bookedValue;
+    }
+
+    // Average daily rate: booked value per room night sold, 0 when no nights were sold
+    public double getAverageDailyRate() {
+        return nightsSold > 0 ? bookedValue / nightsSold : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "MonthlyReport{" +
+                "month='" + month + '\'' +
+                ", revenue=" + revenue +
+                ", bookingCount=" + bookingCount +
+                ", nightsSold=" + nightsSold +
+                ", bookedValue=" + bookedValue +
+                '}';
+    }
+}
@@ -73,6 +73,11 @@ public class Room {
         return "Available".equals(status);
     }
 
+    // Whether the room can take bookings at all; date conflicts are checked separately
+    public boolean isBookable() {
+        return !"Maintenance".equals(status);
+    }
+
     public void markAsBooked() {
         this.status = "Booked";
     }
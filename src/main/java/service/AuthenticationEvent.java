@@ -0,0 +1,37 @@
+package service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for one login attempt through
+ * {@link AuthenticationService#authenticateUser}
+ */
+@Name("hotel.Authentication")
+@Label("Authentication")
+@Category({"Hotel", "Security"})
+@Description("A login attempt; the password is never recorded")
+class AuthenticationEvent extends jdk.jfr.Event {
+
+    @Label("Username")
+    String username;
+
+    @Label("User Id")
+    @Description("Id of the authenticated user; 0 if the attempt failed")
+    int userId;
+
+    @Label("Role")
+    String role;
+
+    @Label("Succeeded")
+    boolean success;
+
+    @Label("Failed Attempts")
+    @Description("Consecutive failed attempts after this one")
+    int failedAttempts;
+
+    @Label("Message")
+    String message;
+}
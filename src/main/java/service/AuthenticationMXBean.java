@@ -0,0 +1,19 @@
+package service;
+
+/**
+ * JMX view of logins and sessions across every {@link AuthenticationService},
+ * registered as hotel:type=Authentication. Counts are since startup.
+ */
+public interface AuthenticationMXBean {
+
+    // Sessions in the SessionRegistry; expired ones leave within a second
+    long getActiveSessions();
+
+    long getSuccessfulLogins();
+
+    long getFailedLogins();
+
+    long getLogouts();
+
+    long getExpiredSessions();
+}
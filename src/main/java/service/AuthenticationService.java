@@ -4,10 +4,10 @@ package service;
 
 import dao.UserDAO;
 import model.User;
+import utill.Log;
 
 import javax.swing.*;
-import java.util.logging.Logger;
-import java.util.logging.Level;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Pattern;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -25,23 +25,28 @@ import java.time.format.DateTimeFormatter;
  * - Role-based access control
  * - User account management
  * - Security logging and monitoring
+ *
+ * Sessions live in the shared {@link SessionRegistry}; an instance only remembers the
+ * id of the session its last login created, so any number of instances, one per panel
+ * or per client, can work side by side. A headless deployment can keep the session id
+ * from {@link AuthenticationResult#getSessionId()} and resolve it through the registry.
  */
 public class AuthenticationService {
 
-    private static final Logger LOGGER = Logger.getLogger(AuthenticationService.class.getName());
+    private static final Log LOGGER = Log.get(AuthenticationService.class);
+
+    // Login and session counters of every instance, published over JMX
+    private static final Metrics METRICS = new Metrics();
 
     // Dependencies
     private final UserDAO userDAO;
 
-    // Current session state
-    private User currentUser;
-    private boolean isLoggedIn;
-    private long sessionStartTime;
-    private long lastActivityTime;
-    private String sessionId;
+    private final SessionRegistry sessions;
+
+    // Id of the session created by this instance's last login
+    private volatile String sessionId;
 
     // Security configuration
-    private static final long SESSION_TIMEOUT = 30 * 60 * 1000; // 30 minutes in milliseconds
     private static final long WARNING_TIME = 5 * 60 * 1000;     // 5 minutes warning before timeout
     private static final int MAX_LOGIN_ATTEMPTS = 3;
     private static final long LOCKOUT_DURATION = 15 * 60 * 1000; // 15 minutes lockout
@@ -64,15 +69,17 @@ public class AuthenticationService {
      */
     public AuthenticationService(UserDAO userDAO) {
         this.userDAO = userDAO;
-        this.currentUser = null;
-        this.isLoggedIn = false;
-        this.sessionStartTime = 0;
-        this.lastActivityTime = 0;
+        this.sessions = SessionRegistry.getInstance();
         this.sessionId = null;
 
         LOGGER.info("AuthenticationService initialized");
     }
 
+    // JMX view of the login and session counters
+    public static AuthenticationMXBean getMXBean() {
+        return METRICS;
+    }
+
     /**
      * Authenticates a user with username and password
      *
@@ -81,7 +88,34 @@ public class AuthenticationService {
      * @return AuthenticationResult containing success status, message, and user info
      */
     public AuthenticationResult authenticateUser(String username, String password) {
-        LOGGER.info("Authentication attempt for user: " + username);
+        AuthenticationEvent event = new AuthenticationEvent();
+        event.begin();
+        AuthenticationResult result = checkCredentials(username, password);
+        event.end();
+
+        if (result.isSuccess()) {
+            METRICS.successfulLogins.increment();
+        } else {
+            METRICS.failedLogins.increment();
+        }
+
+        if (event.shouldCommit()) {
+            event.username = username;
+            event.success = result.isSuccess();
+            event.message = result.getMessage();
+            event.failedAttempts = failedLoginAttempts;
+            if (result.getUser() != null) {
+                event.userId = result.getUser().getId();
+                event.role = result.getUser().getRole();
+            }
+            event.commit();
+        }
+        return result;
+    }
+
+    // Authentication steps behind authenticateUser: lockout, input checks, database lookup
+    private AuthenticationResult checkCredentials(String username, String password) {
+        LOGGER.info("Authentication attempt for user: {}", username);
 
         // Check if account is locked
         if (isAccountLocked()) {
@@ -89,7 +123,7 @@ public class AuthenticationService {
             if (remainingLockTime > 0) {
                 String message = String.format("Account locked due to multiple failed attempts. Try again in %d minutes.",
                         remainingLockTime / (60 * 1000));
-                LOGGER.warning("Authentication blocked - account locked for user: " + username);
+                LOGGER.warning("Authentication blocked - account locked for user: {}", username);
                 return new AuthenticationResult(false, message, null);
             } else {
                 // Lockout period expired, reset
@@ -101,13 +135,13 @@ public class AuthenticationService {
         ValidationResult usernameValidation = validateUsernameFormat(username);
         if (!usernameValidation.isValid()) {
             incrementFailedAttempts();
-            LOGGER.warning("Authentication failed - invalid username format for: " + username);
+            LOGGER.warning("Authentication failed - invalid username format for: {}", username);
             return new AuthenticationResult(false, usernameValidation.getMessage(), null);
         }
 
         if (password == null || password.trim().isEmpty()) {
             incrementFailedAttempts();
-            LOGGER.warning("Authentication failed - empty password for user: " + username);
+            LOGGER.warning("Authentication failed - empty password for user: {}", username);
             return new AuthenticationResult(false, "Password cannot be empty", null);
         }
 
@@ -120,12 +154,12 @@ public class AuthenticationService {
                 resetFailedAttempts();
                 initializeSession(user);
 
-                LOGGER.info("Authentication successful for user: " + username + " with role: " + user.getRole());
-                return new AuthenticationResult(true, "Login successful", user);
+                LOGGER.info("Authentication successful for user: {} with role: {}", username, user.getRole());
+                return new AuthenticationResult(true, "Login successful", user, sessionId);
             } else {
                 // Authentication failed
                 incrementFailedAttempts();
-                LOGGER.warning("Authentication failed - invalid credentials for user: " + username);
+                LOGGER.warning("Authentication failed - invalid credentials for user: {}", username);
 
                 String message = "Invalid username or password";
                 if (failedLoginAttempts >= MAX_LOGIN_ATTEMPTS - 1) {
@@ -137,41 +171,46 @@ public class AuthenticationService {
 
         } catch (Exception e) {
             incrementFailedAttempts();
-            LOGGER.log(Level.SEVERE, "Authentication error for user: " + username, e);
+            LOGGER.severe("Authentication error for user: {}", username, e);
             return new AuthenticationResult(false, "Authentication service error. Please try again later.", null);
         }
     }
 
     /**
-     * Initializes a new user session
+     * Initializes a new user session, replacing any session of this instance
      *
      * @param user The authenticated user
      */
     private void initializeSession(User user) {
-        this.currentUser = user;
-        this.isLoggedIn = true;
-        this.sessionStartTime = System.currentTimeMillis();
-        this.lastActivityTime = this.sessionStartTime;
-        this.sessionId = generateSessionId();
+        sessions.invalidate(sessionId);
+        SessionRegistry.Session session = sessions.create(user);
+        this.sessionId = session.getId();
 
-        LOGGER.info("Session initialized for user: " + user.getUsername() + " (Session ID: " + sessionId + ")");
+        LOGGER.info("Session initialized for user: {}", user.getUsername());
+    }
+
+    // This instance's session, or null if it has none or it is no longer live
+    private SessionRegistry.Session currentSession() {
+        return sessions.get(sessionId);
     }
 
     /**
-     * Generates a unique session ID
+     * Gets the id of this instance's session
      *
-     * @return A unique session identifier
+     * @return The session id, or null if not logged in
      */
-    private String generateSessionId() {
-        return "SESSION_" + System.currentTimeMillis() + "_" + Math.random();
+    public String getSessionId() {
+        return isLoggedIn() ? sessionId : null;
     }
 
     /**
      * Logs out the current user and clears session
      */
     public void logout() {
-        if (currentUser != null) {
-            LOGGER.info("User logged out: " + currentUser.getUsername() + " (Session ID: " + sessionId + ")");
+        SessionRegistry.Session session = sessions.invalidate(sessionId);
+        if (session != null) {
+            LOGGER.info("User logged out: {}", session.getUser().getUsername());
+            METRICS.logouts.increment();
         }
 
         clearSession();
@@ -181,10 +220,6 @@ public class AuthenticationService {
      * Clears all session data
      */
     private void clearSession() {
-        currentUser = null;
-        isLoggedIn = false;
-        sessionStartTime = 0;
-        lastActivityTime = 0;
         sessionId = null;
     }
 
@@ -194,12 +229,12 @@ public class AuthenticationService {
      * @return true if user is logged in and session is valid
      */
     public boolean isLoggedIn() {
-        if (!isLoggedIn || currentUser == null) {
+        if (sessionId == null) {
             return false;
         }
 
-        if (isSessionExpired()) {
-            LOGGER.info("Session expired for user: " + currentUser.getUsername());
+        if (currentSession() == null) {
+            // Expired or ended elsewhere; the registry logs expiry
             clearSession();
             return false;
         }
@@ -213,10 +248,8 @@ public class AuthenticationService {
      * @return The current user or null if not logged in
      */
     public User getCurrentUser() {
-        if (!isLoggedIn()) {
-            return null;
-        }
-        return currentUser;
+        SessionRegistry.Session session = currentSession();
+        return session != null ? session.getUser() : null;
     }
 
     /**
@@ -225,12 +258,7 @@ public class AuthenticationService {
      * @return true if session has expired
      */
     public boolean isSessionExpired() {
-        if (!isLoggedIn || sessionStartTime == 0) {
-            return true;
-        }
-
-        long currentTime = System.currentTimeMillis();
-        return (currentTime - lastActivityTime) > SESSION_TIMEOUT;
+        return currentSession() == null;
     }
 
     /**
@@ -238,9 +266,9 @@ public class AuthenticationService {
      * Updates the last activity time to current time
      */
     public void refreshSession() {
-        if (isLoggedIn) {
-            lastActivityTime = System.currentTimeMillis();
-            LOGGER.fine("Session refreshed for user: " + currentUser.getUsername());
+        SessionRegistry.Session session = sessions.touch(sessionId);
+        if (session != null) {
+            LOGGER.fine("Session refreshed for user: {}", session.getUser().getUsername());
         }
     }
 
@@ -250,12 +278,12 @@ public class AuthenticationService {
      * @return Remaining time in milliseconds, 0 if not logged in
      */
     public long getRemainingSessionTime() {
-        if (!isLoggedIn) {
+        SessionRegistry.Session session = currentSession();
+        if (session == null) {
             return 0;
         }
 
-        long elapsed = System.currentTimeMillis() - lastActivityTime;
-        long remaining = SESSION_TIMEOUT - elapsed;
+        long remaining = session.getExpiresAt() - System.currentTimeMillis();
         return Math.max(0, remaining);
     }
 
@@ -265,10 +293,6 @@ public class AuthenticationService {
      * @return true if warning should be displayed
      */
     public boolean shouldShowTimeoutWarning() {
-        if (!isLoggedIn) {
-            return false;
-        }
-
         long remaining = getRemainingSessionTime();
         return remaining <= WARNING_TIME && remaining > 0;
     }
@@ -296,6 +320,7 @@ public class AuthenticationService {
      * @return true if user has the role
      */
     public boolean hasRole(String role) {
+        User currentUser = getCurrentUser();
         return currentUser != null && role != null &&
                 role.equalsIgnoreCase(currentUser.getRole());
     }
@@ -307,7 +332,7 @@ public class AuthenticationService {
      * @return true if user has any of the roles
      */
     public boolean hasAnyRole(String... roles) {
-        if (currentUser == null || roles == null) {
+        if (roles == null || !isLoggedIn()) {
             return false;
         }
 
@@ -446,7 +471,7 @@ public class AuthenticationService {
             }
             return new ValidationResult(true, "Username is available");
         } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error checking username availability: " + username, e);
+            LOGGER.warning("Error checking username availability: {}", username, e);
             return new ValidationResult(false, "Error checking username availability");
         }
     }
@@ -459,7 +484,8 @@ public class AuthenticationService {
      * @return ValidationResult with success status and message
      */
     public ValidationResult changePassword(String currentPassword, String newPassword) {
-        if (!isLoggedIn()) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
             return new ValidationResult(false, "No user is currently logged in");
         }
 
@@ -470,7 +496,7 @@ public class AuthenticationService {
                 return new ValidationResult(false, "Current password is incorrect");
             }
         } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error verifying current password for user: " + currentUser.getUsername(), e);
+            LOGGER.warning("Error verifying current password for user: {}", currentUser.getUsername(), e);
             return new ValidationResult(false, "Error verifying current password");
         }
 
@@ -489,13 +515,13 @@ public class AuthenticationService {
                     // Update password in database
                     boolean updated = userDAO.updatePassword(currentUser.getId(), newPassword);
                     if (updated) {
-                        LOGGER.info("Password changed successfully for user: " + currentUser.getUsername());
+                        LOGGER.info("Password changed successfully for user: {}", currentUser.getUsername());
                         return new ValidationResult(true, "Password changed successfully");
             } else {
                 return new ValidationResult(false, "Failed to update password");
             }
         } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error changing password for user: " + currentUser.getUsername(), e);
+            LOGGER.severe("Error changing password for user: {}", currentUser.getUsername(), e);
             return new ValidationResult(false, "Error changing password: " + e.getMessage());
         }
     }
@@ -549,13 +575,13 @@ public class AuthenticationService {
 
             boolean created = userDAO.addUser(newUser);
             if (created) {
-                LOGGER.info("User account created successfully: " + username + " (Role: " + role + ") by admin: " + currentUser.getUsername());
+                LOGGER.info("User account created successfully: {} (Role: {}) by admin: {}", username, role, getCurrentUser().getUsername());
                 return new ValidationResult(true, "User account created successfully");
             } else {
                 return new ValidationResult(false, "Failed to create user account");
             }
         } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error creating user account: " + username, e);
+            LOGGER.severe("Error creating user account: {}", username, e);
             return new ValidationResult(false, "Error creating user account: " + e.getMessage());
         }
     }
@@ -569,7 +595,7 @@ public class AuthenticationService {
 
         if (failedLoginAttempts >= MAX_LOGIN_ATTEMPTS) {
             isAccountLocked = true;
-            LOGGER.warning("Account locked due to " + failedLoginAttempts + " failed login attempts");
+            LOGGER.warning("Account locked due to {} failed login attempts", failedLoginAttempts);
         }
     }
 
@@ -644,27 +670,28 @@ public class AuthenticationService {
      * @return SessionInfo object with current session details
      */
     public SessionInfo getSessionInfo() {
-        if (!isLoggedIn()) {
+        SessionRegistry.Session session = currentSession();
+        if (session == null) {
             return new SessionInfo(false, null, null, null, 0, 0);
         }
 
         LocalDateTime loginTime = LocalDateTime.ofInstant(
-                java.time.Instant.ofEpochMilli(sessionStartTime),
+                java.time.Instant.ofEpochMilli(session.getCreatedAt()),
                 java.time.ZoneId.systemDefault()
         );
 
         LocalDateTime lastActivity = LocalDateTime.ofInstant(
-                java.time.Instant.ofEpochMilli(lastActivityTime),
+                java.time.Instant.ofEpochMilli(session.getLastActivity()),
                 java.time.ZoneId.systemDefault()
         );
 
         return new SessionInfo(
                 true,
-                sessionId,
+                session.getId(),
                 loginTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                 lastActivity.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                 getRemainingSessionTime(),
-                SESSION_TIMEOUT
+                sessions.getTimeoutMillis()
         );
     }
 
@@ -696,16 +723,24 @@ public class AuthenticationService {
         private final boolean success;
         private final String message;
         private final User user;
+        private final String sessionId;
 
         public AuthenticationResult(boolean success, String message, User user) {
+            this(success, message, user, null);
+        }
+
+        public AuthenticationResult(boolean success, String message, User user, String sessionId) {
             this.success = success;
             this.message = message;
             this.user = user;
+            this.sessionId = sessionId;
         }
 
         public boolean isSuccess() { return success; }
         public String getMessage() { return message; }
         public User getUser() { return user; }
+        // Id of the session the login created, for SessionRegistry lookups; null on failure
+        public String getSessionId() { return sessionId; }
 
         @Override
         public String toString() {
@@ -788,5 +823,29 @@ public class AuthenticationService {
         String role = user.getRole();
         return "admin".equalsIgnoreCase(role) || "staff".equalsIgnoreCase(role);
     }
-}
 
+    /**
+     * Login counters; LongAdders so concurrent logins do not contend.
+     * Session counts come from the SessionRegistry.
+     */
+    private static final class Metrics implements AuthenticationMXBean {
+        private final LongAdder successfulLogins = new LongAdder();
+        private final LongAdder failedLogins = new LongAdder();
+        private final LongAdder logouts = new LongAdder();
+
+        @Override
+        public long getActiveSessions() { return SessionRegistry.getInstance().size(); }
+
+        @Override
+        public long getSuccessfulLogins() { return successfulLogins.sum(); }
+
+        @Override
+        public long getFailedLogins() { return failedLogins.sum(); }
+
+        @Override
+        public long getLogouts() { return logouts.sum(); }
+
+        @Override
+        public long getExpiredSessions() { return SessionRegistry.getInstance().getExpiredCount(); }
+    }
+}
@@ -0,0 +1,40 @@
+package service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for one {@link BookingService} operation
+ */
+@Name("hotel.BookingOperation")
+@Label("Booking Operation")
+@Category({"Hotel", "Booking"})
+@Description("A BookingService call, such as creating a booking or checking a guest out")
+class BookingEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Booking Id")
+    @Description("Booking the operation acted on or created; 0 if none")
+    int bookingId;
+
+    @Label("Room Number")
+    String roomNumber;
+
+    @Label("Guest")
+    @Description("Username of the guest")
+    String guest;
+
+    @Label("Rows")
+    @Description("Bookings or rooms returned by a lookup")
+    int rows;
+
+    @Label("Succeeded")
+    boolean success;
+
+    @Label("Message")
+    String message;
+}
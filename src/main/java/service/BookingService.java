@@ -1,25 +1,45 @@
 package service;
 
+import dao.AvailabilityIndex;
+import dao.BookingConflictException;
 import dao.BookingDAO;
+import dao.BusinessClock;
+import dao.RoomCache;
 import dao.RoomDAO;
 import dao.UserDAO;
 import dao.PaymentDAO;
+import dao.UnitOfWork;
 import model.Booking;
 import model.Room;
 import model.User;
+import utill.LatencyHistogram;
+import utill.Log;
 import java.sql.SQLException;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 public class BookingService {
+    private static final Log LOGGER = Log.get(BookingService.class);
+    private static final String ROOM_TAKEN_MESSAGE = "Room is already booked for the selected dates";
+
+    // Operation counters of every BookingService, published over JMX
+    private static final Metrics METRICS = new Metrics();
+
     private BookingDAO bookingDAO;
     private RoomDAO roomDAO;
+    private RoomCache roomCache;
     private UserDAO userDAO;
     private PaymentDAO paymentDAO;
 
     public BookingService() {
         this.bookingDAO = new BookingDAO();
         this.roomDAO = new RoomDAO();
+        this.roomCache = RoomCache.getInstance();
         this.userDAO = new UserDAO();
         this.paymentDAO = new PaymentDAO();
     }
@@ -28,12 +48,23 @@ public class BookingService {
     public BookingService(BookingDAO bookingDAO, RoomDAO roomDAO, UserDAO userDAO, PaymentDAO paymentDAO) {
         this.bookingDAO = bookingDAO;
         this.roomDAO = roomDAO;
+        this.roomCache = RoomCache.getInstance();
         this.userDAO = userDAO;
         this.paymentDAO = paymentDAO;
     }
 
+    // JMX view of the operation counters
+    public static BookingServiceMXBean getMXBean() {
+        return METRICS;
+    }
+
     /**
-     * Create a new booking
+     * Create a new booking.
+     * The booking, its room nights, the payment and the room status are written in one
+     * transaction on one connection. Double-booking is prevented by the room_nights
+     * primary key: an overlapping booking fails on insert and the whole transaction
+     * rolls back, so no range query or row lock is needed. The in-memory availability
+     * index turns away most conflicts before anything is written.
      * @param guestUsername Username of the guest
      * @param roomNumber Room number to book
      * @param checkInDate Check-in date
@@ -43,59 +74,92 @@ public class BookingService {
      */
     public BookingResult createBooking(String guestUsername, String roomNumber,
                                        Date checkInDate, Date checkOutDate, String paymentMethod) {
-        try {
-            // Validate input
-            BookingValidation validation = validateBookingData(guestUsername, roomNumber,
-                    checkInDate, checkOutDate);
-            if (!validation.isValid()) {
-                return new BookingResult(false, validation.getMessage(), null);
-            }
-
-            // Get guest and room information
-            User guest = userDAO.getUserByUsername(guestUsername);
-            if (guest == null) {
-                return new BookingResult(false, "Guest not found", null);
-            }
-
-            Room room = roomDAO.getRoomByNumber(roomNumber);
-            if (room == null) {
-                return new BookingResult(false, "Room not found", null);
+        return traced("create", 0, roomNumber, guestUsername, () -> {
+            try {
+                // Validate input
+                BookingValidation validation = validateBookingData(guestUsername, roomNumber,
+                        checkInDate, checkOutDate);
+                if (!validation.isValid()) {
+                    return new BookingResult(false, validation.getMessage(), null);
+                }
+
+                return UnitOfWork.execute(conn -> {
+                    // Get guest and room information
+                    User guest = userDAO.getUserByUsername(guestUsername);
+                    if (guest == null) {
+                        return new BookingResult(false, "Guest not found", null);
+                    }
+
+                    Room room = roomCache.getRoomByNumber(roomNumber);
+                    if (room == null) {
+                        return new BookingResult(false, "Room not found", null);
+                    }
+
+                    if (!room.isBookable()) {
+                        return new BookingResult(false, "Room is under maintenance", null);
+                    }
+
+                    AvailabilityIndex availabilityIndex = AvailabilityIndex.getInstance();
+                    if (availabilityIndex.isLoaded()
+                            && availabilityIndex.hasConflict(room.getId(), checkInDate, checkOutDate, 0)) {
+                        return new BookingResult(false, ROOM_TAKEN_MESSAGE, null);
+                    }
+
+                    // Calculate total price
+                    double totalPrice = calculateTotalPrice(room.getPrice(), checkInDate, checkOutDate);
+
+                    // Create booking; throws BookingConflictException if a night is already taken
+                    Booking booking = new Booking(guest.getId(), room.getId(), checkInDate, checkOutDate, totalPrice);
+                    int bookingId = bookingDAO.saveBooking(booking);
+
+                    // Create payment record
+                    paymentDAO.createPayment(bookingId, totalPrice, paymentMethod);
+
+                    // Update room status
+                    roomDAO.updateRoomStatus(room.getId(), "Booked");
+
+                    // Fill in the joined fields from what was already loaded
+                    booking.setRoomNumber(room.getRoomNumber());
+                    booking.setGuestName(guest.getFullname());
+
+                    return new BookingResult(true, "Booking created successfully", booking);
+                });
+
+            } catch (BookingConflictException e) {
+                return new BookingResult(false, ROOM_TAKEN_MESSAGE, null);
+            } catch (SQLException e) {
+                LOGGER.severe("Database error creating booking: {}", e.getMessage(), e);
+                return new BookingResult(false, "Database error: " + e.getMessage(), null);
+            } catch (Exception e) {
+                LOGGER.severe("Unexpected error creating booking: {}", e.getMessage(), e);
+                return new BookingResult(false, "Unexpected error: " + e.getMessage(), null);
             }
+        });
+    }
 
-            if (!room.isAvailable()) {
-                return new BookingResult(false, "Room is not available", null);
+    /**
+     * Find rooms that are free for the whole stay.
+     * Availability comes from the bookings for those dates, not from the room's
+     * current status, so a room occupied today can still be offered for next week.
+     * @param type Room type, or null for any type
+     * @param checkIn Check-in date
+     * @param checkOut Check-out date
+     * @param maxPrice Highest price per night, or null for no limit
+     * @return Free rooms ordered by price, empty if the dates are invalid
+     */
+    public List<Room> findAvailableRooms(String type, Date checkIn, Date checkOut, Double maxPrice) {
+        return traced("findAvailableRooms", 0, null, null, () -> {
+            if (checkIn == null || checkOut == null || !checkOut.after(checkIn)) {
+                return List.of();
             }
 
-            // Check for conflicting bookings
-            if (bookingDAO.hasConflictingBooking(room.getId(), checkInDate, checkOutDate, 0)) {
-                return new BookingResult(false, "Room is already booked for the selected dates", null);
+            try {
+                return roomDAO.findAvailableRooms(type, checkIn, checkOut, maxPrice);
+            } catch (SQLException e) {
+                LOGGER.severe("Error searching available rooms: {}", e.getMessage(), e);
+                return List.of();
             }
-
-            // Calculate total price
-            double totalPrice = calculateTotalPrice(room.getPrice(), checkInDate, checkOutDate);
-
-            // Create booking
-            Booking booking = new Booking(guest.getId(), room.getId(), checkInDate, checkOutDate, totalPrice);
-            int bookingId = bookingDAO.saveBooking(booking);
-
-            // Create payment record
-            paymentDAO.createPayment(bookingId, totalPrice, paymentMethod);
-
-            // Update room status
-            roomDAO.updateRoomStatus(room.getId(), "Booked");
-
-            // Retrieve the complete booking with joined data
-            Booking completedBooking = bookingDAO.getBookingById(bookingId);
-
-            return new BookingResult(true, "Booking created successfully", completedBooking);
-
-        } catch (SQLException e) {
-            System.err.println("Database error creating booking: " + e.getMessage());
-            return new BookingResult(false, "Database error: " + e.getMessage(), null);
-        } catch (Exception e) {
-            System.err.println("Unexpected error creating booking: " + e.getMessage());
-            return new BookingResult(false, "Unexpected error: " + e.getMessage(), null);
-        }
+        });
     }
 
     /**
@@ -105,12 +169,14 @@ public class BookingService {
      * @return true if update successful, false otherwise
      */
     public boolean updateBookingStatus(int bookingId, String newStatus) {
-        try {
-            return bookingDAO.updateBookingStatus(bookingId, newStatus);
-        } catch (SQLException e) {
-            System.err.println("Error updating booking status: " + e.getMessage());
-            return false;
-        }
+        return traced("updateStatus", bookingId, null, null, () -> {
+            try {
+                return bookingDAO.updateBookingStatus(bookingId, newStatus);
+            } catch (SQLException e) {
+                LOGGER.severe("Error updating booking status: {}", e.getMessage(), e);
+                return false;
+            }
+        });
     }
 
     /**
@@ -119,21 +185,23 @@ public class BookingService {
      * @return true if check-in successful, false otherwise
      */
     public boolean checkInGuest(int bookingId) {
-        try {
-            Booking booking = bookingDAO.getBookingById(bookingId);
-            if (booking == null) {
-                return false;
-            }
-
-            if (!"Booked".equals(booking.getStatus())) {
+        return traced("checkIn", bookingId, null, null, () -> {
+            try {
+                Booking booking = bookingDAO.getBookingById(bookingId);
+                if (booking == null) {
+                    return false;
+                }
+
+                if (!"Booked".equals(booking.getStatus())) {
+                    return false;
+                }
+
+                return bookingDAO.updateBookingStatus(bookingId, "Checked In");
+            } catch (SQLException e) {
+                LOGGER.severe("Error checking in guest: {}", e.getMessage(), e);
                 return false;
             }
-
-            return bookingDAO.updateBookingStatus(bookingId, "Checked In");
-        } catch (SQLException e) {
-            System.err.println("Error checking in guest: " + e.getMessage());
-            return false;
-        }
+        });
     }
 
     /**
@@ -142,28 +210,32 @@ public class BookingService {
      * @return true if check-out successful, false otherwise
      */
     public boolean checkOutGuest(int bookingId) {
-        try {
-            Booking booking = bookingDAO.getBookingById(bookingId);
-            if (booking == null) {
-                return false;
-            }
-
-            if (!"Checked In".equals(booking.getStatus())) {
+        return traced("checkOut", bookingId, null, null, () -> {
+            try {
+                return UnitOfWork.execute(conn -> {
+                    Booking booking = bookingDAO.getBookingById(bookingId);
+                    if (booking == null) {
+                        return false;
+                    }
+
+                    if (!"Checked In".equals(booking.getStatus())) {
+                        return false;
+                    }
+
+                    boolean statusUpdated = bookingDAO.updateBookingStatus(bookingId, "Checked Out");
+
+                    if (statusUpdated) {
+                        // Update room status to available
+                        roomDAO.updateRoomStatus(booking.getRoomId(), "Available");
+                    }
+
+                    return statusUpdated;
+                });
+            } catch (SQLException e) {
+                LOGGER.severe("Error checking out guest: {}", e.getMessage(), e);
                 return false;
             }
-
-            boolean statusUpdated = bookingDAO.updateBookingStatus(bookingId, "Checked Out");
-
-            if (statusUpdated) {
-                // Update room status to available
-                roomDAO.updateRoomStatus(booking.getRoomId(), "Available");
-            }
-
-            return statusUpdated;
-        } catch (SQLException e) {
-            System.err.println("Error checking out guest: " + e.getMessage());
-            return false;
-        }
+        });
     }
 
     /**
@@ -172,28 +244,32 @@ public class BookingService {
      * @return true if cancellation successful, false otherwise
      */
     public boolean cancelBooking(int bookingId) {
-        try {
-            Booking booking = bookingDAO.getBookingById(bookingId);
-            if (booking == null) {
+        return traced("cancel", bookingId, null, null, () -> {
+            try {
+                return UnitOfWork.execute(conn -> {
+                    Booking booking = bookingDAO.getBookingById(bookingId);
+                    if (booking == null) {
+                        return false;
+                    }
+
+                    if ("Cancelled".equals(booking.getStatus()) || "Checked Out".equals(booking.getStatus())) {
+                        return false; // Already cancelled or completed
+                    }
+
+                    boolean statusUpdated = bookingDAO.updateBookingStatus(bookingId, "Cancelled");
+
+                    if (statusUpdated && "Booked".equals(booking.getStatus())) {
+                        // If booking was only booked (not checked in), make room available
+                        roomDAO.updateRoomStatus(booking.getRoomId(), "Available");
+                    }
+
+                    return statusUpdated;
+                });
+            } catch (SQLException e) {
+                LOGGER.severe("Error cancelling booking: {}", e.getMessage(), e);
                 return false;
             }
-
-            if ("Cancelled".equals(booking.getStatus()) || "Checked Out".equals(booking.getStatus())) {
-                return false; // Already cancelled or completed
-            }
-
-            boolean statusUpdated = bookingDAO.updateBookingStatus(bookingId, "Cancelled");
-
-            if (statusUpdated && "Booked".equals(booking.getStatus())) {
-                // If booking was only booked (not checked in), make room available
-                roomDAO.updateRoomStatus(booking.getRoomId(), "Available");
-            }
-
-            return statusUpdated;
-        } catch (SQLException e) {
-            System.err.println("Error cancelling booking: " + e.getMessage());
-            return false;
-        }
+        });
     }
 
     /**
@@ -201,12 +277,14 @@ public class BookingService {
      * @return List of all bookings
      */
     public List<Booking> getAllBookings() {
-        try {
-            return bookingDAO.getAllBookings();
-        } catch (SQLException e) {
-            System.err.println("Error retrieving bookings: " + e.getMessage());
-            return List.of(); // Return empty list
-        }
+        return traced("getAllBookings", 0, null, null, () -> {
+            try {
+                return bookingDAO.getAllBookings();
+            } catch (SQLException e) {
+                LOGGER.severe("Error retrieving bookings: {}", e.getMessage(), e);
+                return List.of(); // Return empty list
+            }
+        });
     }
 
     /**
@@ -215,12 +293,14 @@ public class BookingService {
      * @return List of bookings for the guest
      */
     public List<Booking> getGuestBookings(String username) {
-        try {
-            return bookingDAO.getBookingsByUsername(username);
-        } catch (SQLException e) {
-            System.err.println("Error retrieving guest bookings: " + e.getMessage());
-            return List.of(); // Return empty list
-        }
+        return traced("getGuestBookings", 0, null, username, () -> {
+            try {
+                return bookingDAO.getBookingsByUsername(username);
+            } catch (SQLException e) {
+                LOGGER.severe("Error retrieving guest bookings: {}", e.getMessage(), e);
+                return List.of(); // Return empty list
+            }
+        });
     }
 
     /**
@@ -229,12 +309,14 @@ public class BookingService {
      * @return Booking object if found, null otherwise
      */
     public Booking getBookingById(int bookingId) {
-        try {
-            return bookingDAO.getBookingById(bookingId);
-        } catch (SQLException e) {
-            System.err.println("Error retrieving booking: " + e.getMessage());
-            return null;
-        }
+        return traced("getBookingById", bookingId, null, null, () -> {
+            try {
+                return bookingDAO.getBookingById(bookingId);
+            } catch (SQLException e) {
+                LOGGER.severe("Error retrieving booking: {}", e.getMessage(), e);
+                return null;
+            }
+        });
     }
 
     /**
@@ -242,12 +324,14 @@ public class BookingService {
      * @return List of bookings with check-in today
      */
     public List<Booking> getTodayCheckIns() {
-        try {
-            return bookingDAO.getTodayCheckIns();
-        } catch (SQLException e) {
-            System.err.println("Error retrieving today's check-ins: " + e.getMessage());
-            return List.of();
-        }
+        return traced("getTodayCheckIns", 0, null, null, () -> {
+            try {
+                return bookingDAO.getTodayCheckIns();
+            } catch (SQLException e) {
+                LOGGER.severe("Error retrieving today's check-ins: {}", e.getMessage(), e);
+                return List.of();
+            }
+        });
     }
 
     /**
@@ -255,12 +339,14 @@ public class BookingService {
      * @return List of bookings with check-out today
      */
     public List<Booking> getTodayCheckOuts() {
-        try {
-            return bookingDAO.getTodayCheckOuts();
-        } catch (SQLException e) {
-            System.err.println("Error retrieving today's check-outs: " + e.getMessage());
-            return List.of();
-        }
+        return traced("getTodayCheckOuts", 0, null, null, () -> {
+            try {
+                return bookingDAO.getTodayCheckOuts();
+            } catch (SQLException e) {
+                LOGGER.severe("Error retrieving today's check-outs: {}", e.getMessage(), e);
+                return List.of();
+            }
+        });
     }
 
     /**
@@ -285,6 +371,53 @@ public class BookingService {
         return pricePerNight * nights;
     }
 
+    /**
+     * Run an operation as a hotel.BookingOperation flight recorder event and count it
+     * in the JMX statistics. The outcome is read from the result: a BookingResult,
+     * a boolean, a list (its size) or a booking (found or not).
+     * @param operation Short name of the operation
+     * @param bookingId Booking acted on, 0 if none
+     * @param roomNumber Room acted on, or null
+     * @param guest Guest username, or null
+     * @param body The operation
+     * @return The operation's result
+     */
+    private <T> T traced(String operation, int bookingId, String roomNumber, String guest, Supplier<T> body) {
+        BookingEvent event = new BookingEvent();
+        event.begin();
+        long start = System.nanoTime();
+        T result = body.get();
+        long nanos = System.nanoTime() - start;
+        event.end();
+
+        boolean success = result != null;
+        if (result instanceof BookingResult) {
+            success = ((BookingResult) result).isSuccess();
+        } else if (result instanceof Boolean) {
+            success = (Boolean) result;
+        }
+        METRICS.record(operation, nanos, success);
+
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.bookingId = bookingId;
+            event.roomNumber = roomNumber;
+            event.guest = guest;
+            event.success = success;
+            if (result instanceof BookingResult) {
+                BookingResult bookingResult = (BookingResult) result;
+                event.message = bookingResult.getMessage();
+                if (bookingResult.getBooking() != null) {
+                    event.bookingId = bookingResult.getBooking().getId();
+                }
+            } else if (result instanceof List) {
+                event.rows = ((List<?>) result).size();
+            }
+            event.commit();
+        }
+        return result;
+    }
+
     /**
      * Validate booking data
      * @param guestUsername Guest username
@@ -315,7 +448,7 @@ public class BookingService {
             return new BookingValidation(false, "Check-out date must be after check-in date");
         }
 
-        Date today = new Date();
+        Date today = Date.from(BusinessClock.now());
         if (checkIn.before(today)) {
             return new BookingValidation(false, "Check-in date cannot be in the past");
         }
@@ -357,4 +490,74 @@ public class BookingService {
         public boolean isValid() { return valid; }
         public String getMessage() { return message; }
     }
-}
\ No newline at end of file
+
+    /**
+     * Per-operation counters; recording only increments counters
+     */
+    private static final class Metrics implements BookingServiceMXBean {
+        private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+        // Rate sampling, guarded by this
+        private long sampledAt = System.nanoTime();
+
+        private static final class Operation {
+            private final LatencyHistogram latency = new LatencyHistogram();
+            private final LongAdder failures = new LongAdder();
+            private long sampledCalls;
+            private double callsPerSecond;
+        }
+
+        void record(String operation, long nanos, boolean success) {
+            Operation counters = operations.get(operation);
+            if (counters == null) {
+                counters = operations.computeIfAbsent(operation, name -> new Operation());
+            }
+            counters.latency.record(nanos);
+            if (!success) {
+                counters.failures.increment();
+            }
+        }
+
+        @Override
+        public long getCalls() {
+            long calls = 0;
+            for (Operation counters : operations.values()) {
+                calls += counters.latency.getCount();
+            }
+            return calls;
+        }
+
+        @Override
+        public long getFailures() {
+            long failures = 0;
+            for (Operation counters : operations.values()) {
+                failures += counters.failures.sum();
+            }
+            return failures;
+        }
+
+        @Override
+        public synchronized Map<String, OperationStats> getOperations() {
+            long now = System.nanoTime();
+            double seconds = (now - sampledAt) / 1e9;
+            boolean resample = seconds >= 1;
+            if (resample) {
+                sampledAt = now;
+            }
+
+            Map<String, OperationStats> stats = new TreeMap<>();
+            operations.forEach((name, counters) -> {
+                LatencyHistogram latency = counters.latency;
+                long calls = latency.getCount();
+                if (resample) {
+                    counters.callsPerSecond = (calls - counters.sampledCalls) / seconds;
+                    counters.sampledCalls = calls;
+                }
+                stats.put(name, new OperationStats(calls, counters.failures.sum(), counters.callsPerSecond,
+                        latency.getMeanNanos() / 1e6, latency.getValueAtPercentile(99) / 1e6,
+                        latency.getMaxNanos() / 1e6));
+            });
+            return stats;
+        }
+    }
+}
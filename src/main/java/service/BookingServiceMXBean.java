@@ -0,0 +1,48 @@
+package service;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link BookingService} operations, registered as hotel:type=BookingService.
+ *
+ * Counters are since startup. The rate of an operation is its calls per second over
+ * the interval since the previous read of the statistics, at least a second apart.
+ */
+public interface BookingServiceMXBean {
+
+    /**
+     * Counters of one operation, e.g. "create" or "checkIn"
+     */
+    final class OperationStats {
+        private final long calls;
+        private final long failures;
+        private final double callsPerSecond;
+        private final double meanMillis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        public OperationStats(long calls, long failures, double callsPerSecond,
+                              double meanMillis, double p99Millis, double maxMillis) {
+            this.calls = calls;
+            this.failures = failures;
+            this.callsPerSecond = callsPerSecond;
+            this.meanMillis = meanMillis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        public long getCalls() { return calls; }
+        // Calls that returned an unsuccessful result, e.g. a booking refused for a taken room
+        public long getFailures() { return failures; }
+        public double getCallsPerSecond() { return callsPerSecond; }
+        public double getMeanMillis() { return meanMillis; }
+        public double getP99Millis() { return p99Millis; }
+        public double getMaxMillis() { return maxMillis; }
+    }
+
+    long getCalls();
+
+    long getFailures();
+
+    Map<String, OperationStats> getOperations();
+}
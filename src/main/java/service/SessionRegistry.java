@@ -0,0 +1,254 @@
+package service;
+
+import model.User;
+import utill.AppConfig;
+import utill.Log;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sessions of every logged-in user, shared by all {@link AuthenticationService} instances.
+ *
+ * Sessions are keyed by a random 256-bit id from {@link SecureRandom}, so an id cannot
+ * be guessed from another, and looked up in a ConcurrentHashMap: creating, finding,
+ * refreshing and ending a session are O(1) and safe from any thread, which lets one
+ * process serve thousands of sessions.
+ *
+ * A session expires session.timeoutMinutes (default 30) after its last activity.
+ * Expiry is swept in batches by a timing wheel: each session sits in the slot of the
+ * first second after its deadline, and a daemon thread visits one slot per second,
+ * removing the sessions whose deadline has passed and moving those refreshed since to
+ * the slot of their new deadline. Refreshing only stores the activity time. A lookup
+ * also refuses a session past its deadline, so expiry is exact between sweeps.
+ */
+public final class SessionRegistry {
+
+    private static final Log LOGGER = Log.get(SessionRegistry.class);
+
+    private static final int ID_BYTES = 32;
+    private static final int WHEEL_SLOTS = 64;
+    private static final long TICK_MILLIS = 1000;
+
+    private static SessionRegistry instance;
+
+    /**
+     * One logged-in user's session
+     */
+    public static final class Session {
+        private final String id;
+        private final User user;
+        private final long createdAt;
+        private final long timeoutMillis;
+        private volatile long lastActivity;
+        private volatile boolean ended;
+
+        private Session(String id, User user, long now, long timeoutMillis) {
+            this.id = id;
+            this.user = user;
+            this.createdAt = now;
+            this.lastActivity = now;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        public String getId() { return id; }
+        public User getUser() { return user; }
+        public long getCreatedAt() { return createdAt; }
+        public long getLastActivity() { return lastActivity; }
+
+        // Time the session expires unless it is refreshed before
+        public long getExpiresAt() {
+            return lastActivity + timeoutMillis;
+        }
+
+        public boolean isExpired(long now) {
+            return ended || now >= getExpiresAt();
+        }
+    }
+
+    private final long timeoutMillis;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Set<Session>[] wheel;
+    private final LongAdder expired = new LongAdder();
+    private final ScheduledExecutorService sweeper;
+
+    // Sweeper thread only: the last tick whose slot was visited
+    private long sweptTick;
+
+    // Package-private so tests can use a timeout of seconds
+    @SuppressWarnings("unchecked")
+    SessionRegistry(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.wheel = (Set<Session>[]) new Set<?>[WHEEL_SLOTS];
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.sweptTick = System.currentTimeMillis() / TICK_MILLIS;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(this::sweep, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // The registry of this process, timing out sessions after session.timeoutMinutes
+    public static synchronized SessionRegistry getInstance() {
+        if (instance == null) {
+            long minutes = AppConfig.get().getLong("session.timeoutMinutes", 30);
+            instance = new SessionRegistry(TimeUnit.MINUTES.toMillis(Math.max(1, minutes)));
+        }
+        return instance;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Starts a session for a user who has just been authenticated
+     */
+    public Session create(User user) {
+        long now = System.currentTimeMillis();
+        Session session;
+        do {
+            session = new Session(newId(), user, now, timeoutMillis);
+        } while (sessions.putIfAbsent(session.id, session) != null);
+        slotOf(session.getExpiresAt()).add(session);
+        return session;
+    }
+
+    /**
+     * Finds a live session
+     *
+     * @return The session, or null if the id is unknown, ended or expired
+     */
+    public Session get(String sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+        Session session = sessions.get(sessionId);
+        if (session != null && session.isExpired(System.currentTimeMillis())) {
+            expire(session);
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * Records activity on a session, extending it by the timeout
+     *
+     * @return The session, or null if it is no longer live
+     */
+    public Session touch(String sessionId) {
+        Session session = get(sessionId);
+        if (session != null) {
+            session.lastActivity = System.currentTimeMillis();
+        }
+        return session;
+    }
+
+    /**
+     * Ends a session, e.g. on logout
+     *
+     * @return The session ended, or null if it was not live
+     */
+    public Session invalidate(String sessionId) {
+        Session session = sessionId != null ? sessions.remove(sessionId) : null;
+        if (session == null) {
+            return null;
+        }
+        boolean live = !session.isExpired(System.currentTimeMillis());
+        session.ended = true;
+        if (!live) {
+            // Timed out before the sweeper got to it
+            expired.increment();
+            return null;
+        }
+        return session;
+    }
+
+    // Live sessions, including expired ones not yet swept
+    public int size() {
+        return sessions.size();
+    }
+
+    // Sessions removed because they timed out
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    // Sweeper thread: visit the slots of the ticks since the last sweep
+    private void sweep() {
+        try {
+            long now = System.currentTimeMillis();
+            long nowTick = now / TICK_MILLIS;
+            // After a long pause one revolution covers every slot
+            long firstTick = Math.max(sweptTick + 1, nowTick - WHEEL_SLOTS + 1);
+            int removed = 0;
+            for (long tick = firstTick; tick <= nowTick; tick++) {
+                removed += sweep(wheel[(int) (tick % WHEEL_SLOTS)], now);
+            }
+            sweptTick = nowTick;
+            if (removed > 0) {
+                LOGGER.fine("Expired {} sessions, {} live", removed, sessions.size());
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warning("Session expiry sweep failed", e);
+        }
+    }
+
+    private int sweep(Set<Session> slot, long now) {
+        int removed = 0;
+        for (Iterator<Session> it = slot.iterator(); it.hasNext(); ) {
+            Session session = it.next();
+            if (session.ended) {
+                it.remove();
+            } else if (session.isExpired(now)) {
+                it.remove();
+                if (expire(session)) {
+                    removed++;
+                }
+            } else {
+                Set<Session> due = slotOf(session.getExpiresAt());
+                if (due != slot) {
+                    // Refreshed since it was placed here
+                    it.remove();
+                    due.add(session);
+                }
+            }
+        }
+        return removed;
+    }
+
+    private boolean expire(Session session) {
+        session.ended = true;
+        if (sessions.remove(session.id, session)) {
+            expired.increment();
+            LOGGER.info("Session expired for user: {}", session.user.getUsername());
+            return true;
+        }
+        return false;
+    }
+
+    // Slot of the first tick at or after a time, so the sweep that visits it finds the time passed
+    private Set<Session> slotOf(long time) {
+        long tick = (time + TICK_MILLIS - 1) / TICK_MILLIS;
+        return wheel[(int) (tick % WHEEL_SLOTS)];
+    }
+
+    private String newId() {
+        byte[] bytes = new byte[ID_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -2,10 +2,13 @@ package service;
 
 import dao.UserDAO;
 import model.User;
+import utill.Log;
 import java.sql.SQLException;
 import java.util.List;
 
 public class UserService {
+    private static final Log LOGGER = Log.get(UserService.class);
+
     private UserDAO userDAO;
 
     public UserService() {
@@ -48,10 +51,10 @@ public class UserService {
             return new UserResult(true, "User created successfully", user);
 
         } catch (SQLException e) {
-            System.err.println("Database error creating user: " + e.getMessage());
+            LOGGER.severe("Database error creating user: {}", e.getMessage(), e);
             return new UserResult(false, "Database error: " + e.getMessage(), null);
         } catch (Exception e) {
-            System.err.println("Unexpected error creating user: " + e.getMessage());
+            LOGGER.severe("Unexpected error creating user: {}", e.getMessage(), e);
             return new UserResult(false, "Unexpected error: " + e.getMessage(), null);
         }
     }
@@ -75,7 +78,7 @@ public class UserService {
 
             return userDAO.updateUser(user);
         } catch (SQLException e) {
-            System.err.println("Error updating user: " + e.getMessage());
+            LOGGER.severe("Error updating user: {}", e.getMessage(), e);
             return false;
         }
     }
@@ -89,7 +92,7 @@ public class UserService {
         try {
             return userDAO.deleteUser(userId);
         } catch (SQLException e) {
-            System.err.println("Error deleting user: " + e.getMessage());
+            LOGGER.severe("Error deleting user: {}", e.getMessage(), e);
             return false;
         }
     }
@@ -103,7 +106,7 @@ public class UserService {
         try {
             return userDAO.getUserById(userId);
         } catch (SQLException e) {
-            System.err.println("Error retrieving user: " + e.getMessage());
+            LOGGER.severe("Error retrieving user: {}", e.getMessage(), e);
             return null;
         }
     }
@@ -120,7 +123,7 @@ public class UserService {
             }
             return userDAO.getUserByUsername(username.trim());
         } catch (SQLException e) {
-            System.err.println("Error retrieving user: " + e.getMessage());
+            LOGGER.severe("Error retrieving user: {}", e.getMessage(), e);
             return null;
         }
     }
@@ -133,7 +136,7 @@ public class UserService {
         try {
             return userDAO.getAllUsers();
         } catch (SQLException e) {
-            System.err.println("Error retrieving users: " + e.getMessage());
+            LOGGER.severe("Error retrieving users: {}", e.getMessage(), e);
             return List.of(); // Return empty list
         }
     }
@@ -150,7 +153,7 @@ public class UserService {
             }
             return userDAO.getUsersByRole(role.trim());
         } catch (SQLException e) {
-            System.err.println("Error retrieving users by role: " + e.getMessage());
+            LOGGER.severe("Error retrieving users by role: {}", e.getMessage(), e);
             return List.of();
         }
     }
@@ -167,7 +170,7 @@ public class UserService {
             }
             return !userDAO.usernameExists(username.trim());
         } catch (SQLException e) {
-            System.err.println("Error checking username availability: " + e.getMessage());
+            LOGGER.severe("Error checking username availability: {}", e.getMessage(), e);
             return false;
         }
     }
@@ -180,7 +183,7 @@ public class UserService {
         try {
             return userDAO.getTotalUserCount();
         } catch (SQLException e) {
-            System.err.println("Error getting user count: " + e.getMessage());
+            LOGGER.severe("Error getting user count: {}", e.getMessage(), e);
             return 0;
         }
     }
@@ -205,7 +208,7 @@ public class UserService {
             user.setPassword(newPassword);
             return userDAO.updateUser(user);
         } catch (SQLException e) {
-            System.err.println("Error changing password: " + e.getMessage());
+            LOGGER.severe("Error changing password: {}", e.getMessage(), e);
             return false;
         }
     }
@@ -230,7 +233,7 @@ public class UserService {
             user.setRole(newRole);
             return userDAO.updateUser(user);
         } catch (SQLException e) {
-            System.err.println("Error changing user role: " + e.getMessage());
+            LOGGER.severe("Error changing user role: {}", e.getMessage(), e);
             return false;
         }
     }
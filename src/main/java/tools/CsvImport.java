@@ -0,0 +1,721 @@
+package tools;
+
+import dao.BookingDAO;
+import dao.BusinessClock;
+import dao.DatabaseManager;
+import dao.ImportCheckpointDAO;
+import dao.PaymentDAO;
+import dao.RoomCache;
+import dao.RoomDAO;
+import dao.RoomNightDAO;
+import dao.UnitOfWork;
+import dao.UserDAO;
+import model.Booking;
+import model.Payment;
+import model.Room;
+import model.User;
+import utill.Csv;
+import utill.Log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streaming bulk import of rooms, guests, bookings and payments from CSV files, e.g.
+ * the export of a previous property management system.
+ *
+ * Each file runs through a pipeline:
+ * <ol>
+ *     <li>one thread reads records through a fixed buffer and cuts them into chunks,</li>
+ *     <li>a pool of workers parses and validates the chunks in parallel,</li>
+ *     <li>the calling thread writes the chunks in file order with the DAOs' batched
+ *     saveAll methods, one transaction per chunk.</li>
+ * </ol>
+ * At most two chunks per worker are in flight, so memory use is bounded whatever the
+ * size of the file. Guests and bookings refer to rooms and guests by room_number and
+ * username; these are resolved through in-memory maps loaded once at the start and
+ * extended as rooms and guests are imported.
+ *
+ * Records that fail validation, or that the database refuses (duplicate usernames,
+ * overlapping bookings), are written with their line number and the reason to
+ * {@code <file>.rejected.csv} next to the source; the rest of their chunk is imported.
+ * Every chunk also advances the file's checkpoint in import_checkpoints in the same
+ * transaction, so an interrupted import run again with the same files continues right
+ * after the last committed chunk. {@code --restart} discards the checkpoints.
+ *
+ * Columns are matched by the header row, in any order:
+ * <ul>
+ *     <li>rooms: room_number, type, price, [status]</li>
+ *     <li>guests: username, password, [role], [fullname]</li>
+ *     <li>bookings: guest_username, room_number, check_in, check_out, [total_price], [status],
+ *     [payment_amount, payment_method, [payment_date]]</li>
+ *     <li>payments: booking_id, amount, method, payment_date</li>
+ * </ul>
+ * Dates are yyyy-MM-dd, timestamps yyyy-MM-dd HH:mm[:ss]. A booking without a status is
+ * checked out when its check-out day has passed and booked otherwise; its total defaults
+ * to the room price times the nights. A booking with a payment_amount gets that payment,
+ * taken on payment_date or its check-in day.
+ *
+ * Run with: java -cp &lt;app classpath&gt; tools.CsvImport --rooms=rooms.csv --guests=guests.csv --bookings=bookings.csv
+ */
+public final class CsvImport {
+
+    private static final Log LOGGER = Log.get(CsvImport.class);
+
+    private static final Set<String> ROOM_STATUSES = Set.of("Available", "Booked", "Occupied", "Maintenance");
+    private static final Set<String> ROLES = Set.of("admin", "staff", "guest");
+    private static final Set<String> BOOKING_STATUSES = Set.of("Booked", "Checked In", "Checked Out", "Cancelled");
+    private static final long PROGRESS_INTERVAL_NANOS = 5_000_000_000L;
+
+    /**
+     * Kinds of file, in the order their references require
+     */
+    public enum Entity {
+        ROOMS, GUESTS, BOOKINGS, PAYMENTS;
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Outcome of importing one file
+     */
+    public record FileResult(Entity entity, Path file, long records, long imported, long rejected,
+                             long skipped, long millis) {
+
+        public long rowsPerSecond() {
+            return millis > 0 ? records * 1000 / millis : records;
+        }
+
+        @Override
+        public String toString() {
+            return entity.key() + " " + file.getFileName() + ": " + records + " records, " + imported +
+                    " imported, " + rejected + " rejected" + (skipped > 0 ? ", " + skipped + " already done" : "") +
+                    " in " + millis + " ms (" + rowsPerSecond() + " rows/s)";
+        }
+    }
+
+    // A record as read, with the line it starts on
+    private record RawRecord(long line, String text) {
+    }
+
+    // A record that cannot be imported and why
+    private record Rejection(long line, String reason, String text) {
+    }
+
+    // A parsed row and the record it came from
+    private record Row<T>(RawRecord source, T value) {
+    }
+
+    // Records cut from the file, and after parsing, their rows and rejections
+    private static final class Chunk<T> {
+        final List<RawRecord> records;
+        final List<Row<T>> rows = new ArrayList<>();
+        final List<Rejection> rejections = new ArrayList<>();
+
+        Chunk(List<RawRecord> records) {
+            this.records = records;
+        }
+    }
+
+    // Thrown by parsing for an invalid record; carries no stack trace since it is routine
+    private static final class InvalidRecordException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        InvalidRecordException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    // Field access by column name
+    private static final class Fields {
+        private final Map<String, Integer> columns;
+        private final List<String> values;
+
+        Fields(Map<String, Integer> columns, List<String> values) {
+            this.columns = columns;
+            this.values = values;
+        }
+
+        // Trimmed value, or null if the column is missing or empty
+        String optional(String name) {
+            Integer index = columns.get(name);
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        String required(String name) throws InvalidRecordException {
+            String value = optional(name);
+            if (value == null) {
+                throw new InvalidRecordException("Missing " + name);
+            }
+            return value;
+        }
+
+        String text(String name, int maxLength, boolean required) throws InvalidRecordException {
+            String value = required ? required(name) : optional(name);
+            if (value != null && value.length() > maxLength) {
+                throw new InvalidRecordException(name + " longer than " + maxLength + " characters");
+            }
+            return value;
+        }
+
+        double positive(String name) throws InvalidRecordException {
+            double value = number(name, required(name));
+            if (!(value > 0)) {
+                throw new InvalidRecordException(name + " must be positive");
+            }
+            return value;
+        }
+
+        double number(String name, String value) throws InvalidRecordException {
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new InvalidRecordException("Invalid " + name + ": " + value);
+            }
+        }
+
+        LocalDate date(String name) throws InvalidRecordException {
+            String value = required(name);
+            try {
+                return LocalDate.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new InvalidRecordException("Invalid " + name + ": " + value);
+            }
+        }
+
+        LocalDateTime dateTime(String name, String value) throws InvalidRecordException {
+            try {
+                return value.length() == 10
+                        ? LocalDate.parse(value).atStartOfDay()
+                        : LocalDateTime.parse(value.replace(' ', 'T'));
+            } catch (DateTimeParseException e) {
+                throw new InvalidRecordException("Invalid " + name + ": " + value);
+            }
+        }
+    }
+
+    /**
+     * Parsing and saving of one kind of file
+     */
+    private interface Importer<T> {
+        List<String> requiredColumns();
+
+        T parse(Fields fields) throws InvalidRecordException;
+
+        // Save rows in the current transaction
+        void save(List<T> rows) throws SQLException;
+    }
+
+    // A booking and the payment imported with it, if any
+    private record BookingRow(Booking booking, Payment payment) {
+    }
+
+    // What a booking needs to know about its room
+    private record RoomRef(int id, double price) {
+    }
+
+    private final int workers;
+    private final int chunkSize;
+    private final boolean restart;
+
+    private final RoomDAO roomDAO = new RoomDAO();
+    private final UserDAO userDAO = new UserDAO();
+    private final BookingDAO bookingDAO = new BookingDAO();
+    private final PaymentDAO paymentDAO = new PaymentDAO();
+    private final ImportCheckpointDAO checkpointDAO = new ImportCheckpointDAO();
+
+    private final Map<String, Integer> userIds = new ConcurrentHashMap<>();
+    private final Map<String, RoomRef> roomRefs = new ConcurrentHashMap<>();
+
+    /**
+     * @param workers Parsing threads
+     * @param chunkSize Records per chunk, i.e. per transaction and checkpoint
+     * @param restart Whether to ignore checkpoints and import every file from the start
+     */
+    public CsvImport(int workers, int chunkSize, boolean restart) {
+        this.workers = Math.max(1, workers);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.restart = restart;
+    }
+
+    /**
+     * Imports the given files in reference order: rooms, guests, bookings, payments
+     *
+     * @return One result per file
+     */
+    public List<FileResult> importAll(Map<Entity, Path> files) throws IOException, SQLException, InterruptedException {
+        userIds.putAll(userDAO.getUserIdsByUsername());
+        for (Room room : roomDAO.getAllRooms()) {
+            roomRefs.put(room.getRoomNumber(), new RoomRef(room.getId(), room.getPrice()));
+        }
+
+        List<FileResult> results = new ArrayList<>();
+        for (Entity entity : Entity.values()) {
+            Path file = files.get(entity);
+            if (file != null) {
+                FileResult result = importFile(entity, file, importerFor(entity));
+                LOGGER.info("Imported {}", result);
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    private Importer<?> importerFor(Entity entity) {
+        switch (entity) {
+            case ROOMS:
+                return new RoomImporter();
+            case GUESTS:
+                return new GuestImporter();
+            case BOOKINGS:
+                return new BookingImporter();
+            default:
+                return new PaymentImporter();
+        }
+    }
+
+    private <T> FileResult importFile(Entity entity, Path file, Importer<T> importer)
+            throws IOException, SQLException, InterruptedException {
+        long start = System.currentTimeMillis();
+        String source = sourceKey(entity, file);
+        if (restart) {
+            checkpointDAO.deleteCheckpoint(source);
+        }
+        ImportCheckpointDAO.Checkpoint checkpoint = checkpointDAO.getCheckpoint(source);
+        long alreadyDone = checkpoint != null ? checkpoint.getRecordsDone() : 0;
+
+        Path rejectFile = file.resolveSibling(file.getFileName() + ".rejected.csv");
+        ExecutorService parsers = Executors.newFixedThreadPool(workers);
+        BlockingQueue<Future<Chunk<T>>> chunks = new ArrayBlockingQueue<>(workers * 2);
+
+        long records = 0;
+        long imported = 0;
+        long rejected = 0;
+        try (CsvRecordReader reader = new CsvRecordReader(file);
+             BufferedWriter rejects = openRejectFile(rejectFile, alreadyDone > 0)) {
+
+            Map<String, Integer> columns = readHeader(reader, importer, file);
+            // Skip the records committed by an earlier run
+            long skipped = 0;
+            while (skipped < alreadyDone) {
+                if (reader.next() == null) {
+                    break;
+                }
+                skipped++;
+            }
+
+            Thread readerThread = Thread.ofPlatform().name("csv-reader-" + entity.key())
+                    .start(() -> readChunks(reader, columns, importer, parsers, chunks));
+            try {
+                long lastProgress = System.nanoTime();
+                while (true) {
+                    Chunk<T> chunk = awaitChunk(chunks.take());
+                    if (chunk == null) {
+                        break;
+                    }
+                    int written = write(source, importer, chunk);
+                    records += chunk.records.size();
+                    imported += written;
+                    rejected += chunk.rejections.size();
+                    writeRejections(rejects, chunk.rejections);
+
+                    if (System.nanoTime() - lastProgress > PROGRESS_INTERVAL_NANOS) {
+                        lastProgress = System.nanoTime();
+                        long millis = Math.max(1, System.currentTimeMillis() - start);
+                        LOGGER.info("{}: {} records, {} rows/s", file.getFileName(), records, records * 1000 / millis);
+                    }
+                }
+            } finally {
+                readerThread.interrupt();
+                readerThread.join();
+            }
+        } finally {
+            parsers.shutdownNow();
+        }
+
+        if (rejected == 0 && alreadyDone == 0) {
+            Files.deleteIfExists(rejectFile);
+        }
+        return new FileResult(entity, file, records, imported, rejected, alreadyDone,
+                System.currentTimeMillis() - start);
+    }
+
+    private static <T> Map<String, Integer> readHeader(CsvRecordReader reader, Importer<T> importer, Path file)
+            throws IOException {
+        String header = reader.next();
+        if (header == null) {
+            throw new IOException(file + " is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = Csv.split(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+        for (String required : importer.requiredColumns()) {
+            if (!columns.containsKey(required)) {
+                throw new IOException(file + " has no " + required + " column");
+            }
+        }
+        return columns;
+    }
+
+    // Reader thread: cut the file into chunks and hand them to the parsers in order.
+    // The queue holds futures in file order and blocks when full, which bounds memory.
+    // A null chunk marks the end; a failed future carries a read error.
+    private <T> void readChunks(CsvRecordReader reader, Map<String, Integer> columns, Importer<T> importer,
+                                ExecutorService parsers, BlockingQueue<Future<Chunk<T>>> chunks) {
+        try {
+            try {
+                List<RawRecord> records = new ArrayList<>(chunkSize);
+                String text;
+                while ((text = reader.next()) != null) {
+                    records.add(new RawRecord(reader.getRecordLine(), text));
+                    if (records.size() == chunkSize) {
+                        List<RawRecord> full = records;
+                        chunks.put(parsers.submit(() -> parse(full, columns, importer)));
+                        records = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!records.isEmpty()) {
+                    List<RawRecord> last = records;
+                    chunks.put(parsers.submit(() -> parse(last, columns, importer)));
+                }
+                chunks.put(CompletableFuture.completedFuture(null));
+            } catch (IOException e) {
+                chunks.put(CompletableFuture.failedFuture(e));
+            }
+        } catch (InterruptedException e) {
+            // The writer stopped early
+        }
+    }
+
+    private static <T> Chunk<T> parse(List<RawRecord> records, Map<String, Integer> columns, Importer<T> importer) {
+        Chunk<T> chunk = new Chunk<>(records);
+        for (RawRecord record : records) {
+            try {
+                chunk.rows.add(new Row<>(record, importer.parse(new Fields(columns, Csv.split(record.text())))));
+            } catch (InvalidRecordException | IllegalArgumentException e) {
+                chunk.rejections.add(new Rejection(record.line(), e.getMessage(), record.text()));
+            }
+        }
+        return chunk;
+    }
+
+    private static <T> Chunk<T> awaitChunk(Future<Chunk<T>> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException("Parsing failed", cause);
+        }
+    }
+
+    // Save a chunk and advance the checkpoint in one transaction. If the batch fails, the
+    // rows are saved one at a time under savepoints and those the database refuses are rejected.
+    private <T> int write(String source, Importer<T> importer, Chunk<T> chunk) throws SQLException {
+        return UnitOfWork.execute(conn -> {
+            int imported = 0;
+            if (!chunk.rows.isEmpty()) {
+                List<T> values = new ArrayList<>(chunk.rows.size());
+                for (Row<T> row : chunk.rows) {
+                    values.add(row.value());
+                }
+                try {
+                    UnitOfWork.savepoint(c -> {
+                        importer.save(values);
+                        return null;
+                    });
+                    imported = values.size();
+                } catch (SQLException batchFailure) {
+                    for (Row<T> row : chunk.rows) {
+                        try {
+                            UnitOfWork.savepoint(c -> {
+                                importer.save(List.of(row.value()));
+                                return null;
+                            });
+                            imported++;
+                        } catch (SQLException e) {
+                            RawRecord record = row.source();
+                            chunk.rejections.add(new Rejection(record.line(), e.getMessage(), record.text()));
+                        }
+                    }
+                }
+            }
+            checkpointDAO.advance(source, chunk.records.size(), imported, chunk.rejections.size());
+            return imported;
+        });
+    }
+
+    private static BufferedWriter openRejectFile(Path file, boolean append) throws IOException {
+        BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (!append) {
+            writer.write("line,reason,record");
+            writer.newLine();
+        }
+        return writer;
+    }
+
+    private static void writeRejections(BufferedWriter writer, List<Rejection> rejections) throws IOException {
+        if (rejections.isEmpty()) {
+            return;
+        }
+        rejections.sort((a, b) -> Long.compare(a.line(), b.line()));
+        for (Rejection rejection : rejections) {
+            writer.write(Csv.join(List.of(String.valueOf(rejection.line()),
+                    String.valueOf(rejection.reason()), rejection.text())));
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    // Checkpoint key of a file; the end of the path is kept if it is too long for the column
+    private static String sourceKey(Entity entity, Path file) {
+        String key = entity.key() + ":" + file.toAbsolutePath().normalize();
+        return key.length() <= 255 ? key : key.substring(key.length() - 255);
+    }
+
+    private final class RoomImporter implements Importer<Room> {
+        @Override
+        public List<String> requiredColumns() {
+            return List.of("room_number", "type", "price");
+        }
+
+        @Override
+        public Room parse(Fields fields) throws InvalidRecordException {
+            String number = fields.text("room_number", 10, true);
+            if (roomRefs.containsKey(number)) {
+                throw new InvalidRecordException("Room " + number + " already exists");
+            }
+            String status = fields.optional("status");
+            if (status == null) {
+                status = "Available";
+            } else if (!ROOM_STATUSES.contains(status)) {
+                throw new InvalidRecordException("Unknown room status: " + status);
+            }
+            return new Room(number, fields.text("type", 20, true), fields.positive("price"), status);
+        }
+
+        @Override
+        public void save(List<Room> rows) throws SQLException {
+            roomDAO.saveAll(rows);
+            UnitOfWork.afterCommit(() -> rows.forEach(room ->
+                    roomRefs.put(room.getRoomNumber(), new RoomRef(room.getId(), room.getPrice()))));
+        }
+    }
+
+    private final class GuestImporter implements Importer<User> {
+        @Override
+        public List<String> requiredColumns() {
+            return List.of("username", "password");
+        }
+
+        @Override
+        public User parse(Fields fields) throws InvalidRecordException {
+            String username = fields.text("username", 50, true);
+            if (userIds.containsKey(username)) {
+                throw new InvalidRecordException("User " + username + " already exists");
+            }
+            String role = fields.optional("role");
+            if (role == null) {
+                role = "guest";
+            } else if (!ROLES.contains(role)) {
+                throw new InvalidRecordException("Unknown role: " + role);
+            }
+            return new User(username, fields.text("password", 50, true), role, fields.text("fullname", 100, false));
+        }
+
+        @Override
+        public void save(List<User> rows) throws SQLException {
+            userDAO.saveAll(rows);
+            UnitOfWork.afterCommit(() -> rows.forEach(user -> userIds.put(user.getUsername(), user.getId())));
+        }
+    }
+
+    private final class BookingImporter implements Importer<BookingRow> {
+        private final LocalDate today = BusinessClock.today();
+
+        @Override
+        public List<String> requiredColumns() {
+            return List.of("guest_username", "room_number", "check_in", "check_out");
+        }
+
+        @Override
+        public BookingRow parse(Fields fields) throws InvalidRecordException {
+            String username = fields.required("guest_username");
+            Integer guestId = userIds.get(username);
+            if (guestId == null) {
+                throw new InvalidRecordException("Unknown guest: " + username);
+            }
+            String roomNumber = fields.required("room_number");
+            RoomRef room = roomRefs.get(roomNumber);
+            if (room == null) {
+                throw new InvalidRecordException("Unknown room: " + roomNumber);
+            }
+
+            LocalDate checkIn = fields.date("check_in");
+            LocalDate checkOut = fields.date("check_out");
+            if (!checkOut.isAfter(checkIn)) {
+                throw new InvalidRecordException("check_out must be after check_in");
+            }
+
+            String status = fields.optional("status");
+            if (status == null) {
+                status = checkOut.isAfter(today) ? "Booked" : "Checked Out";
+            } else if (!BOOKING_STATUSES.contains(status)) {
+                throw new InvalidRecordException("Unknown booking status: " + status);
+            }
+
+            String total = fields.optional("total_price");
+            double totalPrice = total != null
+                    ? fields.number("total_price", total)
+                    : room.price() * RoomNightDAO.nightCount(checkIn, checkOut);
+
+            Booking booking = new Booking(guestId, room.id(), java.sql.Date.valueOf(checkIn),
+                    java.sql.Date.valueOf(checkOut), totalPrice);
+            booking.setStatus(status);
+
+            Payment payment = null;
+            String amount = fields.optional("payment_amount");
+            if (amount != null) {
+                String paidAt = fields.optional("payment_date");
+                LocalDateTime paymentDate = paidAt != null
+                        ? fields.dateTime("payment_date", paidAt)
+                        : checkIn.atStartOfDay();
+                payment = new Payment(0, 0, fields.number("payment_amount", amount),
+                        Timestamp.valueOf(paymentDate), fields.text("payment_method", 20, true));
+            }
+            return new BookingRow(booking, payment);
+        }
+
+        @Override
+        public void save(List<BookingRow> rows) throws SQLException {
+            List<Booking> bookings = new ArrayList<>(rows.size());
+            for (BookingRow row : rows) {
+                bookings.add(row.booking());
+            }
+            bookingDAO.saveAll(bookings);
+
+            List<Payment> payments = new ArrayList<>();
+            for (BookingRow row : rows) {
+                if (row.payment() != null) {
+                    row.payment().setBookingId(row.booking().getId());
+                    payments.add(row.payment());
+                }
+            }
+            if (!payments.isEmpty()) {
+                paymentDAO.saveAll(payments);
+            }
+        }
+    }
+
+    private final class PaymentImporter implements Importer<Payment> {
+        @Override
+        public List<String> requiredColumns() {
+            return List.of("booking_id", "amount", "method", "payment_date");
+        }
+
+        @Override
+        public Payment parse(Fields fields) throws InvalidRecordException {
+            String bookingId = fields.required("booking_id");
+            int id;
+            try {
+                id = Integer.parseInt(bookingId);
+            } catch (NumberFormatException e) {
+                throw new InvalidRecordException("Invalid booking_id: " + bookingId);
+            }
+            LocalDateTime paidAt = fields.dateTime("payment_date", fields.required("payment_date"));
+            return new Payment(0, id, fields.number("amount", fields.required("amount")),
+                    Timestamp.valueOf(paidAt), fields.text("method", 20, true));
+        }
+
+        @Override
+        public void save(List<Payment> rows) throws SQLException {
+            paymentDAO.saveAll(rows);
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<Entity, Path> files = new HashMap<>();
+        int workers = Runtime.getRuntime().availableProcessors();
+        int chunkSize = 5_000;
+        boolean restart = false;
+
+        try {
+            for (String arg : args) {
+                if (arg.equals("--restart")) {
+                    restart = true;
+                    continue;
+                }
+                int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("Unrecognized argument: " + arg);
+                }
+                String name = arg.substring(2, eq);
+                String value = arg.substring(eq + 1);
+                switch (name) {
+                    case "workers": workers = Integer.parseInt(value); break;
+                    case "chunk": chunkSize = Integer.parseInt(value); break;
+                    default:
+                        try {
+                            files.put(Entity.valueOf(name.toUpperCase()), Path.of(value));
+                        } catch (IllegalArgumentException e) {
+                            throw new IllegalArgumentException("Unrecognized argument: " + arg);
+                        }
+                }
+            }
+            if (files.isEmpty()) {
+                throw new IllegalArgumentException("No files to import");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Options: --rooms=FILE --guests=FILE --bookings=FILE --payments=FILE " +
+                    "--workers=N --chunk=N --restart");
+            System.exit(2);
+        }
+
+        try {
+            DatabaseManager.initializeDatabase();
+            for (FileResult result : new CsvImport(workers, chunkSize, restart).importAll(files)) {
+                System.out.println(result);
+            }
+            RoomCache.getInstance().invalidateAll();
+        } catch (Exception e) {
+            System.err.println("Import failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseManager.closeConnection();
+        }
+    }
+}
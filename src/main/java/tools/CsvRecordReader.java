@@ -0,0 +1,72 @@
+package tools;
+
+import utill.Csv;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a CSV file one record at a time through a file channel with a fixed 64 KB
+ * buffer, so memory use does not depend on the size of the file. A record spans
+ * several lines when a quoted field contains line breaks. Blank lines are skipped.
+ */
+final class CsvRecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BufferedReader reader;
+    private long lineNumber;
+    private long recordLine;
+
+    CsvRecordReader(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * @return The next record without its line break, or null at the end of the file
+     * @throws IOException if the file cannot be read or ends inside a quoted field
+     */
+    String next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        recordLine = lineNumber;
+        if (line.indexOf('"') < 0 || !Csv.isOpenQuote(line)) {
+            return line;
+        }
+
+        StringBuilder record = new StringBuilder(line);
+        while (Csv.isOpenQuote(record)) {
+            String more = reader.readLine();
+            if (more == null) {
+                throw new IOException("Line " + recordLine + ": file ends inside a quoted field");
+            }
+            lineNumber++;
+            record.append('\n').append(more);
+        }
+        return record.toString();
+    }
+
+    // Line on which the last record returned by next() starts
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
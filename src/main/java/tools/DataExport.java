@@ -0,0 +1,234 @@
+package tools;
+
+import dao.BookingDAO;
+import dao.DatabaseManager;
+import dao.PaymentDAO;
+import dao.UncheckedSQLException;
+import model.Booking;
+import model.Payment;
+import utill.Csv;
+import utill.Json;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports bookings and payments as CSV or JSON lines with constant memory.
+ *
+ * Rows are read through the DAOs' streaming methods ({@link BookingDAO#forEachBooking},
+ * {@link PaymentDAO#streamPayments}) and written one at a time through a 64 KB buffer,
+ * so the heap holds a single row whatever the size of the table. A file name ending in
+ * .gz is gzip-compressed; .jsonl or .json (before any .gz) selects JSON lines, anything
+ * else CSV with a header row. Payment dates are written as yyyy-MM-dd HH:mm:ss, which
+ * {@link CsvImport} reads back.
+ *
+ * Run with: java -cp &lt;app classpath&gt; tools.DataExport --bookings=bookings.csv.gz --payments=payments.jsonl
+ */
+public final class DataExport {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * Output formats
+     */
+    public enum Format {
+        CSV, JSON_LINES;
+
+        // Format implied by a file name
+        static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase();
+            if (name.endsWith(".gz")) {
+                name = name.substring(0, name.length() - 3);
+            }
+            return name.endsWith(".jsonl") || name.endsWith(".json") ? JSON_LINES : CSV;
+        }
+    }
+
+    private final BookingDAO bookingDAO = new BookingDAO();
+    private final PaymentDAO paymentDAO = new PaymentDAO();
+
+    /**
+     * Writes every booking to a file, oldest first
+     *
+     * @return Number of bookings written
+     */
+    public long exportBookings(Path file) throws IOException, SQLException {
+        Format format = Format.of(file);
+        try (Writer out = open(file)) {
+            StringBuilder line = new StringBuilder(256);
+            if (format == Format.CSV) {
+                out.write("id,guest_id,guest_name,room_id,room_number,check_in,check_out,total_price,status\n");
+            }
+            try {
+                return bookingDAO.forEachBooking(booking -> {
+                    line.setLength(0);
+                    if (format == Format.CSV) {
+                        appendCsv(line, booking);
+                    } else {
+                        appendJson(line, booking);
+                    }
+                    write(out, line);
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Writes every payment to a file in id order
+     *
+     * @return Number of payments written
+     */
+    public long exportPayments(Path file) throws IOException, SQLException {
+        Format format = Format.of(file);
+        long count = 0;
+
+        try (Writer out = open(file);
+             Stream<Payment> payments = paymentDAO.streamPayments()) {
+
+            StringBuilder line = new StringBuilder(128);
+            if (format == Format.CSV) {
+                out.write("id,booking_id,amount,method,payment_date\n");
+            }
+            Iterator<Payment> rows = payments.iterator();
+            while (rows.hasNext()) {
+                Payment payment = rows.next();
+                line.setLength(0);
+                if (format == Format.CSV) {
+                    appendCsv(line, payment);
+                } else {
+                    appendJson(line, payment);
+                }
+                out.append(line).append('\n');
+                count++;
+            }
+        } catch (UncheckedSQLException e) {
+            throw e.getCause();
+        }
+        return count;
+    }
+
+    // Buffered UTF-8 writer on a file channel, gzip-compressed for .gz names
+    private static Writer open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        OutputStream stream = Channels.newOutputStream(channel);
+        if (file.getFileName().toString().toLowerCase().endsWith(".gz")) {
+            stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private static void write(Writer out, StringBuilder line) {
+        try {
+            out.append(line).append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendCsv(StringBuilder line, Booking booking) {
+        line.append(booking.getId()).append(',').append(booking.getGuestId()).append(',');
+        Csv.appendField(line, booking.getGuestName()).append(',').append(booking.getRoomId()).append(',');
+        Csv.appendField(line, booking.getRoomNumber()).append(',')
+                .append(booking.getCheckInDate()).append(',')
+                .append(booking.getCheckOutDate()).append(',')
+                .append(booking.getTotalPrice()).append(',');
+        Csv.appendField(line, booking.getStatus());
+    }
+
+    private static void appendJson(StringBuilder line, Booking booking) {
+        line.append('{');
+        Json.appendField(line, "id", booking.getId());
+        Json.appendField(line, "guest_id", booking.getGuestId());
+        Json.appendField(line, "guest_name", booking.getGuestName());
+        Json.appendField(line, "room_id", booking.getRoomId());
+        Json.appendField(line, "room_number", booking.getRoomNumber());
+        Json.appendField(line, "check_in", String.valueOf(booking.getCheckInDate()));
+        Json.appendField(line, "check_out", String.valueOf(booking.getCheckOutDate()));
+        Json.appendField(line, "total_price", booking.getTotalPrice());
+        Json.appendField(line, "status", booking.getStatus());
+        line.append('}');
+    }
+
+    private static void appendCsv(StringBuilder line, Payment payment) {
+        line.append(payment.getId()).append(',').append(payment.getBookingId()).append(',')
+                .append(payment.getAmount()).append(',');
+        Csv.appendField(line, payment.getMethod()).append(',').append(timestamp(payment));
+    }
+
+    private static void appendJson(StringBuilder line, Payment payment) {
+        line.append('{');
+        Json.appendField(line, "id", payment.getId());
+        Json.appendField(line, "booking_id", payment.getBookingId());
+        Json.appendField(line, "amount", payment.getAmount());
+        Json.appendField(line, "method", payment.getMethod());
+        Json.appendField(line, "payment_date", timestamp(payment));
+        line.append('}');
+    }
+
+    private static String timestamp(Payment payment) {
+        return payment.getPaymentDate() == null ? null
+                : TIMESTAMP.format(new Timestamp(payment.getPaymentDate().getTime()).toLocalDateTime());
+    }
+
+    public static void main(String[] args) {
+        Path bookings = null;
+        Path payments = null;
+
+        for (String arg : args) {
+            if (arg.startsWith("--bookings=")) {
+                bookings = Path.of(arg.substring("--bookings=".length()));
+            } else if (arg.startsWith("--payments=")) {
+                payments = Path.of(arg.substring("--payments=".length()));
+            } else {
+                System.err.println("Unrecognized argument: " + arg);
+                bookings = null;
+                payments = null;
+                break;
+            }
+        }
+        if (bookings == null && payments == null) {
+            System.err.println("Options: --bookings=FILE --payments=FILE (.csv or .jsonl, optionally .gz)");
+            System.exit(2);
+        }
+
+        DataExport export = new DataExport();
+        try {
+            if (bookings != null) {
+                long start = System.currentTimeMillis();
+                long count = export.exportBookings(bookings);
+                System.out.println("Exported " + count + " bookings to " + bookings + " in " +
+                        (System.currentTimeMillis() - start) + " ms");
+            }
+            if (payments != null) {
+                long start = System.currentTimeMillis();
+                long count = export.exportPayments(payments);
+                System.out.println("Exported " + count + " payments to " + payments + " in " +
+                        (System.currentTimeMillis() - start) + " ms");
+            }
+        } catch (IOException | SQLException e) {
+            System.err.println("Export failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseManager.closeConnection();
+        }
+    }
+}
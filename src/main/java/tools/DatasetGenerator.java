@@ -0,0 +1,602 @@
+package tools;
+
+import dao.AvailabilityIndex;
+import dao.BusinessClock;
+import dao.DatabaseManager;
+import dao.RevenueRollupDAO;
+import dao.RoomCache;
+import dao.SqlDialect;
+import utill.Log;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fills the database with a synthetic hotel of configurable size for load and capacity tests.
+ *
+ * The same {@link Spec} always produces the same rows, whatever the number of threads:
+ * every guest and room draws from its own random stream derived from the seed, and ids
+ * are assigned from the entity's position rather than by the database. Each room gets a
+ * back-to-back timeline of stays ending about {@code futureDays} after {@code asOf}:
+ * <ul>
+ *     <li>stay lengths are mostly one to three nights with a tail of week-long and longer stays,</li>
+ *     <li>the room stays empty for a short, geometrically distributed gap between stays,</li>
+ *     <li>lead times (booking to arrival) cluster in the last few days with a long tail,</li>
+ *     <li>one in twelve stays is cancelled, a few regular guests make many of the bookings.</li>
+ * </ul>
+ * Past stays are checked out, the stay over {@code asOf} is checked in and later ones are
+ * booked. Every booking has one payment, taken when it was booked, and active bookings hold
+ * their room nights. Rows are inserted with JDBC batches on several connections in parallel,
+ * committing once per batch; the revenue rollup, availability index and room cache are
+ * rebuilt at the end.
+ *
+ * Generated rows are added next to existing ones (ids continue after the largest id), but
+ * room numbers and usernames are fixed, so a second run into the same database fails.
+ *
+ * Run with: java -cp &lt;app classpath&gt; tools.DatasetGenerator --rooms=5000 --guests=1000000 --bookings=20000000
+ */
+public final class DatasetGenerator {
+
+    private static final Log LOGGER = Log.get(DatasetGenerator.class);
+
+    static final String[] ROOM_TYPES = {"Standard", "Deluxe", "Suite"};
+    private static final double[] ROOM_TYPE_SHARE = {0.6, 0.3, 0.1};
+    private static final double[] ROOM_BASE_PRICES = {100.0, 150.0, 250.0};
+
+    static final String[] PAYMENT_METHODS = {"Credit Card", "Cash", "Bank Transfer"};
+    private static final double[] PAYMENT_METHOD_SHARE = {0.65, 0.2, 0.15};
+
+    // Share of stays lasting 1, 2, ... 7 nights; the rest last 8 to 28 nights
+    private static final double[] STAY_NIGHTS_SHARE = {0.30, 0.25, 0.15, 0.09, 0.06, 0.04, 0.06};
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer",
+            "Michael", "Linda", "David", "Elizabeth", "Kasun", "Nimali", "Ravi", "Ayesha", "Chen", "Mei",
+            "Hiroshi", "Yuki", "Lars", "Ingrid", "Pierre", "Amelie", "Carlos", "Lucia"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Perera",
+            "Fernando", "Silva", "Gunawardena", "Wang", "Li", "Tanaka", "Sato", "Hansen", "Berg", "Martin",
+            "Dubois", "Garcia", "Lopez", "Rossi", "Muller", "Kowalski", "Novak", "Okafor"};
+
+    // Random stream ids, so guests, rooms and stays never share a sequence
+    private static final long GUEST_STREAM = 1;
+    private static final long ROOM_STREAM = 2;
+    private static final long STAY_STREAM = 3;
+
+    /**
+     * Size and shape of a generated dataset. Immutable; every {@code with} method returns a copy.
+     */
+    public static final class Spec {
+        private final int rooms;
+        private final int guests;
+        private final long bookings;
+        private final long seed;
+        private final LocalDate asOf;
+        private final int futureDays;
+        private final int threads;
+        private final int batchSize;
+
+        private Spec(int rooms, int guests, long bookings, long seed, LocalDate asOf,
+                     int futureDays, int threads, int batchSize) {
+            this.rooms = rooms;
+            this.guests = guests;
+            this.bookings = bookings;
+            this.seed = seed;
+            this.asOf = asOf;
+            this.futureDays = futureDays;
+            this.threads = threads;
+            this.batchSize = batchSize;
+        }
+
+        // A small hotel: 200 rooms, 10,000 guests and 100,000 bookings up to today
+        public static Spec defaults() {
+            return new Spec(200, 10_000, 100_000, 42, BusinessClock.today(), 180,
+                    Runtime.getRuntime().availableProcessors(), 5_000);
+        }
+
+        public Spec withRooms(int rooms) {
+            return new Spec(rooms, guests, bookings, seed, asOf, futureDays, threads, batchSize);
+        }
+
+        public Spec withGuests(int guests) {
+            return new Spec(rooms, guests, bookings, seed, asOf, futureDays, threads, batchSize);
+        }
+
+        public Spec withBookings(long bookings) {
+            return new Spec(rooms, guests, bookings, seed, asOf, futureDays, threads, batchSize);
+        }
+
+        public Spec withSeed(long seed) {
+            return new Spec(rooms, guests, bookings, seed, asOf, futureDays, threads, batchSize);
+        }
+
+        // Day treated as today when deciding which stays are past, current and future
+        public Spec asOf(LocalDate asOf) {
+            return new Spec(rooms, guests, bookings, seed, asOf, futureDays, threads, batchSize);
+        }
+
+        // How far after asOf the booked stays reach
+        public Spec withFutureDays(int futureDays) {
+            return new Spec(rooms, guests, bookings, seed, asOf, futureDays, threads, batchSize);
+        }
+
+        // Connections loading in parallel; capped by the pool size
+        public Spec withThreads(int threads) {
+            return new Spec(rooms, guests, bookings, seed, asOf, futureDays, threads, batchSize);
+        }
+
+        // Rows per JDBC batch and per commit
+        public Spec withBatchSize(int batchSize) {
+            return new Spec(rooms, guests, bookings, seed, asOf, futureDays, threads, batchSize);
+        }
+
+        public int getRooms() { return rooms; }
+        public int getGuests() { return guests; }
+        public long getBookings() { return bookings; }
+        public long getSeed() { return seed; }
+        public LocalDate getAsOf() { return asOf; }
+        public int getFutureDays() { return futureDays; }
+        public int getThreads() { return threads; }
+        public int getBatchSize() { return batchSize; }
+
+        @Override
+        public String toString() {
+            return "Spec{rooms=" + rooms + ", guests=" + guests + ", bookings=" + bookings + ", seed=" + seed +
+                    ", asOf=" + asOf + ", futureDays=" + futureDays + ", threads=" + threads +
+                    ", batchSize=" + batchSize + "}";
+        }
+    }
+
+    /**
+     * Rows written by a run, and how long it took
+     */
+    public record Summary(long guests, long rooms, long bookings, long payments, long roomNights, long millis) {
+
+        public long totalRows() {
+            return guests + rooms + bookings + payments + roomNights;
+        }
+
+        @Override
+        public String toString() {
+            long perSecond = millis > 0 ? totalRows() * 1000 / millis : totalRows();
+            return guests + " guests, " + rooms + " rooms, " + bookings + " bookings, " + payments +
+                    " payments, " + roomNights + " room nights in " + millis + " ms (" + perSecond + " rows/s)";
+        }
+    }
+
+    private final Spec spec;
+
+    // First id of each table's generated rows
+    private long firstGuestId;
+    private long firstRoomId;
+    private long firstBookingId;
+    private long firstPaymentId;
+
+    private final LongAdder bookingsWritten = new LongAdder();
+    private final LongAdder paymentsWritten = new LongAdder();
+    private final LongAdder nightsWritten = new LongAdder();
+
+    public DatasetGenerator(Spec spec) {
+        if (spec.rooms <= 0 || spec.guests <= 0 || spec.bookings < 0) {
+            throw new IllegalArgumentException("A dataset needs rooms and guests: " + spec);
+        }
+        this.spec = spec;
+    }
+
+    // Username of the guest at a position, starting at 1
+    public static String guestName(int index) {
+        return String.format("guest%06d", index);
+    }
+
+    // Room number of the room at a position, starting at 1
+    public static String roomNumber(int index) {
+        return String.format("R%06d", index);
+    }
+
+    /**
+     * Writes the whole dataset. The schema must exist (DatabaseManager.initializeDatabase).
+     *
+     * @return Rows written per table
+     * @throws SQLException if any insert fails; rows of batches committed before the failure remain
+     */
+    public Summary generate() throws SQLException {
+        long start = System.currentTimeMillis();
+        firstGuestId = nextId("users");
+        firstRoomId = nextId("rooms");
+        firstBookingId = nextId("bookings");
+        firstPaymentId = nextId("payments");
+        LOGGER.info("Generating dataset {}", spec);
+
+        int threads = Math.max(1, Math.min(spec.threads,
+                DatabaseManager.getConfig().getInt("db.pool.maxSize", spec.threads)));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            timed("guests", spec.guests, () -> runAll(executor, spec.guests, this::insertGuests));
+            timed("rooms", spec.rooms, () -> runAll(executor, spec.rooms, this::insertRooms));
+
+            // Rooms per task so that a task writes about one batch worth of stays ten times over
+            long perRoom = Math.max(1, spec.bookings / spec.rooms);
+            int roomsPerTask = (int) Math.max(1, Math.min(spec.rooms, 10L * spec.batchSize / perRoom));
+            timed("bookings", spec.bookings, () -> runAll(executor, spec.rooms, roomsPerTask, this::insertStays));
+        } finally {
+            executor.shutdown();
+        }
+
+        finish();
+        return new Summary(spec.guests, spec.rooms, bookingsWritten.sum(), paymentsWritten.sum(),
+                nightsWritten.sum(), System.currentTimeMillis() - start);
+    }
+
+    // A range of entity positions [from, to), starting at 1
+    @FunctionalInterface
+    private interface RangeTask {
+        void run(Connection conn, int from, int to) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Phase {
+        void run() throws SQLException;
+    }
+
+    private void timed(String name, long rows, Phase phase) throws SQLException {
+        long start = System.currentTimeMillis();
+        phase.run();
+        long millis = Math.max(1, System.currentTimeMillis() - start);
+        LOGGER.info("Generated {}: {} in {} ms ({}/s)", name, rows, millis, rows * 1000 / millis);
+    }
+
+    private void runAll(ExecutorService executor, int count, RangeTask task) throws SQLException {
+        runAll(executor, count, spec.batchSize * 10, task);
+    }
+
+    // Split positions 1..count into ranges of chunk and run them in parallel, each on its own connection
+    private void runAll(ExecutorService executor, int count, int chunk, RangeTask task) throws SQLException {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 1; from <= count; from += chunk) {
+            int rangeFrom = from;
+            int rangeTo = (int) Math.min((long) count + 1, (long) from + chunk);
+            futures.add(executor.submit(() -> {
+                try (Connection conn = DatabaseManager.getConnection()) {
+                    conn.setAutoCommit(false);
+                    try {
+                        task.run(conn, rangeFrom, rangeTo);
+                        conn.commit();
+                    } catch (SQLException | RuntimeException e) {
+                        conn.rollback();
+                        throw e;
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new SQLException("Dataset generation interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("Dataset generation failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private void insertGuests(Connection conn, int from, int to) throws SQLException {
+        String sql = "INSERT INTO users (id, username, password, role, fullname) VALUES (?, ?, 'guest123', 'guest', ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            Batch batch = new Batch(conn, spec.batchSize, pstmt);
+            for (int i = from; i < to; i++) {
+                SplittableRandom random = random(GUEST_STREAM, i);
+                pstmt.setLong(1, firstGuestId + i - 1);
+                pstmt.setString(2, guestName(i));
+                pstmt.setString(3, pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES));
+                pstmt.addBatch();
+                batch.add();
+            }
+            batch.flush();
+        }
+    }
+
+    private void insertRooms(Connection conn, int from, int to) throws SQLException {
+        String sql = "INSERT INTO rooms (id, room_number, type, price, status) VALUES (?, ?, ?, ?, 'Available')";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            Batch batch = new Batch(conn, spec.batchSize, pstmt);
+            for (int i = from; i < to; i++) {
+                int type = roomType(i);
+                pstmt.setLong(1, firstRoomId + i - 1);
+                pstmt.setString(2, roomNumber(i));
+                pstmt.setString(3, ROOM_TYPES[type]);
+                pstmt.setDouble(4, roomPrice(i, type));
+                pstmt.addBatch();
+                batch.add();
+            }
+            batch.flush();
+        }
+    }
+
+    private void insertStays(Connection conn, int from, int to) throws SQLException {
+        String bookingSql = "INSERT INTO bookings (id, guest_id, room_id, check_in_date, check_out_date, total_price, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String paymentSql = "INSERT INTO payments (id, booking_id, amount, payment_date, method) VALUES (?, ?, ?, ?, ?)";
+        String nightSql = "INSERT INTO room_nights (room_id, night, booking_id) VALUES (?, ?, ?)";
+        String occupiedSql = "UPDATE rooms SET status = 'Occupied' WHERE id = ?";
+
+        try (PreparedStatement bookings = conn.prepareStatement(bookingSql);
+             PreparedStatement payments = conn.prepareStatement(paymentSql);
+             PreparedStatement nights = conn.prepareStatement(nightSql);
+             PreparedStatement occupied = conn.prepareStatement(occupiedSql)) {
+
+            // Payments and room nights follow their bookings, so they go in the same commit
+            Batch batch = new Batch(conn, spec.batchSize, bookings, payments, nights);
+            LocalDate asOf = spec.asOf;
+
+            for (int room = from; room < to; room++) {
+                long roomId = firstRoomId + room - 1;
+                int count = bookingsOfRoom(room);
+                long bookingIndex = firstBookingOfRoom(room);
+                double price = roomPrice(room, roomType(room));
+                SplittableRandom random = random(STAY_STREAM, room);
+
+                // Walk the timeline backwards from its end so every room ends near the same day
+                LocalDate cursor = asOf.plusDays(spec.futureDays - random.nextInt(7));
+                for (int i = count - 1; i >= 0; i--) {
+                    int stayNights = stayNights(random);
+                    LocalDate checkOut = cursor;
+                    LocalDate checkIn = checkOut.minusDays(stayNights);
+                    cursor = checkIn.minusDays(gapNights(random));
+
+                    boolean cancelled = random.nextInt(12) == 0;
+                    String status;
+                    if (cancelled) {
+                        status = "Cancelled";
+                    } else if (!checkOut.isAfter(asOf)) {
+                        status = "Checked Out";
+                    } else if (checkIn.isAfter(asOf)) {
+                        status = "Booked";
+                    } else {
+                        status = "Checked In";
+                    }
+
+                    long bookingId = firstBookingId + bookingIndex + i;
+                    double total = price * stayNights;
+                    bookings.setLong(1, bookingId);
+                    bookings.setLong(2, firstGuestId + guestOf(random) - 1);
+                    bookings.setLong(3, roomId);
+                    bookings.setDate(4, Date.valueOf(checkIn));
+                    bookings.setDate(5, Date.valueOf(checkOut));
+                    bookings.setDouble(6, total);
+                    bookings.setString(7, status);
+                    bookings.addBatch();
+
+                    // Paid when booked: lead time before arrival, but never after asOf
+                    LocalDate bookedOn = checkIn.minusDays(leadDays(random));
+                    if (bookedOn.isAfter(asOf)) {
+                        bookedOn = asOf;
+                    }
+                    payments.setLong(1, firstPaymentId + bookingIndex + i);
+                    payments.setLong(2, bookingId);
+                    payments.setDouble(3, total);
+                    payments.setTimestamp(4, Timestamp.valueOf(bookedOn.atTime(7 + random.nextInt(15), random.nextInt(60))));
+                    payments.setString(5, PAYMENT_METHODS[weighted(random, PAYMENT_METHOD_SHARE)]);
+                    payments.addBatch();
+
+                    if (AvailabilityIndex.isActiveStatus(status)) {
+                        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+                            nights.setLong(1, roomId);
+                            nights.setDate(2, Date.valueOf(night));
+                            nights.setLong(3, bookingId);
+                            nights.addBatch();
+                            nightsWritten.increment();
+                        }
+                        if ("Checked In".equals(status)) {
+                            occupied.setLong(1, roomId);
+                            occupied.executeUpdate();
+                        }
+                    }
+                    bookingsWritten.increment();
+                    paymentsWritten.increment();
+                    batch.add();
+                }
+            }
+            batch.flush();
+        }
+    }
+
+    // Move the id counters past the generated rows and rebuild everything derived from them
+    private void finish() throws SQLException {
+        SqlDialect dialect = DatabaseManager.getDialect();
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(dialect.restartIdentity("users", firstGuestId + spec.guests));
+            stmt.execute(dialect.restartIdentity("rooms", firstRoomId + spec.rooms));
+            stmt.execute(dialect.restartIdentity("bookings", firstBookingId + spec.bookings));
+            stmt.execute(dialect.restartIdentity("payments", firstPaymentId + spec.bookings));
+        }
+        new RevenueRollupDAO().rebuild();
+        AvailabilityIndex.getInstance().load();
+        RoomCache.getInstance().invalidateAll();
+    }
+
+    private static long nextId(String table) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    // Bookings are spread evenly; the first rooms take one extra when they do not divide
+    private int bookingsOfRoom(int room) {
+        long base = spec.bookings / spec.rooms;
+        return (int) (base + (room <= spec.bookings % spec.rooms ? 1 : 0));
+    }
+
+    // Position of a room's first booking among all generated bookings, from 0
+    private long firstBookingOfRoom(int room) {
+        long base = spec.bookings / spec.rooms;
+        long extra = spec.bookings % spec.rooms;
+        return (room - 1) * base + Math.min(room - 1, extra);
+    }
+
+    private int roomType(int room) {
+        return weighted(random(ROOM_STREAM, room), ROOM_TYPE_SHARE);
+    }
+
+    // Base price of the type, up to 30% more on higher floors (every 50 rooms is a floor)
+    private double roomPrice(int room, int type) {
+        int floor = (room - 1) / 50;
+        return ROOM_BASE_PRICES[type] + Math.min(floor, 30) * ROOM_BASE_PRICES[type] / 100;
+    }
+
+    private static int stayNights(SplittableRandom random) {
+        int index = weighted(random, STAY_NIGHTS_SHARE);
+        return index < STAY_NIGHTS_SHARE.length ? index + 1 : 8 + random.nextInt(21);
+    }
+
+    // Empty nights before the next stay: none half of the time, mean one
+    private static int gapNights(SplittableRandom random) {
+        int gap = 0;
+        while (random.nextInt(2) == 0 && gap < 14) {
+            gap++;
+        }
+        return gap;
+    }
+
+    // One in five bookings is made on the day or the day before; the rest are exponential
+    // with a mean of 30 days, capped at a year
+    private static int leadDays(SplittableRandom random) {
+        if (random.nextInt(5) == 0) {
+            return random.nextInt(2);
+        }
+        return (int) Math.min(365, -30 * Math.log(1 - random.nextDouble()));
+    }
+
+    // One in four bookings comes from the 2% of guests who are regulars
+    private int guestOf(SplittableRandom random) {
+        int regulars = Math.max(1, spec.guests / 50);
+        return 1 + (random.nextInt(4) == 0 ? random.nextInt(regulars) : random.nextInt(spec.guests));
+    }
+
+    // Index drawn with the given shares; one past the end for the remaining share
+    private static int weighted(SplittableRandom random, double[] shares) {
+        double draw = random.nextDouble();
+        for (int i = 0; i < shares.length; i++) {
+            draw -= shares[i];
+            if (draw < 0) {
+                return i;
+            }
+        }
+        return shares.length;
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private SplittableRandom random(long stream, long index) {
+        return new SplittableRandom(spec.seed ^ (stream << 56) ^ (index * 0x9E3779B97F4A7C15L));
+    }
+
+    // Executes the statements every size rows and commits after each execution; callers add
+    // each row to its statements' batches before counting it with add()
+    private static final class Batch {
+        private final Connection conn;
+        private final int size;
+        private final PreparedStatement[] statements;
+        private int pending;
+
+        Batch(Connection conn, int size, PreparedStatement... statements) {
+            this.conn = conn;
+            this.size = size;
+            this.statements = statements;
+        }
+
+        void add() throws SQLException {
+            if (++pending >= size) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            if (pending == 0) {
+                return;
+            }
+            for (PreparedStatement statement : statements) {
+                statement.executeBatch();
+            }
+            conn.commit();
+            pending = 0;
+        }
+    }
+
+    public static void main(String[] args) {
+        Spec spec = Spec.defaults();
+        try {
+            for (String arg : args) {
+                spec = apply(spec, arg);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Options: --rooms=N --guests=N --bookings=N --seed=N --asOf=yyyy-MM-dd " +
+                    "--futureDays=N --threads=N --batchSize=N");
+            System.exit(2);
+        }
+
+        try {
+            DatabaseManager.initializeDatabase();
+            Summary summary = new DatasetGenerator(spec).generate();
+            System.out.println("Generated " + summary);
+        } catch (Exception e) {
+            System.err.println("Failed to generate dataset: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseManager.closeConnection();
+        }
+    }
+
+    private static Spec apply(Spec spec, String arg) {
+        int eq = arg.indexOf('=');
+        if (!arg.startsWith("--") || eq < 0) {
+            throw new IllegalArgumentException("Unrecognized argument: " + arg);
+        }
+        String value = arg.substring(eq + 1);
+        try {
+            switch (arg.substring(2, eq)) {
+                case "rooms": return spec.withRooms(Integer.parseInt(value));
+                case "guests": return spec.withGuests(Integer.parseInt(value));
+                case "bookings": return spec.withBookings(Long.parseLong(value));
+                case "seed": return spec.withSeed(Long.parseLong(value));
+                case "asOf": return spec.asOf(LocalDate.parse(value));
+                case "futureDays": return spec.withFutureDays(Integer.parseInt(value));
+                case "threads": return spec.withThreads(Integer.parseInt(value));
+                case "batchSize": return spec.withBatchSize(Integer.parseInt(value));
+                default: throw new IllegalArgumentException("Unrecognized argument: " + arg);
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid value in " + arg, e);
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package tools;
+
+import dao.BookingDAO;
+import dao.BookingListQuery;
+import dao.BusinessClock;
+import dao.DatabaseManager;
+import dao.RoomDAO;
+import model.Booking;
+import service.BookingService;
+import utill.LatencyHistogram;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless load driver: N front-desk terminals calling {@link BookingService} as fast
+ * as they can (or with a think time), each on its own virtual thread.
+ *
+ * Every terminal picks its next operation from a weighted mix, e.g.
+ * {@code --mix=create:30,checkIn:15,checkOut:15,cancel:5,guestBookings:25,arrivals:5,departures:5}.
+ * Check-ins work through bookings that are booked, check-outs through guests that are
+ * checked in and cancellations through future bookings, starting from what the database
+ * holds and then from what the run itself produces; when a queue runs dry the operation
+ * is counted as skipped. Each operation has its own latency histogram; failures (a
+ * taken room, a booking changed by another terminal) are counted as rejected, not as
+ * latency outliers.
+ *
+ * Nothing is recorded during the warm-up. A progress line is printed every few seconds
+ * and a table with throughput and p50/p99/p99.9 latency per operation at the end.
+ *
+ * Runs against the configured database; with -Dhotel.db.profile=h2 that is an in-memory
+ * H2 database, filled by {@link DatasetGenerator} first when it holds no generated rooms
+ * (--rooms, --guests and --bookings size it).
+ *
+ * Run with: java -Dhotel.db.profile=h2 -cp &lt;app classpath&gt; tools.FrontDeskLoadTest --terminals=200 --duration=60
+ */
+public final class FrontDeskLoadTest {
+
+    /**
+     * Operations a terminal can perform
+     */
+    public enum Operation {
+        CREATE("create"),
+        CHECK_IN("checkIn"),
+        CHECK_OUT("checkOut"),
+        CANCEL("cancel"),
+        GUEST_BOOKINGS("guestBookings"),
+        ARRIVALS("arrivals"),
+        DEPARTURES("departures");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation ofKey(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equalsIgnoreCase(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation: " + key);
+        }
+    }
+
+    // Outcome counters and latencies of one operation
+    private static final class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+    }
+
+    private static final String[] PAYMENT_METHODS = {"Credit Card", "Cash", "Bank Transfer"};
+    private static final int SEED_QUEUE_SIZE = 20_000;
+
+    private final int terminals;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final long thinkMillis;
+    private final Map<Operation, Integer> mix;
+    private final int rooms;
+    private final int guests;
+    private final long seed;
+
+    private final BookingService bookingService = new BookingService();
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final Queue<Integer> booked = new ConcurrentLinkedQueue<>();
+    private final Queue<Integer> checkedIn = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean recording;
+    private volatile boolean stopped;
+
+    public FrontDeskLoadTest(int terminals, int durationSeconds, int warmupSeconds, long thinkMillis,
+                             Map<Operation, Integer> mix, int rooms, int guests, long seed) {
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("The operation mix is empty");
+        }
+        this.terminals = terminals;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = warmupSeconds;
+        this.thinkMillis = thinkMillis;
+        this.mix = new EnumMap<>(mix);
+        this.rooms = rooms;
+        this.guests = guests;
+        this.seed = seed;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    // Default mix: mostly bookings and lookups, a steady stream of arrivals and departures
+    public static Map<Operation, Integer> defaultMix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.CREATE, 30);
+        mix.put(Operation.CHECK_IN, 15);
+        mix.put(Operation.CHECK_OUT, 15);
+        mix.put(Operation.CANCEL, 5);
+        mix.put(Operation.GUEST_BOOKINGS, 25);
+        mix.put(Operation.ARRIVALS, 5);
+        mix.put(Operation.DEPARTURES, 5);
+        return mix;
+    }
+
+    /**
+     * Runs the warm-up and the measurement and prints the results
+     *
+     * @throws SQLException if the booking queues cannot be seeded from the database
+     */
+    public void run() throws SQLException, InterruptedException {
+        seedQueues();
+        System.out.println("Load test: " + terminals + " terminals, " + warmupSeconds + "s warm-up, " +
+                durationSeconds + "s measured, think time " + thinkMillis + " ms, mix " + mix);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < terminals; i++) {
+                SplittableRandom random = new SplittableRandom(seed + i);
+                executor.submit(() -> terminal(random));
+            }
+
+            try {
+                TimeUnit.SECONDS.sleep(warmupSeconds);
+                recording = true;
+                long measureStart = System.nanoTime();
+                long end = measureStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+                long lastCount = 0;
+                long lastTime = measureStart;
+                while (System.nanoTime() < end) {
+                    TimeUnit.MILLISECONDS.sleep(Math.min(5_000, TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()) + 1));
+                    long now = System.nanoTime();
+                    long count = completed();
+                    System.out.printf("  %4ds  %,10d ops  %,8.0f ops/s%n", TimeUnit.NANOSECONDS.toSeconds(now - measureStart),
+                            count, (count - lastCount) * 1e9 / Math.max(1, now - lastTime));
+                    lastCount = count;
+                    lastTime = now;
+                }
+                recording = false;
+                report(System.nanoTime() - measureStart);
+            } finally {
+                stopped = true;
+            }
+        }
+        System.out.println("Finished in " + TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) + "s");
+    }
+
+    private void terminal(SplittableRandom random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        while (!stopped) {
+            Operation operation = pick(random, total);
+            Stats opStats = stats.get(operation);
+            long start = System.nanoTime();
+            Boolean succeeded = perform(operation, random);
+            long elapsed = System.nanoTime() - start;
+
+            if (recording) {
+                if (succeeded == null) {
+                    opStats.skipped.increment();
+                } else {
+                    opStats.latency.record(elapsed);
+                    if (!succeeded) {
+                        opStats.rejected.increment();
+                    }
+                }
+            }
+            if (thinkMillis > 0) {
+                try {
+                    Thread.sleep(thinkMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private Operation pick(SplittableRandom random, int total) {
+        int draw = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            draw -= entry.getValue();
+            if (draw < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.CREATE;
+    }
+
+    // Whether the operation succeeded, or null if there was nothing to do
+    private Boolean perform(Operation operation, SplittableRandom random) {
+        switch (operation) {
+            case CREATE: {
+                LocalDate checkIn = BusinessClock.today().plusDays(random.nextInt(0, 120));
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+                BookingService.BookingResult result = bookingService.createBooking(
+                        DatasetGenerator.guestName(1 + random.nextInt(guests)),
+                        DatasetGenerator.roomNumber(1 + random.nextInt(rooms)),
+                        toDate(checkIn), toDate(checkOut), PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)]);
+                if (result.isSuccess()) {
+                    booked.add(result.getBooking().getId());
+                }
+                return result.isSuccess();
+            }
+            case CHECK_IN: {
+                Integer bookingId = booked.poll();
+                if (bookingId == null) {
+                    return null;
+                }
+                boolean done = bookingService.checkInGuest(bookingId);
+                if (done) {
+                    checkedIn.add(bookingId);
+                }
+                return done;
+            }
+            case CHECK_OUT: {
+                Integer bookingId = checkedIn.poll();
+                return bookingId == null ? null : bookingService.checkOutGuest(bookingId);
+            }
+            case CANCEL: {
+                Integer bookingId = booked.poll();
+                return bookingId == null ? null : bookingService.cancelBooking(bookingId);
+            }
+            case GUEST_BOOKINGS:
+                bookingService.getGuestBookings(DatasetGenerator.guestName(1 + random.nextInt(guests)));
+                return true;
+            case ARRIVALS:
+                bookingService.getTodayCheckIns();
+                return true;
+            default:
+                bookingService.getTodayCheckOuts();
+                return true;
+        }
+    }
+
+    // Start the check-in and check-out queues from the bookings already in the database
+    private void seedQueues() throws SQLException {
+        BookingDAO bookingDAO = new BookingDAO();
+        BookingListQuery soonest = BookingListQuery.all().sortedBy(BookingListQuery.SortColumn.CHECK_IN, false);
+        for (Booking booking : bookingDAO.getBookingsPage(soonest.withStatus("Booked"), null, SEED_QUEUE_SIZE)) {
+            booked.add(booking.getId());
+        }
+        for (Booking booking : bookingDAO.getBookingsPage(soonest.withStatus("Checked In"), null, SEED_QUEUE_SIZE)) {
+            checkedIn.add(booking.getId());
+        }
+    }
+
+    private long completed() {
+        long count = 0;
+        for (Stats opStats : stats.values()) {
+            count += opStats.latency.getCount();
+        }
+        return count;
+    }
+
+    private void report(long measuredNanos) {
+        double seconds = measuredNanos / 1e9;
+        System.out.println();
+        System.out.printf("%-14s %10s %10s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "ops/s", "rejected", "skipped", "p50", "p99", "p99.9", "max");
+
+        LatencyHistogram all = new LatencyHistogram();
+        long rejected = 0;
+        long skipped = 0;
+        for (Operation operation : mix.keySet()) {
+            Stats opStats = stats.get(operation);
+            all.add(opStats.latency);
+            rejected += opStats.rejected.sum();
+            skipped += opStats.skipped.sum();
+            printRow(operation.key, opStats.latency, opStats.rejected.sum(), opStats.skipped.sum(), seconds);
+        }
+        printRow("all", all, rejected, skipped, seconds);
+    }
+
+    private static void printRow(String name, LatencyHistogram latency, long rejected, long skipped, double seconds) {
+        System.out.printf("%-14s %,10d %,10.1f %,9d %,9d %9s %9s %9s %9s%n",
+                name, latency.getCount(), latency.getCount() / seconds, rejected, skipped,
+                LatencyHistogram.format(latency.getValueAtPercentile(50)),
+                LatencyHistogram.format(latency.getValueAtPercentile(99)),
+                LatencyHistogram.format(latency.getValueAtPercentile(99.9)),
+                LatencyHistogram.format(latency.getMaxNanos()));
+    }
+
+    // Midnight of a day in the hotel's zone, the same day BusinessClock.today() counts from
+    private static Date toDate(LocalDate day) {
+        return Date.from(day.atStartOfDay(BusinessClock.zone()).toInstant());
+    }
+
+    public static void main(String[] args) {
+        int terminals = 100;
+        int duration = 60;
+        int warmup = 10;
+        long think = 0;
+        Map<Operation, Integer> mix = defaultMix();
+        DatasetGenerator.Spec spec = DatasetGenerator.Spec.defaults();
+
+        try {
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("Unrecognized argument: " + arg);
+                }
+                String value = arg.substring(eq + 1);
+                switch (arg.substring(2, eq)) {
+                    case "terminals": terminals = Integer.parseInt(value); break;
+                    case "duration": duration = Integer.parseInt(value); break;
+                    case "warmup": warmup = Integer.parseInt(value); break;
+                    case "think": think = Long.parseLong(value); break;
+                    case "mix": mix = parseMix(value); break;
+                    case "rooms": spec = spec.withRooms(Integer.parseInt(value)); break;
+                    case "guests": spec = spec.withGuests(Integer.parseInt(value)); break;
+                    case "bookings": spec = spec.withBookings(Long.parseLong(value)); break;
+                    case "seed": spec = spec.withSeed(Long.parseLong(value)); break;
+                    default: throw new IllegalArgumentException("Unrecognized argument: " + arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Options: --terminals=N --duration=SECONDS --warmup=SECONDS --think=MILLIS " +
+                    "--mix=create:30,checkIn:15,... --rooms=N --guests=N --bookings=N --seed=N");
+            System.exit(2);
+        }
+
+        try {
+            DatabaseManager.initializeDatabase();
+            if (!new RoomDAO().roomNumberExists(DatasetGenerator.roomNumber(1))) {
+                System.out.println("Generated " + new DatasetGenerator(spec).generate());
+            }
+            new FrontDeskLoadTest(terminals, duration, warmup, think, mix,
+                    spec.getRooms(), spec.getGuests(), spec.getSeed()).run();
+        } catch (Exception e) {
+            System.err.println("Load test failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseManager.closeConnection();
+        }
+    }
+
+    // Parse "create:30,checkIn:15,..."; operations left out are not run
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] entry = part.trim().split(":");
+            if (entry.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            mix.put(Operation.ofKey(entry[0].trim()), Integer.parseInt(entry[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,36 @@
+package tools;
+
+import dao.DatabaseManager;
+import dao.RevenueRollupDAO;
+import dao.SchemaMigrator;
+
+/**
+ * Recomputes the revenue_daily rollup from the payments table.
+ *
+ * Run after payments were changed outside the application (imports, manual fixes)
+ * or to check the rollup against the payments it summarizes. Uses the same
+ * database settings as the application, e.g. -Dhotel.db.profile=h2.
+ *
+ * Run with: java -cp &lt;app classpath&gt; tools.RebuildRevenueRollup
+ */
+public final class RebuildRevenueRollup {
+
+    private RebuildRevenueRollup() {
+    }
+
+    public static void main(String[] args) {
+        try {
+            new SchemaMigrator(DatabaseManager.getDialect()).migrate();
+
+            long start = System.currentTimeMillis();
+            int rows = new RevenueRollupDAO().rebuild();
+            System.out.println("Rebuilt revenue_daily: " + rows + " rows in " +
+                    (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.err.println("Failed to rebuild revenue rollup: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseManager.closeConnection();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package ui;
+
+import utill.Log;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs panel data loads off the Event Dispatch Thread and applies the results on it.
+ *
+ * Each panel keeps one loader per area it refreshes (a table, a form, a set of
+ * statistics). Starting a load supersedes the previous one in the same loader:
+ * a load still waiting to start is cancelled and the result of one already running
+ * is discarded, so a slow query can never overwrite newer data. While a load is in
+ * flight the owner shows a wait cursor and the optional indicator is visible.
+ * Failures are reported to the user in a dialog on the EDT.
+ *
+ * Loads run on virtual threads; the connection pool bounds how many of them
+ * reach the database at the same time. Every load is recorded as a
+ * {@link PanelRefreshEvent} for the flight recorder.
+ *
+ * Example:
+ * <pre>
+ *     roomsLoader = new BackgroundLoader(this, "loading rooms");
+ *     roomsLoader.load(roomDAO::getAllRooms, this::updateTableData);
+ * </pre>
+ */
+public final class BackgroundLoader {
+
+    private static final Log LOGGER = Log.get(BackgroundLoader.class);
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ui-loader-", 0).factory());
+
+    // Loads in flight per owner, so the wait cursor stays until the owner's last load ends; EDT only
+    private static final Map<Component, Integer> BUSY_OWNERS = new IdentityHashMap<>();
+
+    private final Component owner;
+    private final String description;
+    private JComponent indicator;
+
+    // Only touched on the EDT
+    private long generation;
+    private Future<?> running;
+    private boolean loading;
+
+    /**
+     * Work that runs in the background and produces a result
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * @param owner Component that shows the wait cursor and parents error dialogs
+     * @param description What is being done, used in error messages (e.g. "loading rooms")
+     */
+    public BackgroundLoader(Component owner, String description) {
+        this.owner = owner;
+        this.description = description;
+    }
+
+    // Component made visible while a load is in flight, e.g. a "Loading..." label
+    public BackgroundLoader withIndicator(JComponent indicator) {
+        this.indicator = indicator;
+        indicator.setVisible(false);
+        return this;
+    }
+
+    /**
+     * Starts a load, superseding any load still in flight in this loader.
+     * Errors are shown in a dialog.
+     *
+     * @param task Work run in the background; must not touch Swing components
+     * @param onSuccess Applies the result on the EDT
+     */
+    public <T> void load(Task<T> task, Consumer<T> onSuccess) {
+        load(task, onSuccess, this::showError);
+    }
+
+    /**
+     * Starts a load, superseding any load still in flight in this loader
+     *
+     * @param task Work run in the background; must not touch Swing components
+     * @param onSuccess Applies the result on the EDT
+     * @param onError Handles a failure on the EDT
+     */
+    public <T> void load(Task<T> task, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> load(task, onSuccess, onError));
+            return;
+        }
+
+        cancel();
+        long current = generation;
+        setLoading(true);
+
+        PanelRefreshEvent event = new PanelRefreshEvent();
+        event.begin();
+        running = EXECUTOR.submit(() -> {
+            long start = System.nanoTime();
+            T result;
+            try {
+                result = task.call();
+            } catch (Exception e) {
+                long taskNanos = System.nanoTime() - start;
+                LOGGER.fine("Background task failed: {}", description, e);
+                SwingUtilities.invokeLater(() -> {
+                    boolean applied = finish(current);
+                    if (applied) {
+                        onError.accept(e);
+                    }
+                    commit(event, applied ? "failed" : "superseded", -1, taskNanos);
+                });
+                return;
+            }
+            long taskNanos = System.nanoTime() - start;
+            SwingUtilities.invokeLater(() -> {
+                boolean applied = finish(current);
+                if (applied) {
+                    onSuccess.accept(result);
+                }
+                commit(event, applied ? "loaded" : "superseded",
+                        result instanceof Collection ? ((Collection<?>) result).size() : -1, taskNanos);
+            });
+        });
+    }
+
+    /**
+     * Cancels the load in flight, if any. A load that has already started
+     * runs to completion in the background but its result is dropped.
+     * Must be called on the EDT.
+     */
+    public void cancel() {
+        generation++;
+        if (running != null) {
+            // Not interrupting: an interrupt can close the JDBC socket of a pooled connection
+            running.cancel(false);
+            running = null;
+        }
+        setLoading(false);
+    }
+
+    // Whether a load is in flight; EDT only
+    public boolean isLoading() {
+        return loading;
+    }
+
+    /**
+     * Runs a one-off background task that is not superseded by later ones,
+     * such as a save triggered by a button
+     *
+     * @param owner Component that parents the error dialog
+     * @param description What is being done, used in the error message
+     * @param task Work run in the background
+     * @param onSuccess Applies the result on the EDT
+     */
+    public static <T> void submit(Component owner, String description, Task<T> task, Consumer<T> onSuccess) {
+        new BackgroundLoader(owner, description).load(task, onSuccess);
+    }
+
+    // Commit a load's flight recorder event once its result has been handled on the EDT
+    private void commit(PanelRefreshEvent event, String outcome, int rows, long taskNanos) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.panel = owner.getClass().getSimpleName();
+            event.description = description;
+            event.outcome = outcome;
+            event.rows = rows;
+            event.backgroundTime = taskNanos;
+            event.commit();
+        }
+    }
+
+    // True if the finished load is still the current one; clears the loading state
+    private boolean finish(long loadGeneration) {
+        if (loadGeneration != generation) {
+            return false;
+        }
+        running = null;
+        setLoading(false);
+        return true;
+    }
+
+    private void setLoading(boolean loading) {
+        if (this.loading == loading) {
+            return;
+        }
+        this.loading = loading;
+
+        int busy = BUSY_OWNERS.getOrDefault(owner, 0) + (loading ? 1 : -1);
+        if (busy > 0) {
+            BUSY_OWNERS.put(owner, busy);
+        } else {
+            BUSY_OWNERS.remove(owner);
+        }
+        owner.setCursor(busy > 0 ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+
+        if (indicator != null) {
+            indicator.setVisible(loading);
+        }
+    }
+
+    // Report a failure in a dialog parented by the owner; EDT only
+    void showError(Exception e) {
+        JOptionPane.showMessageDialog(owner, "Error " + description + ": " + e.getMessage(),
+                "Database Error", JOptionPane.ERROR_MESSAGE);
+    }
+}
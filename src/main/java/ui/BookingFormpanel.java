@@ -1,19 +1,25 @@
 package ui;
 import model.User;
 import model.Room;
-import dao.RoomDAO;
 import service.BookingService;
 import javax.swing.*;
 import java.awt.*;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class BookingFormpanel extends JPanel {
     private User currentUser;
     private BookingService bookingService;
-    private RoomDAO roomDAO;
+    private BackgroundLoader availabilityLoader;
+
+    // Rooms listed in the combo by room number, as returned by the last search
+    private Map<String, Room> availableRooms = new LinkedHashMap<>();
 
     private JComboBox<String> roomCombo;
+    private JComboBox<String> typeFilterCombo;
+    private JTextField maxPriceField;
     private JSpinner checkInSpinner;
     private JSpinner checkOutSpinner;
     private JLabel totalLabel;
@@ -24,7 +30,7 @@ public class BookingFormpanel extends JPanel {
     public BookingFormpanel(User currentUser) {
         this.currentUser = currentUser;
         this.bookingService = new BookingService();
-        this.roomDAO = new RoomDAO();
+        this.availabilityLoader = new BackgroundLoader(this, "loading available rooms");
         initializeUI();
         loadAvailableRooms();
     }
@@ -48,31 +54,19 @@ public class BookingFormpanel extends JPanel {
 
         gbc.gridwidth = 1;
 
-        // Room selection
-        gbc.gridx = 0; gbc.gridy = 1;
-        mainPanel.add(new JLabel("Select Room:"), gbc);
-        gbc.gridx = 1;
-        roomCombo = new JComboBox<>();
-        roomCombo.setPreferredSize(new Dimension(200, 25));
-        roomCombo.addActionListener(e -> {
-            updateRoomDetails();
-            calculateTotal();
-        });
-        mainPanel.add(roomCombo, gbc);
-
         // Check-in date
-        gbc.gridx = 0; gbc.gridy = 2;
+        gbc.gridx = 0; gbc.gridy = 1;
         mainPanel.add(new JLabel("Check-in Date:"), gbc);
         gbc.gridx = 1;
         checkInSpinner = new JSpinner(new SpinnerDateModel());
         JSpinner.DateEditor checkInEditor = new JSpinner.DateEditor(checkInSpinner, "MMM dd, yyyy");
         checkInSpinner.setEditor(checkInEditor);
         checkInSpinner.setValue(new Date()); // Default to today
-        checkInSpinner.addChangeListener(e -> calculateTotal());
+        checkInSpinner.addChangeListener(e -> loadAvailableRooms());
         mainPanel.add(checkInSpinner, gbc);
 
         // Check-out date
-        gbc.gridx = 0; gbc.gridy = 3;
+        gbc.gridx = 0; gbc.gridy = 2;
         mainPanel.add(new JLabel("Check-out Date:"), gbc);
         gbc.gridx = 1;
         checkOutSpinner = new JSpinner(new SpinnerDateModel());
@@ -80,11 +74,42 @@ public class BookingFormpanel extends JPanel {
         checkOutSpinner.setEditor(checkOutEditor);
         // Default to tomorrow
         checkOutSpinner.setValue(new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000));
-        checkOutSpinner.addChangeListener(e -> calculateTotal());
+        checkOutSpinner.addChangeListener(e -> loadAvailableRooms());
         mainPanel.add(checkOutSpinner, gbc);
 
-        // Total amount
+        // Room type filter
+        gbc.gridx = 0; gbc.gridy = 3;
+        mainPanel.add(new JLabel("Room Type:"), gbc);
+        gbc.gridx = 1;
+        typeFilterCombo = new JComboBox<>(new String[]{"Any", "Standard", "Deluxe", "Suite"});
+        typeFilterCombo.setPreferredSize(new Dimension(200, 25));
+        typeFilterCombo.addActionListener(e -> loadAvailableRooms());
+        mainPanel.add(typeFilterCombo, gbc);
+
+        // Maximum price filter, blank for no limit
         gbc.gridx = 0; gbc.gridy = 4;
+        mainPanel.add(new JLabel("Max Price/Night:"), gbc);
+        gbc.gridx = 1;
+        maxPriceField = new JTextField();
+        maxPriceField.setPreferredSize(new Dimension(200, 25));
+        maxPriceField.setToolTipText("Leave blank for any price");
+        maxPriceField.addActionListener(e -> loadAvailableRooms());
+        mainPanel.add(maxPriceField, gbc);
+
+        // Room selection
+        gbc.gridx = 0; gbc.gridy = 5;
+        mainPanel.add(new JLabel("Select Room:"), gbc);
+        gbc.gridx = 1;
+        roomCombo = new JComboBox<>();
+        roomCombo.setPreferredSize(new Dimension(200, 25));
+        roomCombo.addActionListener(e -> {
+            updateRoomDetails();
+            calculateTotal();
+        });
+        mainPanel.add(roomCombo, gbc);
+
+        // Total amount
+        gbc.gridx = 0; gbc.gridy = 6;
         mainPanel.add(new JLabel("Total Amount:"), gbc);
         gbc.gridx = 1;
         totalLabel = new JLabel("$0.00");
@@ -93,7 +118,7 @@ public class BookingFormpanel extends JPanel {
         mainPanel.add(totalLabel, gbc);
 
         // Payment method
-        gbc.gridx = 0; gbc.gridy = 5;
+        gbc.gridx = 0; gbc.gridy = 7;
         mainPanel.add(new JLabel("Payment Method:"), gbc);
         gbc.gridx = 1;
         paymentMethodCombo = new JComboBox<>(new String[]{"Credit Card", "Cash", "Bank Transfer"});
@@ -101,7 +126,7 @@ public class BookingFormpanel extends JPanel {
         mainPanel.add(paymentMethodCombo, gbc);
 
         // Book button
-        gbc.gridx = 0; gbc.gridy = 6; gbc.gridwidth = 2;
+        gbc.gridx = 0; gbc.gridy = 8; gbc.gridwidth = 2;
         gbc.anchor = GridBagConstraints.CENTER;
         gbc.insets = new Insets(20, 10, 10, 10);
         bookButton = new JButton("Book Now");
@@ -136,66 +161,91 @@ public class BookingFormpanel extends JPanel {
         add(detailsPanel, BorderLayout.CENTER);
     }
 
+    // List only the rooms that are free for the selected dates and match the filters
     private void loadAvailableRooms() {
+        if (bookButton == null) {
+            return; // Still building the form
+        }
+
+        Double maxPrice;
         try {
-            List<Room> availableRooms = roomDAO.getAvailableRooms();
-            roomCombo.removeAllItems();
+            String maxPriceText = maxPriceField.getText().trim();
+            maxPrice = maxPriceText.isEmpty() ? null : Double.parseDouble(maxPriceText);
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Max price must be a number.");
+            return;
+        }
 
-            if (availableRooms.isEmpty()) {
-                roomCombo.addItem("No rooms available");
-                bookButton.setEnabled(false);
-            } else {
-                for (Room room : availableRooms) {
-                    roomCombo.addItem(room.getRoomNumber() + " - " + room.getType() + " ($" + room.getPrice() + ")");
-                }
-                updateRoomDetails();
-                calculateTotal();
-            }
+        String type = (String) typeFilterCombo.getSelectedItem();
+        Date checkIn = (Date) checkInSpinner.getValue();
+        Date checkOut = (Date) checkOutSpinner.getValue();
 
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error loading available rooms: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
+        bookButton.setEnabled(false);
+        availabilityLoader.load(() -> bookingService.findAvailableRooms(
+                "Any".equals(type) ? null : type, checkIn, checkOut, maxPrice), this::showAvailableRooms);
+    }
+
+    private void showAvailableRooms(List<Room> rooms) {
+        // Keep the current choice if it is still free
+        String previousRoom = (String) roomCombo.getSelectedItem();
+        availableRooms = new LinkedHashMap<>();
+        for (Room room : rooms) {
+            availableRooms.put(room.getRoomNumber(), room);
         }
+        roomCombo.removeAllItems();
+
+        if (rooms.isEmpty()) {
+            roomCombo.addItem("No rooms available");
+            bookButton.setEnabled(false);
+        } else {
+            for (Room room : rooms) {
+                roomCombo.addItem(room.getRoomNumber() + " - " + room.getType() + " ($" + room.getPrice() + ")");
+            }
+            if (previousRoom != null) {
+                roomCombo.setSelectedItem(previousRoom);
+            }
+            updateRoomDetails();
+        }
+        calculateTotal();
     }
 
-    private void updateRoomDetails() {
+    // Room behind the selected combo entry, from the last search
+    private Room getSelectedRoom() {
         String selectedItem = (String) roomCombo.getSelectedItem();
         if (selectedItem == null || selectedItem.equals("No rooms available")) {
+            return null;
+        }
+        return availableRooms.get(selectedItem.split(" - ")[0]);
+    }
+
+    private void updateRoomDetails() {
+        Room room = getSelectedRoom();
+        if (room == null) {
             roomDetailsArea.setText("No room selected");
             return;
         }
 
-        try {
-            String roomNumber = selectedItem.split(" - ")[0];
-            Room room = roomDAO.getRoomByNumber(roomNumber);
-
-            if (room != null) {
-                StringBuilder details = new StringBuilder();
-                details.append("Room Number: ").append(room.getRoomNumber()).append("\n\n");
-                details.append("Room Type: ").append(room.getType()).append("\n\n");
-                details.append("Price per Night: $").append(String.format("%.2f", room.getPrice())).append("\n\n");
-                details.append("Status: ").append(room.getStatus()).append("\n\n");
-
-                // Add room type description
-                details.append("Description:\n");
-                switch (room.getType()) {
-                    case "Standard":
-                        details.append("• Single bed\n• Basic amenities\n• 20 sq.m\n• Free WiFi");
-                        break;
-                    case "Deluxe":
-                        details.append("• Queen bed\n• Premium amenities\n• 35 sq.m\n• Free WiFi\n• Mini-bar\n• City view");
-                        break;
-                    case "Suite":
-                        details.append("• King bed\n• Luxury amenities\n• 50 sq.m\n• Free WiFi\n• Mini-bar\n• Ocean view\n• Separate living area\n• Jacuzzi");
-                        break;
-                }
-
-                roomDetailsArea.setText(details.toString());
-            }
-
-        } catch (Exception e) {
-            roomDetailsArea.setText("Error loading room details: " + e.getMessage());
+        StringBuilder details = new StringBuilder();
+        details.append("Room Number: ").append(room.getRoomNumber()).append("\n\n");
+        details.append("Room Type: ").append(room.getType()).append("\n\n");
+        details.append("Price per Night: $").append(String.format("%.2f", room.getPrice())).append("\n\n");
+        details.append("Status: ").append(room.getStatus()).append("\n\n");
+
+        // Add room type description
+        details.append("Description:\n");
+        switch (room.getType()) {
+            case "Standard":
+                details.append("• Single bed\n• Basic amenities\n• 20 sq.m\n• Free WiFi");
+                break;
+            case "Deluxe":
+                details.append("• Queen bed\n• Premium amenities\n• 35 sq.m\n• Free WiFi\n• Mini-bar\n• City view");
+                break;
+            case "Suite":
+                details.append("• King bed\n• Luxury amenities\n• 50 sq.m\n• Free WiFi\n• Mini-bar\n• Ocean view\n• Separate living area\n• Jacuzzi");
+                break;
         }
+
+        roomDetailsArea.setText(details.toString());
     }
 
     private void calculateTotal() {
@@ -204,12 +254,6 @@ public class BookingFormpanel extends JPanel {
             return;
         }
 
-        String selectedItem = (String) roomCombo.getSelectedItem();
-        if (selectedItem == null || selectedItem.equals("No rooms available")) {
-            totalLabel.setText("$0.00");
-            return;
-        }
-
         try {
             Date checkIn = (Date) checkInSpinner.getValue();
             Date checkOut = (Date) checkOutSpinner.getValue();
@@ -221,16 +265,19 @@ public class BookingFormpanel extends JPanel {
                 return;
             }
 
-            String roomNumber = selectedItem.split(" - ")[0];
-            Room room = roomDAO.getRoomByNumber(roomNumber);
-
-            if (room != null) {
-                double total = bookingService.calculateTotalPrice(room.getPrice(), checkIn, checkOut);
-                totalLabel.setText(String.format("$%.2f", total));
+            Room room = getSelectedRoom();
+            if (room == null) {
+                totalLabel.setText("$0.00");
                 totalLabel.setForeground(new Color(46, 204, 113));
-                bookButton.setEnabled(true);
+                bookButton.setEnabled(false);
+                return;
             }
 
+            double total = bookingService.calculateTotalPrice(room.getPrice(), checkIn, checkOut);
+            totalLabel.setText(String.format("$%.2f", total));
+            totalLabel.setForeground(new Color(46, 204, 113));
+            bookButton.setEnabled(!availabilityLoader.isLoading());
+
         } catch (Exception e) {
             totalLabel.setText("Error calculating total");
             totalLabel.setForeground(Color.RED);
@@ -278,21 +325,23 @@ public class BookingFormpanel extends JPanel {
 
             if (result == JOptionPane.YES_OPTION) {
                 // Process booking
-                BookingService.BookingResult bookingResult = bookingService.createBooking(
-                        currentUser.getUsername(), roomNumber, checkIn, checkOut, paymentMethod);
-
-                if (bookingResult.isSuccess()) {
-                    JOptionPane.showMessageDialog(this,
-                            "Booking created successfully!\n\nBooking ID: " + bookingResult.getBooking().getId(),
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                    // Reset form
-                    resetForm();
-                } else {
-                    JOptionPane.showMessageDialog(this,
-                            "Booking failed: " + bookingResult.getMessage(),
-                            "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                bookButton.setEnabled(false);
+                BackgroundLoader.submit(this, "processing booking", () -> bookingService.createBooking(
+                        currentUser.getUsername(), roomNumber, checkIn, checkOut, paymentMethod), bookingResult -> {
+                    if (bookingResult.isSuccess()) {
+                        JOptionPane.showMessageDialog(this,
+                                "Booking created successfully!\n\nBooking ID: " + bookingResult.getBooking().getId(),
+                                "Success", JOptionPane.INFORMATION_MESSAGE);
+
+                        // Reset form
+                        resetForm();
+                    } else {
+                        JOptionPane.showMessageDialog(this,
+                                "Booking failed: " + bookingResult.getMessage(),
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                        loadAvailableRooms();
+                    }
+                });
             }
 
         } catch (Exception e) {
@@ -0,0 +1,258 @@
+package ui;
+
+import dao.BookingDAO;
+import dao.BookingListQuery;
+import model.Booking;
+
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Read-only table model of a bookings listing that only holds the rows being looked at.
+ *
+ * The row count comes from one COUNT query. Rows are fetched in pages as the table
+ * asks for them, using keyset pagination in {@link BookingDAO#getBookingsPage}: each
+ * page starts right after the key of the last row of the page before it. The last
+ * key of every page seen is remembered, so scrolling back and forth costs one indexed
+ * seek per page; jumping far ahead first looks up the key where the page starts.
+ * Recently used pages are kept in a small LRU cache.
+ *
+ * Rows of a page still loading have no values; the table repaints them when the page
+ * arrives. Filtering and sorting are done by the database through {@link #setQuery}.
+ * Must only be used on the EDT.
+ */
+public class BookingTableModel extends AbstractTableModel {
+
+    static final int PAGE_SIZE = 100;
+    private static final int CACHED_PAGES = 20;
+
+    private static final String[] GUEST_COLUMNS =
+            {"ID", "Room Number", "Check-in Date", "Check-out Date", "Total Price", "Status"};
+    private static final BookingListQuery.SortColumn[] GUEST_SORT_COLUMNS = {
+            BookingListQuery.SortColumn.ID, BookingListQuery.SortColumn.ROOM_NUMBER,
+            BookingListQuery.SortColumn.CHECK_IN, BookingListQuery.SortColumn.CHECK_OUT,
+            BookingListQuery.SortColumn.TOTAL_PRICE, BookingListQuery.SortColumn.STATUS};
+
+    private static final String[] STAFF_COLUMNS =
+            {"ID", "Guest Name", "Room Number", "Check-in Date", "Check-out Date", "Total Price", "Status"};
+    private static final BookingListQuery.SortColumn[] STAFF_SORT_COLUMNS = {
+            BookingListQuery.SortColumn.ID, BookingListQuery.SortColumn.GUEST_NAME,
+            BookingListQuery.SortColumn.ROOM_NUMBER, BookingListQuery.SortColumn.CHECK_IN,
+            BookingListQuery.SortColumn.CHECK_OUT, BookingListQuery.SortColumn.TOTAL_PRICE,
+            BookingListQuery.SortColumn.STATUS};
+
+    private final BookingDAO bookingDAO;
+    private final Component owner;
+    private final String[] columns;
+    private final BookingListQuery.SortColumn[] sortColumns;
+    private final BackgroundLoader countLoader;
+
+    private BookingListQuery query = BookingListQuery.all();
+    private int rowCount;
+
+    // Bumped on every query change so pages of an older query are dropped
+    private long generation;
+
+    // Page number to rows, least recently used first
+    private final Map<Integer, List<Booking>> pages = new LinkedHashMap<>(CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Booking>> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+
+    // Page number to the key of its last row; kept after the page itself is evicted
+    private final TreeMap<Integer, BookingListQuery.Key> pageEnds = new TreeMap<>();
+
+    // Pages being fetched for the current query; a failed page is dropped so the next look at it retries
+    private final Set<Integer> requested = new HashSet<>();
+
+    // Whether a page fetch of the current query already failed, so a retry that fails again stays quiet
+    private boolean failureShown;
+
+    /**
+     * @param bookingDAO Source of the rows
+     * @param owner Component that shows the wait cursor and parents error dialogs
+     * @param guestView Whether to leave out the guest name column
+     */
+    public BookingTableModel(BookingDAO bookingDAO, Component owner, boolean guestView) {
+        this.bookingDAO = bookingDAO;
+        this.owner = owner;
+        this.columns = guestView ? GUEST_COLUMNS : STAFF_COLUMNS;
+        this.sortColumns = guestView ? GUEST_SORT_COLUMNS : STAFF_SORT_COLUMNS;
+        this.countLoader = new BackgroundLoader(owner, "loading bookings");
+    }
+
+    // Loader of the row count, whose indicator shows while a new query starts
+    public BackgroundLoader getLoader() {
+        return countLoader;
+    }
+
+    public BookingListQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Switches to a new filter and sort order, dropping every cached page,
+     * and loads the row count in the background
+     */
+    public void setQuery(BookingListQuery query) {
+        this.query = query;
+        generation++;
+        pages.clear();
+        pageEnds.clear();
+        requested.clear();
+        failureShown = false;
+        rowCount = 0;
+        fireTableDataChanged();
+
+        long current = generation;
+        countLoader.load(() -> bookingDAO.countBookings(query), count -> {
+            if (current == generation) {
+                rowCount = count;
+                fireTableDataChanged();
+            }
+        });
+    }
+
+    // Reloads the current query, e.g. after a booking changed
+    public void refresh() {
+        setQuery(query);
+    }
+
+    // Sort column behind a table column
+    public BookingListQuery.SortColumn getSortColumn(int column) {
+        return sortColumns[column];
+    }
+
+    // Booking shown in a row, or null while its page is loading
+    public Booking getBookingAt(int row) {
+        int page = row / PAGE_SIZE;
+        List<Booking> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        int offset = row % PAGE_SIZE;
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false; // Make table read-only
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Booking booking = getBookingAt(row);
+        if (booking == null) {
+            return null;
+        }
+
+        switch (sortColumns[column]) {
+            case ID:
+                return booking.getId();
+            case GUEST_NAME:
+                return booking.getGuestName();
+            case ROOM_NUMBER:
+                return booking.getRoomNumber();
+            case CHECK_IN:
+                return booking.getCheckInDate();
+            case CHECK_OUT:
+                return booking.getCheckOutDate();
+            case TOTAL_PRICE:
+                return String.format("$%.2f", booking.getTotalPrice());
+            default:
+                return booking.getStatus();
+        }
+    }
+
+    // Page rows plus the key of the row before them, when it had to be looked up
+    private static final class FetchedPage {
+        final List<Booking> rows;
+        final BookingListQuery.Key previousEnd;
+
+        FetchedPage(List<Booking> rows, BookingListQuery.Key previousEnd) {
+            this.rows = rows;
+            this.previousEnd = previousEnd;
+        }
+    }
+
+    // Fetch a page in the background unless it is already on its way
+    private void requestPage(int page) {
+        if (!requested.add(page)) {
+            return;
+        }
+
+        // Start from the nearest page end already known at or before the previous page
+        Map.Entry<Integer, BookingListQuery.Key> known = pageEnds.floorEntry(page - 1);
+        int knownPage = known != null ? known.getKey() : -1;
+        BookingListQuery.Key knownKey = known != null ? known.getValue() : null;
+        int skip = (page - 1 - knownPage) * PAGE_SIZE - 1;
+
+        BookingListQuery pageQuery = query;
+        long current = generation;
+
+        BackgroundLoader loader = new BackgroundLoader(owner, "loading bookings");
+        loader.load(() -> {
+            BookingListQuery.Key after = knownKey;
+            BookingListQuery.Key previousEnd = null;
+            if (skip >= 0) {
+                previousEnd = bookingDAO.findBookingKey(pageQuery, knownKey, skip);
+                after = previousEnd;
+                if (after == null) {
+                    return new FetchedPage(List.of(), null); // Rows were removed since the count
+                }
+            }
+            return new FetchedPage(bookingDAO.getBookingsPage(pageQuery, after, PAGE_SIZE), previousEnd);
+        }, fetched -> {
+            if (current != generation) {
+                return;
+            }
+            requested.remove(page);
+            pages.put(page, fetched.rows);
+            if (fetched.previousEnd != null) {
+                pageEnds.put(page - 1, fetched.previousEnd);
+            }
+            if (fetched.rows.size() == PAGE_SIZE) {
+                pageEnds.put(page, pageQuery.keyOf(fetched.rows.get(PAGE_SIZE - 1)));
+            }
+
+            int first = page * PAGE_SIZE;
+            int last = Math.min(rowCount, first + PAGE_SIZE) - 1;
+            if (first <= last) {
+                fireTableRowsUpdated(first, last);
+            }
+        }, e -> {
+            if (current != generation) {
+                return;
+            }
+            requested.remove(page);
+            if (!failureShown) {
+                failureShown = true;
+                loader.showError(e);
+            }
+        });
+    }
+}
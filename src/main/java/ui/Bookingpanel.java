@@ -1,20 +1,22 @@
 package ui;
 
+import dao.BookingDAO;
+import dao.BookingListQuery;
 import model.User;
 import model.Booking;
 import service.BookingService;
 import service.AuthenticationService;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableRowSorter;
+import javax.swing.table.TableColumn;
 import java.awt.*;
-import java.util.List;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 
 public class Bookingpanel extends JPanel {
     private User currentUser;
     private BookingService bookingService;
     private AuthenticationService authService;
-    private DefaultTableModel tableModel;
+    private BookingTableModel tableModel;
     private JTable bookingTable;
     private JButton checkInButton, checkOutButton, cancelButton, refreshButton;
     private JComboBox<String> statusFilter;
@@ -23,6 +25,7 @@ public class Bookingpanel extends JPanel {
         this.currentUser = currentUser;
         this.bookingService = new BookingService();
         this.authService = new AuthenticationService(new dao.UserDAO());
+        this.tableModel = new BookingTableModel(new BookingDAO(), this, "guest".equals(currentUser.getRole()));
         initializeUI();
         loadBookingData();
     }
@@ -75,25 +78,14 @@ public class Bookingpanel extends JPanel {
         refreshButton.addActionListener(e -> refreshData());
         topPanel.add(refreshButton);
 
+        JLabel loadingLabel = new JLabel("Loading...");
+        topPanel.add(loadingLabel);
+        tableModel.getLoader().withIndicator(loadingLabel);
+
         return topPanel;
     }
 
     private void createTable() {
-        String[] columns;
-
-        if ("guest".equals(currentUser.getRole())) {
-            columns = new String[]{"ID", "Room Number", "Check-in Date", "Check-out Date", "Total Price", "Status"};
-        } else {
-            columns = new String[]{"ID", "Guest Name", "Room Number", "Check-in Date", "Check-out Date", "Total Price", "Status"};
-        }
-
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table read-only
-            }
-        };
-
         bookingTable = new JTable(tableModel);
         bookingTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         bookingTable.setRowHeight(25);
@@ -104,9 +96,16 @@ public class Bookingpanel extends JPanel {
         bookingTable.getColumnModel().getColumn(0).setMaxWidth(0);
         bookingTable.getColumnModel().getColumn(0).setWidth(0);
 
-        // Add row sorter
-        TableRowSorter<DefaultTableModel> sorter = new TableRowSorter<>(tableModel);
-        bookingTable.setRowSorter(sorter);
+        // Sort in the database when a column header is clicked
+        bookingTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = bookingTable.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    sortByColumn(bookingTable.convertColumnIndexToModel(column));
+                }
+            }
+        });
 
         // Add selection listener for action buttons
         bookingTable.getSelectionModel().addListSelectionListener(e -> {
@@ -114,6 +113,9 @@ public class Bookingpanel extends JPanel {
                 updateButtonStates();
             }
         });
+        // The selected row may only just have been loaded
+        tableModel.addTableModelListener(e -> updateButtonStates());
+        updateSortIndicator();
     }
 
     private JPanel createBottomPanel() {
@@ -145,93 +147,49 @@ public class Bookingpanel extends JPanel {
     }
 
     public void loadBookingData() {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                List<Booking> bookings;
-
-                if ("guest".equals(currentUser.getRole())) {
-                    bookings = bookingService.getGuestBookings(currentUser.getUsername());
-                } else {
-                    bookings = bookingService.getAllBookings();
-                }
-
-                updateTableData(bookings);
-
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this, "Error loading bookings: " + e.getMessage(),
-                        "Error", JOptionPane.ERROR_MESSAGE);
-            }
-        });
-    }
-
-    private void updateTableData(List<Booking> bookings) {
-        tableModel.setRowCount(0); // Clear existing data
-
-        for (Booking booking : bookings) {
-            Object[] row;
-
-            if ("guest".equals(currentUser.getRole())) {
-                row = new Object[]{
-                        booking.getId(),
-                        booking.getRoomNumber(),
-                        booking.getCheckInDate(),
-                        booking.getCheckOutDate(),
-                        String.format("$%.2f", booking.getTotalPrice()),
-                        booking.getStatus()
-                };
-            } else {
-                row = new Object[]{
-                        booking.getId(),
-                        booking.getGuestName(),
-                        booking.getRoomNumber(),
-                        booking.getCheckInDate(),
-                        booking.getCheckOutDate(),
-                        String.format("$%.2f", booking.getTotalPrice()),
-                        booking.getStatus()
-                };
-            }
-
-            tableModel.addRow(row);
-        }
+        applyFilters();
     }
 
+    // Show the bookings matching the status filter; rows are fetched page by page as they scroll into view
     private void applyFilters() {
-        String selectedStatus = (String) statusFilter.getSelectedItem();
+        BookingListQuery query = tableModel.getQuery()
+                .withStatus((String) statusFilter.getSelectedItem())
+                .forGuest("guest".equals(currentUser.getRole()) ? currentUser.getUsername() : null);
+        tableModel.setQuery(query);
+    }
 
-        if ("All".equals(selectedStatus)) {
-            loadBookingData();
-            return;
-        }
+    // Sort by a column, flipping the direction when it is already the sort column
+    private void sortByColumn(int column) {
+        BookingListQuery query = tableModel.getQuery();
+        BookingListQuery.SortColumn sortColumn = tableModel.getSortColumn(column);
+        boolean descending = sortColumn == query.getSortColumn() && !query.isDescending();
 
-        try {
-            List<Booking> bookings;
+        tableModel.setQuery(query.sortedBy(sortColumn, descending));
+        updateSortIndicator();
+    }
 
-            if ("guest".equals(currentUser.getRole())) {
-                bookings = bookingService.getGuestBookings(currentUser.getUsername());
-            } else {
-                bookings = bookingService.getAllBookings();
+    // Mark the sorted column header with the sort direction
+    private void updateSortIndicator() {
+        BookingListQuery query = tableModel.getQuery();
+        for (int i = 0; i < tableModel.getColumnCount(); i++) {
+            TableColumn column = bookingTable.getColumnModel().getColumn(bookingTable.convertColumnIndexToView(i));
+            String name = tableModel.getColumnName(i);
+            if (tableModel.getSortColumn(i) == query.getSortColumn()) {
+                name += query.isDescending() ? " \u25BC" : " \u25B2";
             }
-
-            // Filter by status
-            bookings = bookings.stream()
-                    .filter(booking -> booking.getStatus().equals(selectedStatus))
-                    .toList();
-
-            updateTableData(bookings);
-
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error applying filters: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
+            column.setHeaderValue(name);
         }
+        bookingTable.getTableHeader().repaint();
     }
 
     private void updateButtonStates() {
         int selectedRow = bookingTable.getSelectedRow();
         boolean hasSelection = selectedRow != -1;
 
-        if (hasSelection) {
-            int modelRow = bookingTable.convertRowIndexToModel(selectedRow);
-            String status = getStatusFromTable(modelRow);
+        Booking booking = hasSelection ? tableModel.getBookingAt(selectedRow) : null;
+
+        if (booking != null) {
+            String status = booking.getStatus();
 
             if (checkInButton != null) {
                 checkInButton.setEnabled("Booked".equals(status));
@@ -251,52 +209,50 @@ public class Bookingpanel extends JPanel {
         }
     }
 
-    private String getStatusFromTable(int modelRow) {
-        int statusColumn = "guest".equals(currentUser.getRole()) ? 5 : 6;
-        return (String) tableModel.getValueAt(modelRow, statusColumn);
-    }
+    // Id of the selected booking, or -1 if none is selected or its row is still loading
+    private int getSelectedBookingId() {
+        int selectedRow = bookingTable.getSelectedRow();
+        if (selectedRow == -1) return -1;
 
-    private int getBookingIdFromTable(int modelRow) {
-        return (Integer) tableModel.getValueAt(modelRow, 0);
+        Booking booking = tableModel.getBookingAt(selectedRow);
+        return booking != null ? booking.getId() : -1;
     }
 
     private void processCheckIn() {
-        int selectedRow = bookingTable.getSelectedRow();
-        if (selectedRow == -1) return;
+        int bookingId = getSelectedBookingId();
+        if (bookingId == -1) return;
 
-        int modelRow = bookingTable.convertRowIndexToModel(selectedRow);
-        int bookingId = getBookingIdFromTable(modelRow);
-
-        if (bookingService.checkInGuest(bookingId)) {
-            JOptionPane.showMessageDialog(this, "Guest checked in successfully!",
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadBookingData();
-        } else {
-            JOptionPane.showMessageDialog(this, "Failed to check in guest.",
-                    "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        BackgroundLoader.submit(this, "checking in guest", () -> bookingService.checkInGuest(bookingId), success -> {
+            if (success) {
+                JOptionPane.showMessageDialog(this, "Guest checked in successfully!",
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+                loadBookingData();
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to check in guest.",
+                        "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
 
     private void processCheckOut() {
-        int selectedRow = bookingTable.getSelectedRow();
-        if (selectedRow == -1) return;
+        int bookingId = getSelectedBookingId();
+        if (bookingId == -1) return;
 
-        int modelRow = bookingTable.convertRowIndexToModel(selectedRow);
-        int bookingId = getBookingIdFromTable(modelRow);
-
-        if (bookingService.checkOutGuest(bookingId)) {
-            JOptionPane.showMessageDialog(this, "Guest checked out successfully!",
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadBookingData();
-        } else {
-            JOptionPane.showMessageDialog(this, "Failed to check out guest.",
-                    "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        BackgroundLoader.submit(this, "checking out guest", () -> bookingService.checkOutGuest(bookingId), success -> {
+            if (success) {
+                JOptionPane.showMessageDialog(this, "Guest checked out successfully!",
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+                loadBookingData();
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to check out guest.",
+                        "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
 
     private void cancelBooking() {
-        int selectedRow = bookingTable.getSelectedRow();
-        if (selectedRow == -1) return;
+        int bookingId = getSelectedBookingId();
+        if (bookingId == -1) return;
 
         int result = JOptionPane.showConfirmDialog(this,
                 "Are you sure you want to cancel this booking?",
@@ -305,22 +261,21 @@ public class Bookingpanel extends JPanel {
                 JOptionPane.WARNING_MESSAGE);
 
         if (result == JOptionPane.YES_OPTION) {
-            int modelRow = bookingTable.convertRowIndexToModel(selectedRow);
-            int bookingId = getBookingIdFromTable(modelRow);
-
-            if (bookingService.cancelBooking(bookingId)) {
-                JOptionPane.showMessageDialog(this, "Booking cancelled successfully!",
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadBookingData();
-            } else {
-                JOptionPane.showMessageDialog(this, "Failed to cancel booking.",
-                        "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            BackgroundLoader.submit(this, "cancelling booking", () -> bookingService.cancelBooking(bookingId), success -> {
+                if (success) {
+                    JOptionPane.showMessageDialog(this, "Booking cancelled successfully!",
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                    loadBookingData();
+                } else {
+                    JOptionPane.showMessageDialog(this, "Failed to cancel booking.",
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
     public void refreshData() {
-        loadBookingData();
         statusFilter.setSelectedItem("All");
+        loadBookingData();
     }
 }
\ No newline at end of file
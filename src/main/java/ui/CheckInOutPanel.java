@@ -16,9 +16,11 @@ public class CheckInOutPanel extends JPanel {
     private JButton loadButton, processButton, clearButton;
 
     private Booking currentBooking;
+    private BackgroundLoader bookingLoader;
 
     public CheckInOutPanel() {
         this.bookingService = new BookingService();
+        this.bookingLoader = new BackgroundLoader(this, "loading booking");
         initializeUI();
     }
 
@@ -186,29 +188,34 @@ public class CheckInOutPanel extends JPanel {
             return;
         }
 
+        int bookingId;
         try {
-            int bookingId = Integer.parseInt(bookingIdText);
-            currentBooking = bookingService.getBookingById(bookingId);
+            bookingId = Integer.parseInt(bookingIdText);
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Please enter a valid booking ID (numbers only)",
+                    "Invalid Input", JOptionPane.ERROR_MESSAGE);
+            bookingIdField.requestFocus();
+            return;
+        }
+
+        processButton.setEnabled(false);
+        bookingLoader.load(() -> bookingService.getBookingById(bookingId), booking -> {
+            currentBooking = booking;
 
             if (currentBooking != null) {
                 populateBookingDetails(currentBooking);
-                updateActionAvailability();
                 processButton.setEnabled(true);
+                updateActionAvailability();
             } else {
                 JOptionPane.showMessageDialog(this, "Booking not found with ID: " + bookingId,
                         "Booking Not Found", JOptionPane.ERROR_MESSAGE);
                 clearBookingDetails();
             }
-
-        } catch (NumberFormatException e) {
-            JOptionPane.showMessageDialog(this, "Please enter a valid booking ID (numbers only)",
-                    "Invalid Input", JOptionPane.ERROR_MESSAGE);
-            bookingIdField.requestFocus();
-        } catch (Exception e) {
+        }, e -> {
             JOptionPane.showMessageDialog(this, "Error loading booking: " + e.getMessage(),
                     "Error", JOptionPane.ERROR_MESSAGE);
             clearBookingDetails();
-        }
+        });
     }
 
     private void populateBookingDetails(Booking booking) {
@@ -292,15 +299,12 @@ public class CheckInOutPanel extends JPanel {
                 JOptionPane.YES_NO_OPTION);
 
         if (result == JOptionPane.YES_OPTION) {
-            boolean success = false;
-
-            try {
-                if ("Check In".equals(action)) {
-                    success = bookingService.checkInGuest(currentBooking.getId());
-                } else if ("Check Out".equals(action)) {
-                    success = bookingService.checkOutGuest(currentBooking.getId());
-                }
+            int bookingId = currentBooking.getId();
+            processButton.setEnabled(false);
 
+            new BackgroundLoader(this, "processing " + action.toLowerCase()).load(() ->
+                    "Check In".equals(action) ? bookingService.checkInGuest(bookingId)
+                            : bookingService.checkOutGuest(bookingId), success -> {
                 if (success) {
                     JOptionPane.showMessageDialog(this,
                             action + " processed successfully!",
@@ -309,20 +313,22 @@ public class CheckInOutPanel extends JPanel {
                     // Reload booking details to show updated status
                     loadBookingDetails();
                 } else {
+                    processButton.setEnabled(true);
                     JOptionPane.showMessageDialog(this,
                             "Failed to process " + action.toLowerCase() + ". Please try again.",
                             "Error", JOptionPane.ERROR_MESSAGE);
                 }
-
-            } catch (Exception e) {
+            }, e -> {
+                processButton.setEnabled(true);
                 JOptionPane.showMessageDialog(this,
                         "Error processing " + action.toLowerCase() + ": " + e.getMessage(),
                         "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         }
     }
 
     private void clearFields() {
+        bookingLoader.cancel();
         bookingIdField.setText("");
         clearBookingDetails();
         currentBooking = null;
@@ -21,6 +21,7 @@ public class DashboardPanel extends JPanel {
     private Bookingpanel bookingsPanel;
     private UsersPanel usersPanel;
     private ReportsPanel reportsPanel;
+    private DiagnosticsPanel diagnosticsPanel;
 
     public DashboardPanel(User user) {
         this.currentUser = user;
@@ -171,6 +172,9 @@ public class DashboardPanel extends JPanel {
 
             reportsPanel = new ReportsPanel();
             tabbedPane.addTab("Reports", createTabIcon("📊"), reportsPanel, "View system reports");
+
+            diagnosticsPanel = new DiagnosticsPanel();
+            tabbedPane.addTab("Diagnostics", createTabIcon("🩺"), diagnosticsPanel, "UI stalls and slow queries");
         }
     }
 
@@ -195,6 +199,7 @@ public class DashboardPanel extends JPanel {
         if (bookingsPanel != null) bookingsPanel.refreshData();
         if (usersPanel != null) usersPanel.refreshData();
         if (reportsPanel != null) reportsPanel.refreshData();
+        if (diagnosticsPanel != null) diagnosticsPanel.refreshData();
     }
 
     public void setLogoutListener(ActionListener listener) {
@@ -218,4 +223,5 @@ public class DashboardPanel extends JPanel {
     public Bookingpanel getBookingsPanel() { return bookingsPanel; }
     public UsersPanel getUsersPanel() { return usersPanel; }
     public ReportsPanel getReportsPanel() { return reportsPanel; }
+    public DiagnosticsPanel getDiagnosticsPanel() { return diagnosticsPanel; }
 }
\ No newline at end of file
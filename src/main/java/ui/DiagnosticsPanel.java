@@ -0,0 +1,205 @@
+package ui;
+
+import dao.SqlMetrics;
+import utill.FlightRecording;
+import utill.LatencyHistogram;
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.io.File;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Admin view of the application's health: recent freezes of the user interface
+ * reported by {@link EdtWatchdog}, with the EDT stack of the selected one, and the
+ * SQL statements that took the most time ({@link SqlMetrics}). The flight recording
+ * can be saved from here to attach to an incident report.
+ */
+public class DiagnosticsPanel extends JPanel {
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+    private static final int STATEMENT_LIMIT = 50;
+
+    private DefaultTableModel stallModel;
+    private DefaultTableModel statementModel;
+    private JTable stallTable;
+    private JTextArea stackArea;
+    private JLabel stallSummaryLabel;
+    private List<EdtWatchdog.Stall> stalls = List.of();
+
+    public DiagnosticsPanel() {
+        initializeUI();
+        refreshData();
+    }
+
+    private void initializeUI() {
+        setLayout(new BorderLayout());
+        setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        JTabbedPane sections = new JTabbedPane();
+        sections.addTab("UI Stalls", createStallPanel());
+        sections.addTab("SQL Statements", createStatementPanel());
+        add(sections, BorderLayout.CENTER);
+
+        JPanel bottomPanel = new JPanel(new FlowLayout());
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> refreshData());
+        bottomPanel.add(refreshButton);
+
+        JButton recordingButton = new JButton("Save Flight Recording...");
+        recordingButton.addActionListener(e -> saveFlightRecording());
+        bottomPanel.add(recordingButton);
+        add(bottomPanel, BorderLayout.SOUTH);
+    }
+
+    private JPanel createStallPanel() {
+        JPanel panel = new JPanel(new BorderLayout(0, 10));
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        stallSummaryLabel = new JLabel();
+        panel.add(stallSummaryLabel, BorderLayout.NORTH);
+
+        stallModel = new DefaultTableModel() {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        stallModel.addColumn("Started");
+        stallModel.addColumn("Duration");
+        stallModel.addColumn("Panel / Action");
+        stallModel.addColumn("Blocked In");
+
+        stallTable = new JTable(stallModel);
+        stallTable.setRowHeight(25);
+        stallTable.getTableHeader().setReorderingAllowed(false);
+        stallTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        stallTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                showStack();
+            }
+        });
+
+        stackArea = new JTextArea();
+        stackArea.setEditable(false);
+        stackArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+
+        JScrollPane stackPane = new JScrollPane(stackArea);
+        stackPane.setBorder(BorderFactory.createTitledBorder("EDT Stack"));
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(stallTable), stackPane);
+        split.setResizeWeight(0.4);
+        panel.add(split, BorderLayout.CENTER);
+        return panel;
+    }
+
+    private JPanel createStatementPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        statementModel = new DefaultTableModel() {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        statementModel.addColumn("Calls");
+        statementModel.addColumn("Errors");
+        statementModel.addColumn("Rows");
+        statementModel.addColumn("Mean");
+        statementModel.addColumn("p99");
+        statementModel.addColumn("Max");
+        statementModel.addColumn("Total");
+        statementModel.addColumn("Statement");
+
+        JTable statementTable = new JTable(statementModel);
+        statementTable.setRowHeight(25);
+        statementTable.getTableHeader().setReorderingAllowed(false);
+        statementTable.getColumnModel().getColumn(7).setPreferredWidth(500);
+
+        panel.add(new JScrollPane(statementTable), BorderLayout.CENTER);
+        return panel;
+    }
+
+    // Everything shown here is held in memory, so it is read directly on the EDT
+    public void refreshData() {
+        loadStalls();
+        loadStatements();
+    }
+
+    private void loadStalls() {
+        EdtWatchdog watchdog = EdtWatchdog.getInstance();
+        stallModel.setRowCount(0);
+        stackArea.setText("");
+        if (watchdog == null) {
+            stalls = List.of();
+            stallSummaryLabel.setText("The EDT watchdog is off (ui.stallThresholdMillis=0)");
+            return;
+        }
+
+        stalls = watchdog.getRecentStalls();
+        stallSummaryLabel.setText(watchdog.getStallCount() + " stalls over " +
+                watchdog.getThresholdMillis() + " ms since startup; the latest " + stalls.size() + " are listed");
+        for (EdtWatchdog.Stall stall : stalls) {
+            stallModel.addRow(new Object[]{
+                    TIME.format(stall.getStart()),
+                    stall.getDurationMillis() + " ms" + (stall.isOngoing() ? " (ongoing)" : ""),
+                    stall.getLocation(),
+                    stall.getBlockedIn()
+            });
+        }
+    }
+
+    private void showStack() {
+        int row = stallTable.getSelectedRow();
+        if (row < 0 || row >= stalls.size()) {
+            stackArea.setText("");
+            return;
+        }
+        stackArea.setText(stalls.get(row).getStackText());
+        stackArea.setCaretPosition(0);
+    }
+
+    private void loadStatements() {
+        statementModel.setRowCount(0);
+        int shown = 0;
+        for (SqlMetrics.StatementStats stats : SqlMetrics.getStatementStats()) {
+            if (shown++ == STATEMENT_LIMIT) {
+                break;
+            }
+            LatencyHistogram latency = stats.getLatency();
+            statementModel.addRow(new Object[]{
+                    stats.getCalls(),
+                    stats.getErrors(),
+                    stats.getRows(),
+                    LatencyHistogram.format((long) latency.getMeanNanos()),
+                    LatencyHistogram.format(latency.getValueAtPercentile(99)),
+                    LatencyHistogram.format(latency.getMaxNanos()),
+                    LatencyHistogram.format(stats.getTotalNanos()),
+                    stats.getTemplate()
+            });
+        }
+    }
+
+    private void saveFlightRecording() {
+        if (!FlightRecording.isRunning()) {
+            JOptionPane.showMessageDialog(this, "The flight recording is not running (jfr.enabled=false).",
+                    "Flight Recording", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("hotel-" + System.currentTimeMillis() + ".jfr"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+
+        BackgroundLoader.submit(this, "saving the flight recording", () -> FlightRecording.dump(file),
+                saved -> JOptionPane.showMessageDialog(this, "Flight recording saved to " + saved,
+                        "Flight Recording", JOptionPane.INFORMATION_MESSAGE));
+    }
+}
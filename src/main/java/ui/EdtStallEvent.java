@@ -0,0 +1,31 @@
+package ui;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a stall of the Event Dispatch Thread detected by
+ * {@link EdtWatchdog}. The event starts when the stall is detected, one threshold
+ * after the EDT stopped responding; stallDuration is the whole stall.
+ */
+@Name("hotel.EdtStall")
+@Label("EDT Stall")
+@Category({"Hotel", "UI"})
+@Description("The Event Dispatch Thread did not process events for longer than the watchdog threshold")
+class EdtStallEvent extends jdk.jfr.Event {
+
+    @Label("Location")
+    @Description("Panel code the EDT was running")
+    String location;
+
+    @Label("Blocked In")
+    @Description("Innermost application frame when the stall was detected")
+    String blockedIn;
+
+    @Label("Stall Duration")
+    @Timespan(Timespan.MILLISECONDS)
+    long stallDuration;
+}
@@ -0,0 +1,224 @@
+package ui;
+
+import utill.Log;
+
+import javax.swing.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects freezes of the user interface: periods in which the Event Dispatch Thread
+ * does not process events, typically because a listener runs a database call on it.
+ *
+ * A daemon thread posts a heartbeat to the EDT several times per threshold. When a
+ * heartbeat has waited longer than the threshold the EDT is stalled: its stack is
+ * captured, the panel code it is stuck in is picked from the stack, and the stall is
+ * logged and kept, with its final duration once the EDT recovers, in a ring buffer of
+ * the most recent stalls. Stalls are also {@link EdtStallEvent}s for the flight recorder.
+ * Admins see them in the Diagnostics tab ({@link DiagnosticsPanel}).
+ */
+public final class EdtWatchdog {
+
+    private static final Log LOGGER = Log.get(EdtWatchdog.class);
+
+    private static final int HISTORY = 50;
+    private static final String[] APP_PACKAGES = {"ui.", "service.", "dao.", "model.", "utill.", "main."};
+
+    private static EdtWatchdog instance;
+
+    /**
+     * One stall of the EDT
+     */
+    public static final class Stall {
+        private final Instant start;
+        private final String location;
+        private final String blockedIn;
+        private final StackTraceElement[] stack;
+        private volatile long durationMillis;
+        private volatile boolean ongoing = true;
+        private EdtStallEvent event;
+
+        private Stall(Instant start, long durationMillis, StackTraceElement[] stack) {
+            this.start = start;
+            this.durationMillis = durationMillis;
+            this.stack = stack;
+            this.location = firstFrame(stack, "ui.");
+            this.blockedIn = firstFrame(stack, APP_PACKAGES);
+        }
+
+        public Instant getStart() { return start; }
+
+        // Panel code the EDT was running, e.g. "RoomsPanel.applyFilters(RoomsPanel.java:170)"
+        public String getLocation() { return location; }
+
+        // Innermost application frame, e.g. the DAO method waiting on the database
+        public String getBlockedIn() { return blockedIn; }
+
+        // EDT stack when the stall was detected
+        public StackTraceElement[] getStack() { return stack.clone(); }
+
+        // Duration so far while ongoing, the full duration afterwards
+        public long getDurationMillis() { return durationMillis; }
+
+        public boolean isOngoing() { return ongoing; }
+
+        public String getStackText() {
+            StringBuilder text = new StringBuilder();
+            for (StackTraceElement frame : stack) {
+                text.append("    at ").append(frame).append('\n');
+            }
+            return text.toString();
+        }
+    }
+
+    private final long thresholdMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Stall[] history = new Stall[HISTORY];
+    private int next;
+    private long stallCount;
+
+    // Guarded by this; shared by the watchdog thread and the EDT
+    private long heartbeatPostedAt;
+    private Thread edt;
+    private Stall current;
+
+    private EdtWatchdog(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "edt-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(10, thresholdMillis / 5);
+        scheduler.scheduleAtFixedRate(this::check, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts watching the EDT, once per application
+     *
+     * @param thresholdMillis How long the EDT may go without processing events before it counts as stalled
+     * @return The running watchdog
+     */
+    public static synchronized EdtWatchdog start(long thresholdMillis) {
+        if (instance == null) {
+            instance = new EdtWatchdog(Math.max(50, thresholdMillis));
+            LOGGER.info("EDT watchdog started (threshold {} ms)", instance.thresholdMillis);
+        }
+        return instance;
+    }
+
+    // The running watchdog, or null if it was not started
+    public static synchronized EdtWatchdog getInstance() {
+        return instance;
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    // Stalls since startup, including those no longer in the history
+    public synchronized long getStallCount() {
+        return stallCount;
+    }
+
+    // Most recent stalls, newest first
+    public synchronized List<Stall> getRecentStalls() {
+        List<Stall> stalls = new ArrayList<>(HISTORY);
+        for (int i = 1; i <= HISTORY; i++) {
+            Stall stall = history[Math.floorMod(next - i, HISTORY)];
+            if (stall == null) {
+                break;
+            }
+            stalls.add(stall);
+        }
+        return stalls;
+    }
+
+    // Watchdog thread: post a heartbeat, or report the EDT stalled if the last one is overdue
+    private void check() {
+        try {
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                if (heartbeatPostedAt == 0) {
+                    heartbeatPostedAt = now;
+                    SwingUtilities.invokeLater(this::heartbeat);
+                    return;
+                }
+
+                long waited = now - heartbeatPostedAt;
+                if (current != null) {
+                    current.durationMillis = waited;
+                } else if (waited > thresholdMillis && edt != null) {
+                    stalled(heartbeatPostedAt, waited);
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warning("EDT watchdog check failed", e);
+        }
+    }
+
+    // EDT: the heartbeat got through, so any stall is over
+    private void heartbeat() {
+        Stall stall;
+        synchronized (this) {
+            edt = Thread.currentThread();
+            stall = current;
+            if (stall != null) {
+                stall.durationMillis = System.currentTimeMillis() - heartbeatPostedAt;
+                stall.ongoing = false;
+                current = null;
+            }
+            heartbeatPostedAt = 0;
+        }
+        if (stall != null) {
+            commit(stall);
+            LOGGER.warning("EDT stall in {} ended after {} ms", stall.location, stall.durationMillis);
+        }
+    }
+
+    // Called with the lock held
+    private void stalled(long startedAt, long waited) {
+        Stall stall = new Stall(Instant.ofEpochMilli(startedAt), waited, edt.getStackTrace());
+        stall.event = new EdtStallEvent();
+        stall.event.begin();
+        history[next] = stall;
+        next = (next + 1) % HISTORY;
+        stallCount++;
+        current = stall;
+        LOGGER.warning("EDT stalled for {} ms in {}, blocked in {}\n{}",
+                waited, stall.location, stall.blockedIn, stall.getStackText());
+    }
+
+    private static void commit(Stall stall) {
+        EdtStallEvent event = stall.event;
+        event.end();
+        if (event.shouldCommit()) {
+            event.location = stall.location;
+            event.blockedIn = stall.blockedIn;
+            event.stallDuration = stall.durationMillis;
+            event.commit();
+        }
+    }
+
+    // First frame of the stack in one of the packages, or "(unknown)"
+    private static String firstFrame(StackTraceElement[] stack, String... packages) {
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (className.equals(EdtWatchdog.class.getName())) {
+                continue;
+            }
+            for (String prefix : packages) {
+                if (className.startsWith(prefix)) {
+                    String simpleName = className.substring(className.lastIndexOf('.') + 1);
+                    return simpleName + "." + frame.getMethodName() +
+                            "(" + frame.getFileName() + ":" + frame.getLineNumber() + ")";
+                }
+            }
+        }
+        return "(unknown)";
+    }
+}
@@ -147,6 +147,11 @@ public class LoginPanel extends BackgroundPanel {
         return authenticatedUser;
     }
 
+    // Service holding the session of the user who logged in here
+    public AuthenticationService getAuthService() {
+        return authService;
+    }
+
     public void setLoginSuccessListener(ActionListener listener) {
         this.loginSuccessListener = listener;
     }
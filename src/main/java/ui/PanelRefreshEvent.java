@@ -0,0 +1,37 @@
+package ui;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for one {@link BackgroundLoader} load, from the request on the
+ * EDT until its result has been applied on the EDT
+ */
+@Name("hotel.PanelRefresh")
+@Label("Panel Refresh")
+@Category({"Hotel", "UI"})
+@Description("A panel loading data in the background and showing it")
+class PanelRefreshEvent extends jdk.jfr.Event {
+
+    @Label("Panel")
+    String panel;
+
+    @Label("Description")
+    String description;
+
+    @Label("Outcome")
+    @Description("loaded, failed or superseded by a newer load")
+    String outcome;
+
+    @Label("Rows")
+    @Description("Items in the loaded collection; -1 if the result is not a collection")
+    int rows;
+
+    @Label("Background Time")
+    @Description("Time spent running the task off the EDT")
+    @Timespan(Timespan.NANOSECONDS)
+    long backgroundTime;
+}
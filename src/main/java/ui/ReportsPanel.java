@@ -1,15 +1,21 @@
 package ui;
 
+import dao.BusinessClock;
 import dao.RoomDAO;
 import dao.PaymentDAO;
 import dao.BookingDAO;
+import model.MonthlyReport;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 public class ReportsPanel extends JPanel {
+    // Months shown in the monthly revenue report, ending with the current one
+    private static final int REPORT_MONTHS = 12;
+
     private RoomDAO roomDAO;
     private PaymentDAO paymentDAO;
     private BookingDAO bookingDAO;
@@ -18,11 +24,15 @@ public class ReportsPanel extends JPanel {
     private JLabel totalBookingsLabel;
     private JLabel totalRevenueLabel;
     private JLabel todayRevenueLabel;
+    private DefaultTableModel occupancyModel;
+    private DefaultTableModel revenueModel;
+    private BackgroundLoader reportLoader;
 
     public ReportsPanel() {
         this.roomDAO = new RoomDAO();
         this.paymentDAO = new PaymentDAO();
         this.bookingDAO = new BookingDAO();
+        this.reportLoader = new BackgroundLoader(this, "loading report data");
         initializeUI();
         loadReportData();
     }
@@ -53,6 +63,10 @@ public class ReportsPanel extends JPanel {
         JButton refreshButton = new JButton("Refresh Reports");
         refreshButton.addActionListener(e -> refreshData());
         bottomPanel.add(refreshButton);
+
+        JLabel loadingLabel = new JLabel("Loading...");
+        bottomPanel.add(loadingLabel);
+        reportLoader.withIndicator(loadingLabel);
         add(bottomPanel, BorderLayout.SOUTH);
     }
 
@@ -109,7 +123,7 @@ public class ReportsPanel extends JPanel {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBorder(BorderFactory.createTitledBorder("Room Occupancy Report"));
 
-        DefaultTableModel occupancyModel = new DefaultTableModel();
+        occupancyModel = new DefaultTableModel();
         occupancyModel.addColumn("Room Status");
         occupancyModel.addColumn("Count");
         occupancyModel.addColumn("Percentage");
@@ -121,20 +135,20 @@ public class ReportsPanel extends JPanel {
         JScrollPane scrollPane = new JScrollPane(occupancyTable);
         panel.add(scrollPane, BorderLayout.CENTER);
 
-        // Load occupancy data
-        loadOccupancyData(occupancyModel);
-
         return panel;
     }
 
     private JPanel createRevenuePanel() {
         JPanel panel = new JPanel(new BorderLayout());
-        panel.setBorder(BorderFactory.createTitledBorder("Monthly Revenue Report"));
+        panel.setBorder(BorderFactory.createTitledBorder("Monthly Revenue Report (last " + REPORT_MONTHS + " months)"));
 
-        DefaultTableModel revenueModel = new DefaultTableModel();
+        revenueModel = new DefaultTableModel();
         revenueModel.addColumn("Month");
-        revenueModel.addColumn("Revenue");
-        revenueModel.addColumn("Bookings");
+        revenueModel.addColumn("Payments Received");
+        revenueModel.addColumn("Check-ins");
+        revenueModel.addColumn("Nights Sold");
+        revenueModel.addColumn("Booked Value");
+        revenueModel.addColumn("Avg. Daily Rate");
 
         JTable revenueTable = new JTable(revenueModel);
         revenueTable.setRowHeight(25);
@@ -143,109 +157,73 @@ public class ReportsPanel extends JPanel {
         JScrollPane scrollPane = new JScrollPane(revenueTable);
         panel.add(scrollPane, BorderLayout.CENTER);
 
-        // Load revenue data
-        loadRevenueData(revenueModel);
-
         return panel;
     }
 
-    private void loadOccupancyData(DefaultTableModel model) {
-        try {
-            Map<String, Integer> statistics = roomDAO.getRoomStatistics();
-            int totalRooms = roomDAO.getTotalRoomCount();
-
-            model.setRowCount(0); // Clear existing data
+    // Fill the occupancy table from the room statistics
+    private void showOccupancyData(Map<String, Integer> statistics, int totalRooms) {
+        occupancyModel.setRowCount(0); // Clear existing data
 
-            for (Map.Entry<String, Integer> entry : statistics.entrySet()) {
-                String status = entry.getKey();
-                int count = entry.getValue();
-                double percentage = totalRooms > 0 ? (count * 100.0 / totalRooms) : 0;
+        for (Map.Entry<String, Integer> entry : statistics.entrySet()) {
+            String status = entry.getKey();
+            int count = entry.getValue();
+            double percentage = totalRooms > 0 ? (count * 100.0 / totalRooms) : 0;
 
-                model.addRow(new Object[]{
-                        status,
-                        count,
-                        String.format("%.1f%%", percentage)
-                });
-            }
-
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading occupancy data: " + e.getMessage(),
-                    "Database Error", JOptionPane.ERROR_MESSAGE);
+            occupancyModel.addRow(new Object[]{
+                    status,
+                    count,
+                    String.format("%.1f%%", percentage)
+            });
         }
     }
 
-    private void loadRevenueData(DefaultTableModel model) {
-        try {
-            Map<String, Double> revenueByMonth = paymentDAO.getRevenueByMonth();
-
-            model.setRowCount(0); // Clear existing data
-
-            for (Map.Entry<String, Double> entry : revenueByMonth.entrySet()) {
-                String month = entry.getKey();
-                double revenue = entry.getValue();
-
-                // Get booking count for the month (this would require additional DAO method)
-                // For now, we'll show "-" as placeholder
-
-                model.addRow(new Object[]{
-                        month,
-                        String.format("$%.2f", revenue),
-                        "-" // Placeholder for booking count
-                });
-            }
-
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading revenue data: " + e.getMessage(),
-                    "Database Error", JOptionPane.ERROR_MESSAGE);
+    // Fill the revenue table from the monthly report
+    private void showRevenueData(List<MonthlyReport> monthlyReport) {
+        revenueModel.setRowCount(0); // Clear existing data
+
+        for (MonthlyReport month : monthlyReport) {
+            revenueModel.addRow(new Object[]{
+                    month.getMonth(),
+                    String.format("$%.2f", month.getRevenue()),
+                    month.getBookingCount(),
+                    month.getNightsSold(),
+                    String.format("$%.2f", month.getBookedValue()),
+                    String.format("$%.2f", month.getAverageDailyRate())
+            });
         }
     }
 
-    public void loadReportData() {
-        try {
-            // Load summary data
-            int totalRooms = roomDAO.getTotalRoomCount();
-            totalRoomsLabel.setText(String.valueOf(totalRooms));
-
-            int totalBookings = bookingDAO.getTotalBookingCount();
-            totalBookingsLabel.setText(String.valueOf(totalBookings));
+    // Everything shown on the panel, queried together in the background
+    private record ReportData(int totalRooms, int totalBookings, double totalRevenue, double todayRevenue,
+                              Map<String, Integer> roomStatistics, List<MonthlyReport> monthlyReport) {
+    }
 
-            double totalRevenue = paymentDAO.getTotalRevenue();
-            totalRevenueLabel.setText(String.format("$%.2f", totalRevenue));
+    public void loadReportData() {
+        reportLoader.load(() -> {
+            LocalDate firstOfMonth = BusinessClock.today().withDayOfMonth(1);
+            return new ReportData(
+                    roomDAO.getTotalRoomCount(),
+                    bookingDAO.getTotalBookingCount(),
+                    paymentDAO.getTotalRevenue(),
+                    paymentDAO.getTodayRevenue(),
+                    roomDAO.getRoomStatistics(),
+                    bookingDAO.getMonthlyReport(firstOfMonth.minusMonths(REPORT_MONTHS - 1), firstOfMonth.plusMonths(1)));
+        }, this::showReportData);
+    }
 
-            double todayRevenue = paymentDAO.getTodayRevenue();
-            todayRevenueLabel.setText(String.format("$%.2f", todayRevenue));
+    private void showReportData(ReportData data) {
+        // Summary data
+        totalRoomsLabel.setText(String.valueOf(data.totalRooms()));
+        totalBookingsLabel.setText(String.valueOf(data.totalBookings()));
+        totalRevenueLabel.setText(String.format("$%.2f", data.totalRevenue()));
+        todayRevenueLabel.setText(String.format("$%.2f", data.todayRevenue()));
 
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading report data: " + e.getMessage(),
-                    "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        // Table data
+        showOccupancyData(data.roomStatistics(), data.totalRooms());
+        showRevenueData(data.monthlyReport());
     }
 
     public void refreshData() {
         loadReportData();
-
-        // Refresh table data
-        Component[] components = ((JPanel) ((BorderLayout) getLayout()).getLayoutComponent(BorderLayout.CENTER)).getComponents();
-        for (Component component : components) {
-            if (component instanceof JPanel) {
-                JPanel panel = (JPanel) component;
-                Component[] panelComponents = panel.getComponents();
-                for (Component panelComponent : panelComponents) {
-                    if (panelComponent instanceof JScrollPane) {
-                        JScrollPane scrollPane = (JScrollPane) panelComponent;
-                        JTable table = (JTable) scrollPane.getViewport().getView();
-                        DefaultTableModel model = (DefaultTableModel) table.getModel();
-
-                        if (panel.getBorder() != null &&
-                                ((javax.swing.border.TitledBorder) panel.getBorder()).getTitle().contains("Occupancy")) {
-                            loadOccupancyData(model);
-                        } else if (panel.getBorder() != null &&
-                                ((javax.swing.border.TitledBorder) panel.getBorder()).getTitle().contains("Revenue")) {
-                            loadRevenueData(model);
-                        }
-                    }
-                }
-            }
-        }
     }
-}
\ No newline at end of file
+}
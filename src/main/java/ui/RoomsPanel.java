@@ -1,5 +1,6 @@
 package ui;
 
+import dao.RoomCache;
 import dao.RoomDAO;
 import model.Room;
 import model.User;
@@ -7,20 +8,23 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableRowSorter;
 import java.awt.*;
-import java.sql.SQLException;
 import java.util.List;
 
 public class RoomsPanel extends JPanel {
     private User currentUser;
     private RoomDAO roomDAO;
+    private RoomCache roomCache;
     private DefaultTableModel tableModel;
     private JTable roomTable;
     private JButton addButton, editButton, deleteButton, refreshButton;
     private JComboBox<String> statusFilter, typeFilter;
+    private BackgroundLoader roomsLoader;
 
     public RoomsPanel(User currentUser) {
         this.currentUser = currentUser;
         this.roomDAO = new RoomDAO();
+        this.roomCache = RoomCache.getInstance();
+        this.roomsLoader = new BackgroundLoader(this, "loading rooms");
         initializeUI();
         loadRoomData();
     }
@@ -72,6 +76,10 @@ public class RoomsPanel extends JPanel {
         refreshButton.addActionListener(e -> refreshData());
         topPanel.add(refreshButton);
 
+        JLabel loadingLabel = new JLabel("Loading...");
+        topPanel.add(loadingLabel);
+        roomsLoader.withIndicator(loadingLabel);
+
         return topPanel;
     }
 
@@ -151,13 +159,7 @@ public class RoomsPanel extends JPanel {
     }
 
     public void loadRoomData() {
-        try {
-            List<Room> rooms = roomDAO.getAllRooms();
-            updateTableData(rooms);
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading rooms: " + e.getMessage(),
-                    "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        applyFilters();
     }
 
     private void updateTableData(List<Room> rooms) {
@@ -175,12 +177,13 @@ public class RoomsPanel extends JPanel {
         }
     }
 
+    // Load the rooms matching the current filters in the background
     private void applyFilters() {
-        try {
-            List<Room> rooms = roomDAO.getAllRooms();
+        String selectedStatus = (String) statusFilter.getSelectedItem();
+        String selectedType = (String) typeFilter.getSelectedItem();
 
-            String selectedStatus = (String) statusFilter.getSelectedItem();
-            String selectedType = (String) typeFilter.getSelectedItem();
+        roomsLoader.load(() -> {
+            List<Room> rooms = roomCache.getAllRooms();
 
             // Filter by status
             if (!"All".equals(selectedStatus)) {
@@ -196,12 +199,8 @@ public class RoomsPanel extends JPanel {
                         .toList();
             }
 
-            updateTableData(rooms);
-
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error applying filters: " + e.getMessage(),
-                    "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+            return rooms;
+        }, this::updateTableData);
     }
 
     private void showAddRoomDialog() {
@@ -210,15 +209,11 @@ public class RoomsPanel extends JPanel {
 
         if (dialog.isConfirmed()) {
             Room newRoom = dialog.getRoom();
-            try {
-                roomDAO.saveRoom(newRoom);
+            BackgroundLoader.submit(this, "adding room", () -> roomDAO.saveRoom(newRoom), roomId -> {
                 loadRoomData(); // Refresh table
                 JOptionPane.showMessageDialog(this, "Room added successfully!",
                         "Success", JOptionPane.INFORMATION_MESSAGE);
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "Error adding room: " + e.getMessage(),
-                        "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         }
     }
 
@@ -233,8 +228,7 @@ public class RoomsPanel extends JPanel {
         int modelRow = roomTable.convertRowIndexToModel(selectedRow);
         int roomId = (Integer) tableModel.getValueAt(modelRow, 0);
 
-        try {
-            Room room = roomDAO.getRoomById(roomId);
+        BackgroundLoader.submit(this, "loading room", () -> roomCache.getRoomById(roomId), room -> {
             if (room != null) {
                 RoomDialog dialog = new RoomDialog((JFrame) SwingUtilities.getWindowAncestor(this),
                         "Edit Room", true, room);
@@ -243,21 +237,23 @@ public class RoomsPanel extends JPanel {
                 if (dialog.isConfirmed()) {
                     Room updatedRoom = dialog.getRoom();
                     updatedRoom.setId(roomId);
-
-                    if (roomDAO.updateRoom(updatedRoom)) {
-                        loadRoomData(); // Refresh table
-                        JOptionPane.showMessageDialog(this, "Room updated successfully!",
-                                "Success", JOptionPane.INFORMATION_MESSAGE);
-                    } else {
-                        JOptionPane.showMessageDialog(this, "Failed to update room.",
-                                "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    saveEditedRoom(updatedRoom);
                 }
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error editing room: " + e.getMessage(),
-                    "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
+    }
+
+    private void saveEditedRoom(Room updatedRoom) {
+        BackgroundLoader.submit(this, "editing room", () -> roomDAO.updateRoom(updatedRoom), updated -> {
+            if (updated) {
+                loadRoomData(); // Refresh table
+                JOptionPane.showMessageDialog(this, "Room updated successfully!",
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to update room.",
+                        "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
 
     private void deleteSelectedRoom() {
@@ -277,8 +273,8 @@ public class RoomsPanel extends JPanel {
             int modelRow = roomTable.convertRowIndexToModel(selectedRow);
             int roomId = (Integer) tableModel.getValueAt(modelRow, 0);
 
-            try {
-                if (roomDAO.deleteRoom(roomId)) {
+            BackgroundLoader.submit(this, "deleting room", () -> roomDAO.deleteRoom(roomId), deleted -> {
+                if (deleted) {
                     loadRoomData(); // Refresh table
                     JOptionPane.showMessageDialog(this, "Room deleted successfully!",
                             "Success", JOptionPane.INFORMATION_MESSAGE);
@@ -286,17 +282,15 @@ public class RoomsPanel extends JPanel {
                     JOptionPane.showMessageDialog(this, "Failed to delete room.",
                             "Error", JOptionPane.ERROR_MESSAGE);
                 }
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "Error deleting room: " + e.getMessage(),
-                        "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         }
     }
 
     public void refreshData() {
-        loadRoomData();
+        roomCache.invalidateAll(); // Pick up changes made by other clients
         statusFilter.setSelectedItem("All");
         typeFilter.setSelectedItem("All");
+        loadRoomData();
     }
 
     // Icon creation methods
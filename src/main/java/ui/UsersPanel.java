@@ -13,9 +13,11 @@ public class UsersPanel extends JPanel {
     private JTable userTable;
     private JButton addButton, editButton, deleteButton, refreshButton;
     private JComboBox<String> roleFilter;
+    private BackgroundLoader usersLoader;
 
     public UsersPanel() {
         this.userService = new UserService();
+        this.usersLoader = new BackgroundLoader(this, "loading users");
         initializeUI();
         loadUserData();
     }
@@ -56,6 +58,10 @@ public class UsersPanel extends JPanel {
         refreshButton.addActionListener(e -> refreshData());
         topPanel.add(refreshButton);
 
+        JLabel loadingLabel = new JLabel("Loading...");
+        topPanel.add(loadingLabel);
+        usersLoader.withIndicator(loadingLabel);
+
         return topPanel;
     }
 
@@ -129,13 +135,7 @@ public class UsersPanel extends JPanel {
     }
 
     public void loadUserData() {
-        try {
-            List<User> users = userService.getAllUsers();
-            updateTableData(users);
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error loading users: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        applyFilters();
     }
 
     private void updateTableData(List<User> users) {
@@ -152,23 +152,13 @@ public class UsersPanel extends JPanel {
         }
     }
 
+    // Load the users with the selected role in the background
     private void applyFilters() {
-        try {
-            String selectedRole = (String) roleFilter.getSelectedItem();
-            List<User> users;
-
-            if ("All".equals(selectedRole)) {
-                users = userService.getAllUsers();
-            } else {
-                users = userService.getUsersByRole(selectedRole);
-            }
-
-            updateTableData(users);
+        String selectedRole = (String) roleFilter.getSelectedItem();
 
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error applying filters: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        usersLoader.load(() -> "All".equals(selectedRole)
+                ? userService.getAllUsers()
+                : userService.getUsersByRole(selectedRole), this::updateTableData);
     }
 
     private void showAddUserDialog() {
@@ -177,20 +167,20 @@ public class UsersPanel extends JPanel {
 
         if (dialog.isConfirmed()) {
             User newUser = dialog.getUser();
-            UserService.UserResult result = userService.createUser(
+            BackgroundLoader.submit(this, "adding user", () -> userService.createUser(
                     newUser.getUsername(),
                     newUser.getPassword(),
                     newUser.getRole(),
-                    newUser.getFullname());
-
-            if (result.isSuccess()) {
-                loadUserData(); // Refresh table
-                JOptionPane.showMessageDialog(this, "User added successfully!",
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, "Error adding user: " + result.getMessage(),
-                        "Error", JOptionPane.ERROR_MESSAGE);
-            }
+                    newUser.getFullname()), result -> {
+                if (result.isSuccess()) {
+                    loadUserData(); // Refresh table
+                    JOptionPane.showMessageDialog(this, "User added successfully!",
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Error adding user: " + result.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
@@ -205,26 +195,32 @@ public class UsersPanel extends JPanel {
         int modelRow = userTable.convertRowIndexToModel(selectedRow);
         int userId = (Integer) tableModel.getValueAt(modelRow, 0);
 
-        User user = userService.getUserById(userId);
-        if (user != null) {
-            UserDialog dialog = new UserDialog((JFrame) SwingUtilities.getWindowAncestor(this),
-                    "Edit User", true, user);
-            dialog.setVisible(true);
+        BackgroundLoader.submit(this, "loading user", () -> userService.getUserById(userId), user -> {
+            if (user != null) {
+                UserDialog dialog = new UserDialog((JFrame) SwingUtilities.getWindowAncestor(this),
+                        "Edit User", true, user);
+                dialog.setVisible(true);
 
-            if (dialog.isConfirmed()) {
-                User updatedUser = dialog.getUser();
-                updatedUser.setId(userId);
-
-                if (userService.updateUser(updatedUser)) {
-                    loadUserData(); // Refresh table
-                    JOptionPane.showMessageDialog(this, "User updated successfully!",
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    JOptionPane.showMessageDialog(this, "Failed to update user.",
-                            "Error", JOptionPane.ERROR_MESSAGE);
+                if (dialog.isConfirmed()) {
+                    User updatedUser = dialog.getUser();
+                    updatedUser.setId(userId);
+                    saveEditedUser(updatedUser);
                 }
             }
-        }
+        });
+    }
+
+    private void saveEditedUser(User updatedUser) {
+        BackgroundLoader.submit(this, "editing user", () -> userService.updateUser(updatedUser), updated -> {
+            if (updated) {
+                loadUserData(); // Refresh table
+                JOptionPane.showMessageDialog(this, "User updated successfully!",
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to update user.",
+                        "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
 
     private void deleteSelectedUser() {
@@ -246,19 +242,21 @@ public class UsersPanel extends JPanel {
         if (result == JOptionPane.YES_OPTION) {
             int userId = (Integer) tableModel.getValueAt(modelRow, 0);
 
-            if (userService.deleteUser(userId)) {
-                loadUserData(); // Refresh table
-                JOptionPane.showMessageDialog(this, "User deleted successfully!",
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, "Failed to delete user.",
-                        "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            BackgroundLoader.submit(this, "deleting user", () -> userService.deleteUser(userId), deleted -> {
+                if (deleted) {
+                    loadUserData(); // Refresh table
+                    JOptionPane.showMessageDialog(this, "User deleted successfully!",
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Failed to delete user.",
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
     public void refreshData() {
-        loadUserData();
         roleFilter.setSelectedItem("All");
+        loadUserData();
     }
 }
\ No newline at end of file
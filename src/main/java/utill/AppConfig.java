@@ -0,0 +1,99 @@
+package utill;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Application settings that are not about the database: time zone, diagnostics,
+ * logging and sessions. Database settings stay in {@link dao.DatabaseConfig}.
+ *
+ * Settings are layered, later sources overriding earlier ones:
+ * 1. app.properties on the classpath (defaults)
+ * 2. An external file given by -Dhotel.app.config=/path/to/file.properties
+ * 3. Individual system properties, e.g. -Dhotel.log.file overrides log.file
+ *    (hotel.db.* properties belong to the database settings and are not copied)
+ */
+public final class AppConfig {
+
+    private static final String SYSTEM_PREFIX = "hotel.";
+    private static final String EXTERNAL_FILE = SYSTEM_PREFIX + "app.config";
+
+    private static volatile AppConfig instance;
+
+    private final Properties properties;
+
+    private AppConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    // Get the application settings, loading them on first use
+    public static AppConfig get() {
+        AppConfig current = instance;
+        if (current == null) {
+            synchronized (AppConfig.class) {
+                if (instance == null) {
+                    instance = load();
+                }
+                current = instance;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Loads the settings from all sources
+     *
+     * @return The merged settings
+     */
+    public static AppConfig load() {
+        Properties properties = new Properties();
+        try (InputStream in = AppConfig.class.getResourceAsStream("/app.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read /app.properties", e);
+        }
+
+        String externalFile = System.getProperty(EXTERNAL_FILE);
+        if (externalFile != null && !externalFile.isBlank()) {
+            Path path = Paths.get(externalFile);
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read application config " + path, e);
+            }
+        }
+
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(SYSTEM_PREFIX) && !name.startsWith(SYSTEM_PREFIX + "db.") && !name.equals(EXTERNAL_FILE)) {
+                properties.setProperty(name.substring(SYSTEM_PREFIX.length()), System.getProperty(name));
+            }
+        }
+
+        return new AppConfig(properties);
+    }
+
+    public String get(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Long.parseLong(value.trim());
+    }
+}
@@ -0,0 +1,324 @@
+package utill;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Root logging handler that takes all log output off the logging threads.
+ *
+ * Records are put in a bounded ring buffer and the calling thread moves on; a single
+ * writer thread drains the buffer in batches, fills in {@link Log} messages, passes
+ * each record to the handlers the root logger had before (the console), and appends
+ * it as one JSON object per line to a rolling log file. The file is rolled when it
+ * would pass its size limit: hotel.log becomes hotel.log.1, and so on up to the
+ * number of files kept.
+ *
+ * When the buffer is full new records are dropped rather than making the caller wait.
+ * Drops are counted ({@link #getDroppedCount()}) and reported as a WARNING record once
+ * the writer catches up.
+ *
+ * Configured by log.file, log.maxSizeMb, log.maxFiles and log.bufferSize; see
+ * {@link #install}.
+ */
+public final class AsyncLogHandler extends Handler {
+
+    private static final int BATCH_SIZE = 512;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ISO_INSTANT;
+
+    private static volatile AsyncLogHandler installed;
+
+    private final BlockingQueue<LogRecord> buffer;
+    private final Handler[] delegates;
+    private final RollingFile file;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private final StringBuilder line = new StringBuilder(512);
+
+    private volatile boolean closed;
+    // Writer thread only
+    private long reportedDrops;
+
+    private AsyncLogHandler(int capacity, Handler[] delegates, RollingFile file) {
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.delegates = delegates;
+        this.file = file;
+        setFormatter(new SimpleFormatter());
+        this.writer = new Thread(this::drain, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Puts the handler in front of the root logger's handlers, once per application
+     *
+     * @param file JSON-lines log file, or null to only take console output off the calling threads
+     * @param maxBytes Size at which the file is rolled
+     * @param maxFiles Files kept, including the current one
+     * @param capacity Records the buffer holds before new ones are dropped
+     * @return The installed handler
+     * @throws IOException if the log file cannot be opened
+     */
+    public static synchronized AsyncLogHandler install(Path file, long maxBytes, int maxFiles, int capacity)
+            throws IOException {
+        if (installed != null) {
+            return installed;
+        }
+
+        RollingFile rollingFile = file != null ? new RollingFile(file, maxBytes, maxFiles) : null;
+        Logger root = Logger.getLogger("");
+        Handler[] delegates = root.getHandlers();
+        AsyncLogHandler handler = new AsyncLogHandler(Math.max(16, capacity), delegates, rollingFile);
+        for (Handler delegate : delegates) {
+            root.removeHandler(delegate);
+        }
+        root.addHandler(handler);
+        installed = handler;
+        return handler;
+    }
+
+    // Whether records are handed to the writer thread, so Log leaves the formatting to it
+    static boolean isInstalled() {
+        AsyncLogHandler handler = installed;
+        return handler != null && !handler.closed;
+    }
+
+    // Records dropped because the buffer was full
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        if (!(record instanceof Log.Record)) {
+            // The source is inferred from the stack, which only the logging thread has
+            record.getSourceClassName();
+        }
+        if (!buffer.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    // The writer flushes after every batch
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * Stops accepting records and waits briefly for the writer to write the ones buffered
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Writer thread: drain the buffer until closed and empty
+    private void drain() {
+        List<LogRecord> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                LogRecord first = buffer.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) {
+                        break;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, BATCH_SIZE - 1);
+                for (LogRecord record : batch) {
+                    write(record);
+                }
+                batch.clear();
+                reportDrops();
+                flushOutputs();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            reportDrops();
+            closeOutputs();
+        }
+    }
+
+    private void write(LogRecord record) {
+        if (record instanceof Log.Record) {
+            ((Log.Record) record).fillMessage();
+        }
+        for (Handler delegate : delegates) {
+            delegate.publish(record);
+        }
+        if (file != null) {
+            try {
+                file.write(toJson(record));
+            } catch (IOException | RuntimeException e) {
+                reportError("Could not write log file " + file.path, e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+    }
+
+    private void reportDrops() {
+        long drops = dropped.sum();
+        if (drops > reportedDrops) {
+            LogRecord record = new LogRecord(Level.WARNING, "Log buffer full: dropped " + (drops - reportedDrops) +
+                    " records (" + drops + " since startup)");
+            record.setLoggerName(AsyncLogHandler.class.getName());
+            record.setSourceClassName(AsyncLogHandler.class.getName());
+            reportedDrops = drops;
+            write(record);
+        }
+    }
+
+    // One JSON object per record: ts, level, logger, thread, message and the exception if any
+    private StringBuilder toJson(LogRecord record) {
+        StringBuilder out = line;
+        out.setLength(0);
+        out.append('{');
+        Json.appendField(out, "ts", TIMESTAMP.format(record.getInstant()));
+        Json.appendField(out, "level", record.getLevel().getName());
+        Json.appendField(out, "logger", record.getLoggerName());
+        if (record instanceof Log.Record) {
+            Json.appendField(out, "thread", ((Log.Record) record).getThreadName());
+        } else {
+            Json.appendField(out, "threadId", record.getLongThreadID());
+        }
+        if (record.getSourceMethodName() != null) {
+            Json.appendField(out, "method", record.getSourceMethodName());
+        }
+        Json.appendField(out, "message", message(record));
+        if (record.getThrown() != null) {
+            StringWriter trace = new StringWriter();
+            record.getThrown().printStackTrace(new PrintWriter(trace));
+            Json.appendField(out, "exception", trace.toString());
+        }
+        return out.append('}').append('\n');
+    }
+
+    // Message with java.util.logging {0} parameters and resource bundles applied
+    private String message(LogRecord record) {
+        try {
+            return getFormatter() != null ? getFormatter().formatMessage(record) : record.getMessage();
+        } catch (RuntimeException e) {
+            return record.getMessage();
+        }
+    }
+
+    private void flushOutputs() {
+        for (Handler delegate : delegates) {
+            delegate.flush();
+        }
+        if (file != null) {
+            try {
+                file.flush();
+            } catch (IOException e) {
+                reportError("Could not flush log file " + file.path, e, ErrorManager.FLUSH_FAILURE);
+            }
+        }
+    }
+
+    private void closeOutputs() {
+        for (Handler delegate : delegates) {
+            delegate.close();
+        }
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                reportError("Could not close log file " + file.path, e, ErrorManager.CLOSE_FAILURE);
+            }
+        }
+    }
+
+    /**
+     * Log file that is renamed aside and started afresh when it reaches its size limit
+     */
+    private static final class RollingFile {
+        private final Path path;
+        private final long maxBytes;
+        private final int maxFiles;
+        private OutputStream out;
+        private long size;
+
+        private RollingFile(Path path, long maxBytes, int maxFiles) throws IOException {
+            this.path = path.toAbsolutePath();
+            this.maxBytes = Math.max(1024, maxBytes);
+            this.maxFiles = Math.max(1, maxFiles);
+            if (this.path.getParent() != null) {
+                Files.createDirectories(this.path.getParent());
+            }
+            open();
+        }
+
+        private void open() throws IOException {
+            out = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND), 1 << 16);
+            size = Files.size(path);
+        }
+
+        void write(CharSequence text) throws IOException {
+            byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+            if (size > 0 && size + bytes.length > maxBytes) {
+                roll();
+            }
+            out.write(bytes);
+            size += bytes.length;
+        }
+
+        // hotel.log.(n-1) -> hotel.log.n, ..., hotel.log -> hotel.log.1
+        private void roll() throws IOException {
+            out.close();
+            for (int i = maxFiles - 2; i >= 1; i--) {
+                Path older = sibling(i);
+                if (Files.exists(older)) {
+                    Files.move(older, sibling(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            if (maxFiles > 1) {
+                Files.move(path, sibling(1), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.delete(path);
+            }
+            open();
+        }
+
+        private Path sibling(int index) {
+            return path.resolveSibling(path.getFileName() + "." + index);
+        }
+
+        void flush() throws IOException {
+            out.flush();
+        }
+
+        void close() throws IOException {
+            out.close();
+        }
+    }
+}
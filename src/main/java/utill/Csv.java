@@ -0,0 +1,103 @@
+package utill;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splitting and quoting of CSV records (RFC 4180: comma separated, fields containing
+ * commas, quotes or line breaks are quoted, quotes inside are doubled).
+ */
+public final class Csv {
+
+    private Csv() {
+    }
+
+    /**
+     * Splits one record into its fields, removing the quoting
+     *
+     * @param record The record, which may contain line breaks inside quoted fields
+     * @return The fields; an empty record has one empty field
+     * @throws IllegalArgumentException if a quoted field is not closed
+     */
+    public static List<String> split(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = record.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < length && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Whether a partial record ends inside a quoted field, so the next line belongs to it
+    public static boolean isOpenQuote(CharSequence record) {
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+        return quoted;
+    }
+
+    // Append a field, quoting it when needed; null is written as an empty field
+    public static StringBuilder appendField(StringBuilder out, String value) {
+        if (value == null) {
+            return out;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            return out.append(value);
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        return out.append('"');
+    }
+
+    // One record of fields joined with commas, without a line break
+    public static String join(List<String> values) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appendField(out, values.get(i));
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,109 @@
+package utill;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Continuous Java Flight Recorder recording of the running application.
+ *
+ * The recording uses the JDK's low-overhead "default" settings plus the hotel events
+ * from jfr/hotel.jfc, keeps the last hours on disk and is named "hotel", so after an
+ * incident it can be saved with {@link #dump} or from outside the process with
+ * {@code jcmd <pid> JFR.dump name=hotel filename=incident.jfr}.
+ */
+public final class FlightRecording {
+
+    private static final Log LOGGER = Log.get(FlightRecording.class);
+
+    public static final String NAME = "hotel";
+    private static final String SETTINGS = "/jfr/hotel.jfc";
+
+    private static Recording recording;
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Starts the continuous recording unless it is already running
+     *
+     * @param maxAge How far back the recording reaches
+     * @param maxBytes Upper bound of the data kept on disk
+     * @return Whether the recording is running; false if the flight recorder is unavailable
+     */
+    public static synchronized boolean start(Duration maxAge, long maxBytes) {
+        if (recording != null) {
+            return true;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            LOGGER.info("Flight recorder not available; continuous recording disabled");
+            return false;
+        }
+
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            settings.putAll(loadSettings());
+
+            Recording started = new Recording(settings);
+            started.setName(NAME);
+            started.setToDisk(true);
+            started.setMaxAge(maxAge);
+            started.setMaxSize(maxBytes);
+            started.start();
+            recording = started;
+            LOGGER.info("Continuous flight recording started (max age {} min)", maxAge.toMinutes());
+            return true;
+        } catch (IOException | ParseException | RuntimeException e) {
+            LOGGER.warning("Could not start the flight recording", e);
+            return false;
+        }
+    }
+
+    // Whether the continuous recording is running
+    public static synchronized boolean isRunning() {
+        return recording != null;
+    }
+
+    /**
+     * Writes what the recording holds so far to a file; the recording keeps running
+     *
+     * @return The file written
+     * @throws IOException if the file cannot be written
+     * @throws IllegalStateException if the recording was not started
+     */
+    public static synchronized Path dump(Path file) throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("Flight recording is not running");
+        }
+        recording.dump(file);
+        return file;
+    }
+
+    public static synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static Map<String, String> loadSettings() throws IOException, ParseException {
+        InputStream in = FlightRecording.class.getResourceAsStream(SETTINGS);
+        if (in == null) {
+            throw new IOException("Missing " + SETTINGS + " on the classpath");
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader).getSettings();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package utill;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Registers the application's MXBeans with the platform MBean server under the
+ * "hotel" domain, where JConsole, VisualVM or a JMX exporter can read them.
+ */
+public final class Jmx {
+
+    private static final Log LOGGER = Log.get(Jmx.class);
+
+    public static final String DOMAIN = "hotel";
+
+    private Jmx() {
+    }
+
+    /**
+     * Registers an MXBean as hotel:type=&lt;type&gt;, replacing one already registered under that name
+     *
+     * @param type Value of the name's type key, e.g. "ConnectionPool"
+     * @param mxBean Object implementing an interface whose name ends in MXBean
+     * @return Whether the bean was registered; failures are logged, never thrown
+     */
+    public static boolean register(String type, Object mxBean) {
+        try {
+            ObjectName name = new ObjectName(DOMAIN, "type", type);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mxBean, name);
+            return true;
+        } catch (JMException | RuntimeException e) {
+            LOGGER.warning("Could not register MBean {}:type={}", DOMAIN, type, e);
+            return false;
+        }
+    }
+}
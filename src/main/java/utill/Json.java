@@ -0,0 +1,62 @@
+package utill;
+
+/**
+ * Writing of JSON values for line-oriented output such as JSON-lines files.
+ */
+public final class Json {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private Json() {
+    }
+
+    // Append a string as a quoted JSON string; null is written as null
+    public static StringBuilder appendString(StringBuilder out, String value) {
+        if (value == null) {
+            return out.append("null");
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        return out.append('"');
+    }
+
+    // Append "name": and a string value, preceded by a comma unless it is the first field
+    public static StringBuilder appendField(StringBuilder out, String name, String value) {
+        return appendString(appendName(out, name), value);
+    }
+
+    // Append "name": and a number, preceded by a comma unless it is the first field
+    public static StringBuilder appendField(StringBuilder out, String name, long value) {
+        return appendName(out, name).append(value);
+    }
+
+    // Append "name": and a number, preceded by a comma unless it is the first field.
+    // NaN and infinities have no JSON form and are written as null
+    public static StringBuilder appendField(StringBuilder out, String name, double value) {
+        appendName(out, name);
+        return Double.isFinite(value) ? out.append(value) : out.append("null");
+    }
+
+    private static StringBuilder appendName(StringBuilder out, String name) {
+        char last = out.length() > 0 ? out.charAt(out.length() - 1) : '{';
+        if (last != '{') {
+            out.append(',');
+        }
+        return appendString(out, name).append(':');
+    }
+}
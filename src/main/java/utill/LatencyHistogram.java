@@ -0,0 +1,162 @@
+package utill;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent histogram of latencies in nanoseconds with a bounded relative error.
+ *
+ * Values are counted in log-linear buckets in the style of HdrHistogram: below 128 ns
+ * every value has its own bucket, above that each power of two is split into 64
+ * buckets, so a reported percentile is at most about 1.6% above the true value.
+ * Values up to about 4.9 hours are kept apart; longer ones share the last bucket.
+ *
+ * {@link #record} only increments counters, never allocates or locks, and may be
+ * called from any number of threads. Reads taken while others record see a
+ * consistent-enough snapshot for monitoring, not an exact one.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_BIT = 44; // 2^44 ns is about 4.9 hours
+    private static final int BUCKETS = (MAX_BIT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final long MAX_VALUE = (1L << MAX_BIT) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    // Record one latency; negative values count as zero
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    // Record the time elapsed since a System.nanoTime() reading
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    public double getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Latency at or below which the given share of the recorded values lie
+     *
+     * @param percentile Percentile between 0 and 100, e.g. 99.9
+     * @return Upper bound of the bucket holding that value, in nanoseconds; 0 if empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    // Add every value recorded by another histogram to this one
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long n = other.counts.get(i);
+            if (n != 0) {
+                counts.addAndGet(i, n);
+            }
+        }
+        count.add(other.count.sum());
+        sum.add(other.sum.sum());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    // Forget everything recorded so far; values recorded concurrently may be lost
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    // One line summary, e.g. "n=1200 mean=1.2ms p50=0.9ms p99=8.1ms p99.9=15ms max=22ms"
+    public String summary() {
+        return "n=" + getCount() +
+                " mean=" + format((long) getMeanNanos()) +
+                " p50=" + format(getValueAtPercentile(50)) +
+                " p99=" + format(getValueAtPercentile(99)) +
+                " p99.9=" + format(getValueAtPercentile(99.9)) +
+                " max=" + format(getMaxNanos());
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" + summary() + "}";
+    }
+
+    // Human readable duration with three significant digits, e.g. 850us, 12.3ms, 1.05s
+    public static String format(long nanos) {
+        if (nanos < TimeUnit.MICROSECONDS.toNanos(1)) {
+            return nanos + "ns";
+        }
+        if (nanos < TimeUnit.MILLISECONDS.toNanos(1)) {
+            return significant(nanos / 1e3) + "us";
+        }
+        if (nanos < TimeUnit.SECONDS.toNanos(1)) {
+            return significant(nanos / 1e6) + "ms";
+        }
+        return significant(nanos / 1e9) + "s";
+    }
+
+    private static String significant(double value) {
+        if (value >= 100) {
+            return String.valueOf(Math.round(value));
+        }
+        return String.format(value >= 10 ? "%.1f" : "%.2f", value);
+    }
+
+    // Bucket of a value: linear below 2 * SUB_BUCKETS, then SUB_BUCKETS buckets per power of two
+    private static int indexOf(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    private static long highestValueOf(int index) {
+        int shift = Math.max(0, index / SUB_BUCKETS - 1);
+        long mantissa = index - (long) shift * SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,164 @@
+package utill;
+
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Logging facade over java.util.logging with parameterized messages.
+ *
+ * Messages use {} placeholders filled from the arguments in order:
+ * <pre>
+ *     LOGGER.info("Authentication attempt for user: {}", username);
+ *     LOGGER.severe("Error creating booking for {}", guest, e);
+ * </pre>
+ * A Throwable as the last argument is logged as the record's exception. Every method
+ * checks the level first, so a disabled statement costs a level check; the one and
+ * two argument forms do not even allocate the varargs array. When the
+ * {@link AsyncLogHandler} is installed the message is filled in on its writer thread,
+ * otherwise here, and only for records that are logged.
+ */
+public final class Log {
+
+    private final Logger logger;
+
+    private Log(Logger logger) {
+        this.logger = logger;
+    }
+
+    public static Log get(Class<?> type) {
+        return new Log(Logger.getLogger(type.getName()));
+    }
+
+    public boolean isLoggable(Level level) {
+        return logger.isLoggable(level);
+    }
+
+    public void fine(String message) {
+        if (logger.isLoggable(Level.FINE)) log(Level.FINE, message, null);
+    }
+
+    public void fine(String message, Object arg) {
+        if (logger.isLoggable(Level.FINE)) log(Level.FINE, message, new Object[]{arg});
+    }
+
+    public void fine(String message, Object arg1, Object arg2) {
+        if (logger.isLoggable(Level.FINE)) log(Level.FINE, message, new Object[]{arg1, arg2});
+    }
+
+    public void fine(String message, Object... args) {
+        if (logger.isLoggable(Level.FINE)) log(Level.FINE, message, args);
+    }
+
+    public void info(String message) {
+        if (logger.isLoggable(Level.INFO)) log(Level.INFO, message, null);
+    }
+
+    public void info(String message, Object arg) {
+        if (logger.isLoggable(Level.INFO)) log(Level.INFO, message, new Object[]{arg});
+    }
+
+    public void info(String message, Object arg1, Object arg2) {
+        if (logger.isLoggable(Level.INFO)) log(Level.INFO, message, new Object[]{arg1, arg2});
+    }
+
+    public void info(String message, Object... args) {
+        if (logger.isLoggable(Level.INFO)) log(Level.INFO, message, args);
+    }
+
+    public void warning(String message) {
+        if (logger.isLoggable(Level.WARNING)) log(Level.WARNING, message, null);
+    }
+
+    public void warning(String message, Object arg) {
+        if (logger.isLoggable(Level.WARNING)) log(Level.WARNING, message, new Object[]{arg});
+    }
+
+    public void warning(String message, Object arg1, Object arg2) {
+        if (logger.isLoggable(Level.WARNING)) log(Level.WARNING, message, new Object[]{arg1, arg2});
+    }
+
+    public void warning(String message, Object... args) {
+        if (logger.isLoggable(Level.WARNING)) log(Level.WARNING, message, args);
+    }
+
+    public void severe(String message) {
+        if (logger.isLoggable(Level.SEVERE)) log(Level.SEVERE, message, null);
+    }
+
+    public void severe(String message, Object arg) {
+        if (logger.isLoggable(Level.SEVERE)) log(Level.SEVERE, message, new Object[]{arg});
+    }
+
+    public void severe(String message, Object arg1, Object arg2) {
+        if (logger.isLoggable(Level.SEVERE)) log(Level.SEVERE, message, new Object[]{arg1, arg2});
+    }
+
+    public void severe(String message, Object... args) {
+        if (logger.isLoggable(Level.SEVERE)) log(Level.SEVERE, message, args);
+    }
+
+    private void log(Level level, String message, Object[] args) {
+        Record record = new Record(level, message);
+        record.setLoggerName(logger.getName());
+        // Setting the source stops LogRecord walking the stack for it, on whichever thread formats it
+        record.setSourceClassName(logger.getName());
+
+        if (args != null && args.length > 0) {
+            Object last = args[args.length - 1];
+            if (last instanceof Throwable) {
+                record.setThrown((Throwable) last);
+                args = Arrays.copyOf(args, args.length - 1);
+            }
+            record.setParameters(args);
+        }
+        if (!AsyncLogHandler.isInstalled()) {
+            record.fillMessage();
+        }
+        logger.log(record);
+    }
+
+    /**
+     * Replaces each {} in a message with the next argument
+     */
+    static String format(String message, Object[] args) {
+        if (message == null || args == null || args.length == 0) {
+            return message;
+        }
+        StringBuilder out = new StringBuilder(message.length() + 16 * args.length);
+        int arg = 0;
+        int from = 0;
+        int at;
+        while (arg < args.length && (at = message.indexOf("{}", from)) >= 0) {
+            out.append(message, from, at).append(args[arg++]);
+            from = at + 2;
+        }
+        return out.append(message, from, message.length()).toString();
+    }
+
+    /**
+     * Record whose message still has {} placeholders until {@link #fillMessage} runs
+     */
+    static final class Record extends LogRecord {
+        private final String threadName = Thread.currentThread().getName();
+        private boolean filled;
+
+        private Record(Level level, String message) {
+            super(level, message);
+        }
+
+        String getThreadName() {
+            return threadName;
+        }
+
+        // Fill the placeholders, once; the formatters then see a plain message
+        void fillMessage() {
+            if (!filled) {
+                filled = true;
+                setMessage(format(getMessage(), getParameters()));
+                setParameters(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- Secondary indexes for the booking and payment hot paths.
+
+-- Conflict checks and availability searches: equality on room and status, then date range.
+-- Covers BookingDAO.hasConflictingBooking without touching the table rows.
+CREATE INDEX idx_bookings_room_status_dates ON bookings (room_id, status, check_in_date, check_out_date);
+
+-- Status listings ordered by arrival, and today's arrivals
+CREATE INDEX idx_bookings_status_check_in ON bookings (status, check_in_date);
+
+-- Today's departures
+CREATE INDEX idx_bookings_status_check_out ON bookings (status, check_out_date);
+
+-- A guest's booking history, newest first
+CREATE INDEX idx_bookings_guest_check_in ON bookings (guest_id, check_in_date);
+
+-- Revenue by date range; amount is included so the sums are read from the index alone
+CREATE INDEX idx_payments_date_amount ON payments (payment_date, amount);
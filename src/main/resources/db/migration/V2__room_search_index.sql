@@ -0,0 +1,2 @@
+-- Room search by type and price ceiling (RoomDAO.findAvailableRooms)
+CREATE INDEX idx_rooms_type_price ON rooms (type, price);
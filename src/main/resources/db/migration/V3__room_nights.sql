@@ -0,0 +1,14 @@
+-- Room-night inventory: one row per room per occupied night, owned by the booking holding it.
+-- The primary key makes the database reject a second booking of the same night atomically.
+-- Nights are half-open: a stay from the 12th to the 15th holds the 12th, 13th and 14th.
+CREATE TABLE room_nights (
+    room_id INT NOT NULL,
+    night DATE NOT NULL,
+    booking_id INT NOT NULL,
+    PRIMARY KEY (room_id, night),
+    FOREIGN KEY (room_id) REFERENCES rooms(id),
+    FOREIGN KEY (booking_id) REFERENCES bookings(id)
+);
+
+-- Releasing a booking's nights on cancel and check-out
+CREATE INDEX idx_room_nights_booking ON room_nights (booking_id);
@@ -0,0 +1,9 @@
+-- Keyset pagination of the bookings list (BookingDAO.getBookingsPage).
+-- Each sort order is backed by an index ending in id, the tie-breaker of the page key.
+
+-- Date columns, all statuses
+CREATE INDEX idx_bookings_check_in_id ON bookings (check_in_date, id);
+CREATE INDEX idx_bookings_check_out_id ON bookings (check_out_date, id);
+
+-- Newest first within one status
+CREATE INDEX idx_bookings_status_id ON bookings (status, id);
@@ -0,0 +1,12 @@
+-- Daily revenue rollup: one row per day and payment method. Payment writes do not update it
+-- directly: PaymentDAO appends a row to revenue_delta (V7) in the payment's transaction and
+-- RevenueRollupDAO.startFolding() folds those rows into this table every few seconds.
+-- Revenue reports read this table together with the deltas not folded yet.
+-- Rebuild from payments with: java -cp <app classpath> tools.RebuildRevenueRollup
+CREATE TABLE revenue_daily (
+    revenue_date DATE NOT NULL,
+    method VARCHAR(20) NOT NULL,
+    total DOUBLE NOT NULL,
+    payment_count INT NOT NULL,
+    PRIMARY KEY (revenue_date, method)
+);
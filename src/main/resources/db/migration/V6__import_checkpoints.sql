@@ -0,0 +1,10 @@
+-- Progress of bulk CSV imports (tools.CsvImport): how many records of each source file
+-- are done. Updated in the same transaction as the rows it counts, so a resumed import
+-- continues exactly after the last committed chunk.
+CREATE TABLE import_checkpoints (
+    source VARCHAR(255) NOT NULL PRIMARY KEY,
+    records_done BIGINT NOT NULL,
+    rows_imported BIGINT NOT NULL,
+    rows_rejected BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,11 @@
+-- Pending changes to the daily revenue rollup. PaymentDAO appends one row per payment
+-- write in the payment's transaction instead of updating revenue_daily, so bookings do
+-- not wait on each other for the day's rollup row. RevenueRollupDAO.fold() moves the rows
+-- into revenue_daily every few seconds; reports read both tables.
+CREATE TABLE revenue_delta (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    revenue_date DATE NOT NULL,
+    method VARCHAR(20) NOT NULL,
+    amount DOUBLE NOT NULL,
+    payment_count INT NOT NULL
+);
@@ -0,0 +1,79 @@
+package dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilityIndexTest {
+
+    private static final int ROOM = 7;
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 1);
+
+    private final AvailabilityIndex index = AvailabilityIndex.getInstance();
+
+    @AfterEach
+    void clear() {
+        for (int bookingId = 1; bookingId <= 200; bookingId++) {
+            index.remove(bookingId);
+        }
+    }
+
+    @Test
+    void staysAreHalfOpen() {
+        index.put(1, ROOM, DAY, DAY.plusDays(3));
+
+        assertTrue(index.hasConflict(ROOM, DAY.plusDays(2), DAY.plusDays(4), 0));
+        assertTrue(index.hasConflict(ROOM, DAY.minusDays(1), DAY.plusDays(1), 0));
+        // Checking in on the check-out day shares no night
+        assertFalse(index.hasConflict(ROOM, DAY.plusDays(3), DAY.plusDays(5), 0));
+        assertFalse(index.hasConflict(ROOM, DAY.minusDays(2), DAY, 0));
+        assertFalse(index.hasConflict(ROOM + 1, DAY, DAY.plusDays(3), 0));
+        // The booking being changed does not conflict with itself
+        assertFalse(index.hasConflict(ROOM, DAY, DAY.plusDays(3), 1));
+    }
+
+    @Test
+    void movingAndRemovingStaysFreesTheirNights() {
+        index.put(1, ROOM, DAY, DAY.plusDays(2));
+        index.put(1, ROOM + 1, DAY, DAY.plusDays(2));
+        assertFalse(index.hasConflict(ROOM, DAY, DAY.plusDays(2), 0));
+        assertTrue(index.hasConflict(ROOM + 1, DAY, DAY.plusDays(2), 0));
+
+        index.remove(1);
+        assertFalse(index.hasConflict(ROOM + 1, DAY, DAY.plusDays(2), 0));
+    }
+
+    @Test
+    void findsOverlapsBehindALongStay() {
+        // A 300-night stay followed by back-to-back one-night stays
+        index.put(1, ROOM, DAY, DAY.plusDays(300));
+        for (int i = 0; i < 100; i++) {
+            index.put(10 + i, ROOM, DAY.plusDays(300 + i), DAY.plusDays(301 + i));
+        }
+
+        assertTrue(index.hasConflict(ROOM, DAY.plusDays(299), DAY.plusDays(300), 0));
+        assertTrue(index.hasConflict(ROOM, DAY.plusDays(350), DAY.plusDays(351), 0));
+        assertFalse(index.hasConflict(ROOM, DAY.plusDays(400), DAY.plusDays(402), 0));
+        assertEquals(300, index.longestStay(ROOM));
+
+        // Once the long stay is gone the walk-back shrinks to the short stays, which still conflict
+        index.remove(1);
+        assertEquals(1, index.longestStay(ROOM));
+        assertFalse(index.hasConflict(ROOM, DAY.plusDays(100), DAY.plusDays(299), 0));
+        assertTrue(index.hasConflict(ROOM, DAY.plusDays(299), DAY.plusDays(301), 0));
+        assertTrue(index.hasConflict(ROOM, DAY.plusDays(399), DAY.plusDays(402), 0));
+
+        // Two stays of the same longest length: removing one keeps the other reachable
+        index.put(2, ROOM, DAY.minusDays(60), DAY.minusDays(30));
+        index.put(3, ROOM, DAY.minusDays(30), DAY);
+        index.remove(3);
+        assertEquals(30, index.longestStay(ROOM));
+        assertTrue(index.hasConflict(ROOM, DAY.minusDays(31), DAY.minusDays(30), 0));
+        assertFalse(index.hasConflict(ROOM, DAY.minusDays(30), DAY, 0));
+    }
+}
@@ -0,0 +1,146 @@
+package dao;
+
+import model.Booking;
+import model.Room;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static dao.TestDatabase.queryInt;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchesTest {
+
+    private static final int CHUNK = 3;
+    private static final LocalDate DAY = LocalDate.of(2024, 11, 1);
+
+    private final BookingDAO bookingDAO = new BookingDAO();
+    private final RoomDAO roomDAO = new RoomDAO();
+
+    @BeforeAll
+    static void createSchema() throws SQLException {
+        System.setProperty("hotel.db.batch.size", String.valueOf(CHUNK));
+        TestDatabase.start();
+    }
+
+    @AfterAll
+    static void closePool() {
+        TestDatabase.stop();
+        System.clearProperty("hotel.db.batch.size");
+    }
+
+    @BeforeEach
+    void clearBookings() throws SQLException {
+        TestDatabase.clearBookings();
+    }
+
+    @Test
+    void savesEveryRowAcrossChunksWithIdsInOrder() throws SQLException {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            bookings.add(booking(i * 2, i * 2 + 2));
+        }
+
+        int[] ids = bookingDAO.saveAll(bookings);
+
+        assertEquals(7, ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(ids[i], bookings.get(i).getId());
+            assertEquals(java.sql.Date.valueOf(DAY.plusDays(i * 2)), bookingDAO.getBookingById(ids[i]).getCheckInDate());
+            assertTrue(i == 0 || ids[i] > ids[i - 1]);
+        }
+        assertEquals(7, queryInt("SELECT COUNT(*) FROM bookings"));
+        assertEquals(14, queryInt("SELECT COUNT(*) FROM room_nights"));
+        assertTrue(AvailabilityIndex.getInstance().contains(ids[6]));
+    }
+
+    @Test
+    void aConflictFailsOnlyItsOwnChunk() throws SQLException {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            bookings.add(booking(i * 2, i * 2 + 2));
+        }
+        // Fifth row, in the second chunk, takes a night of the first one
+        bookings.add(booking(1, 2));
+        bookings.add(booking(20, 22));
+
+        assertThrows(BookingConflictException.class, () -> bookingDAO.saveAll(bookings));
+
+        // The first chunk stays committed, nothing of the second is written
+        assertEquals(CHUNK, queryInt("SELECT COUNT(*) FROM bookings"));
+        assertEquals(2 * CHUNK, queryInt("SELECT COUNT(*) FROM room_nights"));
+        assertEquals(CHUNK, AvailabilityIndex.getInstance().size());
+    }
+
+    @Test
+    void chunksJoinAnEnclosingUnitOfWork() throws SQLException {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            bookings.add(booking(i * 2, i * 2 + 2));
+        }
+        bookings.add(booking(0, 1));
+
+        assertThrows(BookingConflictException.class, () -> UnitOfWork.execute(conn -> bookingDAO.saveAll(bookings)));
+
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM bookings"));
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM room_nights"));
+        assertEquals(0, AvailabilityIndex.getInstance().size());
+    }
+
+    @Test
+    void updatesStatusesChunkByChunk() throws SQLException {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            bookings.add(booking(i, i + 1));
+        }
+        int[] ids = bookingDAO.saveAll(bookings);
+        List<Integer> idList = new ArrayList<>(Arrays.stream(ids).boxed().toList());
+        idList.add(-1); // Not found, not counted
+
+        assertEquals(8, bookingDAO.updateStatusAll(idList, "Cancelled"));
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM room_nights"));
+        assertEquals(8, queryInt("SELECT COUNT(*) FROM bookings WHERE status = 'Cancelled'"));
+
+        assertEquals(8, bookingDAO.updateStatusAll(idList, "Booked"));
+        assertEquals(8, queryInt("SELECT COUNT(*) FROM room_nights"));
+        assertEquals(8, AvailabilityIndex.getInstance().size());
+    }
+
+    @Test
+    void savedRoomsReachTheCache() throws SQLException {
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rooms.add(new Room("batch-" + i, "Double", 100 + i, "Available"));
+        }
+
+        int[] ids = roomDAO.saveAll(rooms);
+
+        int[] cached = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            cached[i] = RoomCache.getInstance().getRoomByNumber("batch-" + i).getId();
+        }
+        assertArrayEquals(ids, cached);
+        assertEquals(5, queryInt("SELECT COUNT(*) FROM rooms WHERE room_number LIKE 'batch-%'"));
+    }
+
+    @Test
+    void inListHasOnePlaceholderPerValue() {
+        assertEquals(" IN (?)", Batches.inList(1));
+        assertEquals(" IN (?, ?, ?)", Batches.inList(3));
+        assertEquals(CHUNK, Batches.chunkSize());
+    }
+
+    private static Booking booking(int fromDay, int toDay) {
+        return TestDatabase.booking(DAY.plusDays(fromDay), DAY.plusDays(toDay));
+    }
+}
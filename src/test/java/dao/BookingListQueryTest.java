@@ -0,0 +1,106 @@
+package dao;
+
+import model.Booking;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingListQueryTest {
+
+    private static final int PAGE = 4;
+
+    private final BookingDAO bookingDAO = new BookingDAO();
+
+    @BeforeAll
+    static void createBookings() throws SQLException {
+        TestDatabase.start();
+        // Guests without a name between named ones, and two guests sharing a name
+        String[] names = {null, "Alice", null, "Bob", "Alice", null};
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement user = conn.prepareStatement(
+                     "INSERT INTO users (username, password, role, fullname) VALUES (?, 'secret', 'guest', ?)");
+             Statement stmt = conn.createStatement()) {
+            for (int i = 0; i < names.length; i++) {
+                user.setString(1, "paging" + i);
+                user.setString(2, names[i]);
+                user.executeUpdate();
+            }
+            for (int day = 1; day <= 3; day++) {
+                stmt.executeUpdate("INSERT INTO bookings (guest_id, room_id, check_in_date, check_out_date, total_price, status) " +
+                        "SELECT u.id, r.id, DATE '2024-07-0" + day + "', DATE '2024-07-0" + (day + 1) + "', 100, 'Booked' " +
+                        "FROM users u, rooms r WHERE u.username LIKE 'paging%' AND r.room_number = '101'");
+            }
+        }
+    }
+
+    @AfterAll
+    static void closePool() {
+        TestDatabase.stop();
+    }
+
+    @Test
+    void guestNamePagesCoverEveryRowOnceInOrder() throws SQLException {
+        for (boolean descending : new boolean[]{false, true}) {
+            BookingListQuery query = BookingListQuery.all()
+                    .sortedBy(BookingListQuery.SortColumn.GUEST_NAME, descending);
+            assertEquals(expectedIds(descending), pagedIds(query));
+        }
+    }
+
+    @Test
+    void skippingAheadLandsOnThePageEnd() throws SQLException {
+        BookingListQuery query = BookingListQuery.all()
+                .sortedBy(BookingListQuery.SortColumn.GUEST_NAME, false);
+        List<Booking> first = bookingDAO.getBookingsPage(query, null, PAGE);
+        List<Booking> second = bookingDAO.getBookingsPage(query, query.keyOf(first.get(PAGE - 1)), PAGE);
+
+        BookingListQuery.Key jumped = bookingDAO.findBookingKey(query, null, 2 * PAGE - 1);
+        BookingListQuery.Key walked = query.keyOf(second.get(PAGE - 1));
+        assertEquals(walked.getId(), jumped.getId());
+        assertEquals(walked.getSortValue(), jumped.getSortValue());
+
+        int total = bookingDAO.countBookings(query);
+        assertNull(bookingDAO.findBookingKey(query, null, total));
+    }
+
+    // Ids of every page, each page starting after the key of the last row of the one before
+    private List<Integer> pagedIds(BookingListQuery query) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        BookingListQuery.Key after = null;
+        while (true) {
+            List<Booking> page = bookingDAO.getBookingsPage(query, after, PAGE);
+            page.forEach(booking -> ids.add(booking.getId()));
+            if (page.size() < PAGE) {
+                return ids;
+            }
+            after = query.keyOf(page.get(PAGE - 1));
+            assertTrue(ids.size() <= bookingDAO.countBookings(query), "paging did not advance");
+        }
+    }
+
+    private static List<Integer> expectedIds(boolean descending) throws SQLException {
+        String direction = descending ? " DESC" : " ASC";
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT b.id FROM bookings b JOIN users u ON b.guest_id = u.id " +
+                     "ORDER BY COALESCE(u.fullname, '')" + direction + ", b.id" + direction)) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+}
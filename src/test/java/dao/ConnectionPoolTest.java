@@ -0,0 +1,154 @@
+package dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:h2:mem:pool_test;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPool pool;
+
+    @AfterEach
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private ConnectionPool start(int minSize, int maxSize, long borrowTimeoutMillis) throws SQLException {
+        pool = new ConnectionPool(new ConnectionPool.Config(URL, "sa", "")
+                .minSize(minSize)
+                .maxSize(maxSize)
+                .borrowTimeoutMillis(borrowTimeoutMillis));
+        return pool;
+    }
+
+    @Test
+    void closingAHandleReturnsTheConnection() throws SQLException {
+        start(1, 2, 1000);
+        assertEquals(1, pool.getTotalConnections());
+        assertEquals(1, pool.getIdleConnections());
+
+        Connection first = pool.getConnection();
+        assertEquals(1, pool.getActiveConnections());
+        assertEquals(0, pool.getIdleConnections());
+        first.close();
+        first.close(); // A second close is a no-op
+        assertEquals(0, pool.getActiveConnections());
+        assertEquals(1, pool.getIdleConnections());
+
+        // The physical connection is reused behind a new handle; the old one stays closed
+        Connection second = pool.getConnection();
+        assertNotSame(first, second);
+        assertEquals(1, pool.getTotalConnections());
+        assertTrue(first.isClosed());
+        assertThrows(SQLException.class, first::createStatement);
+        second.close();
+    }
+
+    @Test
+    void borrowsPastTheMaximumTimeOut() throws Exception {
+        start(0, 2, 200);
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        assertEquals(2, pool.getTotalConnections());
+
+        long start = System.nanoTime();
+        assertThrows(SQLTimeoutException.class, pool::getConnection);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 150);
+        assertEquals(1, pool.getBorrowTimeoutCount());
+        assertEquals(2, pool.getTotalConnections());
+
+        // A returned connection goes to the next borrower without opening another
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        first.close();
+        Connection third = waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(2, pool.getTotalConnections());
+        third.close();
+        second.close();
+    }
+
+    @Test
+    void returnedConnectionsAreReset() throws SQLException {
+        start(1, 1, 1000);
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS pool_rows (id INT)");
+            stmt.execute("DELETE FROM pool_rows");
+        }
+
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            stmt.executeUpdate("INSERT INTO pool_rows VALUES (1)");
+            conn.setReadOnly(true);
+            // Closed without a commit
+        }
+
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM pool_rows")) {
+            assertTrue(conn.getAutoCommit());
+            assertFalse(conn.isReadOnly());
+            rs.next();
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void unwrapNeverExposesThePhysicalConnection() throws SQLException {
+        start(1, 1, 1000);
+        Connection handle = pool.getConnection();
+
+        assertSame(handle, handle.unwrap(Connection.class));
+        assertTrue(handle.isWrapperFor(Connection.class));
+        assertFalse(handle.isWrapperFor(org.h2.jdbc.JdbcConnection.class));
+        assertThrows(SQLException.class, () -> handle.unwrap(org.h2.jdbc.JdbcConnection.class));
+
+        handle.close();
+        assertThrows(SQLException.class, () -> handle.unwrap(Connection.class));
+        assertThrows(SQLException.class, () -> handle.isWrapperFor(Connection.class));
+    }
+
+    @Test
+    void shutdownRefusesBorrowsAndClosesReturnedConnections() throws SQLException {
+        start(1, 2, 1000);
+        Connection borrowed = pool.getConnection();
+        pool.shutdown();
+
+        assertTrue(pool.isClosed());
+        assertThrows(SQLException.class, pool::getConnection);
+        assertEquals(1, pool.getTotalConnections());
+        borrowed.close();
+        assertEquals(0, pool.getTotalConnections());
+        assertEquals(0, pool.getIdleConnections());
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> start(3, 2, 1000));
+        assertThrows(IllegalArgumentException.class, () -> start(0, 0, 1000));
+    }
+}
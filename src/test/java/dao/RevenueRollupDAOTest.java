@@ -0,0 +1,215 @@
+package dao;
+
+import model.MonthlyReport;
+import model.Payment;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static dao.TestDatabase.queryInt;
+import static dao.TestDatabase.queryLong;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevenueRollupDAOTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+
+    private final PaymentDAO paymentDAO = new PaymentDAO();
+    private final RevenueRollupDAO rollup = new RevenueRollupDAO();
+    private static int bookingId;
+
+    @BeforeAll
+    static void createSchema() throws SQLException {
+        // Folded only when a test asks for it
+        System.setProperty("hotel.db.rollup.foldSeconds", "0");
+        TestDatabase.start();
+        TestDatabase.execute("INSERT INTO bookings (guest_id, room_id, check_in_date, check_out_date, total_price, status) " +
+                "VALUES (" + TestDatabase.guestId() + ", " + TestDatabase.roomId() + ", " +
+                "DATE '2024-03-10', DATE '2024-03-12', 200, 'Booked')");
+        bookingId = queryInt("SELECT MAX(id) FROM bookings");
+    }
+
+    @AfterAll
+    static void closePool() {
+        TestDatabase.stop();
+        System.clearProperty("hotel.db.rollup.foldSeconds");
+    }
+
+    @BeforeEach
+    void clearPayments() throws SQLException {
+        TestDatabase.execute("DELETE FROM payments");
+        rollup.rebuild();
+    }
+
+    @Test
+    void paymentsCountBeforeAndAfterFolding() throws SQLException {
+        paymentDAO.savePayment(payment(100, "Cash", DAY.atTime(9, 0)));
+        paymentDAO.savePayment(payment(250, "Credit Card", DAY.atTime(12, 30)));
+        paymentDAO.savePayment(payment(50, "Cash", DAY.plusDays(1).atTime(8, 0)));
+
+        // Not folded yet: the reports read the deltas
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM revenue_daily"));
+        assertTotals();
+
+        assertEquals(3, rollup.fold());
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM revenue_delta"));
+        assertEquals(3, queryLong("SELECT COUNT(*) FROM revenue_daily"));
+        assertTotals();
+        assertEquals(0, rollup.fold());
+    }
+
+    private void assertTotals() throws SQLException {
+        assertEquals(400, rollup.getTotalRevenue(), 1e-9);
+        assertEquals(3, rollup.getPaymentCount());
+        assertEquals(350, rollup.getRevenueBetween(DAY, DAY.plusDays(1)), 1e-9);
+        assertEquals(Map.of("Cash", 150.0, "Credit Card", 250.0), rollup.getRevenueByMethod());
+        assertEquals(Map.of("Cash", 2, "Credit Card", 1), rollup.getPaymentCountByMethod());
+        assertEquals(Map.of("2024-03", 400.0), rollup.getRevenueByMonth());
+    }
+
+    @Test
+    void monthlyReportTakesRevenueFromPaymentsAndStaysFromCheckIns() throws SQLException {
+        // The March stay is paid partly in February and partly in April
+        paymentDAO.savePayment(payment(50, "Cash", DAY.minusMonths(1).atTime(9, 0)));
+        paymentDAO.savePayment(payment(150, "Credit Card", DAY.plusMonths(1).atTime(9, 0)));
+
+        List<MonthlyReport> report = new BookingDAO().getMonthlyReport(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 5, 1));
+        assertEquals(List.of("2024-02", "2024-03", "2024-04"), report.stream().map(MonthlyReport::getMonth).toList());
+
+        assertEquals(50, report.get(0).getRevenue(), 1e-9);
+        assertEquals(0, report.get(0).getBookingCount());
+        MonthlyReport march = report.get(1);
+        assertEquals(0, march.getRevenue(), 1e-9);
+        assertEquals(1, march.getBookingCount());
+        assertEquals(2, march.getNightsSold());
+        assertEquals(200, march.getBookedValue(), 1e-9);
+        assertEquals(100, march.getAverageDailyRate(), 1e-9);
+        assertEquals(150, report.get(2).getRevenue(), 1e-9);
+
+        assertTrue(new BookingDAO().getMonthlyReport(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 7, 1)).isEmpty());
+    }
+
+    @Test
+    void updatesAndDeletesMoveTheirAmounts() throws SQLException {
+        Payment moved = payment(100, "Cash", DAY.atTime(9, 0));
+        paymentDAO.savePayment(moved);
+        Payment deleted = payment(80, "Bank Transfer", DAY.atTime(10, 0));
+        paymentDAO.savePayment(deleted);
+        rollup.fold();
+
+        moved.setAmount(120);
+        moved.setMethod("Credit Card");
+        moved.setPaymentDate(Timestamp.valueOf(DAY.plusDays(2).atTime(9, 0)));
+        paymentDAO.updatePayment(moved);
+        paymentDAO.deletePayment(deleted.getId());
+        rollup.fold();
+
+        assertEquals(Map.of("Credit Card", 120.0), rollup.getRevenueByMethod());
+        assertEquals(List.of(List.of(DAY.plusDays(2).toString(), "Credit Card", "120.0", "1")), dailyRows());
+        assertEquals(dailyRows(), rebuilt());
+    }
+
+    @Test
+    void concurrentPaymentsAndFoldsAddUp() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 6; t++) {
+            int terminal = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    paymentDAO.savePayment(payment(10 + terminal, i % 2 == 0 ? "Cash" : "Credit Card",
+                            DAY.atTime(8, i)));
+                }
+                return null;
+            }));
+        }
+        // Folds racing the payments and each other; a fold that loses is retried
+        for (int t = 0; t < 2; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    try {
+                        rollup.fold();
+                    } catch (SQLException e) {
+                        // Left for the next fold
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        double expected = 50 * (10 + 11 + 12 + 13 + 14 + 15);
+        assertEquals(expected, rollup.getTotalRevenue(), 1e-6);
+        rollup.fold();
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM revenue_delta"));
+        assertEquals(300, rollup.getPaymentCount());
+        assertEquals(expected, rollup.getTotalRevenue(), 1e-6);
+        assertEquals(dailyRows(), rebuilt());
+    }
+
+    @Test
+    void daysAreTheHotelsBusinessDays() throws SQLException {
+        // 14 hours ahead of UTC: 11:00 UTC is already the next day at the hotel
+        ZoneId hotelZone = ZoneId.of("Pacific/Kiritimati");
+        BusinessClock.set(Clock.system(hotelZone));
+        try {
+            Instant paidAt = DAY.atTime(11, 0).toInstant(ZoneOffset.UTC);
+            paymentDAO.savePayment(new Payment(0, bookingId, 75, java.util.Date.from(paidAt), "Cash"));
+            LocalDate hotelDay = paidAt.atZone(hotelZone).toLocalDate();
+
+            assertEquals(75, rollup.getRevenueBetween(hotelDay, hotelDay.plusDays(1)), 1e-9);
+            rollup.fold();
+            assertEquals(List.of(List.of(hotelDay.toString(), "Cash", "75.0", "1")), dailyRows());
+            assertEquals(dailyRows(), rebuilt());
+        } finally {
+            BusinessClock.set(null);
+        }
+    }
+
+    private static Payment payment(double amount, String method, LocalDateTime paidAt) {
+        return new Payment(0, bookingId, amount, Timestamp.valueOf(paidAt), method);
+    }
+
+    private List<List<String>> rebuilt() throws SQLException {
+        rollup.rebuild();
+        return dailyRows();
+    }
+
+    private static List<List<String>> dailyRows() throws SQLException {
+        List<List<String>> rows = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT revenue_date, method, total, payment_count " +
+                     "FROM revenue_daily ORDER BY revenue_date, method")) {
+            while (rs.next()) {
+                rows.add(List.of(rs.getString(1), rs.getString(2), String.valueOf(rs.getDouble(3)), rs.getString(4)));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,129 @@
+package dao;
+
+import model.Room;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomCacheTest {
+
+    private final RoomCache cache = RoomCache.getInstance();
+    private final RoomDAO roomDAO = new RoomDAO();
+
+    @BeforeAll
+    static void createSchema() throws SQLException {
+        TestDatabase.start();
+    }
+
+    @AfterAll
+    static void closePool() {
+        TestDatabase.stop();
+    }
+
+    @BeforeEach
+    void startEmpty() {
+        cache.invalidateAll();
+    }
+
+    @AfterEach
+    void resetTimeToLive() {
+        cache.setTimeToLive(Duration.ZERO);
+    }
+
+    @Test
+    void secondReadIsAHitAndReturnsACopy() throws SQLException {
+        long misses = cache.getMissCount();
+        long hits = cache.getHitCount();
+
+        Room first = cache.getRoomByNumber("101");
+        first.setPrice(1);
+        Room second = cache.getRoomById(first.getId());
+
+        assertEquals(misses + 1, cache.getMissCount());
+        assertEquals(hits + 1, cache.getHitCount());
+        assertEquals(roomDAO.getRoomByNumber("101").getPrice(), second.getPrice());
+    }
+
+    @Test
+    void committedWritesAreSeenWithoutGoingBackToTheDatabase() throws SQLException {
+        cache.getAllRooms();
+        long misses = cache.getMissCount();
+
+        Room room = cache.getRoomByNumber("101");
+        room.setPrice(room.getPrice() + 10);
+        assertTrue(roomDAO.updateRoom(room));
+        assertEquals(room.getPrice(), cache.getRoomByNumber("101").getPrice());
+
+        assertTrue(roomDAO.updateRoomStatus(room.getId(), "Maintenance"));
+        assertEquals("Maintenance", cache.getRoomById(room.getId()).getStatus());
+
+        int added = roomDAO.saveRoom(new Room("cache-1", "Single", 80, "Available"));
+        assertEquals("cache-1", cache.getRoomById(added).getRoomNumber());
+        assertTrue(cache.getAllRooms().stream().anyMatch(r -> r.getId() == added));
+
+        assertTrue(roomDAO.deleteRoom(added));
+        assertNull(cache.getRoomById(added));
+        assertNull(cache.getRoomByNumber("cache-1"));
+
+        assertEquals(misses, cache.getMissCount());
+        roomDAO.updateRoomStatus(room.getId(), "Available");
+    }
+
+    @Test
+    void rolledBackWritesLeaveTheCacheAlone() throws SQLException {
+        Room before = cache.getRoomByNumber("101");
+
+        assertThrows(SQLException.class, () -> UnitOfWork.execute(conn -> {
+            Room changed = roomDAO.getRoomByNumber("101");
+            changed.setPrice(before.getPrice() * 2);
+            roomDAO.updateRoom(changed);
+            roomDAO.updateRoomStatus(changed.getId(), "Maintenance");
+            throw new SQLException("abandon the edit");
+        }));
+
+        Room after = cache.getRoomByNumber("101");
+        assertEquals(before.getPrice(), after.getPrice());
+        assertEquals(before.getStatus(), after.getStatus());
+        assertEquals(before.getPrice(), roomDAO.getRoomByNumber("101").getPrice());
+    }
+
+    @Test
+    void outsideChangesShowAfterInvalidationOrExpiry() throws SQLException {
+        List<Room> rooms = cache.getAllRooms();
+        Room room = rooms.get(0);
+        double price = room.getPrice();
+
+        setPriceBehindTheCache(room.getId(), price + 1);
+        assertEquals(price, cache.getRoomById(room.getId()).getPrice());
+        cache.invalidateAll();
+        assertEquals(price + 1, cache.getRoomById(room.getId()).getPrice());
+
+        cache.setTimeToLive(Duration.ofMillis(1));
+        setPriceBehindTheCache(room.getId(), price);
+        sleep(20);
+        assertEquals(price, cache.getRoomById(room.getId()).getPrice());
+    }
+
+    private static void setPriceBehindTheCache(int roomId, double price) throws SQLException {
+        TestDatabase.execute("UPDATE rooms SET price = " + price + " WHERE id = " + roomId);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
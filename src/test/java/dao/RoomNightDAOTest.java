@@ -0,0 +1,113 @@
+package dao;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static dao.TestDatabase.booking;
+import static dao.TestDatabase.queryInt;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomNightDAOTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 9, 10);
+
+    private final BookingDAO bookingDAO = new BookingDAO();
+
+    @BeforeAll
+    static void createSchema() throws SQLException {
+        TestDatabase.start();
+    }
+
+    @AfterAll
+    static void closePool() {
+        TestDatabase.stop();
+    }
+
+    @BeforeEach
+    void clearBookings() throws SQLException {
+        TestDatabase.clearBookings();
+    }
+
+    @Test
+    void overlappingBookingsRacingForTheSameNightsLetOneThrough() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            // Every stay shares the night of DAY + 2 with all the others
+            LocalDate checkIn = DAY.plusDays(i % 3);
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    bookingDAO.saveBooking(booking(checkIn, DAY.plusDays(3)));
+                    return true;
+                } catch (BookingConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(1, succeeded);
+        assertEquals(1, queryInt("SELECT COUNT(*) FROM bookings"));
+        // The winner holds exactly its own nights and the losers left nothing behind
+        assertEquals(queryInt("SELECT DATEDIFF('DAY', check_in_date, check_out_date) FROM bookings"),
+                queryInt("SELECT COUNT(*) FROM room_nights"));
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM room_nights n " +
+                "WHERE NOT EXISTS (SELECT 1 FROM bookings b WHERE b.id = n.booking_id)"));
+    }
+
+    @Test
+    void checkingInOnAnotherStaysCheckOutDayIsAllowed() throws SQLException {
+        bookingDAO.saveBooking(booking(DAY, DAY.plusDays(2)));
+        bookingDAO.saveBooking(booking(DAY.plusDays(2), DAY.plusDays(4)));
+        // A same-day stay holds one night
+        bookingDAO.saveBooking(booking(DAY.plusDays(4), DAY.plusDays(4)));
+
+        assertThrows(BookingConflictException.class, () -> bookingDAO.saveBooking(booking(DAY.plusDays(1), DAY.plusDays(3))));
+        assertThrows(BookingConflictException.class, () -> bookingDAO.saveBooking(booking(DAY.plusDays(4), DAY.plusDays(5))));
+        assertEquals(3, queryInt("SELECT COUNT(*) FROM bookings"));
+        assertEquals(5, queryInt("SELECT COUNT(*) FROM room_nights"));
+    }
+
+    @Test
+    void cancellingABookingFreesItsNights() throws SQLException {
+        int roomId = TestDatabase.roomId();
+        int first = bookingDAO.saveBooking(booking(DAY, DAY.plusDays(3)));
+        assertTrue(AvailabilityIndex.getInstance().hasConflict(roomId, DAY.plusDays(1), DAY.plusDays(2), 0));
+
+        assertTrue(bookingDAO.updateBookingStatus(first, "Cancelled"));
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM room_nights"));
+        assertFalse(AvailabilityIndex.getInstance().hasConflict(roomId, DAY.plusDays(1), DAY.plusDays(2), 0));
+
+        int second = bookingDAO.saveBooking(booking(DAY.plusDays(1), DAY.plusDays(2)));
+        // Re-activating the cancelled booking now collides with the new one and is rolled back
+        assertThrows(BookingConflictException.class, () -> bookingDAO.updateBookingStatus(first, "Booked"));
+        assertEquals("Cancelled", bookingDAO.getBookingById(first).getStatus());
+        assertEquals(1, queryInt("SELECT COUNT(*) FROM room_nights WHERE booking_id = " + second));
+    }
+}
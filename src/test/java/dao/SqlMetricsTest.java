@@ -0,0 +1,48 @@
+package dao;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlMetricsTest {
+
+    @Test
+    void literalsBecomePlaceholders() {
+        assertEquals("SELECT * FROM rooms WHERE price > ? AND type = ? AND id = -?",
+                SqlMetrics.normalize("SELECT * FROM rooms WHERE price > 120.50 AND type = 'Suite' AND id = -7"));
+        assertEquals("INSERT INTO users (username) VALUES (?)",
+                SqlMetrics.normalize("INSERT INTO users (username) VALUES ('')"));
+    }
+
+    @Test
+    void escapedQuotesStayInsideTheirLiteral() {
+        assertEquals("SELECT id FROM users WHERE fullname = ? AND role = ?",
+                SqlMetrics.normalize("SELECT id FROM users WHERE fullname = 'O''Brien' AND role = 'guest'"));
+        // A literal made of nothing but escaped quotes, and one ending in an escaped quote
+        assertEquals("SELECT ?, ?, ?", SqlMetrics.normalize("SELECT '''', 'it''s', 'ends with '''"));
+    }
+
+    @Test
+    void digitsInsideNamesAreKept() {
+        String sql = "SELECT t1.id, t2.col_3 FROM bookings t1 JOIN idx_2 t2 ON t1.id = t2.booking_id";
+        assertEquals(sql, SqlMetrics.normalize(sql));
+        assertEquals("SELECT \"Room1\", `x2` FROM r$9 WHERE a1 = ?",
+                SqlMetrics.normalize("SELECT \"Room1\", `x2` FROM r$9 WHERE a1 = 12"));
+    }
+
+    @Test
+    void inListsOfAnyLengthShareOneTemplate() {
+        String one = SqlMetrics.normalize("DELETE FROM room_nights WHERE booking_id IN (?)");
+        assertEquals("DELETE FROM room_nights WHERE booking_id IN (?...)", one);
+        assertEquals(one, SqlMetrics.normalize("DELETE FROM room_nights WHERE booking_id IN (?, ?, ?)"));
+        assertEquals(one, SqlMetrics.normalize("DELETE FROM room_nights WHERE booking_id in(1,2 , 3)"));
+        assertEquals("SELECT * FROM bookings WHERE status IN (?...) AND room_id IN (?...)",
+                SqlMetrics.normalize("SELECT * FROM bookings WHERE status IN ('Booked', 'Checked In') AND room_id IN (4)"));
+    }
+
+    @Test
+    void whitespaceIsCollapsed() {
+        assertEquals("SELECT COUNT(*) FROM bookings WHERE status = ?",
+                SqlMetrics.normalize("\n  SELECT COUNT(*)\n\tFROM   bookings\n  WHERE status = ?  \n"));
+    }
+}
@@ -0,0 +1,82 @@
+package dao;
+
+import model.Booking;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+/**
+ * Shared fixture of the tests that use the database: the in-memory H2 database of the
+ * h2 profile with its sample data, and helpers to query and reset it.
+ *
+ * Every test class runs in a fresh JVM (see the surefire configuration), so each one
+ * starts from the sample data. Set any hotel.db.* overrides before {@link #start()}.
+ */
+public final class TestDatabase {
+
+    private static int guestId;
+    private static int roomId;
+
+    private TestDatabase() {
+    }
+
+    // Create the schema and sample data; call from @BeforeAll
+    public static void start() throws SQLException {
+        DatabaseManager.initializeDatabase();
+        guestId = queryInt("SELECT id FROM users WHERE username = 'guest'");
+        roomId = queryInt("SELECT id FROM rooms WHERE room_number = '101'");
+    }
+
+    // Close the connection pool; call from @AfterAll
+    public static void stop() {
+        DatabaseManager.closeConnection();
+    }
+
+    // Id of the sample guest, "guest" (John Doe)
+    public static int guestId() {
+        return guestId;
+    }
+
+    // Id of the sample room "101"
+    public static int roomId() {
+        return roomId;
+    }
+
+    // An unsaved booking of the sample guest in room 101 at 100 per stay
+    public static Booking booking(LocalDate checkIn, LocalDate checkOut) {
+        return new Booking(guestId, roomId, java.sql.Date.valueOf(checkIn), java.sql.Date.valueOf(checkOut), 100);
+    }
+
+    // Delete every booking and its room nights, and reload the availability index to match
+    public static void clearBookings() throws SQLException {
+        execute("DELETE FROM room_nights", "DELETE FROM bookings");
+        AvailabilityIndex.getInstance().load();
+    }
+
+    // Run statements outside any unit of work, each committed on its own
+    public static void execute(String... sql) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String statement : sql) {
+                stmt.execute(statement);
+            }
+        }
+    }
+
+    // First column of the first row of a query, such as a COUNT(*)
+    public static long queryLong(String sql) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    public static int queryInt(String sql) throws SQLException {
+        return Math.toIntExact(queryLong(sql));
+    }
+}
@@ -0,0 +1,82 @@
+package dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeRangeTest {
+
+    // Clocks go forward on 2024-03-31 and back on 2024-10-27
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    @Test
+    void daysAcrossADaylightSavingChangeAreShortOrLong() {
+        assertEquals(Duration.ofHours(24), length(TimeRange.day(LocalDate.of(2024, 3, 30), BERLIN)));
+        assertEquals(Duration.ofHours(23), length(TimeRange.day(LocalDate.of(2024, 3, 31), BERLIN)));
+        assertEquals(Duration.ofHours(25), length(TimeRange.day(LocalDate.of(2024, 10, 27), BERLIN)));
+
+        TimeRange shortDay = TimeRange.day(LocalDate.of(2024, 3, 31), BERLIN);
+        assertEquals(Instant.parse("2024-03-30T23:00:00Z"), shortDay.getStart());
+        assertEquals(Instant.parse("2024-03-31T22:00:00Z"), shortDay.getEnd());
+        assertEquals(LocalDate.of(2024, 3, 31), shortDay.getStartDay());
+        assertEquals(LocalDate.of(2024, 4, 1), shortDay.getEndDay());
+    }
+
+    @Test
+    void monthsAcrossADaylightSavingChangeLoseOrGainAnHour() {
+        assertEquals(Duration.ofHours(31 * 24 - 1), length(TimeRange.month(YearMonth.of(2024, 3), BERLIN)));
+        assertEquals(Duration.ofHours(31 * 24 + 1), length(TimeRange.month(YearMonth.of(2024, 10), BERLIN)));
+        assertEquals(Duration.ofHours(29 * 24), length(TimeRange.month(YearMonth.of(2024, 2), BERLIN)));
+
+        // Adjacent months meet exactly
+        assertEquals(TimeRange.month(YearMonth.of(2024, 3), BERLIN).getEnd(),
+                TimeRange.month(YearMonth.of(2024, 4), BERLIN).getStart());
+        assertEquals(LocalDate.of(2024, 11, 1), TimeRange.month(YearMonth.of(2024, 10), BERLIN).getEndDay());
+    }
+
+    @Test
+    void endDayRoundsUpARangeEndingDuringADay() {
+        Instant start = Instant.parse("2024-06-01T00:00:00Z");
+        assertEquals(LocalDate.of(2024, 6, 2),
+                TimeRange.of(start, Instant.parse("2024-06-02T00:00:00Z"), ZoneOffset.UTC).getEndDay());
+        assertEquals(LocalDate.of(2024, 6, 3),
+                TimeRange.of(start, Instant.parse("2024-06-02T00:00:00.001Z"), ZoneOffset.UTC).getEndDay());
+        assertEquals(LocalDate.of(2024, 6, 3),
+                TimeRange.of(start, Instant.parse("2024-06-02T23:59:59Z"), ZoneOffset.UTC).getEndDay());
+        // An empty range at midnight covers no day
+        TimeRange empty = TimeRange.of(start, start, ZoneOffset.UTC);
+        assertEquals(empty.getStartDay(), empty.getEndDay());
+    }
+
+    @Test
+    void containsTheStartButNotTheEnd() {
+        TimeRange day = TimeRange.day(LocalDate.of(2024, 10, 27), BERLIN);
+
+        assertTrue(day.contains(day.getStart()));
+        assertTrue(day.contains(day.getEnd().minusNanos(1)));
+        assertFalse(day.contains(day.getEnd()));
+        assertFalse(day.contains(day.getStart().minusNanos(1)));
+        // The next day starts where this one ends
+        assertTrue(TimeRange.day(LocalDate.of(2024, 10, 28), BERLIN).contains(day.getEnd()));
+    }
+
+    @Test
+    void rejectsARangeEndingBeforeItStarts() {
+        Instant now = Instant.parse("2024-06-01T12:00:00Z");
+        assertThrows(IllegalArgumentException.class, () -> TimeRange.of(now, now.minusSeconds(1), ZoneOffset.UTC));
+    }
+
+    private static Duration length(TimeRange range) {
+        return Duration.between(range.getStart(), range.getEnd());
+    }
+}
@@ -0,0 +1,130 @@
+package dao;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnitOfWorkTest {
+
+    private final List<String> actions = new ArrayList<>();
+
+    @BeforeAll
+    static void createTable() throws SQLException {
+        TestDatabase.execute("CREATE TABLE IF NOT EXISTS uow_rows (id INT PRIMARY KEY)");
+    }
+
+    @AfterAll
+    static void closePool() {
+        TestDatabase.stop();
+    }
+
+    @BeforeEach
+    void clearRows() throws SQLException {
+        TestDatabase.execute("DELETE FROM uow_rows");
+    }
+
+    @Test
+    void commitsWorkAndThenRunsAfterCommitActions() throws SQLException {
+        int result = UnitOfWork.execute(conn -> {
+            insert(1);
+            insert(2);
+            UnitOfWork.afterCommit(() -> actions.add("committed"));
+            // Not run until the commit
+            assertTrue(actions.isEmpty());
+            return 2;
+        });
+
+        assertEquals(2, result);
+        assertEquals(2, count());
+        assertEquals(List.of("committed"), actions);
+        assertFalse(UnitOfWork.isActive());
+    }
+
+    @Test
+    void rollsBackEverythingWhenTheWorkFails() throws SQLException {
+        assertThrows(SQLException.class, () -> UnitOfWork.execute(conn -> {
+            insert(1);
+            // A nested unit of work joins the outer transaction
+            UnitOfWork.execute(inner -> {
+                insert(2);
+                UnitOfWork.afterCommit(() -> actions.add("inner"));
+                return null;
+            });
+            insert(1); // Duplicate key
+            return null;
+        }));
+
+        assertEquals(0, count());
+        assertTrue(actions.isEmpty());
+        assertFalse(UnitOfWork.isActive());
+    }
+
+    @Test
+    void failedSavepointOnlyDiscardsItsOwnWork() throws SQLException {
+        UnitOfWork.execute(conn -> {
+            insert(1);
+            UnitOfWork.afterCommit(() -> actions.add("outer"));
+
+            assertThrows(SQLException.class, () -> UnitOfWork.savepoint(inner -> {
+                insert(2);
+                UnitOfWork.afterCommit(() -> actions.add("discarded"));
+                insert(1); // Duplicate key
+                return null;
+            }));
+
+            UnitOfWork.savepoint(inner -> {
+                insert(3);
+                UnitOfWork.afterCommit(() -> actions.add("kept"));
+                return null;
+            });
+            return null;
+        });
+
+        assertEquals(2, count());
+        assertEquals(0, count("WHERE id = 2"));
+        assertEquals(List.of("outer", "kept"), actions);
+    }
+
+    @Test
+    void daoConnectionsShareTheTransaction() throws SQLException {
+        UnitOfWork.execute(conn -> {
+            try (Connection dao = DatabaseManager.getConnection()) {
+                assertSame(conn, dao);
+            }
+            // Closing it did not end the transaction, and the transaction stays under UnitOfWork's control
+            assertFalse(conn.isClosed());
+            assertThrows(SQLException.class, conn::commit);
+            assertThrows(SQLException.class, conn::rollback);
+            assertThrows(SQLException.class, () -> conn.setAutoCommit(true));
+            return null;
+        });
+
+        // Outside a unit of work after-commit actions run at once
+        UnitOfWork.afterCommit(() -> actions.add("now"));
+        assertEquals(List.of("now"), actions);
+    }
+
+    private static void insert(int id) throws SQLException {
+        TestDatabase.execute("INSERT INTO uow_rows (id) VALUES (" + id + ")");
+    }
+
+    private static int count() throws SQLException {
+        return count("");
+    }
+
+    private static int count(String where) throws SQLException {
+        return TestDatabase.queryInt("SELECT COUNT(*) FROM uow_rows " + where);
+    }
+}
@@ -0,0 +1,48 @@
+package service;
+
+import dao.TestDatabase;
+import dao.UserDAO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthenticationServiceTest {
+
+    @BeforeAll
+    static void createSchema() throws SQLException {
+        TestDatabase.start();
+    }
+
+    @AfterAll
+    static void closePool() {
+        TestDatabase.stop();
+    }
+
+    @Test
+    void logoutEndsTheSessionOfTheLogin() {
+        SessionRegistry registry = SessionRegistry.getInstance();
+        AuthenticationMXBean metrics = AuthenticationService.getMXBean();
+        AuthenticationService service = new AuthenticationService(new UserDAO());
+        long active = metrics.getActiveSessions();
+        long logouts = metrics.getLogouts();
+
+        AuthenticationService.AuthenticationResult result = service.authenticateUser("guest", "guest123");
+        assertTrue(result.isSuccess());
+        assertNotNull(registry.get(result.getSessionId()));
+        assertEquals(active + 1, metrics.getActiveSessions());
+
+        service.logout();
+        assertNull(registry.get(result.getSessionId()));
+        assertFalse(service.isLoggedIn());
+        assertEquals(active, metrics.getActiveSessions());
+        assertEquals(logouts + 1, metrics.getLogouts());
+    }
+}
@@ -0,0 +1,105 @@
+package service;
+
+import model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionRegistryTest {
+
+    private static final User GUEST = new User("guest", "guest123", "guest", "John Doe");
+
+    @Test
+    void sessionsAreFoundUntilInvalidated() {
+        SessionRegistry registry = new SessionRegistry(TimeUnit.MINUTES.toMillis(30));
+
+        SessionRegistry.Session first = registry.create(GUEST);
+        SessionRegistry.Session second = registry.create(GUEST);
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(43, first.getId().length()); // 32 random bytes, URL-safe Base64
+        assertEquals(2, registry.size());
+
+        assertSame(first, registry.get(first.getId()));
+        assertSame(GUEST, registry.touch(first.getId()).getUser());
+        assertNull(registry.get("unknown"));
+        assertNull(registry.get(null));
+
+        assertSame(first, registry.invalidate(first.getId()));
+        assertNull(registry.get(first.getId()));
+        assertNull(registry.touch(first.getId()));
+        assertNull(registry.invalidate(first.getId()));
+        assertEquals(1, registry.size());
+        assertEquals(0, registry.getExpiredCount());
+    }
+
+    @Test
+    void idleSessionsExpireAndActiveOnesDoNot() throws InterruptedException {
+        SessionRegistry registry = new SessionRegistry(1500);
+        SessionRegistry.Session idle = registry.create(GUEST);
+        SessionRegistry.Session active = registry.create(GUEST);
+
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(500);
+            assertSame(active, registry.touch(active.getId()));
+        }
+
+        // Refused on lookup as soon as its deadline passes
+        assertNull(registry.get(idle.getId()));
+        assertSame(active, registry.get(active.getId()));
+        assertEquals(1, registry.getExpiredCount());
+    }
+
+    @Test
+    void sweeperRemovesExpiredSessionsWithoutALookup() throws InterruptedException {
+        SessionRegistry registry = new SessionRegistry(1000);
+        for (int i = 0; i < 100; i++) {
+            registry.create(GUEST);
+        }
+        assertEquals(100, registry.size());
+
+        // Deadline plus up to one tick to reach the slot and one for the sweep to run
+        long deadline = System.currentTimeMillis() + 5000;
+        while (registry.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(0, registry.size());
+        assertEquals(100, registry.getExpiredCount());
+    }
+
+    @Test
+    void concurrentCreatesGetDistinctSessions() throws Exception {
+        SessionRegistry registry = new SessionRegistry(TimeUnit.MINUTES.toMillis(30));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<String>> ids = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            ids.add(pool.submit(() -> {
+                SessionRegistry.Session session = registry.create(GUEST);
+                registry.touch(session.getId());
+                return session.getId();
+            }));
+        }
+
+        Set<String> distinct = new HashSet<>();
+        for (Future<String> id : ids) {
+            distinct.add(id.get(10, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        assertEquals(2000, distinct.size());
+        assertEquals(2000, registry.size());
+        assertTrue(distinct.stream().allMatch(id -> registry.get(id) != null));
+    }
+}
@@ -0,0 +1,142 @@
+package tools;
+
+import dao.ImportCheckpointDAO;
+import dao.TestDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static dao.TestDatabase.queryInt;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvImportTest {
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void createSchema() throws SQLException {
+        TestDatabase.start();
+    }
+
+    @AfterAll
+    static void closePool() {
+        TestDatabase.stop();
+    }
+
+    @Test
+    void rerunContinuesAfterTheLastCommittedChunk() throws Exception {
+        Path rooms = dir.resolve("rooms.csv");
+        Files.write(rooms, List.of(
+                "room_number,type,price",
+                "imp-1,Single,80",
+                "imp-2,Double,120",
+                "imp-3,Double,-5",
+                "imp-4,Suite,300",
+                "imp-5,Single,85"), StandardCharsets.UTF_8);
+
+        CsvImport.FileResult first = importRooms(rooms, false);
+        assertEquals(5, first.records());
+        assertEquals(4, first.imported());
+        assertEquals(1, first.rejected());
+        assertEquals(0, first.skipped());
+        assertEquals(4, queryInt("SELECT COUNT(*) FROM rooms WHERE room_number LIKE 'imp-%'"));
+
+        ImportCheckpointDAO.Checkpoint checkpoint = checkpointOf(rooms);
+        assertNotNull(checkpoint);
+        assertEquals(5, checkpoint.getRecordsDone());
+        assertEquals(4, checkpoint.getRowsImported());
+        assertEquals(1, checkpoint.getRowsRejected());
+
+        // More records arrive in the same file; only they are read on the next run
+        Files.write(rooms, List.of("imp-6,Suite,310", "imp-7,Single,90"), StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+        CsvImport.FileResult second = importRooms(rooms, false);
+        assertEquals(2, second.records());
+        assertEquals(2, second.imported());
+        assertEquals(0, second.rejected());
+        assertEquals(5, second.skipped());
+        assertEquals(6, queryInt("SELECT COUNT(*) FROM rooms WHERE room_number LIKE 'imp-%'"));
+        assertEquals(7, checkpointOf(rooms).getRecordsDone());
+
+        // The rejections of the first run are kept, with their line numbers
+        List<String> rejected = Files.readAllLines(rooms.resolveSibling("rooms.csv.rejected.csv"));
+        assertEquals(2, rejected.size());
+        assertTrue(rejected.get(1).startsWith("4,price must be positive,"), rejected.get(1));
+    }
+
+    @Test
+    void runCutShortByABrokenRecordResumesOnceItIsFixed() throws Exception {
+        Path rooms = dir.resolve("broken.csv");
+        List<String> lines = List.of(
+                "room_number,type,price",
+                "broken-1,Single,80",
+                "broken-2,Double,120",
+                "broken-3,Suite,300",
+                "broken-4,Single,85",
+                "broken-5,Double,125");
+        Files.write(rooms, lines, StandardCharsets.UTF_8);
+        Files.writeString(rooms, "\"broken-6,Suite,310\n", StandardOpenOption.APPEND);
+
+        assertThrows(IOException.class, () -> importRooms(rooms, false));
+        // The two full chunks read before the error are committed with their checkpoint
+        assertEquals(4, queryInt("SELECT COUNT(*) FROM rooms WHERE room_number LIKE 'broken-%'"));
+        assertEquals(4, checkpointOf(rooms).getRecordsDone());
+
+        Files.write(rooms, lines, StandardCharsets.UTF_8);
+        Files.writeString(rooms, "broken-6,Suite,310\n", StandardOpenOption.APPEND);
+        CsvImport.FileResult resumed = importRooms(rooms, false);
+        assertEquals(4, resumed.skipped());
+        assertEquals(2, resumed.imported());
+        assertEquals(6, queryInt("SELECT COUNT(*) FROM rooms WHERE room_number LIKE 'broken-%'"));
+    }
+
+    @Test
+    void restartReadsTheWholeFileAgain() throws Exception {
+        Path rooms = dir.resolve("again.csv");
+        Files.write(rooms, List.of(
+                "type,price,room_number",
+                "Single,80,again-1",
+                "Double,120,again-2",
+                "Suite,300,again-3"), StandardCharsets.UTF_8);
+
+        assertEquals(3, importRooms(rooms, false).imported());
+        // Nothing left to do without --restart
+        CsvImport.FileResult resumed = importRooms(rooms, false);
+        assertEquals(0, resumed.records());
+        assertEquals(3, resumed.skipped());
+
+        CsvImport.FileResult restarted = importRooms(rooms, true);
+        assertEquals(3, restarted.records());
+        assertEquals(0, restarted.imported());
+        assertEquals(3, restarted.rejected());
+        assertEquals(0, restarted.skipped());
+        assertEquals(3, queryInt("SELECT COUNT(*) FROM rooms WHERE room_number LIKE 'again-%'"));
+        assertEquals(3, checkpointOf(rooms).getRowsRejected());
+    }
+
+    private static CsvImport.FileResult importRooms(Path file, boolean restart)
+            throws IOException, SQLException, InterruptedException {
+        // Two records per chunk, so every run commits several checkpoints
+        List<CsvImport.FileResult> results = new CsvImport(2, 2, restart).importAll(Map.of(CsvImport.Entity.ROOMS, file));
+        assertEquals(1, results.size());
+        return results.get(0);
+    }
+
+    private static ImportCheckpointDAO.Checkpoint checkpointOf(Path file) throws SQLException {
+        return new ImportCheckpointDAO().getCheckpoint("rooms:" + file.toAbsolutePath().normalize());
+    }
+}
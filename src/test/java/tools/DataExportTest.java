@@ -0,0 +1,110 @@
+package tools;
+
+import dao.BookingDAO;
+import dao.PaymentDAO;
+import dao.TestDatabase;
+import model.Payment;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataExportTest {
+
+    private static final PaymentDAO PAYMENT_DAO = new PaymentDAO();
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void createData() throws SQLException {
+        TestDatabase.start();
+        int bookingId = new BookingDAO().saveBooking(
+                TestDatabase.booking(LocalDate.of(2024, 8, 1), LocalDate.of(2024, 8, 3)));
+        PAYMENT_DAO.savePayment(payment(bookingId, 120.5, "Cash", LocalDateTime.of(2024, 8, 1, 9, 15, 42)));
+        PAYMENT_DAO.savePayment(payment(bookingId, 79.5, "Card, ending 42", LocalDateTime.of(2024, 8, 3, 23, 59, 59)));
+        PAYMENT_DAO.savePayment(payment(bookingId, 10, "Bank Transfer", LocalDateTime.of(2024, 8, 4, 0, 0, 0)));
+    }
+
+    @AfterAll
+    static void closePool() {
+        TestDatabase.stop();
+    }
+
+    @Test
+    void exportedPaymentsImportBackUnchanged() throws Exception {
+        List<String> before = paymentRows();
+        Path file = dir.resolve("payments.csv");
+        assertEquals(3, new DataExport().exportPayments(file));
+
+        TestDatabase.execute("DELETE FROM payments");
+        List<CsvImport.FileResult> results = new CsvImport(2, 2, false)
+                .importAll(Map.of(CsvImport.Entity.PAYMENTS, file));
+
+        assertEquals(3, results.get(0).imported());
+        assertEquals(0, results.get(0).rejected());
+        assertEquals(before, paymentRows());
+    }
+
+    @Test
+    void fileNameSelectsFormatAndCompression() throws Exception {
+        DataExport export = new DataExport();
+        for (String name : List.of("bookings.csv", "bookings.csv.gz", "bookings.jsonl", "bookings.JSONL.GZ", "bookings.txt")) {
+            Path file = dir.resolve(name);
+            export.exportBookings(file);
+
+            boolean gzip = name.toLowerCase().endsWith(".gz");
+            boolean json = name.toLowerCase().contains(".jsonl");
+            List<String> lines = readLines(file, gzip);
+            assertEquals(json ? 1 : 2, lines.size(), name);
+            if (json) {
+                assertTrue(lines.get(0).startsWith("{\"id\":"), name);
+            } else {
+                assertTrue(lines.get(0).startsWith("id,guest_id,"), name);
+            }
+        }
+
+        assertEquals(DataExport.Format.JSON_LINES, DataExport.Format.of(Path.of("x.json.gz")));
+        assertEquals(DataExport.Format.CSV, DataExport.Format.of(Path.of("x.jsonl.csv")));
+        assertEquals(DataExport.Format.CSV, DataExport.Format.of(Path.of("x.gz")));
+    }
+
+    private static Payment payment(int bookingId, double amount, String method, LocalDateTime paidAt) {
+        return new Payment(0, bookingId, amount, Timestamp.valueOf(paidAt), method);
+    }
+
+    // Payments as booking, amount, method and time, in id order
+    private static List<String> paymentRows() throws SQLException {
+        return PAYMENT_DAO.getAllPayments().stream()
+                .sorted((a, b) -> Integer.compare(a.getId(), b.getId()))
+                .map(p -> p.getBookingId() + "|" + p.getAmount() + "|" + p.getMethod() + "|" +
+                        new Timestamp(p.getPaymentDate().getTime()).toLocalDateTime())
+                .toList();
+    }
+
+    private static List<String> readLines(Path file, boolean gzip) throws IOException {
+        try (InputStream raw = Files.newInputStream(file);
+             InputStream in = gzip ? new GZIPInputStream(raw) : raw;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package tools;
+
+import dao.TestDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static dao.TestDatabase.queryLong;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatasetGeneratorTest {
+
+    @BeforeAll
+    static void createSchema() throws SQLException {
+        TestDatabase.start();
+    }
+
+    @AfterAll
+    static void closePool() {
+        TestDatabase.stop();
+    }
+
+    @Test
+    void writesEveryRowOfASmallDataset() throws SQLException {
+        long users = queryLong("SELECT COUNT(*) FROM users");
+        long rooms = queryLong("SELECT COUNT(*) FROM rooms");
+        long bookings = queryLong("SELECT COUNT(*) FROM bookings");
+        long payments = queryLong("SELECT COUNT(*) FROM payments");
+        long nights = queryLong("SELECT COUNT(*) FROM room_nights");
+
+        // A batch size that does not divide the row counts leaves a partial last batch
+        DatasetGenerator.Spec spec = DatasetGenerator.Spec.defaults()
+                .withRooms(20)
+                .withGuests(150)
+                .withBookings(500)
+                .asOf(LocalDate.of(2024, 6, 1))
+                .withFutureDays(30)
+                .withThreads(4)
+                .withBatchSize(37);
+        DatasetGenerator.Summary summary = new DatasetGenerator(spec).generate();
+
+        assertEquals(150, queryLong("SELECT COUNT(*) FROM users") - users);
+        assertEquals(20, queryLong("SELECT COUNT(*) FROM rooms") - rooms);
+        assertEquals(500, queryLong("SELECT COUNT(*) FROM bookings") - bookings);
+        assertEquals(500, queryLong("SELECT COUNT(*) FROM payments") - payments);
+        assertEquals(500, summary.bookings());
+        assertEquals(500, summary.payments());
+
+        long nightsWritten = queryLong("SELECT COUNT(*) FROM room_nights") - nights;
+        assertTrue(nightsWritten > 0);
+        assertEquals(summary.roomNights(), nightsWritten);
+        // Active bookings hold exactly their nights
+        assertEquals(nightsWritten, queryLong("SELECT COALESCE(SUM(DATEDIFF('DAY', check_in_date, check_out_date)), 0) " +
+                "FROM bookings WHERE status IN ('Booked', 'Checked In') AND room_id IN " +
+                "(SELECT id FROM rooms WHERE room_number LIKE 'R%')"));
+    }
+}
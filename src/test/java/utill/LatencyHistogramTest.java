@@ -0,0 +1,103 @@
+package utill;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    private static final long MAX_VALUE = (1L << 44) - 1;
+
+    @Test
+    void valuesBelow128AreExact() {
+        for (long value = 0; value < 128; value++) {
+            assertEquals(value, percentileOf(value, 50));
+        }
+    }
+
+    @Test
+    void bucketsWidenFrom128() {
+        // 128 and 129 share a bucket, reported as its upper bound
+        assertEquals(129, percentileOf(128, 50));
+        assertEquals(129, percentileOf(129, 50));
+        assertEquals(131, percentileOf(130, 50));
+        // Each power of two has 64 buckets: 255 ends one, 256 starts the next, twice as wide
+        assertEquals(255, percentileOf(254, 50));
+        assertEquals(259, percentileOf(256, 50));
+    }
+
+    @Test
+    void valuesPastTheLastBucketAreClamped() {
+        assertEquals(MAX_VALUE, percentileOf(MAX_VALUE, 50));
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(MAX_VALUE - 1);
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5);
+        assertEquals(MAX_VALUE, histogram.getMaxNanos());
+        assertEquals(MAX_VALUE, histogram.getValueAtPercentile(100));
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(3, histogram.getCount());
+    }
+
+    @Test
+    void percentilesAreWithinTheBucketError() {
+        SplittableRandom random = new SplittableRandom(7);
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Spread over 1 us to 1 s, as SQL latencies are
+            values[i] = (long) Math.pow(10, 3 + random.nextDouble() * 6);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[]{1, 50, 90, 99, 99.9, 100}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertTrue(reported >= exact, percentile + ": " + reported + " < " + exact);
+            assertTrue(reported <= exact + exact / 64, percentile + ": " + reported + " too far above " + exact);
+        }
+        assertEquals(values[values.length - 1], histogram.getMaxNanos());
+        assertEquals(Arrays.stream(values).average().orElseThrow(), histogram.getMeanNanos(), 1e-6);
+    }
+
+    @Test
+    void addingAndResetting() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(20);
+        second.record(30);
+
+        first.add(second);
+        assertEquals(3, first.getCount());
+        assertEquals(30, first.getMaxNanos());
+        assertEquals(20, first.getValueAtPercentile(50));
+
+        first.reset();
+        assertEquals(0, first.getCount());
+        assertEquals(0, first.getValueAtPercentile(99));
+        assertEquals(0.0, first.getMeanNanos());
+    }
+
+    @Test
+    void formatsWithThreeSignificantDigits() {
+        assertEquals("850ns", LatencyHistogram.format(850));
+        assertEquals("1.50us", LatencyHistogram.format(1_500));
+        assertEquals("12.3ms", LatencyHistogram.format(12_340_000));
+        assertEquals("1.05s", LatencyHistogram.format(1_050_000_000));
+    }
+
+    // Percentile of a histogram holding the value and one far larger, so the max does not cap it
+    private static long percentileOf(long value, double percentile) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(value);
+        histogram.record(MAX_VALUE);
+        return histogram.getValueAtPercentile(percentile);
+    }
+}